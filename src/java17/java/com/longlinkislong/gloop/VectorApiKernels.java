@@ -0,0 +1,1510 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import com.longlinkislong.gloop.VectorArrays.Conditional;
+import static java.lang.Math.abs;
+import static java.lang.Math.sqrt;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ArrayKernels backed by the incubating Java Vector API. This class only
+ * exists in the JDK 17 layer of the multi-release jar and is only loaded when
+ * the jdk.incubator.vector module is present; VectorArrays falls back to its
+ * scalar loops otherwise. Each kernel runs over
+ * the preferred species and finishes the remainder with the scalar loop.
+ * Conditional kernels evaluate the Conditional once per lane and store through
+ * a mask.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class VectorApiKernels implements ArrayKernels {
+
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    // float species with one lane per double lane, used to widen floats to D
+    private static final VectorSpecies<Float> FD = VectorSpecies.of(
+            float.class, VectorShape.forBitSize(D.vectorBitSize() / 2));
+
+    VectorApiKernels() {
+        // a single lane is no faster than the scalar loop
+        if (D.length() < 2) {
+            throw new IllegalStateException("Vector API has fewer than two double lanes; using scalar kernels!");
+        }
+    }
+
+    private static <E> VectorMask<E> mask(
+            final VectorSpecies<E> species,
+            final boolean[] lanes, final int offset,
+            final Conditional cnd) {
+
+        for (int j = 0; j < lanes.length; j++) {
+            lanes[j] = cnd.test(offset + j);
+        }
+
+        return VectorMask.fromArray(species, lanes, 0);
+    }
+
+    @Override
+    public void arraySetF(
+            final float[] out, final int outOffset,
+            final float value,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.broadcast(F, value)
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[i + outOffset] = value;
+        }
+    }
+
+    @Override
+    public void arraySetFCnd(
+            final float[] out, final int outOffset,
+            final float value,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.broadcast(F, value)
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = value;
+            }
+        }
+    }
+
+    @Override
+    public void arraySetD(
+            final double[] out, final int outOffset,
+            final double value,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.broadcast(D, value)
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[i + outOffset] = value;
+        }
+    }
+
+    @Override
+    public void arraySetDCnd(
+            final double[] out, final int outOffset,
+            final double value,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.broadcast(D, value)
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = value;
+            }
+        }
+    }
+
+    @Override
+    public void arrayAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .add(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayAddFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .add(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .add(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayAddDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .add(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arraySubtractF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .sub(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arraySubtractFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .sub(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arraySubtractD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .sub(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arraySubtractDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .sub(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayMultiplyF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayMultiplyFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayMultiplyD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayMultiplyDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayDivideF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .div(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayDivideFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .div(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayDivideD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .div(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayDivideDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .div(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arraySqrtF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .sqrt()
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = (float) sqrt(in0[in0Offset + i]);
+        }
+    }
+
+    @Override
+    public void arraySqrtFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .sqrt()
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) sqrt(in0[in0Offset + i]);
+            }
+        }
+    }
+
+    @Override
+    public void arraySqrtD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .sqrt()
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = sqrt(in0[in0Offset + i]);
+        }
+    }
+
+    @Override
+    public void arraySqrtDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .sqrt()
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = sqrt(in0[in0Offset + i]);
+            }
+        }
+    }
+
+    @Override
+    public void arrayAbsF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .abs()
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[i + outOffset] = abs(in0[i + in0Offset]);
+        }
+    }
+
+    @Override
+    public void arrayAbsFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .abs()
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[i + outOffset] = abs(in0[i + in0Offset]);
+            }
+        }
+    }
+
+    @Override
+    public void arrayAbsD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .abs()
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = abs(in0[in0Offset + i]);
+        }
+    }
+
+    @Override
+    public void arrayAbsDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .abs()
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[i + outOffset] = abs(in0[i + in0Offset]);
+            }
+        }
+    }
+
+    @Override
+    public void arrayMultiplyAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .add(FloatVector.fromArray(F, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayMultiplyAddFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .add(FloatVector.fromArray(F, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayMultiplyAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .add(DoubleVector.fromArray(D, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayMultiplyAddDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .add(DoubleVector.fromArray(D, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayFusedMultiplyAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .fma(FloatVector.fromArray(F, in1, in1Offset + i), FloatVector.fromArray(F, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = Math.fma(in0[in0Offset + i], in1[in1Offset + i], in2[in2Offset + i]);
+        }
+    }
+
+    @Override
+    public void arrayFusedMultiplyAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .fma(DoubleVector.fromArray(D, in1, in1Offset + i), DoubleVector.fromArray(D, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = Math.fma(in0[in0Offset + i], in1[in1Offset + i], in2[in2Offset + i]);
+        }
+    }
+
+    @Override
+    public void arrayMultiplySubtractF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .sub(FloatVector.fromArray(F, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayMultiplySubtractFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(FloatVector.fromArray(F, in1, in1Offset + i))
+                    .sub(FloatVector.fromArray(F, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayMultiplySubtractD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .sub(DoubleVector.fromArray(D, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayMultiplySubtractDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(DoubleVector.fromArray(D, in1, in1Offset + i))
+                    .sub(DoubleVector.fromArray(D, in2, in2Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayNegateF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .neg()
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = -in0[in0Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayNegateFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .neg()
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = -in0[in0Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayNegateD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .neg()
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = -in0[in0Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayNegateDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .neg()
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = -in0[in0Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayScaleF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float scale,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(scale)
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * scale;
+        }
+    }
+
+    @Override
+    public void arrayScaleFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float scale,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .mul(scale)
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * scale;
+            }
+        }
+    }
+
+    @Override
+    public void arrayScaleD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double scale,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(scale)
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] * scale;
+        }
+    }
+
+    @Override
+    public void arrayScaleDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double scale,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .mul(scale)
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * scale;
+            }
+        }
+    }
+
+    @Override
+    public void arrayAddConstantF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float constant,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .add(constant)
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] + constant;
+        }
+    }
+
+    @Override
+    public void arrayAddConstantFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float constant,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.fromArray(F, in0, in0Offset + i)
+                    .add(constant)
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + constant;
+            }
+        }
+    }
+
+    @Override
+    public void arrayAddConstantD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double constant,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .add(constant)
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = in0[in0Offset + i] + constant;
+        }
+    }
+
+    @Override
+    public void arrayAddConstantDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double constant,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.fromArray(D, in0, in0Offset + i)
+                    .add(constant)
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + constant;
+            }
+        }
+    }
+
+    @Override
+    public void arrayReciprocalF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.broadcast(F, 1.0f)
+                    .div(FloatVector.fromArray(F, in0, in0Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = 1.0f / in0[in0Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayReciprocalFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[F.length()];
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            final VectorMask<Float> mask = mask(F, lanes, i, cnd);
+
+            FloatVector.broadcast(F, 1.0f)
+                    .div(FloatVector.fromArray(F, in0, in0Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = 1.0f / in0[in0Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayReciprocalD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.broadcast(D, 1.0)
+                    .div(DoubleVector.fromArray(D, in0, in0Offset + i))
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = 1.0 / in0[in0Offset + i];
+        }
+    }
+
+    @Override
+    public void arrayReciprocalDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.broadcast(D, 1.0)
+                    .div(DoubleVector.fromArray(D, in0, in0Offset + i))
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = 1.0 / in0[in0Offset + i];
+            }
+        }
+    }
+
+    @Override
+    public void arrayInverseSqrtF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            FloatVector.broadcast(F, 1.0f)
+                    .div(FloatVector.fromArray(F, in0, in0Offset + i).sqrt())
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = 1.0f / (float) sqrt(in0[in0Offset + i]);
+        }
+    }
+
+    @Override
+    public void arrayInverseSqrtFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        // the scalar path divides in double before narrowing, so the lanes are
+        // widened to double to produce bit identical results.
+        final boolean[] lanes = new boolean[FD.length()];
+        final int bound = FD.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += FD.length()) {
+            final VectorMask<Float> mask = mask(FD, lanes, i, cnd);
+            final DoubleVector v = (DoubleVector) FloatVector.fromArray(FD, in0, in0Offset + i)
+                    .convertShape(VectorOperators.F2D, D, 0);
+
+            final FloatVector r = (FloatVector) DoubleVector.broadcast(D, 1.0)
+                    .div(v.sqrt())
+                    .convertShape(VectorOperators.D2F, FD, 0);
+
+            r.intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) (1.0 / sqrt(in0[in0Offset + i]));
+            }
+        }
+    }
+
+    @Override
+    public void arrayInverseSqrtD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            DoubleVector.broadcast(D, 1.0)
+                    .div(DoubleVector.fromArray(D, in0, in0Offset + i).sqrt())
+                    .intoArray(out, outOffset + i);
+        }
+
+        for (; i < count; i++) {
+            out[outOffset + i] = 1.0 / sqrt(in0[in0Offset + i]);
+        }
+    }
+
+    @Override
+    public void arrayInverseSqrtDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd) {
+
+        final boolean[] lanes = new boolean[D.length()];
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            final VectorMask<Double> mask = mask(D, lanes, i, cnd);
+
+            DoubleVector.broadcast(D, 1.0)
+                    .div(DoubleVector.fromArray(D, in0, in0Offset + i).sqrt())
+                    .intoArray(out, outOffset + i, mask);
+        }
+
+        for (; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = 1.0 / sqrt(in0[in0Offset + i]);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc} The lanes are accumulated separately and reduced at the
+     * end, so the result may differ from the scalar sum in the last bits.
+     */
+    @Override
+    public float arraySumF(
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        FloatVector accum = FloatVector.zero(F);
+        final int bound = F.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += F.length()) {
+            accum = accum.add(FloatVector.fromArray(F, in0, in0Offset + i));
+        }
+
+        float sum = accum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < count; i++) {
+            sum += in0[in0Offset + i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * {@inheritDoc} The lanes are accumulated separately and reduced at the
+     * end, so the result may differ from the scalar sum in the last bits.
+     */
+    @Override
+    public double arraySumD(
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        DoubleVector accum = DoubleVector.zero(D);
+        final int bound = D.loopBound(count);
+        int i = 0;
+
+        for (; i < bound; i += D.length()) {
+            accum = accum.add(DoubleVector.fromArray(D, in0, in0Offset + i));
+        }
+
+        double sum = accum.reduceLanes(VectorOperators.ADD);
+
+        for (; i < count; i++) {
+            sum += in0[in0Offset + i];
+        }
+
+        return sum;
+    }
+}
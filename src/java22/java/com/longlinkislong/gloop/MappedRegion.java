@@ -0,0 +1,94 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * JDK 22+ implementation of MappedRegion. The file is mapped into a shared
+ * Arena so closing the region unmaps it immediately; any buffer obtained from
+ * the region throws IllegalStateException once that happens.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class MappedRegion implements AutoCloseable {
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final ByteBuffer buffer;
+
+    private MappedRegion(final Arena arena, final MemorySegment segment) {
+        this.arena = arena;
+        this.segment = segment;
+        this.buffer = segment.asByteBuffer();
+    }
+
+    static MappedRegion map(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position, final long size) throws IOException {
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped region cannot be larger than 2GB!");
+        }
+
+        final Arena arena = Arena.ofShared();
+
+        try {
+            return new MappedRegion(arena, channel.map(mode, position, size, arena));
+        } catch (IOException | RuntimeException ex) {
+            arena.close();
+            throw ex;
+        }
+    }
+
+    ByteBuffer buffer() {
+        if (!this.segment.scope().isAlive()) {
+            throw new IllegalStateException("Mapped region is closed!");
+        }
+
+        return this.buffer;
+    }
+
+    void force() {
+        if (!this.segment.scope().isAlive()) {
+            throw new IllegalStateException("Mapped region is closed!");
+        }
+
+        this.segment.force();
+    }
+
+    @Override
+    public void close() {
+        if (this.segment.scope().isAlive()) {
+            this.arena.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * JDK 9+ implementation of Intrinsics. Math.fma is intrinsified on hardware
+ * with FMA units and the buffer writes go through byte buffer view VarHandles,
+ * which skip the per-call byte order checks of ByteBuffer.putFloat.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class Intrinsics {
+
+    private static final VarHandle FLOAT_LE = MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle FLOAT_BE = MethodHandles.byteBufferViewVarHandle(float[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle DOUBLE_LE = MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle DOUBLE_BE = MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.BIG_ENDIAN);
+
+    private Intrinsics() {
+    }
+
+    static double fma(final double a, final double b, final double c) {
+        return Math.fma(a, b, c);
+    }
+
+    static float fma(final float a, final float b, final float c) {
+        return Math.fma(a, b, c);
+    }
+
+    static void putFloats(
+            final ByteBuffer out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        final VarHandle vh = out.order() == ByteOrder.LITTLE_ENDIAN ? FLOAT_LE : FLOAT_BE;
+
+        for (int i = 0; i < count; i++) {
+            vh.set(out, outOffset + i * Float.BYTES, in0[in0Offset + i]);
+        }
+    }
+
+    static void putDoubles(
+            final ByteBuffer out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        final VarHandle vh = out.order() == ByteOrder.LITTLE_ENDIAN ? DOUBLE_LE : DOUBLE_BE;
+
+        for (int i = 0; i < count; i++) {
+            vh.set(out, outOffset + i * Double.BYTES, in0[in0Offset + i]);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures snapshotting a vector batch with BatchIO against a plain copy of
+ * the same number of bytes.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchIOBenchmark {
+
+    @Param({"65536", "1048576"})
+    public int size;
+
+    private GLVec4Array vecs;
+    private double[] copy;
+    private WritableByteChannel sink;
+
+    @Setup
+    public void setup() {
+        this.vecs = new GLVec4Array(this.size);
+        this.copy = new double[this.size * 4];
+        this.sink = new WritableByteChannel() {
+            @Override
+            public int write(final ByteBuffer src) {
+                final int n = src.remaining();
+
+                src.position(src.limit());
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        for (int i = 0; i < this.size; i++) {
+            this.vecs.x[i] = i;
+            this.vecs.w[i] = 1.0;
+        }
+    }
+
+    @Benchmark
+    public double[] arraycopy() {
+        System.arraycopy(this.vecs.x, 0, this.copy, 0, this.size);
+        System.arraycopy(this.vecs.y, 0, this.copy, this.size, this.size);
+        System.arraycopy(this.vecs.z, 0, this.copy, 2 * this.size, this.size);
+        System.arraycopy(this.vecs.w, 0, this.copy, 3 * this.size, this.size);
+        return this.copy;
+    }
+
+    @Benchmark
+    public WritableByteChannel writePlanar() throws IOException {
+        BatchIO.write(this.sink, this.vecs, BufferWriter.Layout.PLANAR);
+        return this.sink;
+    }
+
+    @Benchmark
+    public WritableByteChannel writeInterleaved() throws IOException {
+        BatchIO.write(this.sink, this.vecs, BufferWriter.Layout.INTERLEAVED);
+        return this.sink;
+    }
+}
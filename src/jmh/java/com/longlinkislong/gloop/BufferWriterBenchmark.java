@@ -0,0 +1,131 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares uploading vectors one at a time with copyToBuffer against the bulk
+ * writers in BufferWriter.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferWriterBenchmark {
+
+    @Param({"1024", "65536"})
+    public int size;
+
+    private GLVec4F[] vecs;
+    private GLVec4FArray batch;
+    private GLVec4Array batchD;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        this.vecs = new GLVec4F[this.size];
+        this.batch = new GLVec4FArray(this.size);
+        this.batchD = new GLVec4Array(this.size);
+        this.buffer = BufferWriter.allocate(this.size * 4 * Float.BYTES);
+
+        for (int i = 0; i < this.size; i++) {
+            this.vecs[i] = GLVec4F.create(i, -i, 0.5f * i, 1f);
+            this.batch.set(i, this.vecs[i]);
+            this.batchD.x[i] = i;
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer copyToBuffer() {
+        this.buffer.clear();
+
+        for (GLVec4F vec : this.vecs) {
+            vec.copyToBuffer(this.buffer);
+        }
+
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeVectors() {
+        BufferWriter.writeVectorsF(this.buffer, 0, this.vecs, 0, this.size, BufferWriter.Layout.INTERLEAVED);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBatchInterleaved() {
+        BufferWriter.writeF(this.buffer, 0, this.batch, 0, this.size, BufferWriter.Layout.INTERLEAVED);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBatchPlanar() {
+        BufferWriter.writeF(this.buffer, 0, this.batch, 0, this.size, BufferWriter.Layout.PLANAR);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBatchDownConvert() {
+        BufferWriter.writeF(this.buffer, 0, this.batchD, 0, this.size, BufferWriter.Layout.INTERLEAVED);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBatchHalf() {
+        BufferWriter.writePacked(this.buffer, 0, this.batch, 0, this.size, Packing.Format.HALF, BufferWriter.Layout.INTERLEAVED);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBatchSnorm8() {
+        BufferWriter.writePacked(this.buffer, 0, this.batch, 0, this.size, Packing.Format.SNORM8, BufferWriter.Layout.INTERLEAVED);
+        return this.buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer writeBatch1010102() {
+        BufferWriter.write1010102(this.buffer, 0, this.batch, 0, this.size, true);
+        return this.buffer;
+    }
+}
@@ -0,0 +1,122 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares batched solves of many small systems against solving each one
+ * through a GLMatND.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LinearSolversBenchmark {
+
+    private static final int SIZE = 6;
+    private static final int COUNT = 4096;
+
+    @Param({"LU", "CHOLESKY", "QR"})
+    public LinearSolvers.Method method;
+
+    private double[] a;
+    private double[] b;
+    private double[] aWork;
+    private double[] bWork;
+    private GLMatND[] mats;
+    private GLVecND[] vecs;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5EED);
+
+        this.a = new double[COUNT * SIZE * SIZE];
+        this.b = new double[COUNT * SIZE];
+        this.aWork = new double[this.a.length];
+        this.bWork = new double[this.b.length];
+        this.mats = new GLMatND[COUNT];
+        this.vecs = new GLVecND[COUNT];
+
+        for (int s = 0; s < COUNT; s++) {
+            final int off = s * SIZE * SIZE;
+
+            // diagonally dominant and symmetric so every method applies
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c <= r; c++) {
+                    final double v = r == c ? SIZE + random.nextDouble() : random.nextDouble() - 0.5;
+
+                    this.a[off + c * SIZE + r] = v;
+                    this.a[off + r * SIZE + c] = v;
+                }
+            }
+
+            for (int i = 0; i < SIZE; i++) {
+                this.b[s * SIZE + i] = random.nextDouble();
+            }
+
+            this.mats[s] = GLMatND.create(SIZE).asStaticMat();
+            System.arraycopy(this.a, off, this.mats[s].data(), this.mats[s].offset(), SIZE * SIZE);
+            this.vecs[s] = GLVecND.create(SIZE, this.b, s * SIZE, SIZE).asStaticVec();
+        }
+    }
+
+    @Benchmark
+    public double[] solveBatch() {
+        System.arraycopy(this.a, 0, this.aWork, 0, this.a.length);
+        System.arraycopy(this.b, 0, this.bWork, 0, this.b.length);
+        LinearSolvers.solveBatchD(this.method, this.aWork, 0, this.bWork, 0, SIZE, COUNT);
+        return this.bWork;
+    }
+
+    @Benchmark
+    public GLVecND solveEach() {
+        GLVecND out = null;
+
+        for (int s = 0; s < COUNT; s++) {
+            out = this.mats[s].factorize(this.method).solve(this.vecs[s]);
+        }
+
+        return out;
+    }
+}
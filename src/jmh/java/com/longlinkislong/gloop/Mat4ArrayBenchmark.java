@@ -0,0 +1,188 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the batched GLMat4Array kernels against transforming one GLMat4D
+ * at a time.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Mat4ArrayBenchmark {
+
+    @Param({"1024", "65536"})
+    public int size;
+
+    private GLMat4D[] mats;
+    private GLMat4Array matArray;
+    private GLMat4Array outMats;
+    private GLVec4Array vecs;
+    private GLVec4Array outVecs;
+    private double[] planar;
+    private double[] outPlanar;
+    private boolean[] singular;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5EED);
+
+        this.mats = new GLMat4D[this.size];
+        this.matArray = new GLMat4Array(this.size);
+        this.outMats = new GLMat4Array(this.size);
+        this.vecs = new GLVec4Array(this.size);
+        this.outVecs = new GLVec4Array(this.size);
+
+        for (int i = 0; i < this.size; i++) {
+            this.mats[i] = GLMat4D.translation(random.nextDouble(), random.nextDouble(), random.nextDouble())
+                    .multiply(GLMat4D.rotateY(random.nextDouble()))
+                    .asStaticMat();
+
+            this.matArray.set(i, this.mats[i]);
+            this.vecs.x[i] = random.nextDouble();
+            this.vecs.y[i] = random.nextDouble();
+            this.vecs.z[i] = random.nextDouble();
+            this.vecs.w[i] = 1.0;
+        }
+
+        this.planar = new double[16 * this.size];
+        this.outPlanar = new double[16 * this.size];
+        this.singular = new boolean[this.size];
+        MatrixArrays.planar4D(this.planar, 0, this.size, this.matArray.data, 0, this.size);
+    }
+
+    @Benchmark
+    public GLVec4Array transformPerObject() {
+        for (int i = 0; i < this.size; i++) {
+            final GLVec4D v = this.mats[i].multiply(this.vecs.get(i));
+
+            this.outVecs.x[i] = v.x();
+            this.outVecs.y[i] = v.y();
+            this.outVecs.z[i] = v.z();
+            this.outVecs.w[i] = v.w();
+        }
+
+        return this.outVecs;
+    }
+
+    @Benchmark
+    public GLVec4Array transformBatch() {
+        return this.matArray.transform(this.outVecs, this.vecs);
+    }
+
+    @Benchmark
+    public GLMat4Array inversePerObject() {
+        for (int i = 0; i < this.size; i++) {
+            this.outMats.set(i, this.mats[i].inverse());
+        }
+
+        return this.outMats;
+    }
+
+    @Benchmark
+    public GLMat4Array inverseBatch() {
+        return this.matArray.inverse(this.outMats);
+    }
+
+    @Benchmark
+    public GLMat4Array multiplyBatch() {
+        return this.matArray.multiply(this.outMats, this.matArray);
+    }
+
+    @Benchmark
+    public GLMat4Array inverseKernelGeneral() {
+        final double[] tmp = new double[12];
+        final double[] src = new double[16];
+
+        for (int i = 0; i < this.size; i++) {
+            Matrices.inverse4D(this.outMats.data, i * 16, this.matArray.data, i * 16, tmp, src);
+        }
+
+        return this.outMats;
+    }
+
+    @Benchmark
+    public GLMat4Array inverseKernelAffine() {
+        for (int i = 0; i < this.size; i++) {
+            Matrices.inverseAffine4D(this.outMats.data, i * 16, this.matArray.data, i * 16);
+        }
+
+        return this.outMats;
+    }
+
+    @Benchmark
+    public GLMat4Array inverseKernelRigid() {
+        for (int i = 0; i < this.size; i++) {
+            Matrices.inverseRigid4D(this.outMats.data, i * 16, this.matArray.data, i * 16);
+        }
+
+        return this.outMats;
+    }
+
+    @Benchmark
+    public GLMat4Array multiplyKernelGeneral() {
+        for (int i = 0; i < this.size; i++) {
+            Matrices.multiplyMat4D(this.outMats.data, i * 16, this.matArray.data, i * 16, this.matArray.data, i * 16);
+        }
+
+        return this.outMats;
+    }
+
+    @Benchmark
+    public GLMat4Array multiplyKernelAffine() {
+        for (int i = 0; i < this.size; i++) {
+            Matrices.multiplyAffine4D(this.outMats.data, i * 16, this.matArray.data, i * 16, this.matArray.data, i * 16);
+        }
+
+        return this.outMats;
+    }
+
+    @Benchmark
+    public double[] inversePlanar() {
+        MatrixArrays.inverse4D(this.outPlanar, 0, this.planar, 0, this.size, this.size, this.singular, 0);
+        return this.outPlanar;
+    }
+}
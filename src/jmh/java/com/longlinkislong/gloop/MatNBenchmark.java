@@ -0,0 +1,105 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the blocked NxN multiply against the triple loop it replaced.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatNBenchmark {
+
+    @Param({"64", "256", "512"})
+    public int size;
+
+    private double[] a;
+    private double[] b;
+    private double[] out;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5EED);
+
+        this.a = new double[this.size * this.size];
+        this.b = new double[this.size * this.size];
+        this.out = new double[this.size * this.size];
+
+        for (int i = 0; i < this.a.length; i++) {
+            this.a[i] = random.nextDouble();
+            this.b[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double[] multiplyNaive() {
+        final int n = this.size;
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                this.out[j * n + i] = 0;
+
+                for (int k = 0; k < n; k++) {
+                    this.out[j * n + i] += this.a[j * n + k] * this.b[k * n + i];
+                }
+            }
+        }
+
+        return this.out;
+    }
+
+    @Benchmark
+    public double[] multiplyBlocked() {
+        Matrices.multiplyMatND(this.out, 0, this.a, 0, this.b, 0, this.size);
+        return this.out;
+    }
+
+    @Benchmark
+    public double[] multiplyTransposed() {
+        Matrices.multiplyMatTransposedND(this.out, 0, this.a, 0, this.b, 0, this.size);
+        return this.out;
+    }
+}
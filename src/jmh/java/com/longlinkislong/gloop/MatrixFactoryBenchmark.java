@@ -0,0 +1,122 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the per-frame transform path (translation, multiply and vector
+ * transform) against each of the MatrixFactory implementations. Run with the
+ * gc profiler to compare allocation rates between the factories.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatrixFactoryBenchmark {
+
+    @Param({"static", "cyclical", "threadsafe", "smart", "smartFast"})
+    public String factory;
+
+    private MatrixFactory matrixFactory;
+    private final double[] translation0 = new double[16];
+    private final double[] translation1 = new double[16];
+    private final double[] point = {1.0, 2.0, 3.0, 1.0};
+
+    @Setup
+    public void setup() {
+        switch (this.factory) {
+            case "static":
+                this.matrixFactory = StaticMatrixFactory.getInstance();
+                break;
+            case "cyclical":
+                this.matrixFactory = new CyclicalMatrixFactory();
+                break;
+            case "threadsafe":
+                this.matrixFactory = new ThreadSafeMatrixFactory();
+                break;
+            case "smart":
+                this.matrixFactory = SmartFactory.getInstance().withStaticMatrices();
+                break;
+            case "smartFast":
+                this.matrixFactory = SmartFactory.getInstance().withFastMatrices();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown factory: " + this.factory);
+        }
+
+        Matrices.makeTranslation4D(this.translation0, 0, new double[]{0.5, 1.5, 2.5, 1.0}, 0);
+        Matrices.makeTranslation4D(this.translation1, 0, new double[]{-1.0, 0.25, 4.0, 1.0}, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SmartFactory.getInstance().close();
+    }
+
+    @Benchmark
+    public GLMat4D translationMultiply() {
+        final GLMat4D m0 = this.matrixFactory.nextGLMat4D().set(this.translation0);
+        final GLMat4D m1 = this.matrixFactory.nextGLMat4D().set(this.translation1);
+
+        return m0.multiply(m1);
+    }
+
+    @Benchmark
+    public void translationMultiplyChain(final Blackhole bh) {
+        final GLMat4D m0 = this.matrixFactory.nextGLMat4D().set(this.translation0);
+        final GLMat4D m1 = this.matrixFactory.nextGLMat4D().set(this.translation1);
+        final GLMat4D m01 = m0.multiply(m1);
+
+        bh.consume(m01.multiply(m01.inverse()));
+        bh.consume(m01.transpose());
+    }
+
+    @Benchmark
+    public GLVec4D transformPoint() {
+        final GLMat4D m0 = this.matrixFactory.nextGLMat4D().set(this.translation0);
+
+        return m0.multiply(GLVec4D.create(this.point));
+    }
+}
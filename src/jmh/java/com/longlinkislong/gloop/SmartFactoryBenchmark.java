@@ -0,0 +1,129 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-thread dispatch of SmartFactory against the previous
+ * synchronized WeakHashMap implementation. All benchmark threads share one
+ * factory; each thread selects static or pooled matrices for itself.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmartFactoryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        @Param({"legacy", "smart"})
+        public String factory;
+
+        @Param({"static", "fast"})
+        public String mode;
+
+        private MatrixFactory matrixFactory;
+
+        @Setup
+        public void setup() {
+            switch (this.factory) {
+                case "legacy":
+                    this.matrixFactory = new LegacySmartFactory();
+                    break;
+                case "smart":
+                    this.matrixFactory = new SmartFactory();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown factory: " + this.factory);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+
+        private MatrixFactory matrixFactory;
+
+        @Setup
+        public void setup(final Shared shared) {
+            this.matrixFactory = shared.matrixFactory;
+
+            if ("fast".equals(shared.mode)) {
+                if (this.matrixFactory instanceof SmartFactory) {
+                    ((SmartFactory) this.matrixFactory).withFastMatrices();
+                } else {
+                    ((LegacySmartFactory) this.matrixFactory).withFastMatrices();
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            ((AutoCloseable) this.matrixFactory).close();
+        }
+    }
+
+    private static GLMat4F next(final PerThread state) {
+        return state.matrixFactory.nextGLMat4F().identity();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public GLMat4F next1Thread(final PerThread state) {
+        return next(state);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public GLMat4F next4Threads(final PerThread state) {
+        return next(state);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public GLMat4F next16Threads(final PerThread state) {
+        return next(state);
+    }
+}
@@ -0,0 +1,111 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sparse matrix-vector products on the 5-point Laplacian of a square grid.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SparseMatrixBenchmark {
+
+    @Param({"100", "1000"})
+    public int side;
+
+    private SparseMatrix csr;
+    private SparseMatrix csc;
+    private double[] x;
+    private double[] out;
+
+    @Setup
+    public void setup() {
+        final int n = this.side * this.side;
+        final SparseMatrix.Builder builder = new SparseMatrix.Builder(n, n);
+        final Random random = new Random(0x5EED);
+
+        for (int r = 0; r < this.side; r++) {
+            for (int c = 0; c < this.side; c++) {
+                final int v = r * this.side + c;
+
+                if (c + 1 < this.side) {
+                    builder.add(v, v, 1.0).add(v + 1, v + 1, 1.0).add(v, v + 1, -1.0).add(v + 1, v, -1.0);
+                }
+
+                if (r + 1 < this.side) {
+                    final int u = v + this.side;
+
+                    builder.add(v, v, 1.0).add(u, u, 1.0).add(v, u, -1.0).add(u, v, -1.0);
+                }
+            }
+        }
+
+        this.csr = builder.build(SparseMatrix.Format.CSR);
+        this.csc = this.csr.toFormat(SparseMatrix.Format.CSC);
+        this.x = new double[n];
+        this.out = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            this.x[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double[] multiplyCSR() {
+        return this.csr.multiply(this.out, 0, this.x, 0);
+    }
+
+    @Benchmark
+    public double[] multiplyCSC() {
+        return this.csc.multiply(this.out, 0, this.x, 0);
+    }
+
+    @Benchmark
+    public double[] multiplyParallel() throws InterruptedException, ExecutionException {
+        return this.csr.multiplyParallel(this.out, 0, this.x, 0).get();
+    }
+}
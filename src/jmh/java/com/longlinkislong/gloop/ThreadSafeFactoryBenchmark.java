@@ -0,0 +1,117 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the per-thread pool lookup of ThreadSafeVectorFactory against the
+ * previous lock and stack-trace scan implementation. All benchmark threads
+ * share a single factory instance.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadSafeFactoryBenchmark {
+
+    @Param({"legacy", "threadsafe"})
+    public String factory;
+
+    private VectorFactory vectorFactory;
+
+    @Setup
+    public void setup() {
+        switch (this.factory) {
+            case "legacy":
+                this.vectorFactory = new LegacyThreadSafeVectorFactory();
+                break;
+            case "threadsafe":
+                this.vectorFactory = new ThreadSafeVectorFactory();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown factory: " + this.factory);
+        }
+    }
+
+    private GLVec3D next() {
+        return this.vectorFactory.nextGLVec3D().set(1.0, 2.0, 3.0);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public GLVec3D next1Thread() {
+        return this.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public GLVec3D next4Threads() {
+        return this.next();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public GLVec3D next16Threads() {
+        return this.next();
+    }
+
+    /**
+     * Each invocation runs on a fresh thread, so every call misses the pool
+     * lookup and has to recycle or create a pool.
+     *
+     * @return the vector allocated on the short lived thread.
+     * @throws InterruptedException if interrupted while joining.
+     */
+    @Benchmark
+    @Threads(4)
+    public GLVec3D shortLivedThreads() throws InterruptedException {
+        final GLVec3D[] out = new GLVec3D[1];
+        final Thread worker = new Thread(() -> out[0] = this.next());
+
+        worker.start();
+        worker.join();
+
+        return out[0];
+    }
+}
@@ -0,0 +1,257 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the synchronous and asynchronous paths of GLVec3Array and
+ * GLVec4Array along with their single precision counterparts, the
+ * fork/join *Parallel variants, the fused lazy expressions and the
+ * allocating and view based parallel streams.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VecArrayBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private GLVec3Array a3;
+    private GLVec3Array b3;
+    private GLVec3Array out3;
+    private GLVec4Array a4;
+    private GLVec4Array b4;
+    private GLVec4Array out4;
+    private double[] outD;
+    private GLVec3D scale3;
+    private GLVec4D scale4;
+    private GLVec3FArray a3F;
+    private GLVec3FArray b3F;
+    private GLVec3FArray out3F;
+    private float[] outF;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5EED);
+
+        this.a3 = new GLVec3Array(this.size);
+        this.b3 = new GLVec3Array(this.size);
+        this.out3 = new GLVec3Array(this.size);
+        this.a4 = new GLVec4Array(this.size);
+        this.b4 = new GLVec4Array(this.size);
+        this.out4 = new GLVec4Array(this.size);
+        this.outD = new double[this.size];
+        this.a3F = new GLVec3FArray(this.size);
+        this.b3F = new GLVec3FArray(this.size);
+        this.out3F = new GLVec3FArray(this.size);
+        this.outF = new float[this.size];
+
+        for (int i = 0; i < this.size; i++) {
+            this.a3.x[i] = this.a4.x[i] = random.nextDouble();
+            this.a3.y[i] = this.a4.y[i] = random.nextDouble();
+            this.a3.z[i] = this.a4.z[i] = random.nextDouble();
+            this.a4.w[i] = 1.0;
+            this.b3.x[i] = this.b4.x[i] = random.nextDouble();
+            this.b3.y[i] = this.b4.y[i] = random.nextDouble();
+            this.b3.z[i] = this.b4.z[i] = random.nextDouble();
+            this.b4.w[i] = 1.0;
+            this.a3F.x[i] = (float) this.a3.x[i];
+            this.a3F.y[i] = (float) this.a3.y[i];
+            this.a3F.z[i] = (float) this.a3.z[i];
+            this.b3F.x[i] = (float) this.b3.x[i];
+            this.b3F.y[i] = (float) this.b3.y[i];
+            this.b3F.z[i] = (float) this.b3.z[i];
+        }
+
+        this.scale3 = GLVec3D.create(0.5, 2.0, 4.0).asStaticVec();
+        this.scale4 = GLVec4D.create(0.5, 2.0, 4.0, 1.0).asStaticVec();
+    }
+
+    @Benchmark
+    public GLVec3Array vec3Cross() {
+        return this.a3.cross(this.out3, this.b3);
+    }
+
+    @Benchmark
+    public GLVec3Array vec3CrossAsync() throws InterruptedException, ExecutionException {
+        return this.a3.crossAsync(this.out3, this.b3).get();
+    }
+
+    @Benchmark
+    public double[] vec3Dot() {
+        return this.a3.dot(this.outD, this.b3);
+    }
+
+    @Benchmark
+    public double[] vec3Length() {
+        return this.a3.length(this.outD);
+    }
+
+    @Benchmark
+    public GLVec3Array vec3Normalize() {
+        return GLVec3Array.normalize(this.out3, 0, this.a3, 0, this.size);
+    }
+
+    @Benchmark
+    public GLVec3Array vec3NormalizeParallel() throws InterruptedException, ExecutionException {
+        return this.a3.normalizeParallel(this.out3).get();
+    }
+
+    @Benchmark
+    public GLVec3Array vec3CrossParallel() throws InterruptedException, ExecutionException {
+        return this.a3.crossParallel(this.out3, this.b3).get();
+    }
+
+    @Benchmark
+    public GLVec3Array vec3CrossNormalizeScale() {
+        this.a3.cross(this.out3, this.b3);
+        GLVec3Array.normalize(this.out3, 0, this.out3, 0, this.size);
+        return this.out3.scale(this.out3, this.scale3);
+    }
+
+    @Benchmark
+    public GLVec3Array vec3CrossNormalizeScaleFused() {
+        return this.a3.lazy().cross(this.b3).normalize().scale(this.scale3).evaluate(this.out3);
+    }
+
+    @Benchmark
+    public GLVec3Array vec3Scale() {
+        return this.a3.scale(this.out3, this.scale3);
+    }
+
+    @Benchmark
+    public GLVec3Array vec3ScaleAsync() throws InterruptedException, ExecutionException {
+        return this.a3.scaleAsync(this.out3, this.scale3).get();
+    }
+
+    @Benchmark
+    public GLVec3Array vec3ApplyAsync() throws InterruptedException, ExecutionException {
+        return this.a3.applyAsync(VectorArrays::arrayAddD, this.out3, this.b3).get();
+    }
+
+    @Benchmark
+    public double vec3StreamParallel() {
+        return this.a3.stream().parallel().mapToDouble(GLVec3D::length).sum();
+    }
+
+    @Benchmark
+    public double vec3ViewStreamParallel() {
+        return this.a3.viewStream(true).mapToDouble(GLVec3D::length).sum();
+    }
+
+    @Benchmark
+    public GLVec4Array vec4Cross() {
+        return this.a4.cross(this.out4, this.b4);
+    }
+
+    @Benchmark
+    public GLVec4Array vec4CrossAsync() throws InterruptedException, ExecutionException {
+        return this.a4.crossAsync(this.out4, this.b4).get();
+    }
+
+    @Benchmark
+    public double[] vec4Dot() {
+        return this.a4.dot(this.outD, this.b4);
+    }
+
+    @Benchmark
+    public GLVec4Array vec4Normalize() {
+        return this.a4.normalize(this.out4);
+    }
+
+    @Benchmark
+    public GLVec4Array vec4PlusNormalizeScale() {
+        this.a4.apply(VectorArrays::arrayAddD, this.out4, this.b4);
+        this.out4.normalize(this.out4);
+        return this.out4.scale(this.out4, this.scale4);
+    }
+
+    @Benchmark
+    public GLVec4Array vec4PlusNormalizeScaleFused() {
+        return this.a4.lazy().plus(this.b4).normalize().scale(this.scale4).evaluate(this.out4);
+    }
+
+    @Benchmark
+    public GLVec4Array vec4Scale() {
+        return this.a4.scale(this.out4, this.scale4);
+    }
+
+    @Benchmark
+    public GLVec4Array vec4ScaleAsync() throws InterruptedException, ExecutionException {
+        return this.a4.scaleAsync(this.out4, this.scale4).get();
+    }
+
+    @Benchmark
+    public GLVec4Array vec4ApplyAsync() throws InterruptedException, ExecutionException {
+        return this.a4.applyAsync(VectorArrays::arrayAddD, this.out4, this.b4).get();
+    }
+
+    @Benchmark
+    public GLVec3FArray vec3FCross() {
+        return this.a3F.cross(this.out3F, this.b3F);
+    }
+
+    @Benchmark
+    public GLVec3FArray vec3FCrossAsync() throws InterruptedException, ExecutionException {
+        return this.a3F.crossAsync(this.out3F, this.b3F).get();
+    }
+
+    @Benchmark
+    public float[] vec3FDot() {
+        return this.a3F.dot(this.outF, this.b3F);
+    }
+
+    @Benchmark
+    public GLVec3FArray vec3FNormalize() {
+        return this.a3F.normalize(this.out3F);
+    }
+
+    @Benchmark
+    public GLVec3FArray vec3FNormalizeParallel() throws InterruptedException, ExecutionException {
+        return this.a3F.normalizeParallel(this.out3F).get();
+    }
+}
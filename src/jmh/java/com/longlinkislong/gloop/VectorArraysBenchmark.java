@@ -0,0 +1,165 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the element-wise kernels in VectorArrays for both precisions.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VectorArraysBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private double[] outD;
+    private double[] in0D;
+    private double[] in1D;
+    private double[] in2D;
+    private float[] outF;
+    private float[] in0F;
+    private float[] in1F;
+    private float[] in2F;
+    private float[] interleavedF;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5EED);
+
+        this.outD = new double[this.size];
+        this.in0D = new double[this.size];
+        this.in1D = new double[this.size];
+        this.in2D = new double[this.size];
+        this.outF = new float[this.size];
+        this.in0F = new float[this.size];
+        this.in1F = new float[this.size];
+        this.in2F = new float[this.size];
+        this.interleavedF = new float[this.size * 3];
+
+        for (int i = 0; i < this.size; i++) {
+            this.in0D[i] = this.in0F[i] = random.nextFloat() + 0.5f;
+            this.in1D[i] = this.in1F[i] = random.nextFloat() + 0.5f;
+            this.in2D[i] = this.in2F[i] = random.nextFloat() + 0.5f;
+        }
+    }
+
+    @Benchmark
+    public double[] arrayAddD() {
+        VectorArrays.arrayAddD(this.outD, 0, this.in0D, 0, this.in1D, 0, this.size);
+        return this.outD;
+    }
+
+    @Benchmark
+    public float[] arrayAddF() {
+        VectorArrays.arrayAddF(this.outF, 0, this.in0F, 0, this.in1F, 0, this.size);
+        return this.outF;
+    }
+
+    @Benchmark
+    public double[] arrayAddDCnd() {
+        VectorArrays.arrayAddDCnd(this.outD, 0, this.in0D, 0, this.in1D, 0, this.size, index -> (index & 1) == 0);
+        return this.outD;
+    }
+
+    @Benchmark
+    public double[] arrayMultiplyAddD() {
+        VectorArrays.arrayMultiplyAddD(this.outD, 0, this.in0D, 0, this.in1D, 0, this.in2D, 0, this.size);
+        return this.outD;
+    }
+
+    @Benchmark
+    public float[] arrayMultiplyAddF() {
+        VectorArrays.arrayMultiplyAddF(this.outF, 0, this.in0F, 0, this.in1F, 0, this.in2F, 0, this.size);
+        return this.outF;
+    }
+
+    @Benchmark
+    public double[] arrayScaleD() {
+        VectorArrays.arrayScaleD(this.outD, 0, this.in0D, 0, 0.75, this.size);
+        return this.outD;
+    }
+
+    @Benchmark
+    public float[] arrayScaleF() {
+        VectorArrays.arrayScaleF(this.outF, 0, this.in0F, 0, 0.75f, this.size);
+        return this.outF;
+    }
+
+    @Benchmark
+    public double[] arrayInverseSqrtD() {
+        VectorArrays.arrayInverseSqrtD(this.outD, 0, this.in0D, 0, this.size);
+        return this.outD;
+    }
+
+    @Benchmark
+    public float[] arrayInverseSqrtF() {
+        VectorArrays.arrayInverseSqrtF(this.outF, 0, this.in0F, 0, this.size);
+        return this.outF;
+    }
+
+    @Benchmark
+    public double arraySumD() {
+        return VectorArrays.arraySumD(this.in0D, 0, this.size);
+    }
+
+    @Benchmark
+    public float arraySumF() {
+        return VectorArrays.arraySumF(this.in0F, 0, this.size);
+    }
+
+    @Benchmark
+    public float[] arrayInterleave3F() {
+        VectorArrays.arrayInterleave3F(this.interleavedF, 0, this.in0F, 0, this.in1F, 0, this.in2F, 0, this.size);
+        return this.interleavedF;
+    }
+
+    @Benchmark
+    public float[] arrayDeinterleave3F() {
+        VectorArrays.arrayDeinterleave3F(this.in0F, 0, this.in1F, 0, this.in2F, 0, this.interleavedF, 0, this.size);
+        return this.in0F;
+    }
+}
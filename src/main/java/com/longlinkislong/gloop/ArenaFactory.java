@@ -0,0 +1,490 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An implementation of VectorFactory, MatrixFactory, and QuaternionFactory that
+ * allocates temporaries linearly from an arena. Unlike the cyclical factories,
+ * the arena never recycles memory on its own. Temporaries are released by
+ * closing the Scope returned by mark, which restores the arena to the state it
+ * was in when the mark was made. Marks nest and are released in O(1).
+ *
+ * When the arena runs out of space it either doubles its backing storage or,
+ * if it was constructed as fixed size, throws an IllegalStateException. Live
+ * values are never silently overwritten.
+ *
+ * ArenaFactory is not thread safe; each thread should use its own arena.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class ArenaFactory implements
+        VectorFactory,
+        MatrixFactory,
+        QuaternionFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArenaFactory.class);
+
+    private final boolean growable;
+    private double[] dataD;
+    private float[] dataF;
+    private int dataDOffset;
+    private int dataFOffset;
+
+    private final Pool<MappedVec2D> vec2D = new Pool<>(() -> new MappedVec2D(this, this.dataD, 0, this.dataD.length - 2));
+    private final Pool<MappedVec3D> vec3D = new Pool<>(() -> new MappedVec3D(this, this.dataD, 0, this.dataD.length - 3));
+    private final Pool<MappedVec4D> vec4D = new Pool<>(() -> new MappedVec4D(this, this.dataD, 0, this.dataD.length - 4));
+    private final Pool<MappedVecND> vecND = new Pool<>(() -> new MappedVecND(this, this.dataD, 0, this.dataD.length - 1, 1));
+    private final Pool<MappedVec2F> vec2F = new Pool<>(() -> new MappedVec2F(this, this.dataF, 0, this.dataF.length - 2));
+    private final Pool<MappedVec3F> vec3F = new Pool<>(() -> new MappedVec3F(this, this.dataF, 0, this.dataF.length - 3));
+    private final Pool<MappedVec4F> vec4F = new Pool<>(() -> new MappedVec4F(this, this.dataF, 0, this.dataF.length - 4));
+    private final Pool<MappedVecNF> vecNF = new Pool<>(() -> new MappedVecNF(this, this.dataF, 0, this.dataF.length - 1, 1));
+    private final Pool<MappedMat2D> mat2D = new Pool<>(() -> new MappedMat2D(this, this.dataD, 0, this.dataD.length - 4));
+    private final Pool<MappedMat3D> mat3D = new Pool<>(() -> new MappedMat3D(this, this.dataD, 0, this.dataD.length - 9));
+    private final Pool<MappedMat4D> mat4D = new Pool<>(() -> new MappedMat4D(this, this.dataD, 0, this.dataD.length - 16));
+    private final Pool<MappedMatND> matND = new Pool<>(() -> new MappedMatND(this, this.dataD, 0, this.dataD.length - 1, 1));
+    private final Pool<MappedMat2F> mat2F = new Pool<>(() -> new MappedMat2F(this, this.dataF, 0, this.dataF.length - 4));
+    private final Pool<MappedMat3F> mat3F = new Pool<>(() -> new MappedMat3F(this, this.dataF, 0, this.dataF.length - 9));
+    private final Pool<MappedMat4F> mat4F = new Pool<>(() -> new MappedMat4F(this, this.dataF, 0, this.dataF.length - 16));
+    private final Pool<MappedMatNF> matNF = new Pool<>(() -> new MappedMatNF(this, this.dataF, 0, this.dataF.length - 1, 1));
+    private final Pool<MappedQuaternionD> quatD = new Pool<>(() -> new MappedQuaternionD(this, this.dataD, 0, this.dataD.length - 4));
+    private final Pool<MappedQuaternionF> quatF = new Pool<>(() -> new MappedQuaternionF(this, this.dataF, 0, this.dataF.length - 4));
+
+    private final Pool<?>[] pools = {
+        vec2D, vec3D, vec4D, vecND, vec2F, vec3F, vec4F, vecNF,
+        mat2D, mat3D, mat4D, matND, mat2F, mat3F, mat4F, matNF,
+        quatD, quatF};
+
+    private static final int MARK_SIZE = 20;
+
+    private int[][] marks = new int[8][MARK_SIZE];
+    private long[] generations = new long[8];
+    private long generation = 0;
+    private int depth = 0;
+
+    /**
+     * Constructs a new growable ArenaFactory with an initial capacity of 16KB
+     * for single precision data and 16KB for double precision data.
+     *
+     * @since 26.10.17
+     */
+    public ArenaFactory() {
+        this(16, true);
+    }
+
+    /**
+     * Constructs a new ArenaFactory.
+     *
+     * @param capacity the initial single and double precision capacity in
+     * kilobytes.
+     * @param growable if true the arena doubles its storage when it runs out
+     * of space. If false the arena throws an IllegalStateException instead.
+     * @throws IllegalArgumentException if capacity is less than 1KB.
+     * @since 26.10.17
+     */
+    public ArenaFactory(final int capacity, final boolean growable) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity! At least 1KB must be allocated for an arena!");
+        }
+
+        final int capacityBytes = capacity * 1000;
+
+        LOGGER.debug("Constructing arena; size = {}B growable = {}", capacityBytes, growable);
+
+        this.growable = growable;
+        this.dataD = new double[capacityBytes / Double.BYTES];
+        this.dataF = new float[capacityBytes / Float.BYTES];
+    }
+
+    /**
+     * Marks the current allocation state of the arena. Closing the returned
+     * scope releases every vector, matrix, and quaternion allocated after the
+     * mark. Scopes must be closed in the reverse order they were opened.
+     *
+     * @return the scope for use within a try-with-resources block.
+     * @since 26.10.17
+     */
+    public Scope mark() {
+        if (this.depth == this.marks.length) {
+            final int newLength = this.depth * 2;
+
+            this.marks = Arrays.copyOf(this.marks, newLength);
+            this.generations = Arrays.copyOf(this.generations, newLength);
+
+            for (int i = this.depth; i < newLength; i++) {
+                this.marks[i] = new int[MARK_SIZE];
+            }
+        }
+
+        final int[] mark = this.marks[this.depth];
+
+        mark[0] = this.dataDOffset;
+        mark[1] = this.dataFOffset;
+
+        for (int i = 0; i < this.pools.length; i++) {
+            mark[i + 2] = this.pools[i].next;
+        }
+
+        // each mark gets a fresh generation so a stale Scope from an earlier
+        // mark at the same depth cannot rewind the one now active there.
+        final long gen = ++this.generation;
+
+        this.generations[this.depth] = gen;
+        return new Scope(this.depth++, gen);
+    }
+
+    private boolean isActive(final Scope scope) {
+        return scope.depth < this.depth && this.generations[scope.depth] == scope.generation;
+    }
+
+    private void release(final Scope scope) {
+        if (!this.isActive(scope)) {
+            return;
+        } else if (scope.depth != this.depth - 1) {
+            throw new IllegalStateException("Arena scopes must be closed in the reverse order they were opened!");
+        }
+
+        final int[] mark = this.marks[scope.depth];
+
+        this.dataDOffset = mark[0];
+        this.dataFOffset = mark[1];
+
+        for (int i = 0; i < this.pools.length; i++) {
+            this.pools[i].next = mark[i + 2];
+        }
+
+        this.depth--;
+    }
+
+    /**
+     * Releases every allocation made by the arena and discards all open
+     * marks.
+     *
+     * @since 26.10.17
+     */
+    public void reset() {
+        this.depth = 0;
+        this.dataDOffset = 0;
+        this.dataFOffset = 0;
+
+        for (Pool<?> pool : this.pools) {
+            pool.next = 0;
+        }
+    }
+
+    /**
+     * Retrieves the number of double precision elements currently allocated.
+     *
+     * @return the number of elements in use.
+     * @since 26.10.17
+     */
+    public int usedD() {
+        return this.dataDOffset;
+    }
+
+    /**
+     * Retrieves the number of single precision elements currently allocated.
+     *
+     * @return the number of elements in use.
+     * @since 26.10.17
+     */
+    public int usedF() {
+        return this.dataFOffset;
+    }
+
+    private void grow() {
+        for (Pool<?> pool : this.pools) {
+            pool.clear();
+        }
+    }
+
+    private int nextOffsetD(final int count) {
+        if (this.dataDOffset + count > this.dataD.length) {
+            if (!this.growable) {
+                throw new IllegalStateException(String.format(
+                        "Arena exhausted! Tried to allocate %d doubles with %d of %d in use.",
+                        count, this.dataDOffset, this.dataD.length));
+            }
+
+            final int newLength = Math.max(this.dataD.length * 2, this.dataDOffset + count);
+
+            LOGGER.debug("Growing arena double storage to {} elements", newLength);
+
+            // live values keep referencing the old array; new values map the new one.
+            this.dataD = Arrays.copyOf(this.dataD, newLength);
+            this.grow();
+        }
+
+        final int off = this.dataDOffset;
+
+        this.dataDOffset += count;
+        return off;
+    }
+
+    private int nextOffsetF(final int count) {
+        if (this.dataFOffset + count > this.dataF.length) {
+            if (!this.growable) {
+                throw new IllegalStateException(String.format(
+                        "Arena exhausted! Tried to allocate %d floats with %d of %d in use.",
+                        count, this.dataFOffset, this.dataF.length));
+            }
+
+            final int newLength = Math.max(this.dataF.length * 2, this.dataFOffset + count);
+
+            LOGGER.debug("Growing arena float storage to {} elements", newLength);
+
+            // live values keep referencing the old array; new values map the new one.
+            this.dataF = Arrays.copyOf(this.dataF, newLength);
+            this.grow();
+        }
+
+        final int off = this.dataFOffset;
+
+        this.dataFOffset += count;
+        return off;
+    }
+
+    @Override
+    public GLVec2D nextGLVec2D() {
+        final int offset = this.nextOffsetD(GLVec2D.VECTOR_SIZE);
+
+        return this.vec2D.next().remap(offset);
+    }
+
+    @Override
+    public GLVec3D nextGLVec3D() {
+        final int offset = this.nextOffsetD(GLVec3D.VECTOR_SIZE);
+
+        return this.vec3D.next().remap(offset);
+    }
+
+    @Override
+    public GLVec4D nextGLVec4D() {
+        final int offset = this.nextOffsetD(GLVec4D.VECTOR_SIZE);
+
+        return this.vec4D.next().remap(offset);
+    }
+
+    @Override
+    public GLVecND nextGLVecND(final int size) {
+        final int offset = this.nextOffsetD(size);
+        final MappedVecND out = this.vecND.next();
+
+        out.remap(offset).resize(size);
+
+        return out;
+    }
+
+    @Override
+    public GLVec2F nextGLVec2F() {
+        final int offset = this.nextOffsetF(GLVec2F.VECTOR_SIZE);
+
+        return this.vec2F.next().remap(offset);
+    }
+
+    @Override
+    public GLVec3F nextGLVec3F() {
+        final int offset = this.nextOffsetF(GLVec3F.VECTOR_SIZE);
+
+        return this.vec3F.next().remap(offset);
+    }
+
+    @Override
+    public GLVec4F nextGLVec4F() {
+        final int offset = this.nextOffsetF(GLVec4F.VECTOR_SIZE);
+
+        return this.vec4F.next().remap(offset);
+    }
+
+    @Override
+    public GLVecNF nextGLVecNF(final int size) {
+        final int offset = this.nextOffsetF(size);
+        final MappedVecNF out = this.vecNF.next();
+
+        out.remap(offset).resize(size);
+
+        return out;
+    }
+
+    @Override
+    public GLMat2D nextGLMat2D() {
+        final int offset = this.nextOffsetD(4);
+
+        return this.mat2D.next().remap(offset);
+    }
+
+    @Override
+    public GLMat3D nextGLMat3D() {
+        final int offset = this.nextOffsetD(9);
+
+        return this.mat3D.next().remap(offset);
+    }
+
+    @Override
+    public GLMat4D nextGLMat4D() {
+        final int offset = this.nextOffsetD(16);
+
+        return this.mat4D.next().remap(offset);
+    }
+
+    @Override
+    public GLMatND nextGLMatND(final int size) {
+        final int offset = this.nextOffsetD(size * size);
+        final MappedMatND out = this.matND.next();
+
+        out.remap(offset).resize(size);
+
+        return out;
+    }
+
+    @Override
+    public GLMat2F nextGLMat2F() {
+        final int offset = this.nextOffsetF(4);
+
+        return this.mat2F.next().remap(offset);
+    }
+
+    @Override
+    public GLMat3F nextGLMat3F() {
+        final int offset = this.nextOffsetF(9);
+
+        return this.mat3F.next().remap(offset);
+    }
+
+    @Override
+    public GLMat4F nextGLMat4F() {
+        final int offset = this.nextOffsetF(16);
+
+        return this.mat4F.next().remap(offset);
+    }
+
+    @Override
+    public GLMatNF nextGLMatNF(final int size) {
+        final int offset = this.nextOffsetF(size * size);
+        final MappedMatNF out = this.matNF.next();
+
+        out.remap(offset).resize(size);
+
+        return out;
+    }
+
+    @Override
+    public GLQuaternionF nextGLQuaternionF() {
+        final int offset = this.nextOffsetF(4);
+
+        return this.quatF.next().remap(offset);
+    }
+
+    @Override
+    public GLQuaternionD nextGLQuaternionD() {
+        final int offset = this.nextOffsetD(4);
+
+        return this.quatD.next().remap(offset);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Arena Factory: [sfp: %d/%d dfp: %d/%d depth: %d]",
+                this.dataFOffset, this.dataF.length,
+                this.dataDOffset, this.dataD.length,
+                this.depth);
+    }
+
+    /**
+     * A marked region of an ArenaFactory. Closing the scope releases every
+     * allocation made since the scope was opened.
+     *
+     * @since 26.10.17
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final int depth;
+        private final long generation;
+
+        private Scope(final int depth, final long generation) {
+            this.depth = depth;
+            this.generation = generation;
+        }
+
+        /**
+         * Retrieves the arena that owns this scope.
+         *
+         * @return the arena.
+         * @since 26.10.17
+         */
+        public ArenaFactory getFactory() {
+            return ArenaFactory.this;
+        }
+
+        /**
+         * Releases all allocations made since this scope was opened. Closing
+         * a scope that was already closed or discarded by reset does nothing.
+         *
+         * @throws IllegalStateException if a nested scope is still open.
+         * @since 26.10.17
+         */
+        @Override
+        public void close() {
+            ArenaFactory.this.release(this);
+        }
+    }
+
+    private static final class Pool<T> {
+
+        private final Supplier<T> constructor;
+        private Object[] items = new Object[16];
+        private int next;
+
+        Pool(final Supplier<T> constructor) {
+            this.constructor = constructor;
+        }
+
+        @SuppressWarnings("unchecked")
+        T next() {
+            if (this.next == this.items.length) {
+                this.items = Arrays.copyOf(this.items, this.next * 2);
+            }
+
+            Object item = this.items[this.next];
+
+            if (item == null) {
+                item = this.items[this.next] = this.constructor.get();
+            }
+
+            this.next++;
+            return (T) item;
+        }
+
+        void clear() {
+            Arrays.fill(this.items, null);
+        }
+    }
+}
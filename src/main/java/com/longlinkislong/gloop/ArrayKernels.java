@@ -0,0 +1,409 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import com.longlinkislong.gloop.VectorArrays.Conditional;
+
+/**
+ * The element-wise kernels VectorArrays can hand off to an accelerated
+ * backend. Implementations must produce the same results as the scalar loops
+ * in VectorArrays, aside from the summation order of the arraySum* kernels.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+interface ArrayKernels {
+
+    void arraySetF(
+            final float[] out, final int outOffset,
+            final float value,
+            final int count);
+
+    void arraySetFCnd(
+            final float[] out, final int outOffset,
+            final float value,
+            final int count,
+            final Conditional cnd);
+
+    void arraySetD(
+            final double[] out, final int outOffset,
+            final double value,
+            final int count);
+
+    void arraySetDCnd(
+            final double[] out, final int outOffset,
+            final double value,
+            final int count,
+            final Conditional cnd);
+
+    void arrayAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count);
+
+    void arrayAddFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count);
+
+    void arrayAddDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arraySubtractF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count);
+
+    void arraySubtractFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arraySubtractD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count);
+
+    void arraySubtractDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayMultiplyF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count);
+
+    void arrayMultiplyFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayMultiplyD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count);
+
+    void arrayMultiplyDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayDivideF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count);
+
+    void arrayDivideFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayDivideD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count);
+
+    void arrayDivideDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arraySqrtF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count);
+
+    void arraySqrtFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arraySqrtD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count);
+
+    void arraySqrtDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayAbsF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count);
+
+    void arrayAbsFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayAbsD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count);
+
+    void arrayAbsDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayMultiplyAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count);
+
+    void arrayMultiplyAddFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayMultiplyAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count);
+
+    void arrayMultiplyAddDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayFusedMultiplyAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count);
+
+    void arrayFusedMultiplyAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count);
+
+    void arrayMultiplySubtractF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count);
+
+    void arrayMultiplySubtractFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayMultiplySubtractD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count);
+
+    void arrayMultiplySubtractDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayNegateF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count);
+
+    void arrayNegateFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayNegateD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count);
+
+    void arrayNegateDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayScaleF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float scale,
+            final int count);
+
+    void arrayScaleFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float scale,
+            final int count,
+            final Conditional cnd);
+
+    void arrayScaleD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double scale,
+            final int count);
+
+    void arrayScaleDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double scale,
+            final int count,
+            final Conditional cnd);
+
+    void arrayAddConstantF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float constant,
+            final int count);
+
+    void arrayAddConstantFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float constant,
+            final int count,
+            final Conditional cnd);
+
+    void arrayAddConstantD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double constant,
+            final int count);
+
+    void arrayAddConstantDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double constant,
+            final int count,
+            final Conditional cnd);
+
+    void arrayReciprocalF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count);
+
+    void arrayReciprocalFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayReciprocalD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count);
+
+    void arrayReciprocalDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayInverseSqrtF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count);
+
+    void arrayInverseSqrtFCnd(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    void arrayInverseSqrtD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count);
+
+    void arrayInverseSqrtDCnd(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count,
+            final Conditional cnd);
+
+    float arraySumF(
+            final float[] in0, final int in0Offset,
+            final int count);
+
+    double arraySumD(
+            final double[] in0, final int in0Offset,
+            final int count);
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Spliterators over the vector arrays. Every spliterator reports its exact
+ * size and splits by halving its index range, so parallel streams divide the
+ * work evenly without buffering.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class ArraySpliterators {
+
+    static final int CHARACTERISTICS = Spliterator.SIZED
+            | Spliterator.SUBSIZED
+            | Spliterator.ORDERED
+            | Spliterator.NONNULL;
+
+    private ArraySpliterators() {
+    }
+
+    /**
+     * Creates a spliterator that loads each index into a view. Each split
+     * allocates one view on first use and reuses it for every element it
+     * visits.
+     *
+     * @param <T> the type of element.
+     * @param <V> the type of view.
+     * @param origin the first index, inclusive.
+     * @param fence the last index, exclusive.
+     * @param views the supplier of views.
+     * @param loader the function that points the view at an index.
+     * @return the spliterator.
+     * @since 26.10.17
+     */
+    static <T, V extends T> Spliterator<T> views(
+            final int origin, final int fence,
+            final Supplier<? extends V> views,
+            final ObjIntConsumer<? super V> loader) {
+
+        if (origin < 0 || fence < origin) {
+            throw new IllegalArgumentException("Invalid range!");
+        }
+
+        return new Views<>(origin, fence, Objects.requireNonNull(views), Objects.requireNonNull(loader));
+    }
+
+    /**
+     * Creates a spliterator over a range of a float array that widens every
+     * element to a double.
+     *
+     * @param array the array.
+     * @param origin the first index, inclusive.
+     * @param fence the last index, exclusive.
+     * @return the spliterator.
+     * @since 26.10.17
+     */
+    static Spliterator.OfDouble widening(final float[] array, final int origin, final int fence) {
+        if (origin < 0 || fence < origin || fence > array.length) {
+            throw new IllegalArgumentException("Invalid range!");
+        }
+
+        return new Widening(array, origin, fence);
+    }
+
+    private static final class Views<T, V extends T> implements Spliterator<T> {
+
+        private final Supplier<? extends V> views;
+        private final ObjIntConsumer<? super V> loader;
+        private final int fence;
+        private int index;
+        private V view;
+
+        private Views(
+                final int origin, final int fence,
+                final Supplier<? extends V> views,
+                final ObjIntConsumer<? super V> loader) {
+
+            this.index = origin;
+            this.fence = fence;
+            this.views = views;
+            this.loader = loader;
+        }
+
+        private V view() {
+            if (this.view == null) {
+                this.view = this.views.get();
+            }
+
+            return this.view;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (this.index < this.fence) {
+                final V v = this.view();
+
+                this.loader.accept(v, this.index++);
+                action.accept(v);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            final int hi = this.fence;
+            int i = this.index;
+
+            if (i < hi) {
+                final V v = this.view();
+
+                this.index = hi;
+
+                for (; i < hi; i++) {
+                    this.loader.accept(v, i);
+                    action.accept(v);
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int lo = this.index;
+            final int mid = (lo + this.fence) >>> 1;
+
+            if (lo >= mid) {
+                return null;
+            } else {
+                this.index = mid;
+                return new Views<>(lo, mid, this.views, this.loader);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    private static final class Widening implements Spliterator.OfDouble {
+
+        private final float[] array;
+        private final int fence;
+        private int index;
+
+        private Widening(final float[] array, final int origin, final int fence) {
+            this.array = array;
+            this.index = origin;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(final DoubleConsumer action) {
+            if (this.index < this.fence) {
+                action.accept(this.array[this.index++]);
+                return true;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(final DoubleConsumer action) {
+            final float[] a = this.array;
+            final int hi = this.fence;
+            int i = this.index;
+
+            this.index = hi;
+
+            for (; i < hi; i++) {
+                action.accept(a[i]);
+            }
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            final int lo = this.index;
+            final int mid = (lo + this.fence) >>> 1;
+
+            if (lo >= mid) {
+                return null;
+            } else {
+                this.index = mid;
+                return new Widening(this.array, lo, mid);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return this.fence - this.index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
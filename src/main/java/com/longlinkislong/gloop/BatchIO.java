@@ -0,0 +1,901 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * BatchIO reads and writes batches of vectors, matrices and quaternions in a
+ * compact versioned binary format.
+ *
+ * A batch is a {@value #HEADER_SIZE} byte header followed by the raw
+ * components. Everything is little endian, which matches the memory mapped
+ * arrays, so a batch of GLVec3 or GLMat4 doubles can be mapped in place. The
+ * header holds, in order:
+ * <ul>
+ * <li>the magic number {@value #MAGIC} as an int</li>
+ * <li>the format version as a short</li>
+ * <li>the type and precision as one byte each</li>
+ * <li>the dimension as an int</li>
+ * <li>the layout as a byte, followed by three reserved bytes</li>
+ * <li>the element count as a long</li>
+ * <li>eight reserved bytes</li>
+ * </ul>
+ *
+ * The dimension is the number of components of a vector or quaternion and
+ * the number of rows of a square matrix. INTERLEAVED batches store each
+ * element after the other. PLANAR batches store every first component, then
+ * every second component and so on. Matrices keep the column-major order of
+ * GLMat4Array.
+ *
+ * Readers and writers stream through the channel in chunks of
+ * {@value #CHUNK_SIZE} bytes. Copies that match the in-memory layout are bulk
+ * copies.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class BatchIO {
+
+    /**
+     * The first four bytes of every batch; "GLVB" in little endian.
+     *
+     * @since 26.10.17
+     */
+    public static final int MAGIC = 0x42564C47;
+    /**
+     * The version of the format written by this class.
+     *
+     * @since 26.10.17
+     */
+    public static final int VERSION = 1;
+    /**
+     * The size of the header in bytes. The components start at this offset.
+     *
+     * @since 26.10.17
+     */
+    public static final int HEADER_SIZE = 32;
+    /**
+     * The maximum number of bytes transferred per channel operation.
+     *
+     * @since 26.10.17
+     */
+    public static final int CHUNK_SIZE = 1 << 20;
+
+    private BatchIO() {
+    }
+
+    /**
+     * The kind of element stored in a batch.
+     *
+     * @since 26.10.17
+     */
+    public enum Type {
+        VECTOR,
+        MATRIX,
+        QUATERNION
+    }
+
+    /**
+     * The precision of the components stored in a batch.
+     *
+     * @since 26.10.17
+     */
+    public enum Precision {
+        FLOAT(Float.BYTES),
+        DOUBLE(Double.BYTES);
+
+        /**
+         * The size of a component in bytes.
+         *
+         * @since 26.10.17
+         */
+        public final int bytes;
+
+        Precision(final int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * The header of a batch.
+     *
+     * @since 26.10.17
+     */
+    public static final class Header {
+
+        private final Type type;
+        private final Precision precision;
+        private final int dimension;
+        private final long count;
+        private final BufferWriter.Layout layout;
+
+        /**
+         * Constructs a new header.
+         *
+         * @param type the type of element.
+         * @param precision the precision of the components.
+         * @param dimension the dimension of each element.
+         * @param count the number of elements.
+         * @param layout the layout of the components.
+         * @throws IllegalArgumentException if the dimension is not positive or
+         * the count is negative.
+         * @since 26.10.17
+         */
+        public Header(
+                final Type type, final Precision precision,
+                final int dimension, final long count,
+                final BufferWriter.Layout layout) {
+
+            if (dimension <= 0) {
+                throw new IllegalArgumentException("Dimension must be positive!");
+            } else if (count < 0) {
+                throw new IllegalArgumentException("Count cannot be negative!");
+            }
+
+            this.type = Objects.requireNonNull(type);
+            this.precision = Objects.requireNonNull(precision);
+            this.dimension = dimension;
+            this.count = count;
+            this.layout = Objects.requireNonNull(layout);
+        }
+
+        public Type getType() {
+            return this.type;
+        }
+
+        public Precision getPrecision() {
+            return this.precision;
+        }
+
+        public int getDimension() {
+            return this.dimension;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public BufferWriter.Layout getLayout() {
+            return this.layout;
+        }
+
+        /**
+         * Retrieves the number of components in each element.
+         *
+         * @return the number of components.
+         * @since 26.10.17
+         */
+        public int getComponents() {
+            return this.type == Type.MATRIX
+                    ? this.dimension * this.dimension
+                    : this.dimension;
+        }
+
+        /**
+         * Retrieves the number of bytes following the header.
+         *
+         * @return the size of the components in bytes.
+         * @since 26.10.17
+         */
+        public long getDataSize() {
+            return this.count * this.getComponents() * this.precision.bytes;
+        }
+
+        private void write(final ByteBuffer out) {
+            out.putInt(MAGIC)
+                    .putShort((short) VERSION)
+                    .put((byte) this.type.ordinal())
+                    .put((byte) this.precision.ordinal())
+                    .putInt(this.dimension)
+                    .put((byte) this.layout.ordinal())
+                    .put((byte) 0).put((byte) 0).put((byte) 0)
+                    .putLong(this.count)
+                    .putLong(0L);
+        }
+
+        private static Header read(final ByteBuffer in) throws IOException {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a vector batch!");
+            }
+
+            final int version = in.getShort();
+
+            if (version != VERSION) {
+                throw new IOException("Unsupported batch version: " + version + "!");
+            }
+
+            final int type = in.get();
+            final int precision = in.get();
+            final int dimension = in.getInt();
+            final int layout = in.get();
+
+            in.position(in.position() + 3);
+
+            final long count = in.getLong();
+
+            if (type < 0 || type >= Type.values().length
+                    || precision < 0 || precision >= Precision.values().length
+                    || layout < 0 || layout >= BufferWriter.Layout.values().length
+                    || dimension <= 0 || count < 0) {
+
+                throw new IOException("Corrupt batch header!");
+            }
+
+            return new Header(
+                    Type.values()[type], Precision.values()[precision],
+                    dimension, count,
+                    BufferWriter.Layout.values()[layout]);
+        }
+
+        private int require(final Type type, final Precision precision, final int dimension) throws IOException {
+            if (this.type != type || this.precision != precision || this.dimension != dimension) {
+                throw new IOException(String.format(
+                        "Expected a batch of %s %s%d but found %s %s%d!",
+                        precision, type, dimension,
+                        this.precision, this.type, this.dimension));
+            } else if (this.count > Integer.MAX_VALUE) {
+                throw new IOException("Batch is too large to read into an array!");
+            }
+
+            return (int) this.count;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (other instanceof Header) {
+                final Header o = (Header) other;
+
+                return this.type == o.type
+                        && this.precision == o.precision
+                        && this.dimension == o.dimension
+                        && this.count == o.count
+                        && this.layout == o.layout;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.type, this.precision, this.dimension, this.count, this.layout);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Header: [%s %s%d x %d %s]", this.precision, this.type, this.dimension, this.count, this.layout);
+        }
+    }
+
+    private static ByteBuffer chunk(final Header header) {
+        final long size = Math.max(HEADER_SIZE, Math.min(CHUNK_SIZE, header.getDataSize()));
+
+        return ByteBuffer.allocateDirect((int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeFully(final WritableByteChannel out, final ByteBuffer chunk) throws IOException {
+        chunk.flip();
+
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+
+        chunk.clear();
+    }
+
+    private static void readFully(final ReadableByteChannel in, final ByteBuffer chunk, final int bytes) throws IOException {
+        chunk.clear();
+        chunk.limit(bytes);
+
+        while (chunk.hasRemaining()) {
+            if (in.read(chunk) < 0) {
+                throw new EOFException("Unexpected end of batch!");
+            }
+        }
+
+        chunk.flip();
+    }
+
+    /**
+     * Reads the header of a batch. The channel is left at the first
+     * component.
+     *
+     * @param in the channel to read from.
+     * @return the header.
+     * @throws IOException if the channel could not be read or does not start
+     * with a supported header.
+     * @since 26.10.17
+     */
+    public static Header readHeader(final ReadableByteChannel in) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        readFully(in, buffer, HEADER_SIZE);
+        return Header.read(buffer);
+    }
+
+    private static Header readHeader(final FileChannel in, final long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of batch!");
+            }
+        }
+
+        buffer.flip();
+        return Header.read(buffer);
+    }
+
+    private static void interleaveD(final double[] out, final double[][] in, final int inOffset, final int count) {
+        switch (in.length) {
+            case 2:
+                VectorArrays.arrayInterleave2D(out, 0, in[0], inOffset, in[1], inOffset, count);
+                break;
+            case 3:
+                VectorArrays.arrayInterleave3D(out, 0, in[0], inOffset, in[1], inOffset, in[2], inOffset, count);
+                break;
+            case 4:
+                VectorArrays.arrayInterleave4D(out, 0, in[0], inOffset, in[1], inOffset, in[2], inOffset, in[3], inOffset, count);
+                break;
+            default:
+                for (int c = 0; c < in.length; c++) {
+                    for (int j = 0; j < count; j++) {
+                        out[j * in.length + c] = in[c][inOffset + j];
+                    }
+                }
+        }
+    }
+
+    private static void deinterleaveD(final double[][] out, final int outOffset, final double[] in, final int count) {
+        switch (out.length) {
+            case 2:
+                VectorArrays.arrayDeinterleave2D(out[0], outOffset, out[1], outOffset, in, 0, count);
+                break;
+            case 3:
+                VectorArrays.arrayDeinterleave3D(out[0], outOffset, out[1], outOffset, out[2], outOffset, in, 0, count);
+                break;
+            case 4:
+                VectorArrays.arrayDeinterleave4D(out[0], outOffset, out[1], outOffset, out[2], outOffset, out[3], outOffset, in, 0, count);
+                break;
+            default:
+                for (int c = 0; c < out.length; c++) {
+                    for (int j = 0; j < count; j++) {
+                        out[c][outOffset + j] = in[j * out.length + c];
+                    }
+                }
+        }
+    }
+
+    private static void interleaveF(final float[] out, final float[][] in, final int inOffset, final int count) {
+        switch (in.length) {
+            case 2:
+                VectorArrays.arrayInterleave2F(out, 0, in[0], inOffset, in[1], inOffset, count);
+                break;
+            case 3:
+                VectorArrays.arrayInterleave3F(out, 0, in[0], inOffset, in[1], inOffset, in[2], inOffset, count);
+                break;
+            case 4:
+                VectorArrays.arrayInterleave4F(out, 0, in[0], inOffset, in[1], inOffset, in[2], inOffset, in[3], inOffset, count);
+                break;
+            default:
+                for (int c = 0; c < in.length; c++) {
+                    for (int j = 0; j < count; j++) {
+                        out[j * in.length + c] = in[c][inOffset + j];
+                    }
+                }
+        }
+    }
+
+    private static void deinterleaveF(final float[][] out, final int outOffset, final float[] in, final int count) {
+        switch (out.length) {
+            case 2:
+                VectorArrays.arrayDeinterleave2F(out[0], outOffset, out[1], outOffset, in, 0, count);
+                break;
+            case 3:
+                VectorArrays.arrayDeinterleave3F(out[0], outOffset, out[1], outOffset, out[2], outOffset, in, 0, count);
+                break;
+            case 4:
+                VectorArrays.arrayDeinterleave4F(out[0], outOffset, out[1], outOffset, out[2], outOffset, out[3], outOffset, in, 0, count);
+                break;
+            default:
+                for (int c = 0; c < out.length; c++) {
+                    for (int j = 0; j < count; j++) {
+                        out[c][outOffset + j] = in[j * out.length + c];
+                    }
+                }
+        }
+    }
+
+    // Components are described by a set of arrays and a stride. SoA sources
+    // have one array per component and a stride of 1; AoS sources have a
+    // single array with a stride equal to the number of components.
+    private static void writeD(
+            final WritableByteChannel out, final Header header,
+            final double[][] in, final int stride, final int count) throws IOException {
+
+        final ByteBuffer chunk = chunk(header);
+        final int components = header.getComponents();
+
+        header.write(chunk);
+        writeFully(out, chunk);
+
+        if (header.getLayout() == BufferWriter.Layout.PLANAR) {
+            final int block = chunk.capacity() / Double.BYTES;
+
+            for (int c = 0; c < components; c++) {
+                final double[] src = in[stride == 1 ? c : 0];
+
+                for (int i = 0; i < count; i += block) {
+                    final int n = Math.min(block, count - i);
+                    final DoubleBuffer view = chunk.asDoubleBuffer();
+
+                    if (stride == 1) {
+                        view.put(src, i, n);
+                    } else {
+                        for (int j = 0; j < n; j++) {
+                            view.put(j, src[(i + j) * stride + c]);
+                        }
+                    }
+
+                    chunk.position(n * Double.BYTES);
+                    writeFully(out, chunk);
+                }
+            }
+        } else {
+            final int block = chunk.capacity() / (components * Double.BYTES);
+            final double[] scratch = stride == 1 ? new double[block * components] : null;
+
+            for (int i = 0; i < count; i += block) {
+                final int n = Math.min(block, count - i);
+                final DoubleBuffer view = chunk.asDoubleBuffer();
+
+                if (stride == 1) {
+                    interleaveD(scratch, in, i, n);
+                    view.put(scratch, 0, n * components);
+                } else {
+                    view.put(in[0], i * stride, n * components);
+                }
+
+                chunk.position(n * components * Double.BYTES);
+                writeFully(out, chunk);
+            }
+        }
+    }
+
+    private static void readD(
+            final ReadableByteChannel in, final Header header,
+            final double[][] out, final int stride, final int count) throws IOException {
+
+        final ByteBuffer chunk = chunk(header);
+        final int components = header.getComponents();
+
+        if (header.getLayout() == BufferWriter.Layout.PLANAR) {
+            final int block = chunk.capacity() / Double.BYTES;
+
+            for (int c = 0; c < components; c++) {
+                final double[] dst = out[stride == 1 ? c : 0];
+
+                for (int i = 0; i < count; i += block) {
+                    final int n = Math.min(block, count - i);
+
+                    readFully(in, chunk, n * Double.BYTES);
+
+                    final DoubleBuffer view = chunk.asDoubleBuffer();
+
+                    if (stride == 1) {
+                        view.get(dst, i, n);
+                    } else {
+                        for (int j = 0; j < n; j++) {
+                            dst[(i + j) * stride + c] = view.get(j);
+                        }
+                    }
+                }
+            }
+        } else {
+            final int block = chunk.capacity() / (components * Double.BYTES);
+            final double[] scratch = stride == 1 ? new double[block * components] : null;
+
+            for (int i = 0; i < count; i += block) {
+                final int n = Math.min(block, count - i);
+
+                readFully(in, chunk, n * components * Double.BYTES);
+
+                final DoubleBuffer view = chunk.asDoubleBuffer();
+
+                if (stride == 1) {
+                    view.get(scratch, 0, n * components);
+                    deinterleaveD(out, i, scratch, n);
+                } else {
+                    view.get(out[0], i * stride, n * components);
+                }
+            }
+        }
+    }
+
+    private static void writeF(
+            final WritableByteChannel out, final Header header,
+            final float[][] in, final int stride, final int count) throws IOException {
+
+        final ByteBuffer chunk = chunk(header);
+        final int components = header.getComponents();
+
+        header.write(chunk);
+        writeFully(out, chunk);
+
+        if (header.getLayout() == BufferWriter.Layout.PLANAR) {
+            final int block = chunk.capacity() / Float.BYTES;
+
+            for (int c = 0; c < components; c++) {
+                final float[] src = in[stride == 1 ? c : 0];
+
+                for (int i = 0; i < count; i += block) {
+                    final int n = Math.min(block, count - i);
+                    final FloatBuffer view = chunk.asFloatBuffer();
+
+                    if (stride == 1) {
+                        view.put(src, i, n);
+                    } else {
+                        for (int j = 0; j < n; j++) {
+                            view.put(j, src[(i + j) * stride + c]);
+                        }
+                    }
+
+                    chunk.position(n * Float.BYTES);
+                    writeFully(out, chunk);
+                }
+            }
+        } else {
+            final int block = chunk.capacity() / (components * Float.BYTES);
+            final float[] scratch = stride == 1 ? new float[block * components] : null;
+
+            for (int i = 0; i < count; i += block) {
+                final int n = Math.min(block, count - i);
+                final FloatBuffer view = chunk.asFloatBuffer();
+
+                if (stride == 1) {
+                    interleaveF(scratch, in, i, n);
+                    view.put(scratch, 0, n * components);
+                } else {
+                    view.put(in[0], i * stride, n * components);
+                }
+
+                chunk.position(n * components * Float.BYTES);
+                writeFully(out, chunk);
+            }
+        }
+    }
+
+    private static void readF(
+            final ReadableByteChannel in, final Header header,
+            final float[][] out, final int stride, final int count) throws IOException {
+
+        final ByteBuffer chunk = chunk(header);
+        final int components = header.getComponents();
+
+        if (header.getLayout() == BufferWriter.Layout.PLANAR) {
+            final int block = chunk.capacity() / Float.BYTES;
+
+            for (int c = 0; c < components; c++) {
+                final float[] dst = out[stride == 1 ? c : 0];
+
+                for (int i = 0; i < count; i += block) {
+                    final int n = Math.min(block, count - i);
+
+                    readFully(in, chunk, n * Float.BYTES);
+
+                    final FloatBuffer view = chunk.asFloatBuffer();
+
+                    if (stride == 1) {
+                        view.get(dst, i, n);
+                    } else {
+                        for (int j = 0; j < n; j++) {
+                            dst[(i + j) * stride + c] = view.get(j);
+                        }
+                    }
+                }
+            }
+        } else {
+            final int block = chunk.capacity() / (components * Float.BYTES);
+            final float[] scratch = stride == 1 ? new float[block * components] : null;
+
+            for (int i = 0; i < count; i += block) {
+                final int n = Math.min(block, count - i);
+
+                readFully(in, chunk, n * components * Float.BYTES);
+
+                final FloatBuffer view = chunk.asFloatBuffer();
+
+                if (stride == 1) {
+                    view.get(scratch, 0, n * components);
+                    deinterleaveF(out, i, scratch, n);
+                } else {
+                    view.get(out[0], i * stride, n * components);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes an array as a batch. The header is written first, followed by the
+     * components in the requested layout. The other writers behave the same
+     * for their array types.
+     *
+     * @param out the channel to write to.
+     * @param in the array to write.
+     * @param layout the layout of the components in the batch.
+     * @throws IOException if the channel could not be written.
+     * @since 26.10.17
+     */
+    public static void write(final WritableByteChannel out, final GLVec2Array in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.DOUBLE, 2, in.length, layout);
+
+        writeD(out, header, new double[][]{in.x, in.y}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec3Array in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.DOUBLE, 3, in.length, layout);
+
+        writeD(out, header, new double[][]{in.x, in.y, in.z}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec4Array in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.DOUBLE, 4, in.length, layout);
+
+        writeD(out, header, new double[][]{in.x, in.y, in.z, in.w}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec3InterleavedArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.DOUBLE, 3, in.length, layout);
+
+        writeD(out, header, new double[][]{in.data}, 3, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLMat4Array in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.MATRIX, Precision.DOUBLE, 4, in.length, layout);
+
+        writeD(out, header, new double[][]{in.data}, 16, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLQuaternionArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.QUATERNION, Precision.DOUBLE, 4, in.length, layout);
+
+        writeD(out, header, new double[][]{in.x, in.y, in.z, in.w}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec2FArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.FLOAT, 2, in.length, layout);
+
+        writeF(out, header, new float[][]{in.x, in.y}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec3FArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.FLOAT, 3, in.length, layout);
+
+        writeF(out, header, new float[][]{in.x, in.y, in.z}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec4FArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.FLOAT, 4, in.length, layout);
+
+        writeF(out, header, new float[][]{in.x, in.y, in.z, in.w}, 1, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLVec3FInterleavedArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.VECTOR, Precision.FLOAT, 3, in.length, layout);
+
+        writeF(out, header, new float[][]{in.data}, 3, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLMat4FArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.MATRIX, Precision.FLOAT, 4, in.length, layout);
+
+        writeF(out, header, new float[][]{in.data}, 16, in.length);
+    }
+
+    public static void write(final WritableByteChannel out, final GLQuaternionFArray in, final BufferWriter.Layout layout) throws IOException {
+        final Header header = new Header(Type.QUATERNION, Precision.FLOAT, 4, in.length, layout);
+
+        writeF(out, header, new float[][]{in.x, in.y, in.z, in.w}, 1, in.length);
+    }
+
+    /**
+     * Reads a batch written by write. The batch may use either layout, but its
+     * type, precision and dimension must match the array. The other readers
+     * behave the same for their array types.
+     *
+     * @param in the channel to read from. It must be positioned at the header.
+     * @param out the array to read into. A new array is allocated if it is
+     * null or too small.
+     * @return the array.
+     * @throws IOException if the channel could not be read or does not hold a
+     * matching batch.
+     * @since 26.10.17
+     */
+    public static GLVec2Array readGLVec2Array(final ReadableByteChannel in, final GLVec2Array out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.DOUBLE, 2);
+        final GLVec2Array res = out == null || out.length < count ? new GLVec2Array(count) : out;
+
+        readD(in, header, new double[][]{res.x, res.y}, 1, count);
+        return res;
+    }
+
+    public static GLVec3Array readGLVec3Array(final ReadableByteChannel in, final GLVec3Array out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.DOUBLE, 3);
+        final GLVec3Array res = out == null || out.length < count ? new GLVec3Array(count) : out;
+
+        readD(in, header, new double[][]{res.x, res.y, res.z}, 1, count);
+        return res;
+    }
+
+    public static GLVec4Array readGLVec4Array(final ReadableByteChannel in, final GLVec4Array out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.DOUBLE, 4);
+        final GLVec4Array res = out == null || out.length < count ? new GLVec4Array(count) : out;
+
+        readD(in, header, new double[][]{res.x, res.y, res.z, res.w}, 1, count);
+        return res;
+    }
+
+    public static GLVec3InterleavedArray readGLVec3InterleavedArray(final ReadableByteChannel in, final GLVec3InterleavedArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.DOUBLE, 3);
+        final GLVec3InterleavedArray res = out == null || out.length < count ? new GLVec3InterleavedArray(count) : out;
+
+        readD(in, header, new double[][]{res.data}, 3, count);
+        return res;
+    }
+
+    public static GLMat4Array readGLMat4Array(final ReadableByteChannel in, final GLMat4Array out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.MATRIX, Precision.DOUBLE, 4);
+        final GLMat4Array res = out == null || out.length < count ? new GLMat4Array(count) : out;
+
+        readD(in, header, new double[][]{res.data}, 16, count);
+        return res;
+    }
+
+    public static GLQuaternionArray readGLQuaternionArray(final ReadableByteChannel in, final GLQuaternionArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.QUATERNION, Precision.DOUBLE, 4);
+        final GLQuaternionArray res = out == null || out.length < count ? new GLQuaternionArray(count) : out;
+
+        readD(in, header, new double[][]{res.x, res.y, res.z, res.w}, 1, count);
+        return res;
+    }
+
+    public static GLVec2FArray readGLVec2FArray(final ReadableByteChannel in, final GLVec2FArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.FLOAT, 2);
+        final GLVec2FArray res = out == null || out.length < count ? new GLVec2FArray(count) : out;
+
+        readF(in, header, new float[][]{res.x, res.y}, 1, count);
+        return res;
+    }
+
+    public static GLVec3FArray readGLVec3FArray(final ReadableByteChannel in, final GLVec3FArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.FLOAT, 3);
+        final GLVec3FArray res = out == null || out.length < count ? new GLVec3FArray(count) : out;
+
+        readF(in, header, new float[][]{res.x, res.y, res.z}, 1, count);
+        return res;
+    }
+
+    public static GLVec4FArray readGLVec4FArray(final ReadableByteChannel in, final GLVec4FArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.FLOAT, 4);
+        final GLVec4FArray res = out == null || out.length < count ? new GLVec4FArray(count) : out;
+
+        readF(in, header, new float[][]{res.x, res.y, res.z, res.w}, 1, count);
+        return res;
+    }
+
+    public static GLVec3FInterleavedArray readGLVec3FInterleavedArray(final ReadableByteChannel in, final GLVec3FInterleavedArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.VECTOR, Precision.FLOAT, 3);
+        final GLVec3FInterleavedArray res = out == null || out.length < count ? new GLVec3FInterleavedArray(count) : out;
+
+        readF(in, header, new float[][]{res.data}, 3, count);
+        return res;
+    }
+
+    public static GLMat4FArray readGLMat4FArray(final ReadableByteChannel in, final GLMat4FArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.MATRIX, Precision.FLOAT, 4);
+        final GLMat4FArray res = out == null || out.length < count ? new GLMat4FArray(count) : out;
+
+        readF(in, header, new float[][]{res.data}, 16, count);
+        return res;
+    }
+
+    public static GLQuaternionFArray readGLQuaternionFArray(final ReadableByteChannel in, final GLQuaternionFArray out) throws IOException {
+        final Header header = readHeader(in);
+        final int count = header.require(Type.QUATERNION, Precision.FLOAT, 4);
+        final GLQuaternionFArray res = out == null || out.length < count ? new GLQuaternionFArray(count) : out;
+
+        readF(in, header, new float[][]{res.x, res.y, res.z, res.w}, 1, count);
+        return res;
+    }
+
+    /**
+     * Maps a batch of GLVec3 doubles without copying it onto the heap. The
+     * batch may use either layout.
+     *
+     * @param channel the channel of the file.
+     * @param mode the map mode.
+     * @param position the byte offset of the header in the file.
+     * @return the mapped array.
+     * @throws IOException if the header could not be read, does not describe
+     * GLVec3 doubles or the file could not be mapped.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray mapGLVec3Array(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position) throws IOException {
+
+        final Header header = readHeader(channel, position);
+        final int count = header.require(Type.VECTOR, Precision.DOUBLE, 3);
+
+        return GLVec3MappedArray.map(channel, mode, position + HEADER_SIZE, count, header.getLayout());
+    }
+
+    /**
+     * Maps a batch of GLMat4 doubles without copying it onto the heap. The
+     * batch must be interleaved.
+     *
+     * @param channel the channel of the file.
+     * @param mode the map mode.
+     * @param position the byte offset of the header in the file.
+     * @return the mapped array.
+     * @throws IOException if the header could not be read, does not describe
+     * interleaved GLMat4 doubles or the file could not be mapped.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray mapGLMat4Array(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position) throws IOException {
+
+        final Header header = readHeader(channel, position);
+        final int count = header.require(Type.MATRIX, Precision.DOUBLE, 4);
+
+        if (header.getLayout() != BufferWriter.Layout.INTERLEAVED) {
+            throw new IOException("Only interleaved matrix batches can be mapped!");
+        }
+
+        return GLMat4MappedArray.map(channel, mode, position + HEADER_SIZE, count);
+    }
+}
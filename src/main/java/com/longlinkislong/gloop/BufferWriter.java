@@ -0,0 +1,1265 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Bulk writers for uploading batches of vectors and matrices into ByteBuffers.
+ * Each call creates a single buffer view and copies through it in blocks, so
+ * the per-element cost is an array store instead of a ByteBuffer.put. The
+ * *F writers output floats, converting double precision inputs, the *D
+ * writers output doubles and the packed writers output the compact formats of
+ * Packing. Values are written in the byte order of the buffer; buffers from
+ * allocate are direct and in native order, which lets the JDK copy
+ * same-precision data without swapping bytes. The position of the buffer is
+ * never changed.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class BufferWriter {
+
+    /**
+     * The order elements are written in.
+     *
+     * @since 26.10.17
+     */
+    public static enum Layout {
+        /**
+         * Every component of an element is written before the next element.
+         * This is the usual vertex attribute layout.
+         */
+        INTERLEAVED,
+        /**
+         * The first component of every element is written, then the second
+         * component of every element and so on.
+         */
+        PLANAR
+    }
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private BufferWriter() {
+    }
+
+    /**
+     * Allocates a direct ByteBuffer in native order.
+     *
+     * @param bytes the size of the buffer in bytes.
+     * @return the buffer.
+     * @since 26.10.17
+     */
+    public static ByteBuffer allocate(final int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Writes vectors of the same size into a buffer as floats. Double precision
+     * inputs are rounded to float.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the vectors differ in size or the
+     * buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeVectorsF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec<?>[] in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, in0, in0Offset, count, vectorSize(in0, in0Offset, count), layout);
+    }
+
+    /**
+     * Writes vectors of the same size into a buffer as doubles. Single
+     * precision inputs are widened to double.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the vectors differ in size or the
+     * buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeVectorsD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec<?>[] in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, in0, in0Offset, count, vectorSize(in0, in0Offset, count), layout);
+    }
+
+    /**
+     * Writes matrices of the same size into a buffer as floats. Double
+     * precision inputs are rounded to float. Matrices are written in column-
+     * major order.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the matrices to write.
+     * @param in0Offset the index of the first matrix to write.
+     * @param count the number of matrices to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the matrices differ in size or the
+     * buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeMatricesF(
+            final ByteBuffer out, final int outOffset,
+            final GLMat<?, ?>[] in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, in0, in0Offset, count, matrixSize(in0, in0Offset, count), layout);
+    }
+
+    /**
+     * Writes matrices of the same size into a buffer as doubles. Single
+     * precision inputs are widened to double. Matrices are written in column-
+     * major order.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the matrices to write.
+     * @param in0Offset the index of the first matrix to write.
+     * @param count the number of matrices to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the matrices differ in size or the
+     * buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeMatricesD(
+            final ByteBuffer out, final int outOffset,
+            final GLMat<?, ?>[] in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, in0, in0Offset, count, matrixSize(in0, in0Offset, count), layout);
+    }
+
+    /**
+     * Writes a batch of vectors into a buffer as floats. Double precision
+     * batches are rounded to float.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, new double[][]{in0.x, in0.y}, offsets(in0Offset, 0, 2), 1, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, new double[][]{in0.x, in0.y, in0.z}, offsets(in0Offset, 0, 3), 1, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, new double[][]{in0.x, in0.y, in0.z, in0.w}, offsets(in0Offset, 0, 4), 1, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec2FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, new float[][]{in0.x, in0.y}, offsets(in0Offset, 0, 2), 1, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, new float[][]{in0.x, in0.y, in0.z}, offsets(in0Offset, 0, 3), 1, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, new float[][]{in0.x, in0.y, in0.z, in0.w}, offsets(in0Offset, 0, 4), 1, count, layout);
+    }
+
+    /**
+     * Writes a batch of vectors into a buffer as doubles.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, new double[][]{in0.x, in0.y}, offsets(in0Offset, 0, 2), 1, count, layout);
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, new double[][]{in0.x, in0.y, in0.z}, offsets(in0Offset, 0, 3), 1, count, layout);
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, new double[][]{in0.x, in0.y, in0.z, in0.w}, offsets(in0Offset, 0, 4), 1, count, layout);
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec2FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, new float[][]{in0.x, in0.y}, offsets(in0Offset, 0, 2), 1, count, layout);
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, new float[][]{in0.x, in0.y, in0.z}, offsets(in0Offset, 0, 3), 1, count, layout);
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, new float[][]{in0.x, in0.y, in0.z, in0.w}, offsets(in0Offset, 0, 4), 1, count, layout);
+    }
+
+    /**
+     * Writes a batch of matrices into a buffer as floats. Interleaved output
+     * is the usual column-major layout; planar output writes the first element
+     * of every matrix, then the second and so on.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the matrices to write.
+     * @param in0Offset the index of the first matrix to write.
+     * @param count the number of matrices to write.
+     * @param layout the order to write the elements in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLMat4Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, repeat(in0.data, GLMat4Array.STRIDE), offsets(in0Offset * GLMat4Array.STRIDE, 1, GLMat4Array.STRIDE), GLMat4Array.STRIDE, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLMat4FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        if (layout == Layout.INTERLEAVED) {
+            view(out, outOffset, count * GLMat4FArray.STRIDE * Float.BYTES)
+                    .asFloatBuffer()
+                    .put(in0.data, in0Offset * GLMat4FArray.STRIDE, count * GLMat4FArray.STRIDE);
+        } else {
+            writeF(out, outOffset, repeat(in0.data, GLMat4FArray.STRIDE), offsets(in0Offset * GLMat4FArray.STRIDE, 1, GLMat4FArray.STRIDE), GLMat4FArray.STRIDE, count, layout);
+        }
+    }
+
+    /**
+     * Writes a batch of matrices into a buffer as doubles. Interleaved output
+     * is the usual column-major layout; planar output writes the first element
+     * of every matrix, then the second and so on.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the matrices to write.
+     * @param in0Offset the index of the first matrix to write.
+     * @param count the number of matrices to write.
+     * @param layout the order to write the elements in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLMat4Array in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        if (layout == Layout.INTERLEAVED) {
+            view(out, outOffset, count * GLMat4Array.STRIDE * Double.BYTES)
+                    .asDoubleBuffer()
+                    .put(in0.data, in0Offset * GLMat4Array.STRIDE, count * GLMat4Array.STRIDE);
+        } else {
+            writeD(out, outOffset, repeat(in0.data, GLMat4Array.STRIDE), offsets(in0Offset * GLMat4Array.STRIDE, 1, GLMat4Array.STRIDE), GLMat4Array.STRIDE, count, layout);
+        }
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLMat4FArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, repeat(in0.data, GLMat4FArray.STRIDE), offsets(in0Offset * GLMat4FArray.STRIDE, 1, GLMat4FArray.STRIDE), GLMat4FArray.STRIDE, count, layout);
+    }
+
+    /**
+     * Writes a batch of interleaved vectors into a buffer as floats.
+     * Interleaved output of the same precision is a single bulk copy.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3InterleavedArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeF(out, outOffset, repeat(in0.data, GLVec3InterleavedArray.STRIDE), offsets(in0Offset * GLVec3InterleavedArray.STRIDE, 1, GLVec3InterleavedArray.STRIDE), GLVec3InterleavedArray.STRIDE, count, layout);
+    }
+
+    public static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3FInterleavedArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        if (layout == Layout.INTERLEAVED) {
+            view(out, outOffset, count * GLVec3FInterleavedArray.STRIDE * Float.BYTES)
+                    .asFloatBuffer()
+                    .put(in0.data, in0Offset * GLVec3FInterleavedArray.STRIDE, count * GLVec3FInterleavedArray.STRIDE);
+        } else {
+            writeF(out, outOffset, repeat(in0.data, GLVec3FInterleavedArray.STRIDE), offsets(in0Offset * GLVec3FInterleavedArray.STRIDE, 1, GLVec3FInterleavedArray.STRIDE), GLVec3FInterleavedArray.STRIDE, count, layout);
+        }
+    }
+
+    /**
+     * Writes a batch of interleaved vectors into a buffer as doubles.
+     * Interleaved output of the same precision is a single bulk copy.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3InterleavedArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        if (layout == Layout.INTERLEAVED) {
+            view(out, outOffset, count * GLVec3InterleavedArray.STRIDE * Double.BYTES)
+                    .asDoubleBuffer()
+                    .put(in0.data, in0Offset * GLVec3InterleavedArray.STRIDE, count * GLVec3InterleavedArray.STRIDE);
+        } else {
+            writeD(out, outOffset, repeat(in0.data, GLVec3InterleavedArray.STRIDE), offsets(in0Offset * GLVec3InterleavedArray.STRIDE, 1, GLVec3InterleavedArray.STRIDE), GLVec3InterleavedArray.STRIDE, count, layout);
+        }
+    }
+
+    public static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3FInterleavedArray in0, final int in0Offset,
+            final int count,
+            final Layout layout) {
+
+        writeD(out, outOffset, repeat(in0.data, GLVec3FInterleavedArray.STRIDE), offsets(in0Offset * GLVec3FInterleavedArray.STRIDE, 1, GLVec3FInterleavedArray.STRIDE), GLVec3FInterleavedArray.STRIDE, count, layout);
+    }
+
+    /**
+     * Writes vectors of the same size into a buffer in a packed format.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param format the format of each component.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the vectors differ in size or the
+     * buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writeVectorsPacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec<?>[] in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, in0, in0Offset, count, vectorSize(in0, in0Offset, count), format, layout);
+    }
+
+    /**
+     * Writes a batch of vectors into a buffer in a packed format. Half floats
+     * and 16 bit normalized values take half the space of floats and 8 bit
+     * normalized values take a quarter.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param format the format of each component.
+     * @param layout the order to write the components in.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, new double[][]{in0.x, in0.y}, in0Offset, count, format, layout);
+    }
+
+    public static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, new double[][]{in0.x, in0.y, in0.z}, in0Offset, count, format, layout);
+    }
+
+    public static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4Array in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, new double[][]{in0.x, in0.y, in0.z, in0.w}, in0Offset, count, format, layout);
+    }
+
+    public static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec2FArray in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, new float[][]{in0.x, in0.y}, in0Offset, count, format, layout);
+    }
+
+    public static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3FArray in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, new float[][]{in0.x, in0.y, in0.z}, in0Offset, count, format, layout);
+    }
+
+    public static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4FArray in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        writePacked(out, outOffset, new float[][]{in0.x, in0.y, in0.z, in0.w}, in0Offset, count, format, layout);
+    }
+
+    /**
+     * Writes a batch of vectors into a buffer as 10-10-10-2 values, one int
+     * per vector. Signed values match GL_INT_2_10_10_10_REV and unsigned values
+     * match GL_UNSIGNED_INT_2_10_10_10_REV. Three component vectors are written
+     * with w set to zero.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the vectors to write.
+     * @param in0Offset the index of the first vector to write.
+     * @param count the number of vectors to write.
+     * @param signed if the values should be signed normalized.
+     * @throws IllegalArgumentException if the buffer is too small.
+     * @since 26.10.17
+     */
+    public static void write1010102(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count,
+            final boolean signed) {
+
+        write1010102(out, outOffset, new double[][]{in0.x, in0.y, in0.z}, in0Offset, count, signed);
+    }
+
+    public static void write1010102(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4Array in0, final int in0Offset,
+            final int count,
+            final boolean signed) {
+
+        write1010102(out, outOffset, new double[][]{in0.x, in0.y, in0.z, in0.w}, in0Offset, count, signed);
+    }
+
+    public static void write1010102(
+            final ByteBuffer out, final int outOffset,
+            final GLVec3FArray in0, final int in0Offset,
+            final int count,
+            final boolean signed) {
+
+        write1010102(out, outOffset, new float[][]{in0.x, in0.y, in0.z}, in0Offset, count, signed);
+    }
+
+    public static void write1010102(
+            final ByteBuffer out, final int outOffset,
+            final GLVec4FArray in0, final int in0Offset,
+            final int count,
+            final boolean signed) {
+
+        write1010102(out, outOffset, new float[][]{in0.x, in0.y, in0.z, in0.w}, in0Offset, count, signed);
+    }
+
+    private static ByteBuffer view(final ByteBuffer out, final int outOffset, final int bytes) {
+        if (outOffset < 0 || bytes > out.limit() - outOffset) {
+            throw new IllegalArgumentException("Buffer is too small!");
+        }
+
+        final ByteBuffer view = out.duplicate();
+
+        view.position(outOffset);
+
+        // duplicates are always big endian
+        return view.order(out.order());
+    }
+
+    private static int vectorSize(final GLVec<?>[] in0, final int in0Offset, final int count) {
+        final int size = count == 0 ? 0 : in0[in0Offset].size();
+
+        for (int i = 1; i < count; i++) {
+            if (in0[in0Offset + i].size() != size) {
+                throw new IllegalArgumentException("All vectors must be the same size!");
+            }
+        }
+
+        return size;
+    }
+
+    private static int matrixSize(final GLMat<?, ?>[] in0, final int in0Offset, final int count) {
+        final int size = count == 0 ? 0 : in0[in0Offset].size();
+
+        for (int i = 1; i < count; i++) {
+            if (in0[in0Offset + i].size() != size) {
+                throw new IllegalArgumentException("All matrices must be the same size!");
+            }
+        }
+
+        return size * size;
+    }
+
+    private static int[] offsets(final int offset, final int spacing, final int size) {
+        final int[] out = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            out[i] = offset + i * spacing;
+        }
+
+        return out;
+    }
+
+    private static float[][] repeat(final float[] in0, final int times) {
+        final float[][] out = new float[times][];
+
+        Arrays.fill(out, in0);
+        return out;
+    }
+
+    private static double[][] repeat(final double[] in0, final int times) {
+        final double[][] out = new double[times][];
+
+        Arrays.fill(out, in0);
+        return out;
+    }
+
+    private static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final Object[] in0, final int in0Offset,
+            final int count, final int size,
+            final Layout layout) {
+
+        final FloatBuffer view = view(out, outOffset, count * size * Float.BYTES).asFloatBuffer();
+        final float[] block = new float[Math.max(BLOCK_SIZE, size)];
+        int n = 0;
+
+        if (layout == Layout.INTERLEAVED) {
+            for (int i = 0; i < count; i++) {
+                if (n + size > block.length) {
+                    view.put(block, 0, n);
+                    n = 0;
+                }
+
+                readF(in0[in0Offset + i], block, n);
+                n += size;
+            }
+        } else {
+            for (int c = 0; c < size; c++) {
+                for (int i = 0; i < count; i++) {
+                    if (n == block.length) {
+                        view.put(block, 0, n);
+                        n = 0;
+                    }
+
+                    block[n++] = componentF(in0[in0Offset + i], c);
+                }
+            }
+        }
+
+        view.put(block, 0, n);
+    }
+
+    private static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final float[][] in0, final int[] in0Offset, final int step,
+            final int count,
+            final Layout layout) {
+
+        final int size = in0.length;
+        final FloatBuffer view = view(out, outOffset, count * size * Float.BYTES).asFloatBuffer();
+
+        if (layout == Layout.INTERLEAVED) {
+            final float[] block = new float[BLOCK_SIZE * size];
+
+            for (int i = 0; i < count; i += BLOCK_SIZE) {
+                final int n = Math.min(BLOCK_SIZE, count - i);
+
+                for (int c = 0; c < size; c++) {
+                    final float[] src = in0[c];
+                    int index = in0Offset[c] + i * step;
+
+                    for (int j = c; j < n * size; j += size) {
+                        block[j] = src[index];
+                        index += step;
+                    }
+                }
+
+                view.put(block, 0, n * size);
+            }
+        } else if (step == 1) {
+            for (int c = 0; c < size; c++) {
+                view.put(in0[c], in0Offset[c], count);
+            }
+        } else {
+            final float[] block = new float[BLOCK_SIZE];
+
+            for (int c = 0; c < size; c++) {
+                final float[] src = in0[c];
+
+                for (int i = 0; i < count; i += BLOCK_SIZE) {
+                    final int n = Math.min(BLOCK_SIZE, count - i);
+                    final int base = in0Offset[c] + i * step;
+
+                    for (int j = 0; j < n; j++) {
+                        block[j] = src[base + j * step];
+                    }
+
+                    view.put(block, 0, n);
+                }
+            }
+        }
+    }
+
+    private static void writeF(
+            final ByteBuffer out, final int outOffset,
+            final double[][] in0, final int[] in0Offset, final int step,
+            final int count,
+            final Layout layout) {
+
+        final int size = in0.length;
+        final FloatBuffer view = view(out, outOffset, count * size * Float.BYTES).asFloatBuffer();
+
+        if (layout == Layout.INTERLEAVED) {
+            final float[] block = new float[BLOCK_SIZE * size];
+
+            for (int i = 0; i < count; i += BLOCK_SIZE) {
+                final int n = Math.min(BLOCK_SIZE, count - i);
+
+                for (int c = 0; c < size; c++) {
+                    final double[] src = in0[c];
+                    int index = in0Offset[c] + i * step;
+
+                    for (int j = c; j < n * size; j += size) {
+                        block[j] = (float) src[index];
+                        index += step;
+                    }
+                }
+
+                view.put(block, 0, n * size);
+            }
+        } else {
+            final float[] block = new float[BLOCK_SIZE];
+
+            for (int c = 0; c < size; c++) {
+                final double[] src = in0[c];
+
+                for (int i = 0; i < count; i += BLOCK_SIZE) {
+                    final int n = Math.min(BLOCK_SIZE, count - i);
+                    final int base = in0Offset[c] + i * step;
+
+                    for (int j = 0; j < n; j++) {
+                        block[j] = (float) src[base + j * step];
+                    }
+
+                    view.put(block, 0, n);
+                }
+            }
+        }
+    }
+
+    private static void readF(final Object in0, final float[] out, final int outOffset) {
+        if (in0 instanceof GLVecF) {
+            final GLVecF<?> vec = (GLVecF<?>) in0;
+
+            System.arraycopy(vec.data(), vec.offset(), out, outOffset, vec.size());
+        } else if (in0 instanceof GLVecD) {
+            final GLVecD<?> vec = (GLVecD<?>) in0;
+            final double[] data = vec.data();
+            final int offset = vec.offset();
+
+            for (int i = 0; i < vec.size(); i++) {
+                out[outOffset + i] = (float) data[offset + i];
+            }
+        } else if (in0 instanceof GLMatF) {
+            final GLMatF<?, ?> mat = (GLMatF<?, ?>) in0;
+
+            System.arraycopy(mat.data(), mat.offset(), out, outOffset, mat.size() * mat.size());
+        } else if (in0 instanceof GLMatD) {
+            final GLMatD<?, ?> mat = (GLMatD<?, ?>) in0;
+            final double[] data = mat.data();
+            final int offset = mat.offset();
+
+            for (int i = 0; i < mat.size() * mat.size(); i++) {
+                out[outOffset + i] = (float) data[offset + i];
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported vector or matrix type!");
+        }
+    }
+
+    private static float componentF(final Object in0, final int index) {
+        if (in0 instanceof GLVecF) {
+            final GLVecF<?> vec = (GLVecF<?>) in0;
+
+            return vec.data()[vec.offset() + index];
+        } else if (in0 instanceof GLVecD) {
+            final GLVecD<?> vec = (GLVecD<?>) in0;
+
+            return (float) vec.data()[vec.offset() + index];
+        } else if (in0 instanceof GLMatF) {
+            final GLMatF<?, ?> mat = (GLMatF<?, ?>) in0;
+
+            return mat.data()[mat.offset() + index];
+        } else if (in0 instanceof GLMatD) {
+            final GLMatD<?, ?> mat = (GLMatD<?, ?>) in0;
+
+            return (float) mat.data()[mat.offset() + index];
+        } else {
+            throw new IllegalArgumentException("Unsupported vector or matrix type!");
+        }
+    }
+
+    private static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final Object[] in0, final int in0Offset,
+            final int count, final int size,
+            final Layout layout) {
+
+        final DoubleBuffer view = view(out, outOffset, count * size * Double.BYTES).asDoubleBuffer();
+        final double[] block = new double[Math.max(BLOCK_SIZE, size)];
+        int n = 0;
+
+        if (layout == Layout.INTERLEAVED) {
+            for (int i = 0; i < count; i++) {
+                if (n + size > block.length) {
+                    view.put(block, 0, n);
+                    n = 0;
+                }
+
+                readD(in0[in0Offset + i], block, n);
+                n += size;
+            }
+        } else {
+            for (int c = 0; c < size; c++) {
+                for (int i = 0; i < count; i++) {
+                    if (n == block.length) {
+                        view.put(block, 0, n);
+                        n = 0;
+                    }
+
+                    block[n++] = componentD(in0[in0Offset + i], c);
+                }
+            }
+        }
+
+        view.put(block, 0, n);
+    }
+
+    private static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final double[][] in0, final int[] in0Offset, final int step,
+            final int count,
+            final Layout layout) {
+
+        final int size = in0.length;
+        final DoubleBuffer view = view(out, outOffset, count * size * Double.BYTES).asDoubleBuffer();
+
+        if (layout == Layout.INTERLEAVED) {
+            final double[] block = new double[BLOCK_SIZE * size];
+
+            for (int i = 0; i < count; i += BLOCK_SIZE) {
+                final int n = Math.min(BLOCK_SIZE, count - i);
+
+                for (int c = 0; c < size; c++) {
+                    final double[] src = in0[c];
+                    int index = in0Offset[c] + i * step;
+
+                    for (int j = c; j < n * size; j += size) {
+                        block[j] = src[index];
+                        index += step;
+                    }
+                }
+
+                view.put(block, 0, n * size);
+            }
+        } else if (step == 1) {
+            for (int c = 0; c < size; c++) {
+                view.put(in0[c], in0Offset[c], count);
+            }
+        } else {
+            final double[] block = new double[BLOCK_SIZE];
+
+            for (int c = 0; c < size; c++) {
+                final double[] src = in0[c];
+
+                for (int i = 0; i < count; i += BLOCK_SIZE) {
+                    final int n = Math.min(BLOCK_SIZE, count - i);
+                    final int base = in0Offset[c] + i * step;
+
+                    for (int j = 0; j < n; j++) {
+                        block[j] = src[base + j * step];
+                    }
+
+                    view.put(block, 0, n);
+                }
+            }
+        }
+    }
+
+    private static void writeD(
+            final ByteBuffer out, final int outOffset,
+            final float[][] in0, final int[] in0Offset, final int step,
+            final int count,
+            final Layout layout) {
+
+        final int size = in0.length;
+        final DoubleBuffer view = view(out, outOffset, count * size * Double.BYTES).asDoubleBuffer();
+
+        if (layout == Layout.INTERLEAVED) {
+            final double[] block = new double[BLOCK_SIZE * size];
+
+            for (int i = 0; i < count; i += BLOCK_SIZE) {
+                final int n = Math.min(BLOCK_SIZE, count - i);
+
+                for (int c = 0; c < size; c++) {
+                    final float[] src = in0[c];
+                    int index = in0Offset[c] + i * step;
+
+                    for (int j = c; j < n * size; j += size) {
+                        block[j] = src[index];
+                        index += step;
+                    }
+                }
+
+                view.put(block, 0, n * size);
+            }
+        } else {
+            final double[] block = new double[BLOCK_SIZE];
+
+            for (int c = 0; c < size; c++) {
+                final float[] src = in0[c];
+
+                for (int i = 0; i < count; i += BLOCK_SIZE) {
+                    final int n = Math.min(BLOCK_SIZE, count - i);
+                    final int base = in0Offset[c] + i * step;
+
+                    for (int j = 0; j < n; j++) {
+                        block[j] = src[base + j * step];
+                    }
+
+                    view.put(block, 0, n);
+                }
+            }
+        }
+    }
+
+    private static void readD(final Object in0, final double[] out, final int outOffset) {
+        if (in0 instanceof GLVecD) {
+            final GLVecD<?> vec = (GLVecD<?>) in0;
+
+            System.arraycopy(vec.data(), vec.offset(), out, outOffset, vec.size());
+        } else if (in0 instanceof GLVecF) {
+            final GLVecF<?> vec = (GLVecF<?>) in0;
+            final float[] data = vec.data();
+            final int offset = vec.offset();
+
+            for (int i = 0; i < vec.size(); i++) {
+                out[outOffset + i] = data[offset + i];
+            }
+        } else if (in0 instanceof GLMatD) {
+            final GLMatD<?, ?> mat = (GLMatD<?, ?>) in0;
+
+            System.arraycopy(mat.data(), mat.offset(), out, outOffset, mat.size() * mat.size());
+        } else if (in0 instanceof GLMatF) {
+            final GLMatF<?, ?> mat = (GLMatF<?, ?>) in0;
+            final float[] data = mat.data();
+            final int offset = mat.offset();
+
+            for (int i = 0; i < mat.size() * mat.size(); i++) {
+                out[outOffset + i] = data[offset + i];
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported vector or matrix type!");
+        }
+    }
+
+    private static double componentD(final Object in0, final int index) {
+        if (in0 instanceof GLVecD) {
+            final GLVecD<?> vec = (GLVecD<?>) in0;
+
+            return vec.data()[vec.offset() + index];
+        } else if (in0 instanceof GLVecF) {
+            final GLVecF<?> vec = (GLVecF<?>) in0;
+
+            return vec.data()[vec.offset() + index];
+        } else if (in0 instanceof GLMatD) {
+            final GLMatD<?, ?> mat = (GLMatD<?, ?>) in0;
+
+            return mat.data()[mat.offset() + index];
+        } else if (in0 instanceof GLMatF) {
+            final GLMatF<?, ?> mat = (GLMatF<?, ?>) in0;
+
+            return mat.data()[mat.offset() + index];
+        } else {
+            throw new IllegalArgumentException("Unsupported vector or matrix type!");
+        }
+    }
+
+    private static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final Object[] in0, final int in0Offset,
+            final int count, final int size,
+            final Packing.Format format,
+            final Layout layout) {
+
+        final ByteBuffer view = view(out, outOffset, count * size * format.bytes);
+        final float[] block = new float[Math.max(BLOCK_SIZE, size)];
+        final Packer packer = new Packer(format, block.length);
+        int n = 0;
+
+        if (layout == Layout.INTERLEAVED) {
+            for (int i = 0; i < count; i++) {
+                if (n + size > block.length) {
+                    packer.put(view, block, n);
+                    n = 0;
+                }
+
+                readF(in0[in0Offset + i], block, n);
+                n += size;
+            }
+        } else {
+            for (int c = 0; c < size; c++) {
+                for (int i = 0; i < count; i++) {
+                    if (n == block.length) {
+                        packer.put(view, block, n);
+                        n = 0;
+                    }
+
+                    block[n++] = componentF(in0[in0Offset + i], c);
+                }
+            }
+        }
+
+        packer.put(view, block, n);
+    }
+
+    private static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final float[][] in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        final int size = in0.length;
+        final ByteBuffer view = view(out, outOffset, count * size * format.bytes);
+        final float[] block = new float[BLOCK_SIZE * size];
+        final Packer packer = new Packer(format, block.length);
+
+        if (layout == Layout.INTERLEAVED) {
+            for (int i = 0; i < count; i += BLOCK_SIZE) {
+                final int n = Math.min(BLOCK_SIZE, count - i);
+
+                for (int c = 0; c < size; c++) {
+                    final float[] src = in0[c];
+                    int index = in0Offset + i;
+
+                    for (int j = c; j < n * size; j += size) {
+                        block[j] = src[index++];
+                    }
+                }
+
+                packer.put(view, block, n * size);
+            }
+        } else {
+            for (int c = 0; c < size; c++) {
+                final float[] src = in0[c];
+
+                for (int i = 0; i < count; i += BLOCK_SIZE) {
+                    final int n = Math.min(BLOCK_SIZE, count - i);
+
+                    System.arraycopy(src, in0Offset + i, block, 0, n);
+
+                    packer.put(view, block, n);
+                }
+            }
+        }
+    }
+
+    private static void writePacked(
+            final ByteBuffer out, final int outOffset,
+            final double[][] in0, final int in0Offset,
+            final int count,
+            final Packing.Format format,
+            final Layout layout) {
+
+        final int size = in0.length;
+        final ByteBuffer view = view(out, outOffset, count * size * format.bytes);
+        final float[] block = new float[BLOCK_SIZE * size];
+        final Packer packer = new Packer(format, block.length);
+
+        if (layout == Layout.INTERLEAVED) {
+            for (int i = 0; i < count; i += BLOCK_SIZE) {
+                final int n = Math.min(BLOCK_SIZE, count - i);
+
+                for (int c = 0; c < size; c++) {
+                    final double[] src = in0[c];
+                    int index = in0Offset + i;
+
+                    for (int j = c; j < n * size; j += size) {
+                        block[j] = (float) src[index++];
+                    }
+                }
+
+                packer.put(view, block, n * size);
+            }
+        } else {
+            for (int c = 0; c < size; c++) {
+                final double[] src = in0[c];
+
+                for (int i = 0; i < count; i += BLOCK_SIZE) {
+                    final int n = Math.min(BLOCK_SIZE, count - i);
+
+                    for (int j = 0; j < n; j++) {
+                        block[j] = (float) src[in0Offset + i + j];
+                    }
+
+                    packer.put(view, block, n);
+                }
+            }
+        }
+    }
+
+    private static void write1010102(
+            final ByteBuffer out, final int outOffset,
+            final float[][] in0, final int in0Offset,
+            final int count,
+            final boolean signed) {
+
+        final IntBuffer view = view(out, outOffset, count * Integer.BYTES).asIntBuffer();
+        final int[] block = new int[BLOCK_SIZE];
+        // three component vectors read w from a block of zeros
+        final float[] w = in0.length == 4 ? in0[3] : new float[BLOCK_SIZE];
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+            final int wOffset = in0.length == 4 ? in0Offset + i : 0;
+
+            if (signed) {
+                Packing.arrayPackSnorm1010102F(block, 0, in0[0], in0Offset + i, in0[1], in0Offset + i, in0[2], in0Offset + i, w, wOffset, n);
+            } else {
+                Packing.arrayPackUnorm1010102F(block, 0, in0[0], in0Offset + i, in0[1], in0Offset + i, in0[2], in0Offset + i, w, wOffset, n);
+            }
+
+            view.put(block, 0, n);
+        }
+    }
+
+    private static void write1010102(
+            final ByteBuffer out, final int outOffset,
+            final double[][] in0, final int in0Offset,
+            final int count,
+            final boolean signed) {
+
+        final IntBuffer view = view(out, outOffset, count * Integer.BYTES).asIntBuffer();
+        final int[] block = new int[BLOCK_SIZE];
+        // three component vectors read w from a block of zeros
+        final double[] w = in0.length == 4 ? in0[3] : new double[BLOCK_SIZE];
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+            final int wOffset = in0.length == 4 ? in0Offset + i : 0;
+
+            if (signed) {
+                Packing.arrayPackSnorm1010102D(block, 0, in0[0], in0Offset + i, in0[1], in0Offset + i, in0[2], in0Offset + i, w, wOffset, n);
+            } else {
+                Packing.arrayPackUnorm1010102D(block, 0, in0[0], in0Offset + i, in0[1], in0Offset + i, in0[2], in0Offset + i, w, wOffset, n);
+            }
+
+            view.put(block, 0, n);
+        }
+    }
+
+    /**
+     * Packs blocks of floats and appends them to a buffer, advancing its
+     * position.
+     */
+    private static final class Packer {
+
+        private final Packing.Format format;
+        private final byte[] bytes;
+        private final short[] shorts;
+
+        private Packer(final Packing.Format format, final int size) {
+            this.format = format;
+            this.bytes = format.bytes == 1 ? new byte[size] : null;
+            this.shorts = format.bytes == 2 ? new short[size] : null;
+        }
+
+        private void put(final ByteBuffer view, final float[] block, final int n) {
+            switch (this.format) {
+                case HALF:
+                    Packing.arrayPackHalfF(this.shorts, 0, block, 0, n);
+                    break;
+                case UNORM8:
+                    Packing.arrayPackUnorm8F(this.bytes, 0, block, 0, n);
+                    break;
+                case SNORM8:
+                    Packing.arrayPackSnorm8F(this.bytes, 0, block, 0, n);
+                    break;
+                case UNORM16:
+                    Packing.arrayPackUnorm16F(this.shorts, 0, block, 0, n);
+                    break;
+                case SNORM16:
+                    Packing.arrayPackSnorm16F(this.shorts, 0, block, 0, n);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported format!");
+            }
+
+            if (this.bytes != null) {
+                view.put(this.bytes, 0, n);
+            } else {
+                // short views share the byte order of the buffer
+                view.asShortBuffer().put(this.shorts, 0, n);
+                view.position(view.position() + n * Short.BYTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,524 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A VectorFactory and MatrixFactory that stages every vector and matrix it
+ * creates for upload into a direct, native-order ByteBuffer. Elements are
+ * allocated linearly in creation order; unlike CyclicalVectorFactory the
+ * factory never wraps around. Once a frame's results are computed, a single
+ * call to flush writes the whole used region into the direct buffer.
+ *
+ * Vectors and matrices are array backed, so the factory keeps a heap array
+ * alongside each direct buffer and copies the used range in bulk. The buffer
+ * views are created once on construction and reused for every flush.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public class DirectBufferFactory implements VectorFactory, MatrixFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectBufferFactory.class);
+
+    private final double[] dataD;
+    private final float[] dataF;
+    private final ByteBuffer bufferD;
+    private final ByteBuffer bufferF;
+    private final DoubleBuffer viewD;
+    private final FloatBuffer viewF;
+
+    private final MappedVec2D[] vec2DCache;
+    private final MappedVec3D[] vec3DCache;
+    private final MappedVec4D[] vec4DCache;
+    private final MappedVecND[] vecNDCache;
+    private final MappedVec2F[] vec2FCache;
+    private final MappedVec3F[] vec3FCache;
+    private final MappedVec4F[] vec4FCache;
+    private final MappedVecNF[] vecNFCache;
+    private final MappedMat2D[] mat2DCache;
+    private final MappedMat3D[] mat3DCache;
+    private final MappedMat4D[] mat4DCache;
+    private final MappedMatND[] matNDCache;
+    private final MappedMat2F[] mat2FCache;
+    private final MappedMat3F[] mat3FCache;
+    private final MappedMat4F[] mat4FCache;
+    private final MappedMatNF[] matNFCache;
+
+    private int dataDOffset;
+    private int dataFOffset;
+
+    private int vec2DID;
+    private int vec3DID;
+    private int vec4DID;
+    private int vecNDID;
+    private int vec2FID;
+    private int vec3FID;
+    private int vec4FID;
+    private int vecNFID;
+    private int mat2DID;
+    private int mat3DID;
+    private int mat4DID;
+    private int matNDID;
+    private int mat2FID;
+    private int mat3FID;
+    private int mat4FID;
+    private int matNFID;
+
+    /**
+     * Constructs a new DirectBufferFactory with 16KB of single precision and
+     * 16KB of double precision upload space.
+     *
+     * @since 26.10.17
+     */
+    public DirectBufferFactory() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new DirectBufferFactory with the specified capacity.
+     *
+     * @param capacity the single and double precision capacities in
+     * kilobytes.
+     * @throws IllegalArgumentException if capacity is less than 1KB.
+     * @since 26.10.17
+     */
+    public DirectBufferFactory(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity! At least 1KB must be allocated for a direct buffer factory!");
+        }
+
+        final ObjectMapper map = ObjectMappers.DEFAULT_INSTANCE;
+        final int capacityBytes = capacity * 1000;
+
+        LOGGER.debug("Constructing direct buffer factory; size = {}B", capacityBytes);
+
+        this.dataD = map.map(new double[capacityBytes / Double.BYTES]);
+        this.dataF = map.map(new float[capacityBytes / Float.BYTES]);
+        this.bufferD = ByteBuffer.allocateDirect(this.dataD.length * Double.BYTES).order(ByteOrder.nativeOrder());
+        this.bufferF = ByteBuffer.allocateDirect(this.dataF.length * Float.BYTES).order(ByteOrder.nativeOrder());
+        this.viewD = this.bufferD.asDoubleBuffer();
+        this.viewF = this.bufferF.asFloatBuffer();
+
+        this.vec2DCache = new MappedVec2D[capacityBytes / GLVec2D.VECTOR_WIDTH];
+        this.vec3DCache = new MappedVec3D[capacityBytes / GLVec3D.VECTOR_WIDTH];
+        this.vec4DCache = new MappedVec4D[capacityBytes / GLVec4D.VECTOR_WIDTH];
+        this.vecNDCache = new MappedVecND[this.vec4DCache.length / 2];
+        this.vec2FCache = new MappedVec2F[capacityBytes / GLVec2F.VECTOR_WIDTH];
+        this.vec3FCache = new MappedVec3F[capacityBytes / GLVec3F.VECTOR_WIDTH];
+        this.vec4FCache = new MappedVec4F[capacityBytes / GLVec4F.VECTOR_WIDTH];
+        this.vecNFCache = new MappedVecNF[this.vec4FCache.length / 2];
+        this.mat2DCache = new MappedMat2D[capacityBytes / GLMat2D.MATRIX_WIDTH];
+        this.mat3DCache = new MappedMat3D[capacityBytes / GLMat3D.MATRIX_WIDTH];
+        this.mat4DCache = new MappedMat4D[capacityBytes / GLMat4D.MATRIX_WIDTH];
+        this.matNDCache = new MappedMatND[this.mat4DCache.length / 2];
+        this.mat2FCache = new MappedMat2F[capacityBytes / GLMat2F.MATRIX_WIDTH];
+        this.mat3FCache = new MappedMat3F[capacityBytes / GLMat3F.MATRIX_WIDTH];
+        this.mat4FCache = new MappedMat4F[capacityBytes / GLMat4F.MATRIX_WIDTH];
+        this.matNFCache = new MappedMatNF[this.mat4FCache.length / 2];
+
+        final int lenD = this.dataD.length;
+        final int lenF = this.dataF.length;
+
+        for (int i = 0; i < this.vec2DCache.length; i++) {
+            this.vec2DCache[i] = map.map(new MappedVec2D(this, this.dataD, 0, lenD - GLVec2D.VECTOR_SIZE));
+        }
+
+        for (int i = 0; i < this.vec3DCache.length; i++) {
+            this.vec3DCache[i] = map.map(new MappedVec3D(this, this.dataD, 0, lenD - GLVec3D.VECTOR_SIZE));
+        }
+
+        for (int i = 0; i < this.vec4DCache.length; i++) {
+            this.vec4DCache[i] = map.map(new MappedVec4D(this, this.dataD, 0, lenD - GLVec4D.VECTOR_SIZE));
+        }
+
+        for (int i = 0; i < this.vecNDCache.length; i++) {
+            this.vecNDCache[i] = map.map(new MappedVecND(this, this.dataD, 0, lenD - 1, 1));
+        }
+
+        for (int i = 0; i < this.vec2FCache.length; i++) {
+            this.vec2FCache[i] = map.map(new MappedVec2F(this, this.dataF, 0, lenF - GLVec2F.VECTOR_SIZE));
+        }
+
+        for (int i = 0; i < this.vec3FCache.length; i++) {
+            this.vec3FCache[i] = map.map(new MappedVec3F(this, this.dataF, 0, lenF - GLVec3F.VECTOR_SIZE));
+        }
+
+        for (int i = 0; i < this.vec4FCache.length; i++) {
+            this.vec4FCache[i] = map.map(new MappedVec4F(this, this.dataF, 0, lenF - GLVec4F.VECTOR_SIZE));
+        }
+
+        for (int i = 0; i < this.vecNFCache.length; i++) {
+            this.vecNFCache[i] = map.map(new MappedVecNF(this, this.dataF, 0, lenF - 1, 1));
+        }
+
+        for (int i = 0; i < this.mat2DCache.length; i++) {
+            this.mat2DCache[i] = map.map(new MappedMat2D(this, this.dataD, 0, lenD - 4));
+        }
+
+        for (int i = 0; i < this.mat3DCache.length; i++) {
+            this.mat3DCache[i] = map.map(new MappedMat3D(this, this.dataD, 0, lenD - 9));
+        }
+
+        for (int i = 0; i < this.mat4DCache.length; i++) {
+            this.mat4DCache[i] = map.map(new MappedMat4D(this, this.dataD, 0, lenD - 16));
+        }
+
+        for (int i = 0; i < this.matNDCache.length; i++) {
+            this.matNDCache[i] = map.map(new MappedMatND(this, this.dataD, 0, lenD - 1, 1));
+        }
+
+        for (int i = 0; i < this.mat2FCache.length; i++) {
+            this.mat2FCache[i] = map.map(new MappedMat2F(this, this.dataF, 0, lenF - 4));
+        }
+
+        for (int i = 0; i < this.mat3FCache.length; i++) {
+            this.mat3FCache[i] = map.map(new MappedMat3F(this, this.dataF, 0, lenF - 9));
+        }
+
+        for (int i = 0; i < this.mat4FCache.length; i++) {
+            this.mat4FCache[i] = map.map(new MappedMat4F(this, this.dataF, 0, lenF - 16));
+        }
+
+        for (int i = 0; i < this.matNFCache.length; i++) {
+            this.matNFCache[i] = map.map(new MappedMatNF(this, this.dataF, 0, lenF - 1, 1));
+        }
+    }
+
+    private int nextOffsetD(final int count) {
+        if (this.dataDOffset + count > this.dataD.length) {
+            throw new IllegalStateException("DirectBufferFactory double precision space exhausted! Call reset() or increase the capacity.");
+        }
+
+        final int off = this.dataDOffset;
+
+        this.dataDOffset += count;
+        return off;
+    }
+
+    private int nextOffsetF(final int count) {
+        if (this.dataFOffset + count > this.dataF.length) {
+            throw new IllegalStateException("DirectBufferFactory single precision space exhausted! Call reset() or increase the capacity.");
+        }
+
+        final int off = this.dataFOffset;
+
+        this.dataFOffset += count;
+        return off;
+    }
+
+    // callers advance their id only after the data space is reserved, so a
+    // failed allocation leaves both the id and the offset untouched
+    private static int checkID(final int id, final int cacheSize) {
+        if (id >= cacheSize) {
+            throw new IllegalStateException("DirectBufferFactory object cache exhausted! Call reset() or increase the capacity.");
+        }
+
+        return id;
+    }
+
+    /**
+     * Releases every vector and matrix allocated by this factory. Previously
+     * allocated objects will be reused by subsequent allocations.
+     *
+     * @since 26.10.17
+     */
+    public void reset() {
+        this.dataDOffset = 0;
+        this.dataFOffset = 0;
+        this.vec2DID = this.vec3DID = this.vec4DID = this.vecNDID = 0;
+        this.vec2FID = this.vec3FID = this.vec4FID = this.vecNFID = 0;
+        this.mat2DID = this.mat3DID = this.mat4DID = this.matNDID = 0;
+        this.mat2FID = this.mat3FID = this.mat4FID = this.matNFID = 0;
+    }
+
+    /**
+     * Writes all single precision data allocated since the last reset into the
+     * direct float buffer. The returned buffer is positioned at 0 with its
+     * limit set to the number of bytes written.
+     *
+     * @return the native-order direct buffer.
+     * @since 26.10.17
+     */
+    public ByteBuffer flushF() {
+        this.viewF.clear();
+        this.viewF.put(this.dataF, 0, this.dataFOffset);
+        this.bufferF.clear().limit(this.dataFOffset * Float.BYTES);
+        return this.bufferF;
+    }
+
+    /**
+     * Writes all double precision data allocated since the last reset into the
+     * direct double buffer. The returned buffer is positioned at 0 with its
+     * limit set to the number of bytes written.
+     *
+     * @return the native-order direct buffer.
+     * @since 26.10.17
+     */
+    public ByteBuffer flushD() {
+        this.viewD.clear();
+        this.viewD.put(this.dataD, 0, this.dataDOffset);
+        this.bufferD.clear().limit(this.dataDOffset * Double.BYTES);
+        return this.bufferD;
+    }
+
+    /**
+     * Retrieves the byte offset of a vector within the buffer returned by
+     * flushF.
+     *
+     * @param vec the vector. Must be allocated by this factory.
+     * @return the byte offset.
+     * @throws IllegalArgumentException if the vector was not allocated by
+     * this factory.
+     * @since 26.10.17
+     */
+    public int byteOffset(final GLVecF vec) {
+        if (vec.data() != this.dataF) {
+            throw new IllegalArgumentException("Vector was not allocated by this DirectBufferFactory!");
+        }
+
+        return vec.offset() * Float.BYTES;
+    }
+
+    /**
+     * Retrieves the byte offset of a vector within the buffer returned by
+     * flushD.
+     *
+     * @param vec the vector. Must be allocated by this factory.
+     * @return the byte offset.
+     * @throws IllegalArgumentException if the vector was not allocated by
+     * this factory.
+     * @since 26.10.17
+     */
+    public int byteOffset(final GLVecD vec) {
+        if (vec.data() != this.dataD) {
+            throw new IllegalArgumentException("Vector was not allocated by this DirectBufferFactory!");
+        }
+
+        return vec.offset() * Double.BYTES;
+    }
+
+    /**
+     * Retrieves the byte offset of a matrix within the buffer returned by
+     * flushF.
+     *
+     * @param mat the matrix. Must be allocated by this factory.
+     * @return the byte offset.
+     * @throws IllegalArgumentException if the matrix was not allocated by
+     * this factory.
+     * @since 26.10.17
+     */
+    public int byteOffset(final GLMatF mat) {
+        if (mat.data() != this.dataF) {
+            throw new IllegalArgumentException("Matrix was not allocated by this DirectBufferFactory!");
+        }
+
+        return mat.offset() * Float.BYTES;
+    }
+
+    /**
+     * Retrieves the byte offset of a matrix within the buffer returned by
+     * flushD.
+     *
+     * @param mat the matrix. Must be allocated by this factory.
+     * @return the byte offset.
+     * @throws IllegalArgumentException if the matrix was not allocated by
+     * this factory.
+     * @since 26.10.17
+     */
+    public int byteOffset(final GLMatD mat) {
+        if (mat.data() != this.dataD) {
+            throw new IllegalArgumentException("Matrix was not allocated by this DirectBufferFactory!");
+        }
+
+        return mat.offset() * Double.BYTES;
+    }
+
+    @Override
+    public GLVec2D nextGLVec2D() {
+        final int id = checkID(this.vec2DID, this.vec2DCache.length);
+        final int offset = this.nextOffsetD(GLVec2D.VECTOR_SIZE);
+
+        this.vec2DID = id + 1;
+        return this.vec2DCache[id].remap(offset);
+    }
+
+    @Override
+    public GLVec3D nextGLVec3D() {
+        final int id = checkID(this.vec3DID, this.vec3DCache.length);
+        final int offset = this.nextOffsetD(GLVec3D.VECTOR_SIZE);
+
+        this.vec3DID = id + 1;
+        return this.vec3DCache[id].remap(offset);
+    }
+
+    @Override
+    public GLVec4D nextGLVec4D() {
+        final int id = checkID(this.vec4DID, this.vec4DCache.length);
+        final int offset = this.nextOffsetD(GLVec4D.VECTOR_SIZE);
+
+        this.vec4DID = id + 1;
+        return this.vec4DCache[id].remap(offset);
+    }
+
+    @Override
+    public GLVecND nextGLVecND(final int size) {
+        final int id = checkID(this.vecNDID, this.vecNDCache.length);
+        final MappedVecND out = this.vecNDCache[id];
+
+        out.remap(this.nextOffsetD(size)).resize(size);
+        this.vecNDID = id + 1;
+
+        return out;
+    }
+
+    @Override
+    public GLVec2F nextGLVec2F() {
+        final int id = checkID(this.vec2FID, this.vec2FCache.length);
+        final int offset = this.nextOffsetF(GLVec2F.VECTOR_SIZE);
+
+        this.vec2FID = id + 1;
+        return this.vec2FCache[id].remap(offset);
+    }
+
+    @Override
+    public GLVec3F nextGLVec3F() {
+        final int id = checkID(this.vec3FID, this.vec3FCache.length);
+        final int offset = this.nextOffsetF(GLVec3F.VECTOR_SIZE);
+
+        this.vec3FID = id + 1;
+        return this.vec3FCache[id].remap(offset);
+    }
+
+    @Override
+    public GLVec4F nextGLVec4F() {
+        final int id = checkID(this.vec4FID, this.vec4FCache.length);
+        final int offset = this.nextOffsetF(GLVec4F.VECTOR_SIZE);
+
+        this.vec4FID = id + 1;
+        return this.vec4FCache[id].remap(offset);
+    }
+
+    @Override
+    public GLVecNF nextGLVecNF(final int size) {
+        final int id = checkID(this.vecNFID, this.vecNFCache.length);
+        final MappedVecNF out = this.vecNFCache[id];
+
+        out.remap(this.nextOffsetF(size)).resize(size);
+        this.vecNFID = id + 1;
+
+        return out;
+    }
+
+    @Override
+    public GLMat2D nextGLMat2D() {
+        final int id = checkID(this.mat2DID, this.mat2DCache.length);
+        final int offset = this.nextOffsetD(4);
+
+        this.mat2DID = id + 1;
+        return this.mat2DCache[id].remap(offset);
+    }
+
+    @Override
+    public GLMat3D nextGLMat3D() {
+        final int id = checkID(this.mat3DID, this.mat3DCache.length);
+        final int offset = this.nextOffsetD(9);
+
+        this.mat3DID = id + 1;
+        return this.mat3DCache[id].remap(offset);
+    }
+
+    @Override
+    public GLMat4D nextGLMat4D() {
+        final int id = checkID(this.mat4DID, this.mat4DCache.length);
+        final int offset = this.nextOffsetD(16);
+
+        this.mat4DID = id + 1;
+        return this.mat4DCache[id].remap(offset);
+    }
+
+    @Override
+    public GLMatND nextGLMatND(final int size) {
+        final int id = checkID(this.matNDID, this.matNDCache.length);
+        final MappedMatND out = this.matNDCache[id];
+
+        out.remap(this.nextOffsetD(size * size)).resize(size);
+        this.matNDID = id + 1;
+
+        return out;
+    }
+
+    @Override
+    public GLMat2F nextGLMat2F() {
+        final int id = checkID(this.mat2FID, this.mat2FCache.length);
+        final int offset = this.nextOffsetF(4);
+
+        this.mat2FID = id + 1;
+        return this.mat2FCache[id].remap(offset);
+    }
+
+    @Override
+    public GLMat3F nextGLMat3F() {
+        final int id = checkID(this.mat3FID, this.mat3FCache.length);
+        final int offset = this.nextOffsetF(9);
+
+        this.mat3FID = id + 1;
+        return this.mat3FCache[id].remap(offset);
+    }
+
+    @Override
+    public GLMat4F nextGLMat4F() {
+        final int id = checkID(this.mat4FID, this.mat4FCache.length);
+        final int offset = this.nextOffsetF(16);
+
+        this.mat4FID = id + 1;
+        return this.mat4FCache[id].remap(offset);
+    }
+
+    @Override
+    public GLMatNF nextGLMatNF(final int size) {
+        final int id = checkID(this.matNFID, this.matNFCache.length);
+        final MappedMatNF out = this.matNFCache[id];
+
+        out.remap(this.nextOffsetF(size * size)).resize(size);
+        this.matNFID = id + 1;
+
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Direct Buffer Factory: [sfp: %d/%d dfp: %d/%d]",
+                this.dataFOffset, this.dataF.length,
+                this.dataDOffset, this.dataD.length);
+    }
+}
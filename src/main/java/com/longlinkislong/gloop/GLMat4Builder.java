@@ -92,6 +92,19 @@ public class GLMat4Builder implements GLMat4 {
         return this.stackSize;
     }
 
+    // most builder matrices are affine, which allows the cheaper product
+    private static void multiply4D(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset) {
+
+        if (Matrices.isAffine4D(in0, in0Offset) && Matrices.isAffine4D(in1, in1Offset)) {
+            Matrices.multiplyAffine4D(out, outOffset, in0, in0Offset, in1, in1Offset);
+        } else {
+            Matrices.multiplyMat4D(out, outOffset, in0, in0Offset, in1, in1Offset);
+        }
+    }
+
     private int testBounds(final int next) {
         if (next > this.stack.length - 16) {
             throw new IndexOutOfBoundsException("Stack overflow!");
@@ -290,7 +303,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in1 + 14] = z;
         stack[in1 + 15] = w;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -368,7 +381,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in2 + 14] = z;
         stack[in2 + 15] = w;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -515,7 +528,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in1 + 14] = 0.0;
         stack[in1 + 15] = w;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -592,7 +605,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in2 + 14] = 0.0;
         stack[in2 + 15] = w;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -667,7 +680,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in1 + 14] = 0.0;
         stack[in1 + 15] = 1.0;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -708,7 +721,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in2 + 14] = 0.0;
         stack[in2 + 15] = 1.0;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -784,7 +797,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in1 + 14] = 0.0;
         stack[in1 + 15] = 1.0;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
 
         return this;
@@ -826,7 +839,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in2 + 14] = 0.0;
         stack[in2 + 15] = 1.0;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -901,7 +914,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in1 + 14] = 0.0;
         stack[in1 + 15] = 1.0;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -942,7 +955,7 @@ public class GLMat4Builder implements GLMat4 {
         stack[in2 + 14] = 0.0;
         stack[in2 + 15] = 1.0;
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
 
         return this;
@@ -992,7 +1005,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 32;
 
         Matrices.ortho4D(stack, in1, left, right, bottom, top, near, far);
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
 
         return this;
@@ -1021,7 +1034,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 32;
 
         Matrices.ortho4D(stack, in2, left, right, bottom, top, near, far);
-        Matrices.multiplyMat4D(
+        multiply4D(
                 stack, out,
                 stack, in1,
                 stack, in2);
@@ -1067,7 +1080,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 32;
 
         Matrices.perspective4D(stack, in1, fov, aspect, near, far);
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
 
         return this;
@@ -1093,7 +1106,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 32;
 
         Matrices.perspective4D(stack, in2, fov, aspect, near, far);
-        Matrices.multiplyMat4D(
+        multiply4D(
                 stack, out,
                 stack, in1,
                 stack, in2);
@@ -1138,7 +1151,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 32;
 
         Matrices.perspective4D(stack, in1, fov, aspect, near);
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
 
         return this;
@@ -1164,7 +1177,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 32;
 
         Matrices.perspective4D(stack, in2, fov, aspect, near);
-        Matrices.multiplyMat4D(stack, out, stack, in1, stack, in2);
+        multiply4D(stack, out, stack, in1, stack, in2);
         System.arraycopy(stack, out, stack, current, 16);
 
         return this;
@@ -1213,7 +1226,7 @@ public class GLMat4Builder implements GLMat4 {
         final int out = this.current - 16;
         final GLMat4D in2 = other.asGLMat4D();
 
-        Matrices.multiplyMat4D(stack, out, stack, in1, in2.data(), in2.offset());
+        multiply4D(stack, out, stack, in1, in2.data(), in2.offset());
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -1246,7 +1259,7 @@ public class GLMat4Builder implements GLMat4 {
         final GLMat4D out = GLMat4D.create();
         final GLMat4D in2 = mat.asGLMatD().asGLMat4D();
 
-        Matrices.multiplyMat4D(out.data(), out.offset(), stack, in1, in2.data(), in2.offset());
+        multiply4D(out.data(), out.offset(), stack, in1, in2.data(), in2.offset());
         return out;
     }
 
@@ -1260,7 +1273,11 @@ public class GLMat4Builder implements GLMat4 {
         final int in = this.current;
         final int out = this.current - 16;
 
-        Matrices.inverse4D(stack, out, stack, in);
+        if (Matrices.isAffine4D(stack, in)) {
+            Matrices.inverseAffine4D(stack, out, stack, in);
+        } else {
+            Matrices.inverse4D(stack, out, stack, in);
+        }
         System.arraycopy(stack, out, stack, current, 16);
         return this;
     }
@@ -0,0 +1,527 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import static com.longlinkislong.gloop.VectorArrays.parallelFor;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Future;
+
+/**
+ * GLMat4MappedArray is an array of 4x4 double precision matrices stored in a
+ * memory mapped file instead of the heap. The matrices are packed with the
+ * same column-major layout as GLMat4Array and are stored little endian.
+ *
+ * Operations stream the file through GLMat4Array blocks and run the same
+ * kernels as GLMat4Array. The mapping is limited to 2GB.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class GLMat4MappedArray implements AutoCloseable {
+
+    // a block of matrices takes as much heap as a block of 4 element vectors
+    private static final int BLOCK_SIZE = MappedArrays.BLOCK_SIZE / 4;
+
+    /**
+     * The number of matrices held by the array.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+    private final MappedRegion[] regions;
+    private DoubleBuffer buffer;
+
+    private GLMat4MappedArray(final int length, final MappedRegion[] regions) {
+        this.length = length;
+        this.regions = regions;
+        this.buffer = MappedArrays.doubles(regions[0]);
+    }
+
+    /**
+     * Calculates the number of bytes needed to store the matrices.
+     *
+     * @param length the number of matrices.
+     * @return the number of bytes.
+     * @since 26.10.17
+     */
+    public static long byteSize(final int length) {
+        return (long) length * GLMat4Array.STRIDE * Double.BYTES;
+    }
+
+    /**
+     * Maps a range of a file as an array of matrices. Mapping with READ_WRITE
+     * grows the file if it is too small.
+     *
+     * @param channel the channel of the file. The mapping remains valid after
+     * the channel is closed.
+     * @param mode the map mode.
+     * @param position the byte offset of the first matrix in the file.
+     * @param length the number of matrices.
+     * @return the mapped array.
+     * @throws IOException if the file could not be mapped.
+     * @throws IllegalArgumentException if length is negative or the mapping
+     * would be larger than 2GB.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray map(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position, final int length) throws IOException {
+
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative!");
+        }
+
+        return new GLMat4MappedArray(length, MappedArrays.map(channel, mode, position, byteSize(length), 1));
+    }
+
+    /**
+     * Maps a file as a read/write array of matrices starting at the
+     * beginning of the file. The file is created if it does not exist.
+     *
+     * @param path the path to the file.
+     * @param length the number of matrices.
+     * @return the mapped array.
+     * @throws IOException if the file could not be opened or mapped.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray map(final Path path, final int length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+
+            return map(channel, FileChannel.MapMode.READ_WRITE, 0L, length);
+        }
+    }
+
+    private DoubleBuffer buffer() {
+        if (this.buffer == null) {
+            throw new IllegalStateException("Mapped array is closed!");
+        }
+
+        return this.buffer;
+    }
+
+    private void checkRange(final int index, final int count) {
+        MappedArrays.checkRange(index, count, this.length);
+    }
+
+    /**
+     * Retrieves a matrix from the file.
+     *
+     * @param index the index of the matrix.
+     * @return the matrix.
+     * @since 26.10.17
+     */
+    public GLMat4D get(final int index) {
+        this.checkRange(index, 1);
+
+        final double[] tmp = new double[GLMat4Array.STRIDE];
+
+        MappedArrays.get(this.buffer(), index * GLMat4Array.STRIDE, tmp, 0, GLMat4Array.STRIDE);
+        return GLMat4D.create(tmp, 0);
+    }
+
+    /**
+     * Writes a matrix into the file.
+     *
+     * @param index the index of the matrix.
+     * @param mat the matrix to write.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public GLMat4MappedArray set(final int index, final GLMat4 mat) {
+        this.checkRange(index, 1);
+
+        final GLMat4D matT = mat.asGLMatD().asGLMat4D();
+
+        MappedArrays.put(this.buffer(), index * GLMat4Array.STRIDE, matT.data(), matT.offset(), GLMat4Array.STRIDE);
+        return this;
+    }
+
+    /**
+     * Copies a range of matrices from the file into a GLMat4Array.
+     *
+     * @param index the index of the first matrix to read.
+     * @param out the array to write to. A new array is allocated if it is
+     * null or too small.
+     * @param outOffset the offset to begin writing.
+     * @param count the number of matrices to copy.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public GLMat4Array read(final int index, final GLMat4Array out, final int outOffset, final int count) {
+        this.checkRange(index, count);
+
+        final GLMat4Array res = out == null || out.length < outOffset + count
+                ? new GLMat4Array(outOffset + count)
+                : out;
+
+        MappedArrays.get(
+                this.buffer(), index * GLMat4Array.STRIDE,
+                res.data, outOffset * GLMat4Array.STRIDE,
+                count * GLMat4Array.STRIDE);
+
+        return res;
+    }
+
+    /**
+     * Copies a range of matrices from a GLMat4Array into the file.
+     *
+     * @param index the index of the first matrix to write.
+     * @param in the array to read from.
+     * @param inOffset the offset to begin reading.
+     * @param count the number of matrices to copy.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public GLMat4MappedArray write(final int index, final GLMat4Array in, final int inOffset, final int count) {
+        this.checkRange(index, count);
+
+        MappedArrays.put(
+                this.buffer(), index * GLMat4Array.STRIDE,
+                in.data, inOffset * GLMat4Array.STRIDE,
+                count * GLMat4Array.STRIDE);
+
+        return this;
+    }
+
+    /**
+     * Writes any changes back to the file.
+     *
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public GLMat4MappedArray force() {
+        this.buffer();
+
+        for (MappedRegion region : this.regions) {
+            region.force();
+        }
+
+        return this;
+    }
+
+    /**
+     * Unmaps the file. On JDK 22+ the file is unmapped immediately; older
+     * runtimes release the mapping once it is garbage collected. The array
+     * cannot be used afterwards.
+     *
+     * @since 26.10.17
+     */
+    @Override
+    public void close() {
+        this.buffer = null;
+        MappedArrays.close(this.regions);
+    }
+
+    private static int blockSize(final int count) {
+        return Math.max(1, Math.min(count, BLOCK_SIZE));
+    }
+
+    public GLMat4MappedArray multiply(final GLMat4MappedArray out, final GLMat4MappedArray other) {
+        return multiply(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Multiplies each matrix of the first array by the matrix at the same
+     * index of the second array. Out may be either input.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of matrices.
+     * @param in0Offset the offset to begin reading the first inputs.
+     * @param in1 the second input array of matrices.
+     * @param in1Offset the offset to begin reading the second inputs.
+     * @param count the number of matrices to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray multiply(
+            final GLMat4MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final GLMat4MappedArray in1, final int in1Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+
+        final int size = blockSize(count);
+        final GLMat4Array a = new GLMat4Array(size);
+        final GLMat4Array b = new GLMat4Array(size);
+        final GLMat4Array c = new GLMat4Array(size);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, a, 0, n);
+            in1.read(in1Offset + i, b, 0, n);
+            GLMat4Array.multiply(c, 0, a, 0, b, 0, n);
+            out.write(outOffset + i, c, 0, n);
+        }
+
+        return out;
+    }
+
+    public GLMat4MappedArray multiply(final GLMat4MappedArray out, final GLMat4 other) {
+        return multiply(out, 0, this, 0, other, this.length);
+    }
+
+    /**
+     * Multiplies each matrix of the array by a single matrix. Out may be the
+     * input.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param in1 the matrix to multiply each input by.
+     * @param count the number of matrices to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray multiply(
+            final GLMat4MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final GLMat4 in1,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+
+        final int size = blockSize(count);
+        final GLMat4Array a = new GLMat4Array(size);
+        final GLMat4Array c = new GLMat4Array(size);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, a, 0, n);
+            GLMat4Array.multiply(c, 0, a, 0, in1, n);
+            out.write(outOffset + i, c, 0, n);
+        }
+
+        return out;
+    }
+
+    public GLMat4MappedArray transpose(final GLMat4MappedArray out) {
+        return transpose(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Transposes each matrix. Out may be the input.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of matrices to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray transpose(
+            final GLMat4MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+
+        final int size = blockSize(count);
+        final GLMat4Array a = new GLMat4Array(size);
+        final GLMat4Array c = new GLMat4Array(size);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, a, 0, n);
+            GLMat4Array.transpose(c, 0, a, 0, n);
+            out.write(outOffset + i, c, 0, n);
+        }
+
+        return out;
+    }
+
+    public GLMat4MappedArray inverse(final GLMat4MappedArray out) {
+        return inverse(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Inverts each matrix. Out may be the input.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of matrices to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLMat4MappedArray inverse(
+            final GLMat4MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+
+        final int size = blockSize(count);
+        final GLMat4Array a = new GLMat4Array(size);
+        final GLMat4Array c = new GLMat4Array(size);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, a, 0, n);
+            GLMat4Array.inverse(c, 0, a, 0, n);
+            out.write(outOffset + i, c, 0, n);
+        }
+
+        return out;
+    }
+
+    public GLVec3MappedArray transform(final GLVec3MappedArray out, final GLVec3MappedArray vecs) {
+        return transform(out, 0, this, 0, vecs, 0, this.length);
+    }
+
+    /**
+     * Multiplies each vector by the matrix at the same index. The vectors are
+     * treated as points with a w component of 1.0. Out may be the input
+     * vectors.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the matrices.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray transform(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+        in1.checkRange(in1Offset, count);
+
+        final int size = blockSize(count);
+        final GLMat4Array m = new GLMat4Array(size);
+        final GLVec3Array v = new GLVec3Array(size);
+        final GLVec3Array r = new GLVec3Array(size);
+        final double[] flat = new double[size * 3];
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, m, 0, n);
+            in1.read(in1Offset + i, v, 0, n, flat);
+            GLMat4Array.transform(r, 0, m, 0, v, 0, n);
+            out.write(outOffset + i, r, 0, n, flat);
+        }
+
+        return out;
+    }
+
+    public Future<GLMat4MappedArray> multiplyParallel(final GLMat4MappedArray out, final GLMat4MappedArray other) {
+        return multiplyParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of multiply. Each chunk streams its own
+     * range of the file.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of matrices.
+     * @param in0Offset the offset to begin reading the first inputs.
+     * @param in1 the second input array of matrices.
+     * @param in1Offset the offset to begin reading the second inputs.
+     * @param count the number of matrices to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLMat4MappedArray> multiplyParallel(
+            final GLMat4MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final GLMat4MappedArray in1, final int in1Offset,
+            final int count) {
+
+        return parallelFor(count, out, (offset, n) -> multiply(out, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<GLMat4MappedArray> inverseParallel(final GLMat4MappedArray out) {
+        return inverseParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of inverse.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of matrices to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLMat4MappedArray> inverseParallel(
+            final GLMat4MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final int count) {
+
+        return parallelFor(count, out, (offset, n) -> inverse(out, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec3MappedArray> transformParallel(final GLVec3MappedArray out, final GLVec3MappedArray vecs) {
+        return transformParallel(out, 0, this, 0, vecs, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of transform.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the matrices.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3MappedArray> transformParallel(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLMat4MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        return parallelFor(count, out, (offset, n) -> transform(out, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+}
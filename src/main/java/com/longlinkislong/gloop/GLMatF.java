@@ -332,11 +332,9 @@ public abstract class GLMatF<GLMatT extends GLMatF, GLVecT extends GLVecF> imple
 
     @Override
     public final void copyToBuffer(final ByteBuffer buffer) {
-        final float[] data = this.data();
-        final int offset = this.offset();
         final int size = this.size() * this.size();
 
-        buffer.asFloatBuffer().put(data, offset, size);
+        Intrinsics.putFloats(buffer, buffer.position(), this.data(), this.offset(), size);
         buffer.position(buffer.position() + size * Float.BYTES);
     }
     
@@ -355,9 +353,7 @@ public abstract class GLMatF<GLMatT extends GLMatF, GLVecT extends GLVecF> imple
      * @since 15.07.04
      */
     public static void writeTo(final ByteBuffer out, final int outOffset, final GLMatF in0, final int in0Offset, final int writeCount) {
-        for (int i = 0; i < writeCount; i++) {
-            out.putFloat(outOffset + i * Float.BYTES, in0.data()[in0.offset() + in0Offset]);
-        }
+        Intrinsics.putFloats(out, outOffset, in0.data(), in0.offset() + in0Offset, writeCount);
     }
 
     @Override
@@ -228,6 +228,20 @@ public abstract class GLQuaternionD implements GLQuaternion<GLQuaternionD, GLMat
         return out;
     }
 
+    /**
+     * Converts this quaternion into a rotation matrix and writes it into out
+     * instead of allocating from the matrix factory.
+     *
+     * @param out the matrix to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final GLMat4D asMat4(final GLMat4D out) {
+        Quaternions.rotationMatD(out.data(), out.offset(), this.data(), this.offset());
+
+        return out;
+    }
+
     @Override
     public final GLQuaternionD normalize() {
         final GLQuaternionD out = this.getFactory().nextGLQuaternionD();
@@ -237,6 +251,20 @@ public abstract class GLQuaternionD implements GLQuaternion<GLQuaternionD, GLMat
         return out;
     }
 
+    /**
+     * Normalizes this quaternion and writes the result into out instead of
+     * allocating from the factory. Out may be this quaternion.
+     *
+     * @param out the quaternion to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final GLQuaternionD normalize(final GLQuaternionD out) {
+        Quaternions.normalizeD(out.data(), out.offset(), this.data(), this.offset());
+
+        return out;
+    }
+
     @Override
     public final GLQuaternionD multiply(final GLQuaternion other) {
         final GLQuaternionD in1 = other.asGLQuaternionD();
@@ -250,6 +278,27 @@ public abstract class GLQuaternionD implements GLQuaternion<GLQuaternionD, GLMat
         return out;
     }
 
+    /**
+     * Multiplies this quaternion by another quaternion and writes the result
+     * into out instead of allocating from the factory. Out may be either
+     * input.
+     *
+     * @param other the right hand side of the multiplication.
+     * @param out the quaternion to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final GLQuaternionD multiply(final GLQuaternion other, final GLQuaternionD out) {
+        final GLQuaternionD in1 = other.asGLQuaternionD();
+
+        Quaternions.multiplyD(
+                out.data(), out.offset(),
+                this.data(), this.offset(),
+                in1.data(), in1.offset());
+
+        return out;
+    }
+
     @Override
     public final GLQuaternionF asGLQuaternionF() {
         final GLQuaternionF out = this.getFactory().nextGLQuaternionF();
@@ -231,6 +231,20 @@ public abstract class GLQuaternionF implements GLQuaternion<GLQuaternionF, GLMat
         return out;
     }
 
+    /**
+     * Converts this quaternion into a rotation matrix and writes it into out
+     * instead of allocating from the matrix factory.
+     *
+     * @param out the matrix to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final GLMat4F asMat4(final GLMat4F out) {
+        Quaternions.rotationMatF(out.data(), out.offset(), this.data(), this.offset());
+
+        return out;
+    }
+
     @Override
     public final GLQuaternionF normalize() {
         final GLQuaternionF out = this.getFactory().nextGLQuaternionF();
@@ -240,6 +254,20 @@ public abstract class GLQuaternionF implements GLQuaternion<GLQuaternionF, GLMat
         return out;
     }
 
+    /**
+     * Normalizes this quaternion and writes the result into out instead of
+     * allocating from the factory. Out may be this quaternion.
+     *
+     * @param out the quaternion to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final GLQuaternionF normalize(final GLQuaternionF out) {
+        Quaternions.normalizeF(out.data(), out.offset(), this.data(), this.offset());
+
+        return out;
+    }
+
     @Override
     public final GLQuaternionF multiply(final GLQuaternion other) {
         final GLQuaternionF in1 = other.asGLQuaternionF();
@@ -253,6 +281,27 @@ public abstract class GLQuaternionF implements GLQuaternion<GLQuaternionF, GLMat
         return out;
     }
 
+    /**
+     * Multiplies this quaternion by another quaternion and writes the result
+     * into out instead of allocating from the factory. Out may be either
+     * input.
+     *
+     * @param other the right hand side of the multiplication.
+     * @param out the quaternion to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final GLQuaternionF multiply(final GLQuaternion other, final GLQuaternionF out) {
+        final GLQuaternionF in1 = other.asGLQuaternionF();
+
+        Quaternions.multiplyF(
+                out.data(), out.offset(),
+                this.data(), this.offset(),
+                in1.data(), in1.offset());
+
+        return out;
+    }
+
     @Override
     public final GLQuaternionF asGLQuaternionF() {
         return this;
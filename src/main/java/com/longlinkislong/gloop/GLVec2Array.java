@@ -9,6 +9,7 @@ import static com.longlinkislong.gloop.VectorArrays.*;
 import static java.lang.Math.sqrt;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -16,6 +17,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
@@ -44,22 +46,14 @@ public class GLVec2Array {
     }
 
     public DoubleStream flatStream() {
-        return Stream.of(x, y).flatMapToDouble(Arrays::stream);
+        return DoubleStream.concat(Arrays.stream(this.x), Arrays.stream(this.y));
     }
 
     public DoubleStream flatInterlacedStream() {
-        final int[] index = {0};
+        final double[] flat = new double[this.length * 2];
 
-        return DoubleStream.generate(() -> {
-            final int idx = index[0];
-
-            index[0]++;
-            if (idx % 2 == 0) {
-                return x[idx / 2];
-            } else {
-                return y[idx / 2];
-            }
-        });
+        VectorArrays.arrayInterleave2D(flat, 0, this.x, 0, this.y, 0, this.length);
+        return Arrays.stream(flat);
     }
 
     public Stream<GLVec2D> stream() {
@@ -70,6 +64,69 @@ public class GLVec2Array {
         return IntStream.range(startInclusive, endExclusive).mapToObj(this::get);
     }
 
+    /**
+     * Creates a spliterator over the vectors that does not allocate per
+     * element. Each split copies the components of the current element into
+     * a single reusable view, so the view is only valid until the next
+     * element is visited and writes to it are not reflected in this array.
+     *
+     * @param startInclusive the first index.
+     * @param endExclusive the last index.
+     * @return the spliterator.
+     * @since 26.10.17
+     */
+    public Spliterator<GLVec2D> spliterator(final int startInclusive, final int endExclusive) {
+        if (endExclusive > this.length) {
+            throw new IllegalArgumentException("Invalid range!");
+        }
+
+        return ArraySpliterators.<GLVec2D, MappedVec2D> views(
+                startInclusive, endExclusive,
+                () -> new MappedVec2D(Vectors.DEFAULT_FACTORY, new double[2], 0, 0),
+                (view, index) -> {
+                    final double[] data = view.data();
+
+                    data[0] = this.x[index];
+                    data[1] = this.y[index];
+                });
+    }
+
+    public Spliterator<GLVec2D> spliterator() {
+        return this.spliterator(0, this.length);
+    }
+
+    /**
+     * Streams a reusable view of each vector. This is the allocation free
+     * alternative to stream; elements must be consumed or copied before the
+     * stream advances.
+     *
+     * @param parallel if the stream should be parallel.
+     * @return the stream.
+     * @since 26.10.17
+     */
+    public Stream<GLVec2D> viewStream(final boolean parallel) {
+        return StreamSupport.stream(this.spliterator(), parallel);
+    }
+
+    /**
+     * Streams a single component of every vector.
+     *
+     * @param component the component index.
+     * @return the stream.
+     * @throws IllegalArgumentException if the component does not exist.
+     * @since 26.10.17
+     */
+    public DoubleStream componentStream(final int component) {
+        switch (component) {
+            case Vectors.X:
+                return Arrays.stream(this.x, 0, this.length);
+            case Vectors.Y:
+                return Arrays.stream(this.y, 0, this.length);
+            default:
+                throw new IllegalArgumentException("Invalid component!");
+        }
+    }
+
     private static double[] ensureArray(final double[] in, final int offset, final int neededSize) {
         if (in == null || in.length < offset + neededSize) {
             return new double[offset + neededSize];
@@ -339,13 +396,9 @@ public class GLVec2Array {
             final GLVec2Array in0, final int in0Offset,
             final int count) {
 
-        final double[] res = ensureArray(out, outOffset, count);
-
-        for (int i = 0; i < count; i++) {
-            res[outOffset + i * 2] = in0.x[in0Offset + i];
-            res[outOffset + i * 2 + 1] = in0.y[in0Offset + i];
-        }
+        final double[] res = ensureArray(out, outOffset, count * 2);
 
+        VectorArrays.arrayInterleave2D(res, outOffset, in0.x, in0Offset, in0.y, in0Offset, count);
         return res;
     }
 
@@ -481,6 +534,305 @@ public class GLVec2Array {
         return res;
     }       
 
+    public Future<double[]> crossParallel(final double[] out, final GLVec2Array other) {
+        return crossParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of cross. The range is split into chunks
+     * that are processed on the VectorArrays parallel pool.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<double[]> crossParallel(
+            final double[] out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final GLVec2Array in1, final int in1Offset,
+            final int count) {
+
+        final double[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> cross(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<double[]> dotParallel(final double[] out, final GLVec2Array other) {
+        return dotParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of dot.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<double[]> dotParallel(
+            final double[] out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final GLVec2Array in1, final int in1Offset,
+            final int count) {
+
+        final double[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> dot(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<double[]> lengthParallel(final double[] out) {
+        return lengthParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of length.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<double[]> lengthParallel(
+            final double[] out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final int count) {
+
+        final double[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> length(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec2Array> normalizeParallel(final GLVec2Array out) {
+        return normalizeParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of normalize.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> normalizeParallel(
+            final GLVec2Array out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> normalize(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec2Array> applyParallel(final VectorArrays.UnaryOp<double[]> op, final GLVec2Array out) {
+        return applyParallel(op, out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> applyParallel(
+            final VectorArrays.UnaryOp<double[]> op,
+            final GLVec2Array out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec2Array> applyParallel(final VectorArrays.BinaryOp<double[]> op, final GLVec2Array out, final GLVec2Array other) {
+        return applyParallel(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> applyParallel(
+            final VectorArrays.BinaryOp<double[]> op,
+            final GLVec2Array out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final GLVec2Array in1, final int in1Offset,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<GLVec2Array> applyParallel(final VectorArrays.TernaryOp<double[]> op, final GLVec2Array out, final GLVec2Array other0, final GLVec2Array other1) {
+        return applyParallel(op, out, 0, this, 0, other0, 0, other1, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param in2 the third input array of vectors.
+     * @param in2Offset the offset to begin reading the third input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> applyParallel(
+            final VectorArrays.TernaryOp<double[]> op,
+            final GLVec2Array out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final GLVec2Array in1, final int in1Offset,
+            final GLVec2Array in2, final int in2Offset,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, in2, in2Offset + offset, n));
+    }
+
+    public Future<GLVec2Array> scaleParallel(final GLVec2Array out, final GLVec2 scale) {
+        return scaleParallel(out, 0, this, 0, scale, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of scale.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param scale the vector to scale by.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> scaleParallel(
+            final GLVec2Array out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final GLVec2 scale,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final GLVec2D scaleT = scale.asGLVec2D();
+        final double x = scaleT.x();
+        final double y = scaleT.y();
+
+        return parallelFor(count, res, (offset, n) -> {
+            arrayScaleD(res.x, outOffset + offset, in0.x, in0Offset + offset, x, n);
+            arrayScaleD(res.y, outOffset + offset, in0.y, in0Offset + offset, y, n);
+        });
+    }
+
+    public Future<GLVec2Array> addConstantParallel(final GLVec2Array out, final GLVec2 vec) {
+        return addConstantParallel(out, 0, this, 0, vec, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of addConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param vec the vector to add.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> addConstantParallel(
+            final GLVec2Array out, final int outOffset,
+            final GLVec2Array in0, final int in0Offset,
+            final GLVec2 vec,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final GLVec2D vecT = vec.asGLVec2D();
+        final double x = vecT.x();
+        final double y = vecT.y();
+
+        return parallelFor(count, res, (offset, n) -> {
+            arrayAddConstantD(res.x, outOffset + offset, in0.x, in0Offset + offset, x, n);
+            arrayAddConstantD(res.y, outOffset + offset, in0.y, in0Offset + offset, y, n);
+        });
+    }
+
+    public Future<GLVec2Array> setConstantParallel(final GLVec2 vec) {
+        return setConstantParallel(this, 0, vec, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of setConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param vec the vector to write.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec2Array> setConstantParallel(
+            final GLVec2Array out, final int outOffset,
+            final GLVec2 vec,
+            final int count) {
+
+        final GLVec2Array res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final GLVec2D vecT = vec.asGLVec2D();
+        final double x = vecT.x();
+        final double y = vecT.y();
+
+        return parallelFor(count, res, (offset, n) -> {
+            arraySetD(res.x, outOffset + offset, x, n);
+            arraySetD(res.y, outOffset + offset, y, n);
+        });
+    }
+
     private static class FutureGLVec2Array implements Future<GLVec2Array> {
 
         private final Future<?> xTask;
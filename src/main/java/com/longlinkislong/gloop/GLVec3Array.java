@@ -29,6 +29,7 @@ import static com.longlinkislong.gloop.VectorArrays.*;
 import static java.lang.Math.sqrt;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +38,7 @@ import java.util.stream.DoubleStream;
 
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
@@ -68,34 +70,87 @@ public class GLVec3Array {
     }
 
     public DoubleStream flatStream() {
-        return Stream.of(x, y, z).flatMapToDouble(Arrays::stream);
+        return DoubleStream.concat(DoubleStream.concat(
+                Arrays.stream(this.x), Arrays.stream(this.y)), Arrays.stream(this.z));
     }
 
     public DoubleStream flatInterlacedStream() {
-        final int[] index = {0};
-
-        return DoubleStream.generate(() -> {
-            final int idx = index[0];
-
-            index[0]++;
-            switch (idx % 3) {
-                case 0:
-                    return x[idx / 3];
-                case 1:
-                    return y[idx / 3];
-                case 2:
-                    return z[idx / 3];
-                default: // this case cannot happen
-                    throw new IllegalStateException("# % 3 >= 2!");
-            }
+        final double[] flat = new double[this.length * 3];
 
-        });
+        VectorArrays.arrayInterleave3D(flat, 0, this.x, 0, this.y, 0, this.z, 0, this.length);
+        return Arrays.stream(flat);
     }
 
     public Stream<GLVec3D> stream(final int startInclusive, final int endExclusive) {
         return IntStream.range(startInclusive, endExclusive).mapToObj(this::get);
     }
 
+    /**
+     * Creates a spliterator over the vectors that does not allocate per
+     * element. Each split copies the components of the current element into
+     * a single reusable view, so the view is only valid until the next
+     * element is visited and writes to it are not reflected in this array.
+     *
+     * @param startInclusive the first index.
+     * @param endExclusive the last index.
+     * @return the spliterator.
+     * @since 26.10.17
+     */
+    public Spliterator<GLVec3D> spliterator(final int startInclusive, final int endExclusive) {
+        if (endExclusive > this.length) {
+            throw new IllegalArgumentException("Invalid range!");
+        }
+
+        return ArraySpliterators.<GLVec3D, MappedVec3D> views(
+                startInclusive, endExclusive,
+                () -> new MappedVec3D(Vectors.DEFAULT_FACTORY, new double[3], 0, 0),
+                (view, index) -> {
+                    final double[] data = view.data();
+
+                    data[0] = this.x[index];
+                    data[1] = this.y[index];
+                    data[2] = this.z[index];
+                });
+    }
+
+    public Spliterator<GLVec3D> spliterator() {
+        return this.spliterator(0, this.length);
+    }
+
+    /**
+     * Streams a reusable view of each vector. This is the allocation free
+     * alternative to stream; elements must be consumed or copied before the
+     * stream advances.
+     *
+     * @param parallel if the stream should be parallel.
+     * @return the stream.
+     * @since 26.10.17
+     */
+    public Stream<GLVec3D> viewStream(final boolean parallel) {
+        return StreamSupport.stream(this.spliterator(), parallel);
+    }
+
+    /**
+     * Streams a single component of every vector.
+     *
+     * @param component the component index.
+     * @return the stream.
+     * @throws IllegalArgumentException if the component does not exist.
+     * @since 26.10.17
+     */
+    public DoubleStream componentStream(final int component) {
+        switch (component) {
+            case Vectors.X:
+                return Arrays.stream(this.x, 0, this.length);
+            case Vectors.Y:
+                return Arrays.stream(this.y, 0, this.length);
+            case Vectors.Z:
+                return Arrays.stream(this.z, 0, this.length);
+            default:
+                throw new IllegalArgumentException("Invalid component!");
+        }
+    }
+
     public Stream<GLVec3D> stream() {
         return this.stream(0, this.length);
     }
@@ -124,6 +179,29 @@ public class GLVec3Array {
         }
     }
 
+    /**
+     * Copies the vectors into an interleaved array.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public GLVec3InterleavedArray interleave(final GLVec3InterleavedArray out) {
+        return GLVec3InterleavedArray.interleave(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Constructs a lazy expression that reads from this array. Operations
+     * chained on the expression are fused into a single pass when evaluated.
+     *
+     * @return the expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr lazy() {
+        return GLVec3Expr.of(this);
+    }
+
     public GLVec3Array cross(final GLVec3Array out, final GLVec3Array other) {
         return cross(out, 0, this, 0, other, 0, this.length);
     }
@@ -551,6 +629,311 @@ public class GLVec3Array {
         return res;
     }        
 
+    public Future<GLVec3Array> crossParallel(final GLVec3Array out, final GLVec3Array other) {
+        return crossParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of cross. The range is split into chunks
+     * that are processed on the VectorArrays parallel pool.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> crossParallel(
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final GLVec3Array in1, final int in1Offset,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> cross(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<double[]> dotParallel(final double[] out, final GLVec3Array other) {
+        return dotParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of dot.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<double[]> dotParallel(
+            final double[] out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final GLVec3Array in1, final int in1Offset,
+            final int count) {
+
+        final double[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> dot(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<double[]> lengthParallel(final double[] out) {
+        return lengthParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of length.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<double[]> lengthParallel(
+            final double[] out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count) {
+
+        final double[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> length(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec3Array> normalizeParallel(final GLVec3Array out) {
+        return normalizeParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of normalize.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> normalizeParallel(
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> normalize(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec3Array> applyParallel(final VectorArrays.UnaryOp<double[]> op, final GLVec3Array out) {
+        return applyParallel(op, out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> applyParallel(
+            final VectorArrays.UnaryOp<double[]> op,
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec3Array> applyParallel(final VectorArrays.BinaryOp<double[]> op, final GLVec3Array out, final GLVec3Array other) {
+        return applyParallel(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> applyParallel(
+            final VectorArrays.BinaryOp<double[]> op,
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final GLVec3Array in1, final int in1Offset,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<GLVec3Array> applyParallel(final VectorArrays.TernaryOp<double[]> op, final GLVec3Array out, final GLVec3Array other0, final GLVec3Array other1) {
+        return applyParallel(op, out, 0, this, 0, other0, 0, other1, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param in2 the third input array of vectors.
+     * @param in2Offset the offset to begin reading the third input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> applyParallel(
+            final VectorArrays.TernaryOp<double[]> op,
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final GLVec3Array in1, final int in1Offset,
+            final GLVec3Array in2, final int in2Offset,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, in2, in2Offset + offset, n));
+    }
+
+    public Future<GLVec3Array> scaleParallel(final GLVec3Array out, final GLVec3 scale) {
+        return scaleParallel(out, 0, this, 0, scale, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of scale.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param scale the vector to scale by.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> scaleParallel(
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final GLVec3 scale,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final GLVec3D scaleT = scale.asGLVec3D();
+        final double x = scaleT.x();
+        final double y = scaleT.y();
+        final double z = scaleT.z();
+
+        return parallelFor(count, res, (offset, n) -> {
+            arrayScaleD(res.x, outOffset + offset, in0.x, in0Offset + offset, x, n);
+            arrayScaleD(res.y, outOffset + offset, in0.y, in0Offset + offset, y, n);
+            arrayScaleD(res.z, outOffset + offset, in0.z, in0Offset + offset, z, n);
+        });
+    }
+
+    public Future<GLVec3Array> addConstantParallel(final GLVec3Array out, final GLVec3 vec) {
+        return addConstantParallel(out, 0, this, 0, vec, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of addConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param vec the vector to add.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> addConstantParallel(
+            final GLVec3Array out, final int outOffset,
+            final GLVec3Array in0, final int in0Offset,
+            final GLVec3 vec,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final GLVec3D vecT = vec.asGLVec3D();
+        final double x = vecT.x();
+        final double y = vecT.y();
+        final double z = vecT.z();
+
+        return parallelFor(count, res, (offset, n) -> {
+            arrayAddConstantD(res.x, outOffset + offset, in0.x, in0Offset + offset, x, n);
+            arrayAddConstantD(res.y, outOffset + offset, in0.y, in0Offset + offset, y, n);
+            arrayAddConstantD(res.z, outOffset + offset, in0.z, in0Offset + offset, z, n);
+        });
+    }
+
+    public Future<GLVec3Array> setConstantParallel(final GLVec3 vec) {
+        return setConstantParallel(this, 0, vec, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of setConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param vec the vector to write.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3Array> setConstantParallel(
+            final GLVec3Array out, final int outOffset,
+            final GLVec3 vec,
+            final int count) {
+
+        final GLVec3Array res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final GLVec3D vecT = vec.asGLVec3D();
+        final double x = vecT.x();
+        final double y = vecT.y();
+        final double z = vecT.z();
+
+        return parallelFor(count, res, (offset, n) -> {
+            arraySetD(res.x, outOffset + offset, x, n);
+            arraySetD(res.y, outOffset + offset, y, n);
+            arraySetD(res.z, outOffset + offset, z, n);
+        });
+    }
+
     private static class FutureGLVec3Array implements Future<GLVec3Array> {
 
         private final Future<?> xTask;
@@ -0,0 +1,533 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import static java.lang.Math.sqrt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * A lazily evaluated expression over GLVec3Arrays. Operations only record the
+ * expression; nothing is computed until one of the terminal operations
+ * (evaluate, dot, length) is called. The whole chain is then evaluated one
+ * block of elements at a time, so each element of the source arrays is read
+ * once and intermediate results never leave the cache.
+ *
+ * <pre>
+ * a.lazy().cross(b).normalize().scale(s).evaluate(out);
+ * </pre>
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public abstract class GLVec3Expr {
+
+    /**
+     * The number of elements evaluated per block. 3 x 256 doubles per
+     * intermediate fits comfortably in L1.
+     *
+     * @since 26.10.17
+     */
+    public static final int BLOCK_SIZE = 256;
+
+    /**
+     * The number of elements the expression produces.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+
+    GLVec3Expr(final int length) {
+        this.length = length;
+    }
+
+    /**
+     * Evaluates elements [offset, offset + n) of the expression into the
+     * first n elements of x, y and z.
+     */
+    abstract void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch);
+
+    /**
+     * Creates an expression that reads from an array.
+     *
+     * @param src the source array.
+     * @param offset the index of the first element to read.
+     * @return the expression.
+     * @since 26.10.17
+     */
+    public static GLVec3Expr of(final GLVec3Array src, final int offset) {
+        if (offset < 0 || offset > src.length) {
+            throw new IndexOutOfBoundsException("Offset is outside of the array!");
+        }
+
+        return new GLVec3Expr(src.length - offset) {
+            @Override
+            void eval(int start, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                System.arraycopy(src.x, offset + start, x, 0, n);
+                System.arraycopy(src.y, offset + start, y, 0, n);
+                System.arraycopy(src.z, offset + start, z, 0, n);
+            }
+        };
+    }
+
+    /**
+     * Creates an expression that reads from an array.
+     *
+     * @param src the source array.
+     * @return the expression.
+     * @since 26.10.17
+     */
+    public static GLVec3Expr of(final GLVec3Array src) {
+        return of(src, 0);
+    }
+
+    private static int length(final GLVec3Expr a, final GLVec3Expr b) {
+        return Math.min(a.length, b.length);
+    }
+
+    /**
+     * Adds another expression element-wise.
+     *
+     * @param other the other expression.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr plus(final GLVec3Expr other) {
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(length(this, other)) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                final double[][] b = scratch.push();
+
+                other.eval(offset, n, b[0], b[1], b[2], scratch);
+
+                for (int i = 0; i < n; i++) {
+                    x[i] += b[0][i];
+                    y[i] += b[1][i];
+                    z[i] += b[2][i];
+                }
+
+                scratch.pop();
+            }
+        };
+    }
+
+    public GLVec3Expr plus(final GLVec3Array other) {
+        return this.plus(of(other));
+    }
+
+    /**
+     * Subtracts another expression element-wise.
+     *
+     * @param other the other expression.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr minus(final GLVec3Expr other) {
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(length(this, other)) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                final double[][] b = scratch.push();
+
+                other.eval(offset, n, b[0], b[1], b[2], scratch);
+
+                for (int i = 0; i < n; i++) {
+                    x[i] -= b[0][i];
+                    y[i] -= b[1][i];
+                    z[i] -= b[2][i];
+                }
+
+                scratch.pop();
+            }
+        };
+    }
+
+    public GLVec3Expr minus(final GLVec3Array other) {
+        return this.minus(of(other));
+    }
+
+    /**
+     * Multiplies by another expression component-wise.
+     *
+     * @param other the other expression.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr multiply(final GLVec3Expr other) {
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(length(this, other)) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                final double[][] b = scratch.push();
+
+                other.eval(offset, n, b[0], b[1], b[2], scratch);
+
+                for (int i = 0; i < n; i++) {
+                    x[i] *= b[0][i];
+                    y[i] *= b[1][i];
+                    z[i] *= b[2][i];
+                }
+
+                scratch.pop();
+            }
+        };
+    }
+
+    public GLVec3Expr multiply(final GLVec3Array other) {
+        return this.multiply(of(other));
+    }
+
+    /**
+     * Calculates the cross product with another expression.
+     *
+     * @param other the right hand side of the cross product.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr cross(final GLVec3Expr other) {
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(length(this, other)) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                final double[][] b = scratch.push();
+
+                other.eval(offset, n, b[0], b[1], b[2], scratch);
+
+                for (int i = 0; i < n; i++) {
+                    final double ax = x[i];
+                    final double ay = y[i];
+                    final double az = z[i];
+                    final double bx = b[0][i];
+                    final double by = b[1][i];
+                    final double bz = b[2][i];
+
+                    x[i] = ay * bz - az * by;
+                    y[i] = az * bx - ax * bz;
+                    z[i] = ax * by - ay * bx;
+                }
+
+                scratch.pop();
+            }
+        };
+    }
+
+    public GLVec3Expr cross(final GLVec3Array other) {
+        return this.cross(of(other));
+    }
+
+    /**
+     * Scales every vector by a constant.
+     *
+     * @param scale the scale value.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr scale(final double scale) {
+        return this.scale(scale, scale, scale);
+    }
+
+    /**
+     * Scales every vector by a constant vector component-wise.
+     *
+     * @param scale the scale vector.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr scale(final GLVec3 scale) {
+        final GLVec3D scaleD = scale.asGLVec3D();
+
+        return this.scale(scaleD.x(), scaleD.y(), scaleD.z());
+    }
+
+    private GLVec3Expr scale(final double sx, final double sy, final double sz) {
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(this.length) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                for (int i = 0; i < n; i++) {
+                    x[i] *= sx;
+                    y[i] *= sy;
+                    z[i] *= sz;
+                }
+            }
+        };
+    }
+
+    /**
+     * Adds a constant vector to every vector.
+     *
+     * @param vec the vector to add.
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr addConstant(final GLVec3 vec) {
+        final GLVec3D vecD = vec.asGLVec3D();
+        final double cx = vecD.x();
+        final double cy = vecD.y();
+        final double cz = vecD.z();
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(this.length) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                for (int i = 0; i < n; i++) {
+                    x[i] += cx;
+                    y[i] += cy;
+                    z[i] += cz;
+                }
+            }
+        };
+    }
+
+    /**
+     * Negates every vector.
+     *
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr negate() {
+        return this.scale(-1.0);
+    }
+
+    /**
+     * Normalizes every vector.
+     *
+     * @return the new expression.
+     * @since 26.10.17
+     */
+    public GLVec3Expr normalize() {
+        final GLVec3Expr src = this;
+
+        return new GLVec3Expr(this.length) {
+            @Override
+            void eval(int offset, int n, double[] x, double[] y, double[] z, Scratch scratch) {
+                src.eval(offset, n, x, y, z, scratch);
+
+                for (int i = 0; i < n; i++) {
+                    final double scale = 1.0 / sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]);
+
+                    x[i] *= scale;
+                    y[i] *= scale;
+                    z[i] *= scale;
+                }
+            }
+        };
+    }
+
+    private void evaluateRange(
+            final GLVec3Array out, final int outOffset,
+            final int start, final int count,
+            final Scratch scratch) {
+
+        final double[][] v = scratch.push();
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+            final int dst = outOffset + start + i;
+
+            this.eval(start + i, n, v[0], v[1], v[2], scratch);
+
+            System.arraycopy(v[0], 0, out.x, dst, n);
+            System.arraycopy(v[1], 0, out.y, dst, n);
+            System.arraycopy(v[2], 0, out.z, dst, n);
+        }
+
+        scratch.pop();
+    }
+
+    private static GLVec3Array ensureArray(
+            final GLVec3Array in,
+            final int offset,
+            final int neededSize) {
+
+        if (in == null || in.length < offset + neededSize) {
+            return new GLVec3Array(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    private static double[] ensureArray(
+            final double[] in,
+            final int offset,
+            final int neededSize) {
+
+        if (in == null || in.length < offset + neededSize) {
+            return new double[offset + neededSize];
+        } else {
+            return in;
+        }
+    }
+
+    /**
+     * Evaluates the expression.
+     *
+     * @param out the array to write the results to. A new array is allocated
+     * if this is null or too small.
+     * @param outOffset the offset to begin writing.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public GLVec3Array evaluate(final GLVec3Array out, final int outOffset) {
+        final GLVec3Array res = ensureArray(out, outOffset, this.length);
+
+        this.evaluateRange(res, outOffset, 0, this.length, new Scratch());
+        return res;
+    }
+
+    public GLVec3Array evaluate(final GLVec3Array out) {
+        return this.evaluate(out, 0);
+    }
+
+    /**
+     * Evaluates the expression in chunks on the VectorArrays parallel pool.
+     *
+     * @param out the array to write the results to. A new array is allocated
+     * if this is null or too small.
+     * @param outOffset the offset to begin writing.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public Future<GLVec3Array> evaluateParallel(final GLVec3Array out, final int outOffset) {
+        final GLVec3Array res = ensureArray(out, outOffset, this.length);
+
+        return VectorArrays.parallelFor(this.length, res, (offset, n) -> this.evaluateRange(res, outOffset, offset, n, new Scratch()));
+    }
+
+    public Future<GLVec3Array> evaluateParallel(final GLVec3Array out) {
+        return this.evaluateParallel(out, 0);
+    }
+
+    /**
+     * Evaluates the dot product of this expression and another expression.
+     *
+     * @param other the other expression.
+     * @param out the array to write the results to. A new array is allocated
+     * if this is null or too small.
+     * @param outOffset the offset to begin writing.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public double[] dot(final GLVec3Expr other, final double[] out, final int outOffset) {
+        final int count = length(this, other);
+        final double[] res = ensureArray(out, outOffset, count);
+        final Scratch scratch = new Scratch();
+        final double[][] a = scratch.push();
+        final double[][] b = scratch.push();
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+            final int dst = outOffset + i;
+
+            this.eval(i, n, a[0], a[1], a[2], scratch);
+            other.eval(i, n, b[0], b[1], b[2], scratch);
+
+            for (int j = 0; j < n; j++) {
+                res[dst + j] = a[0][j] * b[0][j] + a[1][j] * b[1][j] + a[2][j] * b[2][j];
+            }
+        }
+
+        return res;
+    }
+
+    public double[] dot(final GLVec3Array other, final double[] out) {
+        return this.dot(of(other), out, 0);
+    }
+
+    /**
+     * Evaluates the length of each vector of the expression.
+     *
+     * @param out the array to write the results to. A new array is allocated
+     * if this is null or too small.
+     * @param outOffset the offset to begin writing.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public double[] length(final double[] out, final int outOffset) {
+        final double[] res = ensureArray(out, outOffset, this.length);
+        final Scratch scratch = new Scratch();
+        final double[][] v = scratch.push();
+
+        for (int i = 0; i < this.length; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, this.length - i);
+            final int dst = outOffset + i;
+
+            this.eval(i, n, v[0], v[1], v[2], scratch);
+
+            for (int j = 0; j < n; j++) {
+                res[dst + j] = sqrt(v[0][j] * v[0][j] + v[1][j] * v[1][j] + v[2][j] * v[2][j]);
+            }
+        }
+
+        return res;
+    }
+
+    public double[] length(final double[] out) {
+        return this.length(out, 0);
+    }
+
+    /**
+     * Block buffers for a single evaluation. Binary nodes push a buffer for
+     * their right hand side and pop it when done, so the number of buffers is
+     * bounded by the depth of the expression.
+     */
+    static final class Scratch {
+
+        private final List<double[][]> buffers = new ArrayList<>();
+        private int top;
+
+        double[][] push() {
+            if (this.top == this.buffers.size()) {
+                this.buffers.add(new double[3][BLOCK_SIZE]);
+            }
+
+            return this.buffers.get(this.top++);
+        }
+
+        void pop() {
+            this.top--;
+        }
+    }
+}
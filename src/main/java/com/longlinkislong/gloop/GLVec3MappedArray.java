@@ -0,0 +1,770 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import static com.longlinkislong.gloop.MappedArrays.BLOCK_SIZE;
+import static com.longlinkislong.gloop.VectorArrays.parallelFor;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Future;
+
+/**
+ * GLVec3MappedArray is an array of 3 element double precision vectors stored
+ * in a memory mapped file instead of the heap. The components are either
+ * planar, with one region per component, or interleaved in a single region,
+ * and are stored little endian.
+ *
+ * Operations stream the file through GLVec3Array blocks and run the same
+ * kernels as GLVec3Array, so datasets larger than the heap can be modified in
+ * place while the page cache handles the I/O. Each region is limited to 2GB.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class GLVec3MappedArray implements AutoCloseable {
+
+    /**
+     * The number of vectors held by the array.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+    private final BufferWriter.Layout layout;
+    private final MappedRegion[] regions;
+    private DoubleBuffer[] buffers;
+
+    private GLVec3MappedArray(final int length, final BufferWriter.Layout layout, final MappedRegion[] regions) {
+        this.length = length;
+        this.layout = layout;
+        this.regions = regions;
+        this.buffers = new DoubleBuffer[regions.length];
+
+        for (int i = 0; i < regions.length; i++) {
+            this.buffers[i] = MappedArrays.doubles(regions[i]);
+        }
+    }
+
+    /**
+     * Calculates the number of bytes needed to store the vectors.
+     *
+     * @param length the number of vectors.
+     * @return the number of bytes.
+     * @since 26.10.17
+     */
+    public static long byteSize(final int length) {
+        return (long) length * 3 * Double.BYTES;
+    }
+
+    /**
+     * Maps a range of a file as an array of vectors. Mapping with READ_WRITE
+     * grows the file if it is too small.
+     *
+     * @param channel the channel of the file. The mapping remains valid after
+     * the channel is closed.
+     * @param mode the map mode.
+     * @param position the byte offset of the first vector in the file.
+     * @param length the number of vectors.
+     * @param layout the layout of the components.
+     * @return the mapped array.
+     * @throws IOException if the file could not be mapped.
+     * @throws IllegalArgumentException if length is negative or a region
+     * would be larger than 2GB.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray map(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position, final int length,
+            final BufferWriter.Layout layout) throws IOException {
+
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative!");
+        }
+
+        final MappedRegion[] regions = layout == BufferWriter.Layout.PLANAR
+                ? MappedArrays.map(channel, mode, position, (long) length * Double.BYTES, 3)
+                : MappedArrays.map(channel, mode, position, byteSize(length), 1);
+
+        return new GLVec3MappedArray(length, layout, regions);
+    }
+
+    /**
+     * Maps a file as a read/write array of vectors starting at the beginning
+     * of the file. The file is created if it does not exist.
+     *
+     * @param path the path to the file.
+     * @param length the number of vectors.
+     * @param layout the layout of the components.
+     * @return the mapped array.
+     * @throws IOException if the file could not be opened or mapped.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray map(
+            final Path path, final int length,
+            final BufferWriter.Layout layout) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+
+            return map(channel, FileChannel.MapMode.READ_WRITE, 0L, length, layout);
+        }
+    }
+
+    /**
+     * Retrieves the layout of the components.
+     *
+     * @return the layout.
+     * @since 26.10.17
+     */
+    public BufferWriter.Layout getLayout() {
+        return this.layout;
+    }
+
+    private DoubleBuffer[] buffers() {
+        if (this.buffers == null) {
+            throw new IllegalStateException("Mapped array is closed!");
+        }
+
+        return this.buffers;
+    }
+
+    void checkRange(final int index, final int count) {
+        MappedArrays.checkRange(index, count, this.length);
+    }
+
+    /**
+     * Retrieves a vector from the file.
+     *
+     * @param index the index of the vector.
+     * @return the vector.
+     * @since 26.10.17
+     */
+    public GLVec3D get(final int index) {
+        this.checkRange(index, 1);
+
+        final DoubleBuffer[] buf = this.buffers();
+
+        if (this.layout == BufferWriter.Layout.PLANAR) {
+            return GLVec3D.create(buf[0].get(index), buf[1].get(index), buf[2].get(index));
+        } else {
+            final int base = index * 3;
+
+            return GLVec3D.create(buf[0].get(base), buf[0].get(base + 1), buf[0].get(base + 2));
+        }
+    }
+
+    /**
+     * Writes a vector into the file.
+     *
+     * @param index the index of the vector.
+     * @param vec the vector to write.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public GLVec3MappedArray set(final int index, final GLVec3 vec) {
+        this.checkRange(index, 1);
+
+        final GLVec3D vecT = vec.asGLVec3D();
+        final DoubleBuffer[] buf = this.buffers();
+
+        if (this.layout == BufferWriter.Layout.PLANAR) {
+            buf[0].put(index, vecT.x());
+            buf[1].put(index, vecT.y());
+            buf[2].put(index, vecT.z());
+        } else {
+            final int base = index * 3;
+
+            buf[0].put(base, vecT.x());
+            buf[0].put(base + 1, vecT.y());
+            buf[0].put(base + 2, vecT.z());
+        }
+
+        return this;
+    }
+
+    /**
+     * Copies a range of vectors from the file into a GLVec3Array.
+     *
+     * @param index the index of the first vector to read.
+     * @param out the array to write to. A new array is allocated if it is
+     * null or too small.
+     * @param outOffset the offset to begin writing.
+     * @param count the number of vectors to copy.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public GLVec3Array read(final int index, final GLVec3Array out, final int outOffset, final int count) {
+        this.checkRange(index, count);
+
+        final GLVec3Array res = out == null || out.length < outOffset + count
+                ? new GLVec3Array(outOffset + count)
+                : out;
+
+        this.read(index, res, outOffset, count, new double[Math.min(count, BLOCK_SIZE) * 3]);
+        return res;
+    }
+
+    /**
+     * Copies a range of vectors from a GLVec3Array into the file.
+     *
+     * @param index the index of the first vector to write.
+     * @param in the array to read from.
+     * @param inOffset the offset to begin reading.
+     * @param count the number of vectors to copy.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public GLVec3MappedArray write(final int index, final GLVec3Array in, final int inOffset, final int count) {
+        this.checkRange(index, count);
+        this.write(index, in, inOffset, count, new double[Math.min(count, BLOCK_SIZE) * 3]);
+        return this;
+    }
+
+    void read(final int index, final GLVec3Array out, final int outOffset, final int count, final double[] flat) {
+        final DoubleBuffer[] buf = this.buffers();
+
+        if (this.layout == BufferWriter.Layout.PLANAR) {
+            MappedArrays.get(buf[0], index, out.x, outOffset, count);
+            MappedArrays.get(buf[1], index, out.y, outOffset, count);
+            MappedArrays.get(buf[2], index, out.z, outOffset, count);
+        } else {
+            final int block = flat.length / 3;
+
+            for (int i = 0; i < count; i += block) {
+                final int n = Math.min(block, count - i);
+
+                MappedArrays.get(buf[0], (index + i) * 3, flat, 0, n * 3);
+                VectorArrays.arrayDeinterleave3D(
+                        out.x, outOffset + i,
+                        out.y, outOffset + i,
+                        out.z, outOffset + i,
+                        flat, 0, n);
+            }
+        }
+    }
+
+    void write(final int index, final GLVec3Array in, final int inOffset, final int count, final double[] flat) {
+        final DoubleBuffer[] buf = this.buffers();
+
+        if (this.layout == BufferWriter.Layout.PLANAR) {
+            MappedArrays.put(buf[0], index, in.x, inOffset, count);
+            MappedArrays.put(buf[1], index, in.y, inOffset, count);
+            MappedArrays.put(buf[2], index, in.z, inOffset, count);
+        } else {
+            final int block = flat.length / 3;
+
+            for (int i = 0; i < count; i += block) {
+                final int n = Math.min(block, count - i);
+
+                VectorArrays.arrayInterleave3D(
+                        flat, 0,
+                        in.x, inOffset + i,
+                        in.y, inOffset + i,
+                        in.z, inOffset + i,
+                        n);
+                MappedArrays.put(buf[0], (index + i) * 3, flat, 0, n * 3);
+            }
+        }
+    }
+
+    /**
+     * Writes any changes back to the file.
+     *
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public GLVec3MappedArray force() {
+        this.buffers();
+
+        for (MappedRegion region : this.regions) {
+            region.force();
+        }
+
+        return this;
+    }
+
+    /**
+     * Unmaps the file. On JDK 22+ the file is unmapped immediately; older
+     * runtimes release the mapping once it is garbage collected. The array
+     * cannot be used afterwards.
+     *
+     * @since 26.10.17
+     */
+    @Override
+    public void close() {
+        this.buffers = null;
+
+        MappedArrays.close(this.regions);
+    }
+
+    // Scratch blocks for one pass over a range. Every pass allocates its own
+    // so the parallel variants can stream different ranges at the same time.
+    private static final class Staging {
+
+        final GLVec3Array in0;
+        final GLVec3Array in1;
+        final GLVec3Array out;
+        final double[] scalars;
+        final double[] flat;
+
+        Staging(final int count) {
+            final int size = Math.max(1, Math.min(count, BLOCK_SIZE));
+
+            this.in0 = new GLVec3Array(size);
+            this.in1 = new GLVec3Array(size);
+            this.out = new GLVec3Array(size);
+            this.scalars = new double[size];
+            this.flat = new double[size * 3];
+        }
+    }
+
+    public GLVec3MappedArray cross(final GLVec3MappedArray out, final GLVec3MappedArray other) {
+        return cross(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Calculates the cross product of each pair of vectors. Out may be either
+     * input.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray cross(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+        in0.checkRange(in0Offset, count);
+        in1.checkRange(in1Offset, count);
+
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            in1.read(in1Offset + i, s.in1, 0, n, s.flat);
+            GLVec3Array.cross(s.out, 0, s.in0, 0, s.in1, 0, n);
+            out.write(outOffset + i, s.out, 0, n, s.flat);
+        }
+
+        return out;
+    }
+
+    public double[] dot(final double[] out, final GLVec3MappedArray other) {
+        return dot(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Calculates the dot product of each pair of vectors.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static double[] dot(
+            final double[] out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        in0.checkRange(in0Offset, count);
+        in1.checkRange(in1Offset, count);
+
+        final double[] res = GLVec3Array.ensureArray(out, outOffset, count);
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            in1.read(in1Offset + i, s.in1, 0, n, s.flat);
+            GLVec3Array.dot(res, outOffset + i, s.in0, 0, s.in1, 0, n);
+        }
+
+        return res;
+    }
+
+    public double[] length(final double[] out) {
+        return length(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Calculates the length of each vector.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static double[] length(
+            final double[] out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final int count) {
+
+        in0.checkRange(in0Offset, count);
+
+        final double[] res = GLVec3Array.ensureArray(out, outOffset, count);
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            GLVec3Array.length(res, outOffset + i, s.in0, 0, n);
+        }
+
+        return res;
+    }
+
+    public GLVec3MappedArray normalize(final GLVec3MappedArray out) {
+        return normalize(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Normalizes each vector. Out may be the input.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray normalize(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+        in0.checkRange(in0Offset, count);
+
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            GLVec3Array.normalize(s.out, 0, s.in0, 0, n);
+            out.write(outOffset + i, s.out, 0, n, s.flat);
+        }
+
+        return out;
+    }
+
+    public GLVec3MappedArray transform(final GLVec3MappedArray out, final GLMat4 mat) {
+        return transform(out, 0, mat, this, 0, this.length);
+    }
+
+    /**
+     * Multiplies every vector by a single matrix. The vectors are treated as
+     * points with a w component of 1.0. Out may be the input.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param mat the matrix to transform by.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray transform(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLMat4 mat,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+        in0.checkRange(in0Offset, count);
+
+        final GLMat4 matT = mat.asGLMatD().asGLMat4D().asStaticMat();
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            GLMat4Array.transform(s.out, 0, matT, s.in0, 0, n);
+            out.write(outOffset + i, s.out, 0, n, s.flat);
+        }
+
+        return out;
+    }
+
+    public GLVec3MappedArray apply(
+            final VectorArrays.UnaryOp<double[]> op,
+            final GLVec3MappedArray out) {
+
+        return apply(op, out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Applies an element-wise operation to each component. Out may be the
+     * input.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray apply(
+            final VectorArrays.UnaryOp<double[]> op,
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+        in0.checkRange(in0Offset, count);
+
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            GLVec3Array.apply(op, s.out, 0, s.in0, 0, n);
+            out.write(outOffset + i, s.out, 0, n, s.flat);
+        }
+
+        return out;
+    }
+
+    public GLVec3MappedArray apply(
+            final VectorArrays.BinaryOp<double[]> op,
+            final GLVec3MappedArray out,
+            final GLVec3MappedArray other) {
+
+        return apply(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Applies an element-wise operation to each pair of components. Out may
+     * be either input.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static GLVec3MappedArray apply(
+            final VectorArrays.BinaryOp<double[]> op,
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        out.checkRange(outOffset, count);
+        in0.checkRange(in0Offset, count);
+        in1.checkRange(in1Offset, count);
+
+        final Staging s = new Staging(count);
+
+        for (int i = 0; i < count; i += BLOCK_SIZE) {
+            final int n = Math.min(BLOCK_SIZE, count - i);
+
+            in0.read(in0Offset + i, s.in0, 0, n, s.flat);
+            in1.read(in1Offset + i, s.in1, 0, n, s.flat);
+            GLVec3Array.apply(op, s.out, 0, s.in0, 0, s.in1, 0, n);
+            out.write(outOffset + i, s.out, 0, n, s.flat);
+        }
+
+        return out;
+    }
+
+    public Future<GLVec3MappedArray> crossParallel(final GLVec3MappedArray out, final GLVec3MappedArray other) {
+        return crossParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of cross. Each chunk streams its own range
+     * of the file.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3MappedArray> crossParallel(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        return parallelFor(count, out, (offset, n) -> cross(out, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<double[]> dotParallel(final double[] out, final GLVec3MappedArray other) {
+        return dotParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of dot.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<double[]> dotParallel(
+            final double[] out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        final double[] res = GLVec3Array.ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> dot(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<GLVec3MappedArray> normalizeParallel(final GLVec3MappedArray out) {
+        return normalizeParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of normalize.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3MappedArray> normalizeParallel(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final int count) {
+
+        return parallelFor(count, out, (offset, n) -> normalize(out, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec3MappedArray> transformParallel(final GLVec3MappedArray out, final GLMat4 mat) {
+        return transformParallel(out, 0, mat, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of transform.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param mat the matrix to transform by.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3MappedArray> transformParallel(
+            final GLVec3MappedArray out, final int outOffset,
+            final GLMat4 mat,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final int count) {
+
+        final GLMat4 matT = mat.asGLMatD().asGLMat4D().asStaticMat();
+
+        return parallelFor(count, out, (offset, n) -> transform(out, outOffset + offset, matT, in0, in0Offset + offset, n));
+    }
+
+    public Future<GLVec3MappedArray> applyParallel(
+            final VectorArrays.BinaryOp<double[]> op,
+            final GLVec3MappedArray out,
+            final GLVec3MappedArray other) {
+
+        return applyParallel(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<GLVec3MappedArray> applyParallel(
+            final VectorArrays.BinaryOp<double[]> op,
+            final GLVec3MappedArray out, final int outOffset,
+            final GLVec3MappedArray in0, final int in0Offset,
+            final GLVec3MappedArray in1, final int in1Offset,
+            final int count) {
+
+        return parallelFor(count, out, (offset, n) -> apply(op, out, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+}
@@ -331,11 +331,9 @@ public abstract class GLVecD<GLVecT extends GLVecD> implements GLVec<GLVecT>, Cl
     
     @Override
     public final void copyToBuffer(final ByteBuffer buffer) {
-        final double[] data = this.data();
-        final int offset = this.offset();
         final int size = this.size();
 
-        buffer.asDoubleBuffer().put(data, offset, size);
+        Intrinsics.putDoubles(buffer, buffer.position(), this.data(), this.offset(), size);
         buffer.position(buffer.position() + size * Double.BYTES);
     }
     
@@ -354,9 +352,7 @@ public abstract class GLVecD<GLVecT extends GLVecD> implements GLVec<GLVecT>, Cl
      * @since 15.07.04
      */
     public static void writeTo(final ByteBuffer out, final int outOffset, final GLVecD in0, final int in0Offset, final int writeCount) {
-        for (int i = 0; i < writeCount; i++) {
-            out.putDouble(outOffset + i * Double.BYTES, in0.data()[in0.offset() + in0Offset]);
-        }
+        Intrinsics.putDoubles(out, outOffset, in0.data(), in0.offset() + in0Offset, writeCount);
     }
 
     @Override
@@ -0,0 +1,143 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Operations that have faster implementations on newer JDKs. This is the Java
+ * 8 implementation; the multi-release jar replaces it on JDK 9+ with one that
+ * uses Math.fma and VarHandles. Both versions must produce identical results.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class Intrinsics {
+
+    private Intrinsics() {
+    }
+
+    /**
+     * Computes a * b + c with a single rounding.
+     *
+     * @param a the first factor.
+     * @param b the second factor.
+     * @param c the addend.
+     * @return the fused multiply-add.
+     * @since 26.10.17
+     */
+    static double fma(final double a, final double b, final double c) {
+        // a zero or non-finite operand never needs the extra precision
+        if (a == 0.0 || b == 0.0
+                || Double.isNaN(a) || Double.isInfinite(a)
+                || Double.isNaN(b) || Double.isInfinite(b)
+                || Double.isNaN(c) || Double.isInfinite(c)) {
+
+            return a * b + c;
+        } else if (c == 0.0) {
+            return a * b;
+        } else {
+            return new BigDecimal(a)
+                    .multiply(new BigDecimal(b))
+                    .add(new BigDecimal(c))
+                    .doubleValue();
+        }
+    }
+
+    /**
+     * Computes a * b + c with a single rounding.
+     *
+     * @param a the first factor.
+     * @param b the second factor.
+     * @param c the addend.
+     * @return the fused multiply-add.
+     * @since 26.10.17
+     */
+    static float fma(final float a, final float b, final float c) {
+        // the product is exact in double; when the sum is too, the cast is
+        // the only rounding
+        final double p = (double) a * (double) b;
+        final double s = p + c;
+
+        if (Double.isNaN(s) || Double.isInfinite(s)) {
+            return (float) s;
+        }
+
+        final double v = s - p;
+        final double error = (p - (s - v)) + (c - v);
+
+        if (error == 0.0) {
+            return (float) s;
+        } else {
+            // rounding the sum to double and then to float can land on the
+            // wrong side of a float midpoint
+            return new BigDecimal(p).add(new BigDecimal(c)).floatValue();
+        }
+    }
+
+    /**
+     * Writes floats into a ByteBuffer using the byte order of the buffer. The
+     * position of the buffer is not changed.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the values to write.
+     * @param in0Offset the offset to begin reading values.
+     * @param count the number of values to write.
+     * @since 26.10.17
+     */
+    static void putFloats(
+            final ByteBuffer out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out.putFloat(outOffset + i * Float.BYTES, in0[in0Offset + i]);
+        }
+    }
+
+    /**
+     * Writes doubles into a ByteBuffer using the byte order of the buffer. The
+     * position of the buffer is not changed.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the values to write.
+     * @param in0Offset the offset to begin reading values.
+     * @param count the number of values to write.
+     * @since 26.10.17
+     */
+    static void putDoubles(
+            final ByteBuffer out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out.putDouble(outOffset + i * Double.BYTES, in0[in0Offset + i]);
+        }
+    }
+}
@@ -0,0 +1,862 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Future;
+
+/**
+ * Matrix factorizations and linear solves for NxN matrices. Matrices use the
+ * layout of Matrices.multiplyVecN: element (row r, column c) is at index
+ * c * size + r. A solution x of A*x = b therefore satisfies
+ * GLMatN.multiply(x) == b.
+ *
+ * Factorizations overwrite their input, so a matrix factored once can solve
+ * any number of right hand sides. Solving with a factorization costs O(N^2)
+ * against O(N^3) for forming an inverse, and is more accurate.
+ *
+ * A matrix is treated as singular when a pivot, Cholesky diagonal, or R
+ * diagonal is no larger than N * ulp(max|a|). Rounding alone produces pivots
+ * of that size, so all three factorizations agree on rank deficient
+ * matrices instead of returning finite garbage.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class LinearSolvers {
+
+    /**
+     * A matrix factorization.
+     *
+     * @since 26.10.17
+     */
+    public static enum Method {
+        /**
+         * LU with partial pivoting. Works for any nonsingular matrix.
+         *
+         * @since 26.10.17
+         */
+        LU,
+        /**
+         * Cholesky. About twice as fast as LU but only works for symmetric
+         * positive definite matrices.
+         *
+         * @since 26.10.17
+         */
+        CHOLESKY,
+        /**
+         * Householder QR. Slower than LU but the most stable for ill
+         * conditioned matrices.
+         *
+         * @since 26.10.17
+         */
+        QR
+    }
+
+    private LinearSolvers() {
+    }
+
+    /**
+     * Factors a matrix in place into P*A = L*U using partial pivoting. L is
+     * unit lower triangular and is stored below the diagonal; U is stored on
+     * and above it. Factoring continues past a singular pivot so the factors
+     * of a singular matrix are still defined.
+     *
+     * @param a the matrix array.
+     * @param aOffset the offset to the matrix.
+     * @param size the size of the matrix.
+     * @param pivots the output row permutation; row i was swapped with row
+     * pivots[i].
+     * @param pivotsOffset the offset to begin writing the pivots.
+     * @return false if the matrix is singular.
+     * @since 26.10.17
+     */
+    public static boolean luD(
+            final double[] a, final int aOffset, final int size,
+            final int[] pivots, final int pivotsOffset) {
+
+        final double tolerance = toleranceD(a, aOffset, size, false);
+        boolean nonsingular = true;
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+            int p = j;
+            double max = Math.abs(a[col + j]);
+
+            for (int i = j + 1; i < size; i++) {
+                final double v = Math.abs(a[col + i]);
+
+                if (v > max) {
+                    max = v;
+                    p = i;
+                }
+            }
+
+            pivots[pivotsOffset + j] = p;
+
+            if (p != j) {
+                for (int k = aOffset; k < aOffset + size * size; k += size) {
+                    final double tmp = a[k + j];
+
+                    a[k + j] = a[k + p];
+                    a[k + p] = tmp;
+                }
+            }
+
+            final double pivot = a[col + j];
+
+            if (!(Math.abs(pivot) > tolerance)) {
+                nonsingular = false;
+
+                if (pivot == 0) {
+                    continue;
+                }
+            }
+
+            for (int i = j + 1; i < size; i++) {
+                a[col + i] /= pivot;
+            }
+
+            // rank-1 update of the trailing columns
+            for (int k = col + size; k < aOffset + size * size; k += size) {
+                final double ajk = a[k + j];
+
+                if (ajk != 0) {
+                    for (int i = j + 1; i < size; i++) {
+                        a[k + i] -= a[col + i] * ajk;
+                    }
+                }
+            }
+        }
+
+        return nonsingular;
+    }
+
+    /**
+     * Solves A*x = b in place using the factors from luD.
+     *
+     * @param lu the factored matrix array.
+     * @param luOffset the offset to the factored matrix.
+     * @param size the size of the matrix.
+     * @param pivots the row permutation.
+     * @param pivotsOffset the offset to the pivots.
+     * @param b the right hand side; overwritten with x.
+     * @param bOffset the offset to the right hand side.
+     * @since 26.10.17
+     */
+    public static void luSolveD(
+            final double[] lu, final int luOffset, final int size,
+            final int[] pivots, final int pivotsOffset,
+            final double[] b, final int bOffset) {
+
+        for (int i = 0; i < size; i++) {
+            final int p = pivots[pivotsOffset + i];
+
+            if (p != i) {
+                final double tmp = b[bOffset + i];
+
+                b[bOffset + i] = b[bOffset + p];
+                b[bOffset + p] = tmp;
+            }
+        }
+
+        forwardD(lu, luOffset, size, b, bOffset, true);
+        backwardD(lu, luOffset, size, b, bOffset);
+    }
+
+    /**
+     * Factors a symmetric positive definite matrix in place into A = L*L^T.
+     * Only the lower triangle is read and L overwrites it; the upper triangle
+     * is left unchanged.
+     *
+     * @param a the matrix array.
+     * @param aOffset the offset to the matrix.
+     * @param size the size of the matrix.
+     * @return false if the matrix is not positive definite.
+     * @since 26.10.17
+     */
+    public static boolean choleskyD(final double[] a, final int aOffset, final int size) {
+        final double tolerance = toleranceD(a, aOffset, size, true);
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+            final double d = a[col + j];
+
+            if (!(d > tolerance)) {
+                return false;
+            }
+
+            final double ljj = Math.sqrt(d);
+
+            a[col + j] = ljj;
+
+            for (int i = j + 1; i < size; i++) {
+                a[col + i] /= ljj;
+            }
+
+            for (int k = j + 1; k < size; k++) {
+                final int colK = aOffset + k * size;
+                final double lkj = a[col + k];
+
+                for (int i = k; i < size; i++) {
+                    a[colK + i] -= a[col + i] * lkj;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Solves A*x = b in place using the factor from choleskyD.
+     *
+     * @param l the factored matrix array.
+     * @param lOffset the offset to the factored matrix.
+     * @param size the size of the matrix.
+     * @param b the right hand side; overwritten with x.
+     * @param bOffset the offset to the right hand side.
+     * @since 26.10.17
+     */
+    public static void choleskySolveD(
+            final double[] l, final int lOffset, final int size,
+            final double[] b, final int bOffset) {
+
+        forwardD(l, lOffset, size, b, bOffset, false);
+
+        // L^T is upper triangular and its columns are the rows of L
+        for (int j = size - 1; j >= 0; j--) {
+            final int col = lOffset + j * size;
+            double sum = b[bOffset + j];
+
+            for (int i = j + 1; i < size; i++) {
+                sum -= l[col + i] * b[bOffset + i];
+            }
+
+            b[bOffset + j] = sum / l[col + j];
+        }
+    }
+
+    /**
+     * Factors a matrix in place into A = Q*R using Householder reflections. R
+     * is stored on and above the diagonal and the reflection vectors below
+     * it, with their leading 1 implied.
+     *
+     * @param a the matrix array.
+     * @param aOffset the offset to the matrix.
+     * @param size the size of the matrix.
+     * @param tau the output reflection scales.
+     * @param tauOffset the offset to begin writing the scales.
+     * @return false if the matrix is singular.
+     * @since 26.10.17
+     */
+    public static boolean qrD(
+            final double[] a, final int aOffset, final int size,
+            final double[] tau, final int tauOffset) {
+
+        final double tolerance = toleranceD(a, aOffset, size, false);
+        boolean nonsingular = true;
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+            final double alpha = a[col + j];
+            double norm2 = 0.0;
+
+            for (int i = j + 1; i < size; i++) {
+                norm2 += a[col + i] * a[col + i];
+            }
+
+            if (norm2 == 0.0) {
+                // already upper triangular in this column
+                tau[tauOffset + j] = 0;
+            } else {
+                final double beta = -Math.copySign(Math.sqrt(alpha * alpha + norm2), alpha);
+                final double scale = 1 / (alpha - beta);
+
+                tau[tauOffset + j] = (beta - alpha) / beta;
+                a[col + j] = beta;
+
+                for (int i = j + 1; i < size; i++) {
+                    a[col + i] *= scale;
+                }
+
+                for (int k = col + size; k < aOffset + size * size; k += size) {
+                    reflectD(a, col, tau[tauOffset + j], a, k, j, size);
+                }
+            }
+
+            if (!(Math.abs(a[col + j]) > tolerance)) {
+                nonsingular = false;
+            }
+        }
+
+        return nonsingular;
+    }
+
+    /**
+     * Solves A*x = b in place using the factors from qrD.
+     *
+     * @param qr the factored matrix array.
+     * @param qrOffset the offset to the factored matrix.
+     * @param size the size of the matrix.
+     * @param tau the reflection scales.
+     * @param tauOffset the offset to the scales.
+     * @param b the right hand side; overwritten with x.
+     * @param bOffset the offset to the right hand side.
+     * @since 26.10.17
+     */
+    public static void qrSolveD(
+            final double[] qr, final int qrOffset, final int size,
+            final double[] tau, final int tauOffset,
+            final double[] b, final int bOffset) {
+
+        // b = Q^T * b
+        for (int j = 0; j < size; j++) {
+            final double t = tau[tauOffset + j];
+
+            if (t != 0) {
+                reflectD(qr, qrOffset + j * size, t, b, bOffset, j, size);
+            }
+        }
+
+        backwardD(qr, qrOffset, size, b, bOffset);
+    }
+
+    /**
+     * Factors and solves a batch of systems stored back to back. Each matrix
+     * is overwritten by its factors and each right hand side by its solution.
+     * Systems that cannot be solved have their solution set to NaN.
+     *
+     * @param method the factorization to use.
+     * @param a the matrices.
+     * @param aOffset the offset to the first matrix.
+     * @param b the right hand sides.
+     * @param bOffset the offset to the first right hand side.
+     * @param size the size of each system.
+     * @param count the number of systems.
+     * @return the number of systems that could not be solved.
+     * @since 26.10.17
+     */
+    public static int solveBatchD(
+            final Method method,
+            final double[] a, final int aOffset,
+            final double[] b, final int bOffset,
+            final int size, final int count) {
+
+        final int[] pivots = new int[size];
+        final double[] tau = new double[size];
+        final int size2 = size * size;
+        int failed = 0;
+
+        for (int s = 0; s < count; s++) {
+            final int m = aOffset + s * size2;
+            final int v = bOffset + s * size;
+            final boolean solved;
+
+            switch (method) {
+                case LU:
+                    solved = luD(a, m, size, pivots, 0);
+
+                    if (solved) {
+                        luSolveD(a, m, size, pivots, 0, b, v);
+                    }
+                    break;
+                case CHOLESKY:
+                    solved = choleskyD(a, m, size);
+
+                    if (solved) {
+                        choleskySolveD(a, m, size, b, v);
+                    }
+                    break;
+                case QR:
+                    solved = qrD(a, m, size, tau, 0);
+
+                    if (solved) {
+                        qrSolveD(a, m, size, tau, 0, b, v);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported method!");
+            }
+
+            if (!solved) {
+                Arrays.fill(b, v, v + size, Double.NaN);
+                failed++;
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Data-parallel implementation of solveBatchD. Singular systems can be
+     * found by their NaN solutions.
+     *
+     * @param method the factorization to use.
+     * @param a the matrices.
+     * @param aOffset the offset to the first matrix.
+     * @param b the right hand sides.
+     * @param bOffset the offset to the first right hand side.
+     * @param size the size of each system.
+     * @param count the number of systems.
+     * @return a future that completes with b.
+     * @since 26.10.17
+     */
+    public static Future<double[]> solveBatchParallelD(
+            final Method method,
+            final double[] a, final int aOffset,
+            final double[] b, final int bOffset,
+            final int size, final int count) {
+
+        Objects.requireNonNull(method);
+
+        return VectorArrays.parallelFor(count, b, (offset, n) -> solveBatchD(
+                method,
+                a, aOffset + offset * size * size,
+                b, bOffset + offset * size,
+                size, n));
+    }
+
+    // the magnitude below which a pivot is indistinguishable from rounding
+    // error; only the lower triangle is read if lower
+    private static double toleranceD(
+            final double[] a, final int aOffset, final int size,
+            final boolean lower) {
+
+        double max = 0.0;
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+
+            for (int i = lower ? j : 0; i < size; i++) {
+                max = Math.max(max, Math.abs(a[col + i]));
+            }
+        }
+
+        return size * Math.ulp(max);
+    }
+
+    // solves L*y = b for lower triangular L, which has a unit diagonal if unit
+    private static void forwardD(
+            final double[] l, final int lOffset, final int size,
+            final double[] b, final int bOffset,
+            final boolean unit) {
+
+        for (int j = 0; j < size; j++) {
+            final int col = lOffset + j * size;
+
+            if (!unit) {
+                b[bOffset + j] /= l[col + j];
+            }
+
+            final double bj = b[bOffset + j];
+
+            if (bj != 0) {
+                for (int i = j + 1; i < size; i++) {
+                    b[bOffset + i] -= l[col + i] * bj;
+                }
+            }
+        }
+    }
+
+    // solves U*x = y for upper triangular U
+    private static void backwardD(
+            final double[] u, final int uOffset, final int size,
+            final double[] b, final int bOffset) {
+
+        for (int j = size - 1; j >= 0; j--) {
+            final int col = uOffset + j * size;
+            final double bj = b[bOffset + j] / u[col + j];
+
+            b[bOffset + j] = bj;
+
+            if (bj != 0) {
+                for (int i = 0; i < j; i++) {
+                    b[bOffset + i] -= u[col + i] * bj;
+                }
+            }
+        }
+    }
+
+    // applies I - tau*v*v^T, with v stored below row j of a column and its
+    // leading 1 implied, to rows j and below of x
+    private static void reflectD(
+            final double[] v, final int vOffset, final double tau,
+            final double[] x, final int xOffset,
+            final int j, final int size) {
+
+        double w = x[xOffset + j];
+
+        for (int i = j + 1; i < size; i++) {
+            w += v[vOffset + i] * x[xOffset + i];
+        }
+
+        w *= tau;
+        x[xOffset + j] -= w;
+
+        for (int i = j + 1; i < size; i++) {
+            x[xOffset + i] -= v[vOffset + i] * w;
+        }
+    }
+
+    public static boolean luF(
+            final float[] a, final int aOffset, final int size,
+            final int[] pivots, final int pivotsOffset) {
+
+        final float tolerance = toleranceF(a, aOffset, size, false);
+        boolean nonsingular = true;
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+            int p = j;
+            float max = Math.abs(a[col + j]);
+
+            for (int i = j + 1; i < size; i++) {
+                final float v = Math.abs(a[col + i]);
+
+                if (v > max) {
+                    max = v;
+                    p = i;
+                }
+            }
+
+            pivots[pivotsOffset + j] = p;
+
+            if (p != j) {
+                for (int k = aOffset; k < aOffset + size * size; k += size) {
+                    final float tmp = a[k + j];
+
+                    a[k + j] = a[k + p];
+                    a[k + p] = tmp;
+                }
+            }
+
+            final float pivot = a[col + j];
+
+            if (!(Math.abs(pivot) > tolerance)) {
+                nonsingular = false;
+
+                if (pivot == 0) {
+                    continue;
+                }
+            }
+
+            for (int i = j + 1; i < size; i++) {
+                a[col + i] /= pivot;
+            }
+
+            // rank-1 update of the trailing columns
+            for (int k = col + size; k < aOffset + size * size; k += size) {
+                final float ajk = a[k + j];
+
+                if (ajk != 0) {
+                    for (int i = j + 1; i < size; i++) {
+                        a[k + i] -= a[col + i] * ajk;
+                    }
+                }
+            }
+        }
+
+        return nonsingular;
+    }
+
+    public static void luSolveF(
+            final float[] lu, final int luOffset, final int size,
+            final int[] pivots, final int pivotsOffset,
+            final float[] b, final int bOffset) {
+
+        for (int i = 0; i < size; i++) {
+            final int p = pivots[pivotsOffset + i];
+
+            if (p != i) {
+                final float tmp = b[bOffset + i];
+
+                b[bOffset + i] = b[bOffset + p];
+                b[bOffset + p] = tmp;
+            }
+        }
+
+        forwardF(lu, luOffset, size, b, bOffset, true);
+        backwardF(lu, luOffset, size, b, bOffset);
+    }
+
+    public static boolean choleskyF(final float[] a, final int aOffset, final int size) {
+        final float tolerance = toleranceF(a, aOffset, size, true);
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+            final float d = a[col + j];
+
+            if (!(d > tolerance)) {
+                return false;
+            }
+
+            final float ljj = (float) Math.sqrt(d);
+
+            a[col + j] = ljj;
+
+            for (int i = j + 1; i < size; i++) {
+                a[col + i] /= ljj;
+            }
+
+            for (int k = j + 1; k < size; k++) {
+                final int colK = aOffset + k * size;
+                final float lkj = a[col + k];
+
+                for (int i = k; i < size; i++) {
+                    a[colK + i] -= a[col + i] * lkj;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    public static void choleskySolveF(
+            final float[] l, final int lOffset, final int size,
+            final float[] b, final int bOffset) {
+
+        forwardF(l, lOffset, size, b, bOffset, false);
+
+        // L^T is upper triangular and its columns are the rows of L
+        for (int j = size - 1; j >= 0; j--) {
+            final int col = lOffset + j * size;
+            float sum = b[bOffset + j];
+
+            for (int i = j + 1; i < size; i++) {
+                sum -= l[col + i] * b[bOffset + i];
+            }
+
+            b[bOffset + j] = sum / l[col + j];
+        }
+    }
+
+    public static boolean qrF(
+            final float[] a, final int aOffset, final int size,
+            final float[] tau, final int tauOffset) {
+
+        final float tolerance = toleranceF(a, aOffset, size, false);
+        boolean nonsingular = true;
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+            final float alpha = a[col + j];
+            double norm2 = 0.0;
+
+            for (int i = j + 1; i < size; i++) {
+                norm2 += a[col + i] * a[col + i];
+            }
+
+            if (norm2 == 0.0) {
+                // already upper triangular in this column
+                tau[tauOffset + j] = 0;
+            } else {
+                final float beta = (float) -Math.copySign(Math.sqrt(alpha * (double) alpha + norm2), alpha);
+                final float scale = 1 / (alpha - beta);
+
+                tau[tauOffset + j] = (beta - alpha) / beta;
+                a[col + j] = beta;
+
+                for (int i = j + 1; i < size; i++) {
+                    a[col + i] *= scale;
+                }
+
+                for (int k = col + size; k < aOffset + size * size; k += size) {
+                    reflectF(a, col, tau[tauOffset + j], a, k, j, size);
+                }
+            }
+
+            if (!(Math.abs(a[col + j]) > tolerance)) {
+                nonsingular = false;
+            }
+        }
+
+        return nonsingular;
+    }
+
+    public static void qrSolveF(
+            final float[] qr, final int qrOffset, final int size,
+            final float[] tau, final int tauOffset,
+            final float[] b, final int bOffset) {
+
+        // b = Q^T * b
+        for (int j = 0; j < size; j++) {
+            final float t = tau[tauOffset + j];
+
+            if (t != 0) {
+                reflectF(qr, qrOffset + j * size, t, b, bOffset, j, size);
+            }
+        }
+
+        backwardF(qr, qrOffset, size, b, bOffset);
+    }
+
+    public static int solveBatchF(
+            final Method method,
+            final float[] a, final int aOffset,
+            final float[] b, final int bOffset,
+            final int size, final int count) {
+
+        final int[] pivots = new int[size];
+        final float[] tau = new float[size];
+        final int size2 = size * size;
+        int failed = 0;
+
+        for (int s = 0; s < count; s++) {
+            final int m = aOffset + s * size2;
+            final int v = bOffset + s * size;
+            final boolean solved;
+
+            switch (method) {
+                case LU:
+                    solved = luF(a, m, size, pivots, 0);
+
+                    if (solved) {
+                        luSolveF(a, m, size, pivots, 0, b, v);
+                    }
+                    break;
+                case CHOLESKY:
+                    solved = choleskyF(a, m, size);
+
+                    if (solved) {
+                        choleskySolveF(a, m, size, b, v);
+                    }
+                    break;
+                case QR:
+                    solved = qrF(a, m, size, tau, 0);
+
+                    if (solved) {
+                        qrSolveF(a, m, size, tau, 0, b, v);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported method!");
+            }
+
+            if (!solved) {
+                Arrays.fill(b, v, v + size, Float.NaN);
+                failed++;
+            }
+        }
+
+        return failed;
+    }
+
+    public static Future<float[]> solveBatchParallelF(
+            final Method method,
+            final float[] a, final int aOffset,
+            final float[] b, final int bOffset,
+            final int size, final int count) {
+
+        Objects.requireNonNull(method);
+
+        return VectorArrays.parallelFor(count, b, (offset, n) -> solveBatchF(
+                method,
+                a, aOffset + offset * size * size,
+                b, bOffset + offset * size,
+                size, n));
+    }
+
+    // solves L*y = b for lower triangular L, which has a unit diagonal if unit
+    private static float toleranceF(
+            final float[] a, final int aOffset, final int size,
+            final boolean lower) {
+
+        float max = 0f;
+
+        for (int j = 0; j < size; j++) {
+            final int col = aOffset + j * size;
+
+            for (int i = lower ? j : 0; i < size; i++) {
+                max = Math.max(max, Math.abs(a[col + i]));
+            }
+        }
+
+        return size * Math.ulp(max);
+    }
+
+    private static void forwardF(
+            final float[] l, final int lOffset, final int size,
+            final float[] b, final int bOffset,
+            final boolean unit) {
+
+        for (int j = 0; j < size; j++) {
+            final int col = lOffset + j * size;
+
+            if (!unit) {
+                b[bOffset + j] /= l[col + j];
+            }
+
+            final float bj = b[bOffset + j];
+
+            if (bj != 0) {
+                for (int i = j + 1; i < size; i++) {
+                    b[bOffset + i] -= l[col + i] * bj;
+                }
+            }
+        }
+    }
+
+    // solves U*x = y for upper triangular U
+    private static void backwardF(
+            final float[] u, final int uOffset, final int size,
+            final float[] b, final int bOffset) {
+
+        for (int j = size - 1; j >= 0; j--) {
+            final int col = uOffset + j * size;
+            final float bj = b[bOffset + j] / u[col + j];
+
+            b[bOffset + j] = bj;
+
+            if (bj != 0) {
+                for (int i = 0; i < j; i++) {
+                    b[bOffset + i] -= u[col + i] * bj;
+                }
+            }
+        }
+    }
+
+    // applies I - tau*v*v^T, with v stored below row j of a column and its
+    // leading 1 implied, to rows j and below of x
+    private static void reflectF(
+            final float[] v, final int vOffset, final float tau,
+            final float[] x, final int xOffset,
+            final int j, final int size) {
+
+        float w = x[xOffset + j];
+
+        for (int i = j + 1; i < size; i++) {
+            w += v[vOffset + i] * x[xOffset + i];
+        }
+
+        w *= tau;
+        x[xOffset + j] -= w;
+
+        for (int i = j + 1; i < size; i++) {
+            x[xOffset + i] -= v[vOffset + i] * w;
+        }
+    }
+}
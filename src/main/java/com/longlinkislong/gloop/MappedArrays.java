@@ -0,0 +1,159 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Helpers shared by the arrays that are stored in memory mapped files.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class MappedArrays {
+
+    /**
+     * The number of elements staged on the heap at a time.
+     *
+     * @since 26.10.17
+     */
+    static final int BLOCK_SIZE = 1024;
+
+    private MappedArrays() {
+    }
+
+    /**
+     * Maps consecutive regions of equal size. Any region that was already
+     * mapped is closed if a later one fails.
+     *
+     * @param channel the channel of the file.
+     * @param mode the map mode.
+     * @param position the byte offset of the first region.
+     * @param regionSize the size of each region in bytes.
+     * @param regionCount the number of regions.
+     * @return the regions.
+     * @throws IOException if a region could not be mapped.
+     * @since 26.10.17
+     */
+    static MappedRegion[] map(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position, final long regionSize,
+            final int regionCount) throws IOException {
+
+        final MappedRegion[] regions = new MappedRegion[regionCount];
+
+        try {
+            for (int i = 0; i < regionCount; i++) {
+                regions[i] = MappedRegion.map(channel, mode, position + i * regionSize, regionSize);
+            }
+        } catch (IOException | RuntimeException ex) {
+            close(regions);
+            throw ex;
+        }
+
+        return regions;
+    }
+
+    /**
+     * Closes every region.
+     *
+     * @param regions the regions. Null elements are skipped.
+     * @since 26.10.17
+     */
+    static void close(final MappedRegion[] regions) {
+        for (MappedRegion region : regions) {
+            if (region != null) {
+                region.close();
+            }
+        }
+    }
+
+    /**
+     * Views a region as little endian doubles.
+     *
+     * @param region the region.
+     * @return the view.
+     * @since 26.10.17
+     */
+    static DoubleBuffer doubles(final MappedRegion region) {
+        return region.buffer()
+                .duplicate()
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer();
+    }
+
+    /**
+     * Bulk reads from a buffer without moving its position.
+     *
+     * @param src the buffer.
+     * @param index the index of the first element to read.
+     * @param dst the array to write to.
+     * @param dstOffset the offset to begin writing.
+     * @param count the number of elements.
+     * @since 26.10.17
+     */
+    static void get(final DoubleBuffer src, final int index, final double[] dst, final int dstOffset, final int count) {
+        final DoubleBuffer view = src.duplicate();
+
+        view.position(index);
+        view.get(dst, dstOffset, count);
+    }
+
+    /**
+     * Bulk writes to a buffer without moving its position.
+     *
+     * @param dst the buffer.
+     * @param index the index of the first element to write.
+     * @param src the array to read from.
+     * @param srcOffset the offset to begin reading.
+     * @param count the number of elements.
+     * @since 26.10.17
+     */
+    static void put(final DoubleBuffer dst, final int index, final double[] src, final int srcOffset, final int count) {
+        final DoubleBuffer view = dst.duplicate();
+
+        view.position(index);
+        view.put(src, srcOffset, count);
+    }
+
+    /**
+     * Checks that a range lies within an array.
+     *
+     * @param index the first index of the range.
+     * @param count the number of elements in the range.
+     * @param length the length of the array.
+     * @throws IndexOutOfBoundsException if the range is out of bounds.
+     * @since 26.10.17
+     */
+    static void checkRange(final int index, final int count, final int length) {
+        if (index < 0 || count < 0 || index > length - count) {
+            throw new IndexOutOfBoundsException(String.format("Tried [%d, %d) on length %d", index, index + count, length));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A region of a file mapped into memory. This is the Java 8 implementation,
+ * which maps a MappedByteBuffer and leaves unmapping to the garbage collector.
+ * The multi-release jar replaces it on JDK 22+ with one backed by a
+ * MemorySegment that is unmapped as soon as the region is closed.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class MappedRegion implements AutoCloseable {
+
+    private MappedByteBuffer buffer;
+
+    private MappedRegion(final MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps a region of a file.
+     *
+     * @param channel the channel of the file.
+     * @param mode the map mode.
+     * @param position the byte offset of the region in the file.
+     * @param size the size of the region in bytes.
+     * @return the mapped region.
+     * @throws IOException if the region could not be mapped.
+     * @throws IllegalArgumentException if size is larger than 2GB.
+     * @since 26.10.17
+     */
+    static MappedRegion map(
+            final FileChannel channel, final FileChannel.MapMode mode,
+            final long position, final long size) throws IOException {
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Mapped region cannot be larger than 2GB!");
+        }
+
+        return new MappedRegion(channel.map(mode, position, size));
+    }
+
+    /**
+     * Retrieves the mapped bytes. The buffer must not be used once the region
+     * is closed.
+     *
+     * @return the buffer.
+     * @throws IllegalStateException if the region is closed.
+     * @since 26.10.17
+     */
+    ByteBuffer buffer() {
+        if (this.buffer == null) {
+            throw new IllegalStateException("Mapped region is closed!");
+        }
+
+        return this.buffer;
+    }
+
+    /**
+     * Writes any changes made through the buffer back to the file.
+     *
+     * @throws IllegalStateException if the region is closed.
+     * @since 26.10.17
+     */
+    void force() {
+        if (this.buffer == null) {
+            throw new IllegalStateException("Mapped region is closed!");
+        }
+
+        this.buffer.force();
+    }
+
+    @Override
+    public void close() {
+        this.buffer = null;
+    }
+}
@@ -0,0 +1,811 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.concurrent.Future;
+
+/**
+ * Batched inverse and determinant kernels for 3x3 and 4x4 matrices stored in
+ * planar (structure of arrays) form. Element k of matrix m is at
+ * offset + k * stride + m, where k is the index of the element in the
+ * interleaved layout used by Matrices and the matrix arrays. Every load and
+ * store walks its plane at unit stride, nothing is allocated per matrix, and
+ * singular matrices are reported through flags instead of exceptions.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class MatrixArrays {
+
+    // matrices processed per pass; bounds the scratch used for singular checks
+    private static final int BLOCK = 1024;
+
+    private MatrixArrays() {
+    }
+
+    private static void checkPlanar(
+            final int length, final int offset, final int stride,
+            final int count, final int planes) {
+
+        if (offset < 0 || count < 0 || stride < count) {
+            throw new IllegalArgumentException("Invalid planar range!");
+        } else if (count > 0 && offset + (long) (planes - 1) * stride + count > length) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Calculates the determinant of each 3x3 matrix in a planar batch.
+     *
+     * @param out the output array. Determinants are written densely.
+     * @param outOffset the offset to the first determinant.
+     * @param in the planar matrices.
+     * @param inOffset the offset to the first element of plane 0.
+     * @param stride the distance between planes.
+     * @param count the number of matrices.
+     * @since 26.10.17
+     */
+    public static void determinant3D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+
+        for (int m = 0; m < count; m++) {
+            final double m00 = in[inOffset + m];
+            final double m01 = in[inOffset + stride + m];
+            final double m02 = in[inOffset + 2 * stride + m];
+            final double m10 = in[inOffset + 3 * stride + m];
+            final double m11 = in[inOffset + 4 * stride + m];
+            final double m12 = in[inOffset + 5 * stride + m];
+            final double m20 = in[inOffset + 6 * stride + m];
+            final double m21 = in[inOffset + 7 * stride + m];
+            final double m22 = in[inOffset + 8 * stride + m];
+            final double c00 = m11 * m22 - m12 * m21;
+            final double c01 = m12 * m20 - m10 * m22;
+            final double c02 = m10 * m21 - m11 * m20;
+
+            out[outOffset + m] = m00 * c00 + m01 * c01 + m02 * c02;
+        }
+    }
+
+    /**
+     * Calculates the inverse of each 3x3 matrix in a planar batch. The output
+     * uses the same stride as the input and may be the input. A matrix is
+     * singular when its inverse is not finite; its flag is set and its
+     * inverse is filled with NaN instead of throwing.
+     *
+     * @param out the planar output matrices.
+     * @param outOffset the offset to the first element of output plane 0.
+     * @param in the planar input matrices.
+     * @param inOffset the offset to the first element of input plane 0.
+     * @param stride the distance between planes.
+     * @param count the number of matrices.
+     * @param singular the singular flags. May be null.
+     * @param singularOffset the offset to the first flag.
+     * @return the number of singular matrices.
+     * @since 26.10.17
+     */
+    public static int inverse3D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+        checkPlanar(out.length, outOffset, stride, count, 9);
+
+        final double[] invDets = new double[Math.min(count, BLOCK)];
+        int failed = 0;
+
+        for (int start = 0; start < count; start += BLOCK) {
+            final int end = Math.min(start + BLOCK, count);
+
+            // branch free; singular matrices are fixed up after the block
+            for (int m = start; m < end; m++) {
+                final double m00 = in[inOffset + m];
+                final double m01 = in[inOffset + stride + m];
+                final double m02 = in[inOffset + 2 * stride + m];
+                final double m10 = in[inOffset + 3 * stride + m];
+                final double m11 = in[inOffset + 4 * stride + m];
+                final double m12 = in[inOffset + 5 * stride + m];
+                final double m20 = in[inOffset + 6 * stride + m];
+                final double m21 = in[inOffset + 7 * stride + m];
+                final double m22 = in[inOffset + 8 * stride + m];
+                final double c00 = m11 * m22 - m12 * m21;
+                final double c01 = m12 * m20 - m10 * m22;
+                final double c02 = m10 * m21 - m11 * m20;
+                final double invDet = 1.0 / (m00 * c00 + m01 * c01 + m02 * c02);
+
+                out[outOffset + m] = c00 * invDet;
+                out[outOffset + stride + m] = (m02 * m21 - m01 * m22) * invDet;
+                out[outOffset + 2 * stride + m] = (m01 * m12 - m02 * m11) * invDet;
+                out[outOffset + 3 * stride + m] = c01 * invDet;
+                out[outOffset + 4 * stride + m] = (m00 * m22 - m02 * m20) * invDet;
+                out[outOffset + 5 * stride + m] = (m02 * m10 - m00 * m12) * invDet;
+                out[outOffset + 6 * stride + m] = c02 * invDet;
+                out[outOffset + 7 * stride + m] = (m01 * m20 - m00 * m21) * invDet;
+                out[outOffset + 8 * stride + m] = (m00 * m11 - m01 * m10) * invDet;
+                invDets[m - start] = invDet;
+            }
+
+            for (int m = start; m < end; m++) {
+                final boolean flag = !Double.isFinite(invDets[m - start]);
+
+                if (flag) {
+                    failed++;
+
+                    for (int k = 0; k < 9; k++) {
+                        out[outOffset + k * stride + m] = Double.NaN;
+                    }
+                }
+
+                if (singular != null) {
+                    singular[singularOffset + m] = flag;
+                }
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Data-parallel implementation of determinant3D.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to the first determinant.
+     * @param in the planar matrices.
+     * @param inOffset the offset to the first element of plane 0.
+     * @param stride the distance between planes.
+     * @param count the number of matrices.
+     * @return a future that completes with out.
+     * @since 26.10.17
+     */
+    public static Future<double[]> determinantParallel3D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> determinant3D(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length));
+    }
+
+    /**
+     * Data-parallel implementation of inverse3D. Each chunk is a contiguous
+     * range of matrices, sized by VectorArrays.setParallelChunkSize.
+     *
+     * @param out the planar output matrices.
+     * @param outOffset the offset to the first element of output plane 0.
+     * @param in the planar input matrices.
+     * @param inOffset the offset to the first element of input plane 0.
+     * @param stride the distance between planes.
+     * @param count the number of matrices.
+     * @param singular the singular flags. May be null.
+     * @param singularOffset the offset to the first flag.
+     * @return a future that completes with out.
+     * @since 26.10.17
+     */
+    public static Future<double[]> inverseParallel3D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+        checkPlanar(out.length, outOffset, stride, count, 9);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> inverse3D(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length,
+                singular, singularOffset + offset));
+    }
+
+    /**
+     * Copies interleaved 3x3 matrices, such as the data of a matrix array,
+     * into planar storage.
+     *
+     * @param out the planar output matrices.
+     * @param outOffset the offset to the first element of output plane 0.
+     * @param stride the distance between output planes.
+     * @param in the interleaved matrices.
+     * @param inOffset the offset to the first matrix.
+     * @param count the number of matrices.
+     * @since 26.10.17
+     */
+    public static void planar3D(
+            final double[] out, final int outOffset, final int stride,
+            final double[] in, final int inOffset,
+            final int count) {
+
+        checkPlanar(out.length, outOffset, stride, count, 9);
+
+        for (int k = 0; k < 9; k++) {
+            final int plane = outOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[plane + m] = in[inOffset + m * 9 + k];
+            }
+        }
+    }
+
+    /**
+     * Copies planar 3x3 matrices back into interleaved storage.
+     *
+     * @param out the interleaved output matrices.
+     * @param outOffset the offset to the first matrix.
+     * @param in the planar matrices.
+     * @param inOffset the offset to the first element of plane 0.
+     * @param stride the distance between planes.
+     * @param count the number of matrices.
+     * @since 26.10.17
+     */
+    public static void interleave3D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+
+        for (int k = 0; k < 9; k++) {
+            final int plane = inOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[outOffset + m * 9 + k] = in[plane + m];
+            }
+        }
+    }
+
+    public static void determinant4D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+
+        for (int m = 0; m < count; m++) {
+            final double m00 = in[inOffset + m];
+            final double m01 = in[inOffset + stride + m];
+            final double m02 = in[inOffset + 2 * stride + m];
+            final double m03 = in[inOffset + 3 * stride + m];
+            final double m10 = in[inOffset + 4 * stride + m];
+            final double m11 = in[inOffset + 5 * stride + m];
+            final double m12 = in[inOffset + 6 * stride + m];
+            final double m13 = in[inOffset + 7 * stride + m];
+            final double m20 = in[inOffset + 8 * stride + m];
+            final double m21 = in[inOffset + 9 * stride + m];
+            final double m22 = in[inOffset + 10 * stride + m];
+            final double m23 = in[inOffset + 11 * stride + m];
+            final double m30 = in[inOffset + 12 * stride + m];
+            final double m31 = in[inOffset + 13 * stride + m];
+            final double m32 = in[inOffset + 14 * stride + m];
+            final double m33 = in[inOffset + 15 * stride + m];
+            final double s0 = m00 * m11 - m10 * m01;
+            final double s1 = m00 * m12 - m10 * m02;
+            final double s2 = m00 * m13 - m10 * m03;
+            final double s3 = m01 * m12 - m11 * m02;
+            final double s4 = m01 * m13 - m11 * m03;
+            final double s5 = m02 * m13 - m12 * m03;
+            final double c5 = m22 * m33 - m32 * m23;
+            final double c4 = m21 * m33 - m31 * m23;
+            final double c3 = m21 * m32 - m31 * m22;
+            final double c2 = m20 * m33 - m30 * m23;
+            final double c1 = m20 * m32 - m30 * m22;
+            final double c0 = m20 * m31 - m30 * m21;
+
+            out[outOffset + m] = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        }
+    }
+
+    public static int inverse4D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+        checkPlanar(out.length, outOffset, stride, count, 16);
+
+        final double[] invDets = new double[Math.min(count, BLOCK)];
+        int failed = 0;
+
+        for (int start = 0; start < count; start += BLOCK) {
+            final int end = Math.min(start + BLOCK, count);
+
+            // branch free; singular matrices are fixed up after the block
+            for (int m = start; m < end; m++) {
+                final double m00 = in[inOffset + m];
+                final double m01 = in[inOffset + stride + m];
+                final double m02 = in[inOffset + 2 * stride + m];
+                final double m03 = in[inOffset + 3 * stride + m];
+                final double m10 = in[inOffset + 4 * stride + m];
+                final double m11 = in[inOffset + 5 * stride + m];
+                final double m12 = in[inOffset + 6 * stride + m];
+                final double m13 = in[inOffset + 7 * stride + m];
+                final double m20 = in[inOffset + 8 * stride + m];
+                final double m21 = in[inOffset + 9 * stride + m];
+                final double m22 = in[inOffset + 10 * stride + m];
+                final double m23 = in[inOffset + 11 * stride + m];
+                final double m30 = in[inOffset + 12 * stride + m];
+                final double m31 = in[inOffset + 13 * stride + m];
+                final double m32 = in[inOffset + 14 * stride + m];
+                final double m33 = in[inOffset + 15 * stride + m];
+                final double s0 = m00 * m11 - m10 * m01;
+                final double s1 = m00 * m12 - m10 * m02;
+                final double s2 = m00 * m13 - m10 * m03;
+                final double s3 = m01 * m12 - m11 * m02;
+                final double s4 = m01 * m13 - m11 * m03;
+                final double s5 = m02 * m13 - m12 * m03;
+                final double c5 = m22 * m33 - m32 * m23;
+                final double c4 = m21 * m33 - m31 * m23;
+                final double c3 = m21 * m32 - m31 * m22;
+                final double c2 = m20 * m33 - m30 * m23;
+                final double c1 = m20 * m32 - m30 * m22;
+                final double c0 = m20 * m31 - m30 * m21;
+                final double invDet = 1.0 / (s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0);
+
+                out[outOffset + m] = (m11 * c5 - m12 * c4 + m13 * c3) * invDet;
+                out[outOffset + stride + m] = (-m01 * c5 + m02 * c4 - m03 * c3) * invDet;
+                out[outOffset + 2 * stride + m] = (m31 * s5 - m32 * s4 + m33 * s3) * invDet;
+                out[outOffset + 3 * stride + m] = (-m21 * s5 + m22 * s4 - m23 * s3) * invDet;
+                out[outOffset + 4 * stride + m] = (-m10 * c5 + m12 * c2 - m13 * c1) * invDet;
+                out[outOffset + 5 * stride + m] = (m00 * c5 - m02 * c2 + m03 * c1) * invDet;
+                out[outOffset + 6 * stride + m] = (-m30 * s5 + m32 * s2 - m33 * s1) * invDet;
+                out[outOffset + 7 * stride + m] = (m20 * s5 - m22 * s2 + m23 * s1) * invDet;
+                out[outOffset + 8 * stride + m] = (m10 * c4 - m11 * c2 + m13 * c0) * invDet;
+                out[outOffset + 9 * stride + m] = (-m00 * c4 + m01 * c2 - m03 * c0) * invDet;
+                out[outOffset + 10 * stride + m] = (m30 * s4 - m31 * s2 + m33 * s0) * invDet;
+                out[outOffset + 11 * stride + m] = (-m20 * s4 + m21 * s2 - m23 * s0) * invDet;
+                out[outOffset + 12 * stride + m] = (-m10 * c3 + m11 * c1 - m12 * c0) * invDet;
+                out[outOffset + 13 * stride + m] = (m00 * c3 - m01 * c1 + m02 * c0) * invDet;
+                out[outOffset + 14 * stride + m] = (-m30 * s3 + m31 * s1 - m32 * s0) * invDet;
+                out[outOffset + 15 * stride + m] = (m20 * s3 - m21 * s1 + m22 * s0) * invDet;
+                invDets[m - start] = invDet;
+            }
+
+            for (int m = start; m < end; m++) {
+                final boolean flag = !Double.isFinite(invDets[m - start]);
+
+                if (flag) {
+                    failed++;
+
+                    for (int k = 0; k < 16; k++) {
+                        out[outOffset + k * stride + m] = Double.NaN;
+                    }
+                }
+
+                if (singular != null) {
+                    singular[singularOffset + m] = flag;
+                }
+            }
+        }
+
+        return failed;
+    }
+
+    public static Future<double[]> determinantParallel4D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> determinant4D(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length));
+    }
+
+    public static Future<double[]> inverseParallel4D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+        checkPlanar(out.length, outOffset, stride, count, 16);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> inverse4D(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length,
+                singular, singularOffset + offset));
+    }
+
+    public static void planar4D(
+            final double[] out, final int outOffset, final int stride,
+            final double[] in, final int inOffset,
+            final int count) {
+
+        checkPlanar(out.length, outOffset, stride, count, 16);
+
+        for (int k = 0; k < 16; k++) {
+            final int plane = outOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[plane + m] = in[inOffset + m * 16 + k];
+            }
+        }
+    }
+
+    public static void interleave4D(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+
+        for (int k = 0; k < 16; k++) {
+            final int plane = inOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[outOffset + m * 16 + k] = in[plane + m];
+            }
+        }
+    }
+
+    public static void determinant3F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+
+        for (int m = 0; m < count; m++) {
+            final float m00 = in[inOffset + m];
+            final float m01 = in[inOffset + stride + m];
+            final float m02 = in[inOffset + 2 * stride + m];
+            final float m10 = in[inOffset + 3 * stride + m];
+            final float m11 = in[inOffset + 4 * stride + m];
+            final float m12 = in[inOffset + 5 * stride + m];
+            final float m20 = in[inOffset + 6 * stride + m];
+            final float m21 = in[inOffset + 7 * stride + m];
+            final float m22 = in[inOffset + 8 * stride + m];
+            final float c00 = m11 * m22 - m12 * m21;
+            final float c01 = m12 * m20 - m10 * m22;
+            final float c02 = m10 * m21 - m11 * m20;
+
+            out[outOffset + m] = m00 * c00 + m01 * c01 + m02 * c02;
+        }
+    }
+
+    public static int inverse3F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+        checkPlanar(out.length, outOffset, stride, count, 9);
+
+        final float[] invDets = new float[Math.min(count, BLOCK)];
+        int failed = 0;
+
+        for (int start = 0; start < count; start += BLOCK) {
+            final int end = Math.min(start + BLOCK, count);
+
+            // branch free; singular matrices are fixed up after the block
+            for (int m = start; m < end; m++) {
+                final float m00 = in[inOffset + m];
+                final float m01 = in[inOffset + stride + m];
+                final float m02 = in[inOffset + 2 * stride + m];
+                final float m10 = in[inOffset + 3 * stride + m];
+                final float m11 = in[inOffset + 4 * stride + m];
+                final float m12 = in[inOffset + 5 * stride + m];
+                final float m20 = in[inOffset + 6 * stride + m];
+                final float m21 = in[inOffset + 7 * stride + m];
+                final float m22 = in[inOffset + 8 * stride + m];
+                final float c00 = m11 * m22 - m12 * m21;
+                final float c01 = m12 * m20 - m10 * m22;
+                final float c02 = m10 * m21 - m11 * m20;
+                final float invDet = 1f / (m00 * c00 + m01 * c01 + m02 * c02);
+
+                out[outOffset + m] = c00 * invDet;
+                out[outOffset + stride + m] = (m02 * m21 - m01 * m22) * invDet;
+                out[outOffset + 2 * stride + m] = (m01 * m12 - m02 * m11) * invDet;
+                out[outOffset + 3 * stride + m] = c01 * invDet;
+                out[outOffset + 4 * stride + m] = (m00 * m22 - m02 * m20) * invDet;
+                out[outOffset + 5 * stride + m] = (m02 * m10 - m00 * m12) * invDet;
+                out[outOffset + 6 * stride + m] = c02 * invDet;
+                out[outOffset + 7 * stride + m] = (m01 * m20 - m00 * m21) * invDet;
+                out[outOffset + 8 * stride + m] = (m00 * m11 - m01 * m10) * invDet;
+                invDets[m - start] = invDet;
+            }
+
+            for (int m = start; m < end; m++) {
+                final boolean flag = !Float.isFinite(invDets[m - start]);
+
+                if (flag) {
+                    failed++;
+
+                    for (int k = 0; k < 9; k++) {
+                        out[outOffset + k * stride + m] = Float.NaN;
+                    }
+                }
+
+                if (singular != null) {
+                    singular[singularOffset + m] = flag;
+                }
+            }
+        }
+
+        return failed;
+    }
+
+    public static Future<float[]> determinantParallel3F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> determinant3F(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length));
+    }
+
+    public static Future<float[]> inverseParallel3F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+        checkPlanar(out.length, outOffset, stride, count, 9);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> inverse3F(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length,
+                singular, singularOffset + offset));
+    }
+
+    public static void planar3F(
+            final float[] out, final int outOffset, final int stride,
+            final float[] in, final int inOffset,
+            final int count) {
+
+        checkPlanar(out.length, outOffset, stride, count, 9);
+
+        for (int k = 0; k < 9; k++) {
+            final int plane = outOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[plane + m] = in[inOffset + m * 9 + k];
+            }
+        }
+    }
+
+    public static void interleave3F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 9);
+
+        for (int k = 0; k < 9; k++) {
+            final int plane = inOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[outOffset + m * 9 + k] = in[plane + m];
+            }
+        }
+    }
+
+    public static void determinant4F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+
+        for (int m = 0; m < count; m++) {
+            final float m00 = in[inOffset + m];
+            final float m01 = in[inOffset + stride + m];
+            final float m02 = in[inOffset + 2 * stride + m];
+            final float m03 = in[inOffset + 3 * stride + m];
+            final float m10 = in[inOffset + 4 * stride + m];
+            final float m11 = in[inOffset + 5 * stride + m];
+            final float m12 = in[inOffset + 6 * stride + m];
+            final float m13 = in[inOffset + 7 * stride + m];
+            final float m20 = in[inOffset + 8 * stride + m];
+            final float m21 = in[inOffset + 9 * stride + m];
+            final float m22 = in[inOffset + 10 * stride + m];
+            final float m23 = in[inOffset + 11 * stride + m];
+            final float m30 = in[inOffset + 12 * stride + m];
+            final float m31 = in[inOffset + 13 * stride + m];
+            final float m32 = in[inOffset + 14 * stride + m];
+            final float m33 = in[inOffset + 15 * stride + m];
+            final float s0 = m00 * m11 - m10 * m01;
+            final float s1 = m00 * m12 - m10 * m02;
+            final float s2 = m00 * m13 - m10 * m03;
+            final float s3 = m01 * m12 - m11 * m02;
+            final float s4 = m01 * m13 - m11 * m03;
+            final float s5 = m02 * m13 - m12 * m03;
+            final float c5 = m22 * m33 - m32 * m23;
+            final float c4 = m21 * m33 - m31 * m23;
+            final float c3 = m21 * m32 - m31 * m22;
+            final float c2 = m20 * m33 - m30 * m23;
+            final float c1 = m20 * m32 - m30 * m22;
+            final float c0 = m20 * m31 - m30 * m21;
+
+            out[outOffset + m] = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        }
+    }
+
+    public static int inverse4F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+        checkPlanar(out.length, outOffset, stride, count, 16);
+
+        final float[] invDets = new float[Math.min(count, BLOCK)];
+        int failed = 0;
+
+        for (int start = 0; start < count; start += BLOCK) {
+            final int end = Math.min(start + BLOCK, count);
+
+            // branch free; singular matrices are fixed up after the block
+            for (int m = start; m < end; m++) {
+                final float m00 = in[inOffset + m];
+                final float m01 = in[inOffset + stride + m];
+                final float m02 = in[inOffset + 2 * stride + m];
+                final float m03 = in[inOffset + 3 * stride + m];
+                final float m10 = in[inOffset + 4 * stride + m];
+                final float m11 = in[inOffset + 5 * stride + m];
+                final float m12 = in[inOffset + 6 * stride + m];
+                final float m13 = in[inOffset + 7 * stride + m];
+                final float m20 = in[inOffset + 8 * stride + m];
+                final float m21 = in[inOffset + 9 * stride + m];
+                final float m22 = in[inOffset + 10 * stride + m];
+                final float m23 = in[inOffset + 11 * stride + m];
+                final float m30 = in[inOffset + 12 * stride + m];
+                final float m31 = in[inOffset + 13 * stride + m];
+                final float m32 = in[inOffset + 14 * stride + m];
+                final float m33 = in[inOffset + 15 * stride + m];
+                final float s0 = m00 * m11 - m10 * m01;
+                final float s1 = m00 * m12 - m10 * m02;
+                final float s2 = m00 * m13 - m10 * m03;
+                final float s3 = m01 * m12 - m11 * m02;
+                final float s4 = m01 * m13 - m11 * m03;
+                final float s5 = m02 * m13 - m12 * m03;
+                final float c5 = m22 * m33 - m32 * m23;
+                final float c4 = m21 * m33 - m31 * m23;
+                final float c3 = m21 * m32 - m31 * m22;
+                final float c2 = m20 * m33 - m30 * m23;
+                final float c1 = m20 * m32 - m30 * m22;
+                final float c0 = m20 * m31 - m30 * m21;
+                final float invDet = 1f / (s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0);
+
+                out[outOffset + m] = (m11 * c5 - m12 * c4 + m13 * c3) * invDet;
+                out[outOffset + stride + m] = (-m01 * c5 + m02 * c4 - m03 * c3) * invDet;
+                out[outOffset + 2 * stride + m] = (m31 * s5 - m32 * s4 + m33 * s3) * invDet;
+                out[outOffset + 3 * stride + m] = (-m21 * s5 + m22 * s4 - m23 * s3) * invDet;
+                out[outOffset + 4 * stride + m] = (-m10 * c5 + m12 * c2 - m13 * c1) * invDet;
+                out[outOffset + 5 * stride + m] = (m00 * c5 - m02 * c2 + m03 * c1) * invDet;
+                out[outOffset + 6 * stride + m] = (-m30 * s5 + m32 * s2 - m33 * s1) * invDet;
+                out[outOffset + 7 * stride + m] = (m20 * s5 - m22 * s2 + m23 * s1) * invDet;
+                out[outOffset + 8 * stride + m] = (m10 * c4 - m11 * c2 + m13 * c0) * invDet;
+                out[outOffset + 9 * stride + m] = (-m00 * c4 + m01 * c2 - m03 * c0) * invDet;
+                out[outOffset + 10 * stride + m] = (m30 * s4 - m31 * s2 + m33 * s0) * invDet;
+                out[outOffset + 11 * stride + m] = (-m20 * s4 + m21 * s2 - m23 * s0) * invDet;
+                out[outOffset + 12 * stride + m] = (-m10 * c3 + m11 * c1 - m12 * c0) * invDet;
+                out[outOffset + 13 * stride + m] = (m00 * c3 - m01 * c1 + m02 * c0) * invDet;
+                out[outOffset + 14 * stride + m] = (-m30 * s3 + m31 * s1 - m32 * s0) * invDet;
+                out[outOffset + 15 * stride + m] = (m20 * s3 - m21 * s1 + m22 * s0) * invDet;
+                invDets[m - start] = invDet;
+            }
+
+            for (int m = start; m < end; m++) {
+                final boolean flag = !Float.isFinite(invDets[m - start]);
+
+                if (flag) {
+                    failed++;
+
+                    for (int k = 0; k < 16; k++) {
+                        out[outOffset + k * stride + m] = Float.NaN;
+                    }
+                }
+
+                if (singular != null) {
+                    singular[singularOffset + m] = flag;
+                }
+            }
+        }
+
+        return failed;
+    }
+
+    public static Future<float[]> determinantParallel4F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> determinant4F(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length));
+    }
+
+    public static Future<float[]> inverseParallel4F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count,
+            final boolean[] singular, final int singularOffset) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+        checkPlanar(out.length, outOffset, stride, count, 16);
+
+        return VectorArrays.parallelFor(count, out, (offset, length) -> inverse4F(
+                out, outOffset + offset,
+                in, inOffset + offset, stride,
+                length,
+                singular, singularOffset + offset));
+    }
+
+    public static void planar4F(
+            final float[] out, final int outOffset, final int stride,
+            final float[] in, final int inOffset,
+            final int count) {
+
+        checkPlanar(out.length, outOffset, stride, count, 16);
+
+        for (int k = 0; k < 16; k++) {
+            final int plane = outOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[plane + m] = in[inOffset + m * 16 + k];
+            }
+        }
+    }
+
+    public static void interleave4F(
+            final float[] out, final int outOffset,
+            final float[] in, final int inOffset, final int stride,
+            final int count) {
+
+        checkPlanar(in.length, inOffset, stride, count, 16);
+
+        for (int k = 0; k < 16; k++) {
+            final int plane = inOffset + k * stride;
+
+            for (int m = 0; m < count; m++) {
+                out[outOffset + m * 16 + k] = in[plane + m];
+            }
+        }
+    }
+}
@@ -0,0 +1,544 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+
+/**
+ * Cache-blocked NxN matrix multiplication. The right matrix is packed into
+ * panels that fit in cache and the product is accumulated 4x4 elements at a
+ * time in registers, so each element loaded from memory feeds four
+ * multiplications. Matrices at least gloop.matrices.parallel elements wide
+ * (128 by default) split their rows across the VectorArrays parallel pool.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+final class MatrixMultiply {
+
+    static final int PARALLEL_SIZE = Integer.getInteger("gloop.matrices.parallel", 128);
+
+    private static final int K_BLOCK = 128;
+    private static final int J_BLOCK = 256;
+
+    private MatrixMultiply() {
+    }
+
+    private static boolean isParallel(final int size) {
+        return size >= PARALLEL_SIZE && VectorArrays.getParallelPool().getParallelism() > 1;
+    }
+
+    // about four tasks per worker balances the load without tiny tasks
+    private static int chunkSize(final int groups) {
+        return Math.max(1, groups / (4 * VectorArrays.getParallelPool().getParallelism()));
+    }
+
+    /**
+     * Multiplies two row-major NxN matrices. Out may overlap either input.
+     *
+     * @param out the output matrix array.
+     * @param outOffset the offset to the output matrix.
+     * @param in0 the left matrix array.
+     * @param in0Offset the offset to the left matrix.
+     * @param in1 the right matrix array.
+     * @param in1Offset the offset to the right matrix.
+     * @param size the size of the matrices.
+     * @since 26.10.17
+     */
+    static void multiplyD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int size) {
+
+        multiplyD(out, outOffset, in0, in0Offset, in1, in1Offset, size, false);
+    }
+
+    /**
+     * Multiplies a row-major NxN matrix by the transpose of another. Reading
+     * the right matrix by rows is friendlier to the cache when the caller
+     * already holds the transpose, as with normal equations.
+     *
+     * @param out the output matrix array.
+     * @param outOffset the offset to the output matrix.
+     * @param in0 the left matrix array.
+     * @param in0Offset the offset to the left matrix.
+     * @param in1 the matrix array holding the transposed right matrix.
+     * @param in1Offset the offset to the transposed right matrix.
+     * @param size the size of the matrices.
+     * @since 26.10.17
+     */
+    static void multiplyTransposedD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int size) {
+
+        multiplyD(out, outOffset, in0, in0Offset, in1, in1Offset, size, true);
+    }
+
+    private static void multiplyD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int size, final boolean transposed) {
+
+        final int size2 = size * size;
+
+        if (overlaps(out, outOffset, in0, in0Offset, size2) || overlaps(out, outOffset, in1, in1Offset, size2)) {
+            final double[] tmp = new double[size2];
+
+            multiplyD(tmp, 0, in0, in0Offset, in1, in1Offset, size, transposed);
+            System.arraycopy(tmp, 0, out, outOffset, size2);
+        } else if (isParallel(size)) {
+            final int groups = (size + 3) / 4;
+
+            VectorArrays.parallelFor(groups, chunkSize(groups), null, (offset, count) -> rowsD(
+                    out, outOffset,
+                    in0, in0Offset,
+                    in1, in1Offset,
+                    size, transposed,
+                    offset * 4, Math.min(size, (offset + count) * 4))).join();
+        } else {
+            rowsD(out, outOffset, in0, in0Offset, in1, in1Offset, size, transposed, 0, size);
+        }
+    }
+
+    private static void rowsD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int size, final boolean transposed,
+            final int row0, final int row1) {
+
+        final double[] panelA = new double[4 * K_BLOCK];
+        final double[] panelB = new double[K_BLOCK * J_BLOCK];
+
+        Arrays.fill(out, outOffset + row0 * size, outOffset + row1 * size, 0.0);
+
+        for (int kk = 0; kk < size; kk += K_BLOCK) {
+            final int kc = Math.min(K_BLOCK, size - kk);
+
+            for (int jj = 0; jj < size; jj += J_BLOCK) {
+                final int jc = Math.min(J_BLOCK, size - jj);
+                final int jp = jc & ~3;
+
+                // B is packed into 4 column panels, each stored k-major
+                for (int p = 0; p < jp; p += 4) {
+                    for (int k = 0; k < kc; k++) {
+                        final int dst = p * kc + k * 4;
+
+                        if (transposed) {
+                            final int src = in1Offset + (jj + p) * size + kk + k;
+
+                            panelB[dst] = in1[src];
+                            panelB[dst + 1] = in1[src + size];
+                            panelB[dst + 2] = in1[src + 2 * size];
+                            panelB[dst + 3] = in1[src + 3 * size];
+                        } else {
+                            final int src = in1Offset + (kk + k) * size + jj + p;
+
+                            panelB[dst] = in1[src];
+                            panelB[dst + 1] = in1[src + 1];
+                            panelB[dst + 2] = in1[src + 2];
+                            panelB[dst + 3] = in1[src + 3];
+                        }
+                    }
+                }
+
+                int i = row0;
+
+                for (; i + 3 < row1; i += 4) {
+                    final int a0 = in0Offset + i * size + kk;
+                    final int c0 = outOffset + i * size + jj;
+
+                    for (int k = 0; k < kc; k++) {
+                        panelA[k * 4] = in0[a0 + k];
+                        panelA[k * 4 + 1] = in0[a0 + size + k];
+                        panelA[k * 4 + 2] = in0[a0 + 2 * size + k];
+                        panelA[k * 4 + 3] = in0[a0 + 3 * size + k];
+                    }
+
+                    for (int p = 0; p < jp; p += 4) {
+                        kernelD(out, c0 + p, size, panelA, panelB, p * kc, kc);
+                    }
+
+                    for (int j = jp; j < jc; j++) {
+                        for (int r = 0; r < 4; r++) {
+                            out[c0 + r * size + j] += dotD(in0, a0 + r * size, in1, in1Offset, size, transposed, kk, kc, jj + j);
+                        }
+                    }
+                }
+
+                for (; i < row1; i++) {
+                    final int a0 = in0Offset + i * size + kk;
+                    final int c0 = outOffset + i * size + jj;
+
+                    for (int j = 0; j < jc; j++) {
+                        out[c0 + j] += dotD(in0, a0, in1, in1Offset, size, transposed, kk, kc, jj + j);
+                    }
+                }
+            }
+        }
+    }
+
+    // accumulates a 4x4 block of the product in registers
+    private static void kernelD(
+            final double[] out, final int outOffset, final int size,
+            final double[] panelA, final double[] panelB, final int panelBOffset,
+            final int kc) {
+
+        double c00 = 0.0, c01 = 0.0, c02 = 0.0, c03 = 0.0;
+        double c10 = 0.0, c11 = 0.0, c12 = 0.0, c13 = 0.0;
+        double c20 = 0.0, c21 = 0.0, c22 = 0.0, c23 = 0.0;
+        double c30 = 0.0, c31 = 0.0, c32 = 0.0, c33 = 0.0;
+
+        for (int k = 0; k < kc; k++) {
+            final int ka = k * 4;
+            final int kb = panelBOffset + k * 4;
+            final double a0 = panelA[ka];
+            final double a1 = panelA[ka + 1];
+            final double a2 = panelA[ka + 2];
+            final double a3 = panelA[ka + 3];
+            final double b0 = panelB[kb];
+            final double b1 = panelB[kb + 1];
+            final double b2 = panelB[kb + 2];
+            final double b3 = panelB[kb + 3];
+
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+        }
+
+        final int r0 = outOffset;
+        final int r1 = r0 + size;
+        final int r2 = r1 + size;
+        final int r3 = r2 + size;
+
+        out[r0] += c00;
+        out[r0 + 1] += c01;
+        out[r0 + 2] += c02;
+        out[r0 + 3] += c03;
+        out[r1] += c10;
+        out[r1 + 1] += c11;
+        out[r1 + 2] += c12;
+        out[r1 + 3] += c13;
+        out[r2] += c20;
+        out[r2 + 1] += c21;
+        out[r2 + 2] += c22;
+        out[r2 + 3] += c23;
+        out[r3] += c30;
+        out[r3 + 1] += c31;
+        out[r3 + 2] += c32;
+        out[r3 + 3] += c33;
+    }
+
+    // one element of the product over the k block, for the ragged edges
+    private static double dotD(
+            final double[] in0, final int rowOffset,
+            final double[] in1, final int in1Offset,
+            final int size, final boolean transposed,
+            final int kk, final int kc, final int column) {
+
+        double sum = 0.0;
+
+        if (transposed) {
+            final int base = in1Offset + column * size + kk;
+
+            for (int k = 0; k < kc; k++) {
+                sum += in0[rowOffset + k] * in1[base + k];
+            }
+        } else {
+            final int base = in1Offset + kk * size + column;
+
+            for (int k = 0; k < kc; k++) {
+                sum += in0[rowOffset + k] * in1[base + k * size];
+            }
+        }
+
+        return sum;
+    }
+
+    private static boolean overlaps(final double[] out, final int outOffset, final double[] in0, final int in0Offset, final int length) {
+        return out == in0 && outOffset < in0Offset + length && in0Offset < outOffset + length;
+    }
+
+    /**
+     * Multiplies two row-major NxN matrices. Out may overlap either input.
+     *
+     * @param out the output matrix array.
+     * @param outOffset the offset to the output matrix.
+     * @param in0 the left matrix array.
+     * @param in0Offset the offset to the left matrix.
+     * @param in1 the right matrix array.
+     * @param in1Offset the offset to the right matrix.
+     * @param size the size of the matrices.
+     * @since 26.10.17
+     */
+    static void multiplyF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int size) {
+
+        multiplyF(out, outOffset, in0, in0Offset, in1, in1Offset, size, false);
+    }
+
+    /**
+     * Multiplies a row-major NxN matrix by the transpose of another. Reading
+     * the right matrix by rows is friendlier to the cache when the caller
+     * already holds the transpose, as with normal equations.
+     *
+     * @param out the output matrix array.
+     * @param outOffset the offset to the output matrix.
+     * @param in0 the left matrix array.
+     * @param in0Offset the offset to the left matrix.
+     * @param in1 the matrix array holding the transposed right matrix.
+     * @param in1Offset the offset to the transposed right matrix.
+     * @param size the size of the matrices.
+     * @since 26.10.17
+     */
+    static void multiplyTransposedF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int size) {
+
+        multiplyF(out, outOffset, in0, in0Offset, in1, in1Offset, size, true);
+    }
+
+    private static void multiplyF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int size, final boolean transposed) {
+
+        final int size2 = size * size;
+
+        if (overlaps(out, outOffset, in0, in0Offset, size2) || overlaps(out, outOffset, in1, in1Offset, size2)) {
+            final float[] tmp = new float[size2];
+
+            multiplyF(tmp, 0, in0, in0Offset, in1, in1Offset, size, transposed);
+            System.arraycopy(tmp, 0, out, outOffset, size2);
+        } else if (isParallel(size)) {
+            final int groups = (size + 3) / 4;
+
+            VectorArrays.parallelFor(groups, chunkSize(groups), null, (offset, count) -> rowsF(
+                    out, outOffset,
+                    in0, in0Offset,
+                    in1, in1Offset,
+                    size, transposed,
+                    offset * 4, Math.min(size, (offset + count) * 4))).join();
+        } else {
+            rowsF(out, outOffset, in0, in0Offset, in1, in1Offset, size, transposed, 0, size);
+        }
+    }
+
+    private static void rowsF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int size, final boolean transposed,
+            final int row0, final int row1) {
+
+        final float[] panelA = new float[4 * K_BLOCK];
+        final float[] panelB = new float[K_BLOCK * J_BLOCK];
+
+        Arrays.fill(out, outOffset + row0 * size, outOffset + row1 * size, 0f);
+
+        for (int kk = 0; kk < size; kk += K_BLOCK) {
+            final int kc = Math.min(K_BLOCK, size - kk);
+
+            for (int jj = 0; jj < size; jj += J_BLOCK) {
+                final int jc = Math.min(J_BLOCK, size - jj);
+                final int jp = jc & ~3;
+
+                // B is packed into 4 column panels, each stored k-major
+                for (int p = 0; p < jp; p += 4) {
+                    for (int k = 0; k < kc; k++) {
+                        final int dst = p * kc + k * 4;
+
+                        if (transposed) {
+                            final int src = in1Offset + (jj + p) * size + kk + k;
+
+                            panelB[dst] = in1[src];
+                            panelB[dst + 1] = in1[src + size];
+                            panelB[dst + 2] = in1[src + 2 * size];
+                            panelB[dst + 3] = in1[src + 3 * size];
+                        } else {
+                            final int src = in1Offset + (kk + k) * size + jj + p;
+
+                            panelB[dst] = in1[src];
+                            panelB[dst + 1] = in1[src + 1];
+                            panelB[dst + 2] = in1[src + 2];
+                            panelB[dst + 3] = in1[src + 3];
+                        }
+                    }
+                }
+
+                int i = row0;
+
+                for (; i + 3 < row1; i += 4) {
+                    final int a0 = in0Offset + i * size + kk;
+                    final int c0 = outOffset + i * size + jj;
+
+                    for (int k = 0; k < kc; k++) {
+                        panelA[k * 4] = in0[a0 + k];
+                        panelA[k * 4 + 1] = in0[a0 + size + k];
+                        panelA[k * 4 + 2] = in0[a0 + 2 * size + k];
+                        panelA[k * 4 + 3] = in0[a0 + 3 * size + k];
+                    }
+
+                    for (int p = 0; p < jp; p += 4) {
+                        kernelF(out, c0 + p, size, panelA, panelB, p * kc, kc);
+                    }
+
+                    for (int j = jp; j < jc; j++) {
+                        for (int r = 0; r < 4; r++) {
+                            out[c0 + r * size + j] += dotF(in0, a0 + r * size, in1, in1Offset, size, transposed, kk, kc, jj + j);
+                        }
+                    }
+                }
+
+                for (; i < row1; i++) {
+                    final int a0 = in0Offset + i * size + kk;
+                    final int c0 = outOffset + i * size + jj;
+
+                    for (int j = 0; j < jc; j++) {
+                        out[c0 + j] += dotF(in0, a0, in1, in1Offset, size, transposed, kk, kc, jj + j);
+                    }
+                }
+            }
+        }
+    }
+
+    // accumulates a 4x4 block of the product in registers
+    private static void kernelF(
+            final float[] out, final int outOffset, final int size,
+            final float[] panelA, final float[] panelB, final int panelBOffset,
+            final int kc) {
+
+        float c00 = 0f, c01 = 0f, c02 = 0f, c03 = 0f;
+        float c10 = 0f, c11 = 0f, c12 = 0f, c13 = 0f;
+        float c20 = 0f, c21 = 0f, c22 = 0f, c23 = 0f;
+        float c30 = 0f, c31 = 0f, c32 = 0f, c33 = 0f;
+
+        for (int k = 0; k < kc; k++) {
+            final int ka = k * 4;
+            final int kb = panelBOffset + k * 4;
+            final float a0 = panelA[ka];
+            final float a1 = panelA[ka + 1];
+            final float a2 = panelA[ka + 2];
+            final float a3 = panelA[ka + 3];
+            final float b0 = panelB[kb];
+            final float b1 = panelB[kb + 1];
+            final float b2 = panelB[kb + 2];
+            final float b3 = panelB[kb + 3];
+
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+        }
+
+        final int r0 = outOffset;
+        final int r1 = r0 + size;
+        final int r2 = r1 + size;
+        final int r3 = r2 + size;
+
+        out[r0] += c00;
+        out[r0 + 1] += c01;
+        out[r0 + 2] += c02;
+        out[r0 + 3] += c03;
+        out[r1] += c10;
+        out[r1 + 1] += c11;
+        out[r1 + 2] += c12;
+        out[r1 + 3] += c13;
+        out[r2] += c20;
+        out[r2 + 1] += c21;
+        out[r2 + 2] += c22;
+        out[r2 + 3] += c23;
+        out[r3] += c30;
+        out[r3 + 1] += c31;
+        out[r3 + 2] += c32;
+        out[r3 + 3] += c33;
+    }
+
+    // one element of the product over the k block, for the ragged edges
+    private static float dotF(
+            final float[] in0, final int rowOffset,
+            final float[] in1, final int in1Offset,
+            final int size, final boolean transposed,
+            final int kk, final int kc, final int column) {
+
+        float sum = 0f;
+
+        if (transposed) {
+            final int base = in1Offset + column * size + kk;
+
+            for (int k = 0; k < kc; k++) {
+                sum += in0[rowOffset + k] * in1[base + k];
+            }
+        } else {
+            final int base = in1Offset + kk * size + column;
+
+            for (int k = 0; k < kc; k++) {
+                sum += in0[rowOffset + k] * in1[base + k * size];
+            }
+        }
+
+        return sum;
+    }
+
+    private static boolean overlaps(final float[] out, final int outOffset, final float[] in0, final int in0Offset, final int length) {
+        return out == in0 && outOffset < in0Offset + length && in0Offset < outOffset + length;
+    }
+}
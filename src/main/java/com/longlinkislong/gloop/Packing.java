@@ -0,0 +1,737 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+/**
+ * Packing converts components to the compact formats GPUs accept as vertex
+ * attributes: IEEE half floats, 8 and 16 bit normalized integers and the
+ * 10-10-10-2 formats. Uploading normals, colors and texture coordinates in
+ * these formats takes a half to a quarter of the bandwidth of floats.
+ *
+ * The conversions are branch-free or table-driven. Packing rounds to nearest
+ * and clamps normalized values to [0, 1] or [-1, 1]; NaN packs as zero except
+ * for half floats, which keep NaN. Double precision inputs are rounded to
+ * float before packing.
+ *
+ * The array kernels follow the signatures used by VectorArrays.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class Packing {
+
+    /**
+     * A packed format for a single component.
+     *
+     * @since 26.10.17
+     */
+    public static enum Format {
+        /**
+         * IEEE 754 binary16.
+         *
+         * @since 26.10.17
+         */
+        HALF(2),
+        /**
+         * Unsigned byte mapped to [0, 1].
+         *
+         * @since 26.10.17
+         */
+        UNORM8(1),
+        /**
+         * Signed byte mapped to [-1, 1].
+         *
+         * @since 26.10.17
+         */
+        SNORM8(1),
+        /**
+         * Unsigned short mapped to [0, 1].
+         *
+         * @since 26.10.17
+         */
+        UNORM16(2),
+        /**
+         * Signed short mapped to [-1, 1].
+         *
+         * @since 26.10.17
+         */
+        SNORM16(2);
+
+        /**
+         * The size of a packed component in bytes.
+         *
+         * @since 26.10.17
+         */
+        public final int bytes;
+
+        Format(final int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    // float to half: indexed by the sign and exponent of the float. Each
+    // entry holds the half base in bits 0-15, the mantissa shift in bits 16-20
+    // and the hidden bit to restore in bit 23.
+    private static final int[] HALF = new int[512];
+    // half to float: indexed by the sign and exponent of the half
+    private static final int[] FLOAT_MANTISSA = new int[2048];
+    private static final int[] FLOAT_EXPONENT = new int[64];
+    private static final int[] FLOAT_OFFSET = new int[64];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            final int e = i - 127;
+            final int base;
+            final int shift;
+            final int hidden;
+
+            if (e < -25) {
+                // rounds to zero
+                base = 0;
+                shift = 25;
+                hidden = 0;
+            } else if (e < -14) {
+                // half subnormal; the hidden bit becomes part of the mantissa
+                base = 0;
+                shift = -e - 1;
+                hidden = 0x00800000;
+            } else if (e <= 15) {
+                base = (e + 15) << 10;
+                shift = 13;
+                hidden = 0;
+            } else {
+                // overflows to infinity
+                base = 0x7C00;
+                shift = 24;
+                hidden = 0;
+            }
+
+            HALF[i] = base | (shift << 16) | hidden;
+            HALF[i | 0x100] = HALF[i] | 0x8000;
+        }
+
+        for (int i = 1; i < 1024; i++) {
+            int m = i << 13;
+            int e = 0;
+
+            while ((m & 0x00800000) == 0) {
+                e -= 0x00800000;
+                m <<= 1;
+            }
+
+            FLOAT_MANTISSA[i] = (m & ~0x00800000) | (e + 0x38800000);
+        }
+
+        for (int i = 1024; i < 2048; i++) {
+            FLOAT_MANTISSA[i] = 0x38000000 + ((i - 1024) << 13);
+        }
+
+        for (int i = 1; i < 31; i++) {
+            FLOAT_EXPONENT[i] = i << 23;
+            FLOAT_EXPONENT[i + 32] = 0x80000000 + (i << 23);
+        }
+
+        FLOAT_EXPONENT[31] = 0x47800000;
+        FLOAT_EXPONENT[32] = 0x80000000;
+        FLOAT_EXPONENT[63] = 0xC7800000;
+
+        for (int i = 0; i < 64; i++) {
+            FLOAT_OFFSET[i] = (i == 0 || i == 32) ? 0 : 1024;
+        }
+    }
+
+    private Packing() {
+    }
+
+    /**
+     * Converts a float to the nearest half float. Ties round to even, values
+     * too large for a half become infinity and NaN stays NaN.
+     *
+     * @param value the value.
+     * @return the bits of the half float.
+     * @since 26.10.17
+     */
+    public static short toHalf(final float value) {
+        final int bits = Float.floatToRawIntBits(value);
+
+        if (value != value) {
+            return (short) (((bits >>> 16) & 0x8000) | 0x7E00);
+        }
+
+        final int entry = HALF[bits >>> 23];
+        final int shift = (entry >>> 16) & 0x1F;
+        final int mantissa = (bits & 0x007FFFFF) | (entry & 0x00800000);
+        // round half to even; a carry out of the mantissa bumps the exponent
+        final int bias = (1 << (shift - 1)) - 1 + ((mantissa >>> shift) & 1);
+
+        return (short) ((entry & 0xFFFF) + ((mantissa + bias) >>> shift));
+    }
+
+    /**
+     * Converts a half float to a float. Every half float is exactly
+     * representable as a float.
+     *
+     * @param half the bits of the half float.
+     * @return the value.
+     * @since 26.10.17
+     */
+    public static float fromHalf(final short half) {
+        final int h = half & 0xFFFF;
+        final int e = h >>> 10;
+
+        return Float.intBitsToFloat(FLOAT_MANTISSA[FLOAT_OFFSET[e] + (h & 0x3FF)] + FLOAT_EXPONENT[e]);
+    }
+
+    // the comparisons compile to conditional moves and let NaN through to the
+    // cast, which turns it into zero
+    private static int unorm(final float value, final float scale) {
+        final float c = value > 1f ? 1f : value;
+
+        return (int) ((c < 0f ? 0f : c) * scale + 0.5f);
+    }
+
+    private static int snorm(final float value, final float scale) {
+        final float c = value > 1f ? 1f : value;
+        final float s = (c < -1f ? -1f : c) * scale;
+
+        // round half away from zero so negation commutes with packing
+        return (int) (s + Math.copySign(0.5f, s));
+    }
+
+    /**
+     * Converts a float to an unsigned normalized byte. The other to*norm
+     * conversions behave the same for their formats.
+     *
+     * @param value the value; clamped to [0, 1].
+     * @return the packed value.
+     * @since 26.10.17
+     */
+    public static byte toUnorm8(final float value) {
+        return (byte) unorm(value, 255f);
+    }
+
+    /**
+     * Converts an unsigned normalized byte to a float. The other from*norm
+     * conversions behave the same for their formats; the most negative signed
+     * value unpacks to -1.
+     *
+     * @param value the packed value.
+     * @return the value.
+     * @since 26.10.17
+     */
+    public static float fromUnorm8(final byte value) {
+        return (value & 0xFF) / 255f;
+    }
+
+    public static byte toSnorm8(final float value) {
+        return (byte) snorm(value, 127f);
+    }
+
+    public static float fromSnorm8(final byte value) {
+        return Math.max(value / 127f, -1f);
+    }
+
+    public static short toUnorm16(final float value) {
+        return (short) unorm(value, 65535f);
+    }
+
+    public static float fromUnorm16(final short value) {
+        return (value & 0xFFFF) / 65535f;
+    }
+
+    public static short toSnorm16(final float value) {
+        return (short) snorm(value, 32767f);
+    }
+
+    public static float fromSnorm16(final short value) {
+        return Math.max(value / 32767f, -1f);
+    }
+
+    /**
+     * Packs four components into the unsigned 10-10-10-2 format used by
+     * GL_UNSIGNED_INT_2_10_10_10_REV. X is stored in the lowest bits.
+     *
+     * @param x the x component.
+     * @param y the y component.
+     * @param z the z component.
+     * @param w the w component.
+     * @return the packed value.
+     * @since 26.10.17
+     */
+    public static int toUnorm1010102(final float x, final float y, final float z, final float w) {
+        return unorm(x, 1023f)
+                | (unorm(y, 1023f) << 10)
+                | (unorm(z, 1023f) << 20)
+                | (unorm(w, 3f) << 30);
+    }
+
+    /**
+     * Packs four components into the signed 10-10-10-2 format used by
+     * GL_INT_2_10_10_10_REV. X is stored in the lowest bits.
+     *
+     * @param x the x component.
+     * @param y the y component.
+     * @param z the z component.
+     * @param w the w component.
+     * @return the packed value.
+     * @since 26.10.17
+     */
+    public static int toSnorm1010102(final float x, final float y, final float z, final float w) {
+        return (snorm(x, 511f) & 0x3FF)
+                | ((snorm(y, 511f) & 0x3FF) << 10)
+                | ((snorm(z, 511f) & 0x3FF) << 20)
+                | (snorm(w, 1f) << 30);
+    }
+
+    /**
+     * Unpacks a single component of an unsigned 10-10-10-2 value.
+     *
+     * @param packed the packed value.
+     * @param component the component index; 0 is x and 3 is w.
+     * @return the component.
+     * @since 26.10.17
+     */
+    public static float fromUnorm1010102(final int packed, final int component) {
+        if (component == Vectors.W) {
+            return (packed >>> 30) / 3f;
+        } else {
+            return ((packed >>> (10 * component)) & 0x3FF) / 1023f;
+        }
+    }
+
+    /**
+     * Unpacks a single component of a signed 10-10-10-2 value.
+     *
+     * @param packed the packed value.
+     * @param component the component index; 0 is x and 3 is w.
+     * @return the component.
+     * @since 26.10.17
+     */
+    public static float fromSnorm1010102(final int packed, final int component) {
+        if (component == Vectors.W) {
+            return Math.max(packed >> 30, -1);
+        } else {
+            // shift the field to the top so the shift back sign extends it
+            return Math.max(((packed << (22 - 10 * component)) >> 22) / 511f, -1f);
+        }
+    }
+
+    /**
+     * Packs a range of components. The other pack kernels behave the same for
+     * their formats.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of components to pack.
+     * @since 26.10.17
+     */
+    public static void arrayPackHalfF(
+            final short[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toHalf(in0[in0Offset + i]);
+        }
+    }
+
+    /**
+     * Unpacks a range of components. The other unpack kernels behave the same
+     * for their formats.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the packed array.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of components to unpack.
+     * @since 26.10.17
+     */
+    public static void arrayUnpackHalfF(
+            final float[] out, final int outOffset,
+            final short[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromHalf(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackHalfD(
+            final short[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toHalf((float) in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackHalfD(
+            final double[] out, final int outOffset,
+            final short[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromHalf(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackUnorm8F(
+            final byte[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toUnorm8(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackUnorm8F(
+            final float[] out, final int outOffset,
+            final byte[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromUnorm8(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackUnorm8D(
+            final byte[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toUnorm8((float) in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackUnorm8D(
+            final double[] out, final int outOffset,
+            final byte[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromUnorm8(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackSnorm8F(
+            final byte[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toSnorm8(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackSnorm8F(
+            final float[] out, final int outOffset,
+            final byte[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromSnorm8(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackSnorm8D(
+            final byte[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toSnorm8((float) in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackSnorm8D(
+            final double[] out, final int outOffset,
+            final byte[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromSnorm8(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackUnorm16F(
+            final short[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toUnorm16(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackUnorm16F(
+            final float[] out, final int outOffset,
+            final short[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromUnorm16(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackUnorm16D(
+            final short[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toUnorm16((float) in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackUnorm16D(
+            final double[] out, final int outOffset,
+            final short[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromUnorm16(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackSnorm16F(
+            final short[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toSnorm16(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackSnorm16F(
+            final float[] out, final int outOffset,
+            final short[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromSnorm16(in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayPackSnorm16D(
+            final short[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toSnorm16((float) in0[in0Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackSnorm16D(
+            final double[] out, final int outOffset,
+            final short[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = fromSnorm16(in0[in0Offset + i]);
+        }
+    }
+
+    /**
+     * Packs a range of vectors into 10-10-10-2 values. The other 10-10-10-2
+     * pack kernels behave the same.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading the x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading the y components.
+     * @param in2 the z components.
+     * @param in2Offset the offset to begin reading the z components.
+     * @param in3 the w components.
+     * @param in3Offset the offset to begin reading the w components.
+     * @param count the number of vectors to pack.
+     * @since 26.10.17
+     */
+    public static void arrayPackUnorm1010102F(
+            final int[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final float[] in3, final int in3Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toUnorm1010102(
+                    in0[in0Offset + i],
+                    in1[in1Offset + i],
+                    in2[in2Offset + i],
+                    in3[in3Offset + i]);
+        }
+    }
+
+    /**
+     * Unpacks a range of 10-10-10-2 values. The other 10-10-10-2 unpack
+     * kernels behave the same.
+     *
+     * @param out0 the x components.
+     * @param out0Offset the offset to begin writing the x components.
+     * @param out1 the y components.
+     * @param out1Offset the offset to begin writing the y components.
+     * @param out2 the z components.
+     * @param out2Offset the offset to begin writing the z components.
+     * @param out3 the w components.
+     * @param out3Offset the offset to begin writing the w components.
+     * @param in0 the packed array.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of vectors to unpack.
+     * @since 26.10.17
+     */
+    public static void arrayUnpackUnorm1010102F(
+            final float[] out0, final int out0Offset,
+            final float[] out1, final int out1Offset,
+            final float[] out2, final int out2Offset,
+            final float[] out3, final int out3Offset,
+            final int[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            final int packed = in0[in0Offset + i];
+
+            out0[out0Offset + i] = fromUnorm1010102(packed, Vectors.X);
+            out1[out1Offset + i] = fromUnorm1010102(packed, Vectors.Y);
+            out2[out2Offset + i] = fromUnorm1010102(packed, Vectors.Z);
+            out3[out3Offset + i] = fromUnorm1010102(packed, Vectors.W);
+        }
+    }
+
+    public static void arrayPackUnorm1010102D(
+            final int[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final double[] in3, final int in3Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toUnorm1010102(
+                    (float) in0[in0Offset + i],
+                    (float) in1[in1Offset + i],
+                    (float) in2[in2Offset + i],
+                    (float) in3[in3Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackUnorm1010102D(
+            final double[] out0, final int out0Offset,
+            final double[] out1, final int out1Offset,
+            final double[] out2, final int out2Offset,
+            final double[] out3, final int out3Offset,
+            final int[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            final int packed = in0[in0Offset + i];
+
+            out0[out0Offset + i] = fromUnorm1010102(packed, Vectors.X);
+            out1[out1Offset + i] = fromUnorm1010102(packed, Vectors.Y);
+            out2[out2Offset + i] = fromUnorm1010102(packed, Vectors.Z);
+            out3[out3Offset + i] = fromUnorm1010102(packed, Vectors.W);
+        }
+    }
+
+    public static void arrayPackSnorm1010102F(
+            final int[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final float[] in3, final int in3Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toSnorm1010102(
+                    in0[in0Offset + i],
+                    in1[in1Offset + i],
+                    in2[in2Offset + i],
+                    in3[in3Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackSnorm1010102F(
+            final float[] out0, final int out0Offset,
+            final float[] out1, final int out1Offset,
+            final float[] out2, final int out2Offset,
+            final float[] out3, final int out3Offset,
+            final int[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            final int packed = in0[in0Offset + i];
+
+            out0[out0Offset + i] = fromSnorm1010102(packed, Vectors.X);
+            out1[out1Offset + i] = fromSnorm1010102(packed, Vectors.Y);
+            out2[out2Offset + i] = fromSnorm1010102(packed, Vectors.Z);
+            out3[out3Offset + i] = fromSnorm1010102(packed, Vectors.W);
+        }
+    }
+
+    public static void arrayPackSnorm1010102D(
+            final int[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final double[] in3, final int in3Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = toSnorm1010102(
+                    (float) in0[in0Offset + i],
+                    (float) in1[in1Offset + i],
+                    (float) in2[in2Offset + i],
+                    (float) in3[in3Offset + i]);
+        }
+    }
+
+    public static void arrayUnpackSnorm1010102D(
+            final double[] out0, final int out0Offset,
+            final double[] out1, final int out1Offset,
+            final double[] out2, final int out2Offset,
+            final double[] out3, final int out3Offset,
+            final int[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            final int packed = in0[in0Offset + i];
+
+            out0[out0Offset + i] = fromSnorm1010102(packed, Vectors.X);
+            out1[out1Offset + i] = fromSnorm1010102(packed, Vectors.Y);
+            out2[out2Offset + i] = fromSnorm1010102(packed, Vectors.Z);
+            out3[out3Offset + i] = fromSnorm1010102(packed, Vectors.W);
+        }
+    }
+}
@@ -56,6 +56,9 @@ public final class Quaternions {
             case "cyclical":
                 DEFAULT_FACTORY = new CyclicalQuaternionFactory(cacheSize);
                 break;
+            case "shared":
+                DEFAULT_FACTORY = SharedPoolFactory.getInstance();
+                break;
             default:
             case "smart":
                 DEFAULT_FACTORY = SmartFactory.getInstance();
@@ -223,7 +226,7 @@ public final class Quaternions {
 
         out[outOffset + W] = w1 * w2 - x1 * x2 - y1 * y2 - z1 * z2;
         out[outOffset + X] = w1 * x2 + x1 * w2 + y1 * z2 - z1 * y2;
-        out[outOffset + Y] = w1 * y2 + x1 + z2 + y1 * w2 + z1 * x2;
+        out[outOffset + Y] = w1 * y2 - x1 * z2 + y1 * w2 + z1 * x2;
         out[outOffset + Z] = w1 * z2 + x1 * y2 - y1 * x2 + z1 * w2;
     }
 
@@ -271,10 +274,10 @@ public final class Quaternions {
 
         final double x2, y2, z2, w2;
         {
-            final double x = in0[in0Offset + X];
-            final double y = in0[in0Offset + Y];
-            final double z = in0[in0Offset + Z];
-            final double w = in0[in0Offset + W];
+            final double x = in1[in1Offset + X];
+            final double y = in1[in1Offset + Y];
+            final double z = in1[in1Offset + Z];
+            final double w = in1[in1Offset + W];
             final double length2 = x * x + y * y + z * z + w * w;
 
             if (length2 > UNIT_EPSILOND) {
@@ -294,7 +297,7 @@ public final class Quaternions {
 
         out[outOffset + W] = w1 * w2 - x1 * x2 - y1 * y2 - z1 * z2;
         out[outOffset + X] = w1 * x2 + x1 * w2 + y1 * z2 - z1 * y2;
-        out[outOffset + Y] = w1 * y2 + x1 + z2 + y1 * w2 + z1 * x2;
+        out[outOffset + Y] = w1 * y2 - x1 * z2 + y1 * w2 + z1 * x2;
         out[outOffset + Z] = w1 * z2 + x1 * y2 - y1 * x2 + z1 * w2;
     }
 
@@ -373,11 +376,11 @@ public final class Quaternions {
 
         out[outOffset + E21] = 2f * x * y + 2f * w * z;
         out[outOffset + E22] = 1f - 2f * x * x - 2f * z * z;
-        out[outOffset + E23] = 2f * y * z + 2f * w * x;
+        out[outOffset + E23] = 2f * y * z - 2f * w * x;
         out[outOffset + E24] = 0f;
 
         out[outOffset + E31] = 2f * x * z - 2f * w * y;
-        out[outOffset + E32] = 2f * y * z - 2f * w * x;
+        out[outOffset + E32] = 2f * y * z + 2f * w * x;
         out[outOffset + E33] = 1f - 2f * x * x - 2f * y * y;
         out[outOffset + E34] = 0f;
 
@@ -412,11 +415,11 @@ public final class Quaternions {
 
         out[outOffset + E21] = 2.0 * x * y + 2.0 * w * z;
         out[outOffset + E22] = 1.0 - 2.0 * x * x - 2.0 * z * z;
-        out[outOffset + E23] = 2.0 * y * z + 2.0 * w * x;
+        out[outOffset + E23] = 2.0 * y * z - 2.0 * w * x;
         out[outOffset + E24] = 0.0;
 
         out[outOffset + E31] = 2.0 * x * z - 2.0 * w * y;
-        out[outOffset + E32] = 2.0 * y * z - 2.0 * w * x;
+        out[outOffset + E32] = 2.0 * y * z + 2.0 * w * x;
         out[outOffset + E33] = 1.0 - 2.0 * x * x - 2.0 * y * y;
         out[outOffset + E34] = 0.0;
 
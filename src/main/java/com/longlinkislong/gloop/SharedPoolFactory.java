@@ -0,0 +1,311 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An implementation of VectorFactory, MatrixFactory, and QuaternionFactory
+ * that lends pooled storage to a thread only for the duration of a scope.
+ *
+ * <p>
+ * Factories that keep a pool per thread do not scale to virtual threads since
+ * every thread that touches a vector pins its own set of caches. A
+ * SharedPoolFactory instead keeps a small set of pools, by default one per
+ * processor, and a thread borrows one with {@link #borrow()} for as long as it
+ * performs its math. Nothing is retained per thread once the returned Lease is
+ * closed. Allocations made outside of a lease fall back to the static
+ * factories.
+ *
+ * <pre>
+ * try (SharedPoolFactory.Lease lease = factory.borrow()) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class SharedPoolFactory implements
+        VectorFactory,
+        MatrixFactory,
+        QuaternionFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedPoolFactory.class);
+
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private final Queue<Lease> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int poolCount;
+    private final int cacheSize;
+
+    /**
+     * Constructs a new SharedPoolFactory that retains one pool per available
+     * processor. Each pool uses the default cache size.
+     *
+     * @since 26.10.17
+     */
+    public SharedPoolFactory() {
+        this(Runtime.getRuntime().availableProcessors(), Integer.getInteger("gloop.vectors.cache", 16));
+    }
+
+    /**
+     * Constructs a new SharedPoolFactory. More pools than poolCount may exist
+     * while more scopes are open concurrently, but only poolCount pools are
+     * kept once those scopes close.
+     *
+     * @param poolCount the number of idle pools to retain.
+     * @param cacheSize the cache size of each pool in kilobytes.
+     * @throws IllegalArgumentException if poolCount is less than 1 or if
+     * cacheSize is less than 1KB.
+     * @since 26.10.17
+     */
+    public SharedPoolFactory(final int poolCount, final int cacheSize) {
+        if ((this.poolCount = poolCount) < 1) {
+            throw new IllegalArgumentException("Invalid pool count! At least 1 pool must be retained!");
+        } else if ((this.cacheSize = cacheSize) < 1) {
+            throw new IllegalArgumentException("Invalid cache size! At least 1KB of cache must be allocated for a pool!");
+        }
+
+        LOGGER.debug("Constructing shared pool factory; pools = {}, size = {}KB", poolCount, cacheSize);
+    }
+
+    private static final class Holder {
+
+        private static final SharedPoolFactory INSTANCE = new SharedPoolFactory();
+    }
+
+    /**
+     * Retrieves the default instance of the SharedPoolFactory.
+     *
+     * @return the SharedPoolFactory.
+     * @since 26.10.17
+     */
+    public static SharedPoolFactory getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Borrows a pool for the current thread. All vectors, matrices and
+     * quaternions requested on this thread are taken from the pool until the
+     * lease is closed. Nested calls on the same thread reuse the pool that is
+     * already held.
+     *
+     * <p>
+     * Values allocated within the scope are recycled once the pool is handed
+     * to another thread; copy anything that needs to outlive the lease.
+     *
+     * @return the lease; close it to return the pool.
+     * @since 26.10.17
+     */
+    public Lease borrow() {
+        Lease lease = this.currentLease.get();
+
+        if (lease == null) {
+            lease = this.idle.poll();
+
+            if (lease == null) {
+                lease = new Lease();
+            } else {
+                this.idleCount.decrementAndGet();
+            }
+
+            this.currentLease.set(lease);
+        }
+
+        lease.depth++;
+        return lease;
+    }
+
+    /**
+     * Checks if the current thread holds a lease.
+     *
+     * @return true if a pool is borrowed by the current thread.
+     * @since 26.10.17
+     */
+    public boolean isBorrowed() {
+        return this.currentLease.get() != null;
+    }
+
+    private void giveBack(final Lease lease) {
+        this.currentLease.remove();
+
+        if (this.idleCount.incrementAndGet() <= this.poolCount) {
+            this.idle.offer(lease);
+        } else {
+            this.idleCount.decrementAndGet();
+        }
+    }
+
+    private VectorFactory vectors() {
+        final Lease lease = this.currentLease.get();
+
+        return lease != null ? lease.vectors : StaticVectorFactory.getInstance();
+    }
+
+    private MatrixFactory matrices() {
+        final Lease lease = this.currentLease.get();
+
+        return lease != null ? lease.matrices : StaticMatrixFactory.getInstance();
+    }
+
+    private QuaternionFactory quaternions() {
+        final Lease lease = this.currentLease.get();
+
+        return lease != null ? lease.quaternions : StaticQuaternionFactory.getInstance();
+    }
+
+    /**
+     * A pool borrowed by a thread. Leases are reused between scopes so
+     * borrowing a pool does not allocate once the factory is warm.
+     *
+     * @since 26.10.17
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final VectorFactory vectors;
+        private final MatrixFactory matrices;
+        private final QuaternionFactory quaternions;
+        private int depth;
+
+        private Lease() {
+            this.vectors = new CyclicalVectorFactory(SharedPoolFactory.this.cacheSize);
+            this.matrices = new CyclicalMatrixFactory(SharedPoolFactory.this.cacheSize);
+            this.quaternions = new CyclicalQuaternionFactory(SharedPoolFactory.this.cacheSize);
+        }
+
+        /**
+         * Ends the scope. The pool is returned once the outermost scope on
+         * this thread is closed.
+         *
+         * @throws IllegalStateException if the lease is not held by the
+         * current thread.
+         * @since 26.10.17
+         */
+        @Override
+        public void close() {
+            if (SharedPoolFactory.this.currentLease.get() != this || this.depth == 0) {
+                throw new IllegalStateException("Lease is not held by the current thread!");
+            } else if (--this.depth == 0) {
+                SharedPoolFactory.this.giveBack(this);
+            }
+        }
+    }
+
+    @Override
+    public GLVec2D nextGLVec2D() {
+        return this.vectors().nextGLVec2D();
+    }
+
+    @Override
+    public GLVec3D nextGLVec3D() {
+        return this.vectors().nextGLVec3D();
+    }
+
+    @Override
+    public GLVec4D nextGLVec4D() {
+        return this.vectors().nextGLVec4D();
+    }
+
+    @Override
+    public GLVecND nextGLVecND(int size) {
+        return this.vectors().nextGLVecND(size);
+    }
+
+    @Override
+    public GLVec2F nextGLVec2F() {
+        return this.vectors().nextGLVec2F();
+    }
+
+    @Override
+    public GLVec3F nextGLVec3F() {
+        return this.vectors().nextGLVec3F();
+    }
+
+    @Override
+    public GLVec4F nextGLVec4F() {
+        return this.vectors().nextGLVec4F();
+    }
+
+    @Override
+    public GLVecNF nextGLVecNF(int size) {
+        return this.vectors().nextGLVecNF(size);
+    }
+
+    @Override
+    public GLMat2D nextGLMat2D() {
+        return this.matrices().nextGLMat2D();
+    }
+
+    @Override
+    public GLMat3D nextGLMat3D() {
+        return this.matrices().nextGLMat3D();
+    }
+
+    @Override
+    public GLMat4D nextGLMat4D() {
+        return this.matrices().nextGLMat4D();
+    }
+
+    @Override
+    public GLMatND nextGLMatND(int size) {
+        return this.matrices().nextGLMatND(size);
+    }
+
+    @Override
+    public GLMat2F nextGLMat2F() {
+        return this.matrices().nextGLMat2F();
+    }
+
+    @Override
+    public GLMat3F nextGLMat3F() {
+        return this.matrices().nextGLMat3F();
+    }
+
+    @Override
+    public GLMat4F nextGLMat4F() {
+        return this.matrices().nextGLMat4F();
+    }
+
+    @Override
+    public GLMatNF nextGLMatNF(int size) {
+        return this.matrices().nextGLMatNF(size);
+    }
+
+    @Override
+    public GLQuaternionF nextGLQuaternionF() {
+        return this.quaternions().nextGLQuaternionF();
+    }
+
+    @Override
+    public GLQuaternionD nextGLQuaternionD() {
+        return this.quaternions().nextGLQuaternionD();
+    }
+}
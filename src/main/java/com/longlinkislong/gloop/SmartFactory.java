@@ -26,9 +26,6 @@
 package com.longlinkislong.gloop;
 
 import java.io.Closeable;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * An implementation of VectorFactory, MatrixFactory, and QuaternionFactory that
@@ -43,18 +40,21 @@ public final class SmartFactory implements
         MatrixFactory,
         QuaternionFactory {
 
-    private final Map<Thread, MatrixFactory> currentMatFactory
-            = Collections.synchronizedMap(new WeakHashMap<>());
-    private final Map<Thread, VectorFactory> currentVecFactory
-            = Collections.synchronizedMap(new WeakHashMap<>());
-    private final Map<Thread, QuaternionFactory> currentQuatFactory
-            = Collections.synchronizedMap(new WeakHashMap<>());
-    private final Map<Thread, MatrixFactory> fastMatFactory
-            = Collections.synchronizedMap(new WeakHashMap<>());
-    private final Map<Thread, VectorFactory> fastVecFactory
-            = Collections.synchronizedMap(new WeakHashMap<>());
-    private final Map<Thread, QuaternionFactory> fastQuatFactory
-            = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ThreadLocal<Factories> localFactories = ThreadLocal.withInitial(Factories::new);
+
+    /**
+     * The factories selected by a single thread. Caching all of them together
+     * lets every allocation resolve its factory with one ThreadLocal lookup.
+     */
+    private static final class Factories {
+
+        private VectorFactory currentVec = StaticVectorFactory.getInstance();
+        private MatrixFactory currentMat = StaticMatrixFactory.getInstance();
+        private QuaternionFactory currentQuat = StaticQuaternionFactory.getInstance();
+        private VectorFactory fastVec;
+        private MatrixFactory fastMat;
+        private QuaternionFactory fastQuat;
+    }
 
     /**
      * Reverts the default factories for the current thread.
@@ -63,11 +63,11 @@ public final class SmartFactory implements
      */
     @Override
     public void close() {
-        final Thread thread = Thread.currentThread();
+        final Factories factories = this.localFactories.get();
 
-        this.currentMatFactory.remove(thread);
-        this.currentVecFactory.remove(thread);
-        this.currentQuatFactory.remove(thread);
+        factories.currentMat = StaticMatrixFactory.getInstance();
+        factories.currentVec = StaticVectorFactory.getInstance();
+        factories.currentQuat = StaticQuaternionFactory.getInstance();
     }
 
     /**
@@ -77,9 +77,7 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public MatrixFactory getCurrentMatrixFactory() {
-        return this.currentMatFactory.getOrDefault(
-                Thread.currentThread(),
-                StaticMatrixFactory.getInstance());
+        return this.localFactories.get().currentMat;
     }
 
     /**
@@ -89,9 +87,7 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public VectorFactory getCurrentVectorFactory() {
-        return this.currentVecFactory.getOrDefault(
-                Thread.currentThread(),
-                StaticVectorFactory.getInstance());
+        return this.localFactories.get().currentVec;
     }
 
     /**
@@ -101,9 +97,7 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public QuaternionFactory getCurrentQuaternionFactory() {
-        return this.currentQuatFactory.getOrDefault(
-                Thread.currentThread(),
-                StaticQuaternionFactory.getInstance());
+        return this.localFactories.get().currentQuat;
     }
 
     /**
@@ -115,20 +109,14 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public SmartFactory withFastMatrices() {
-        if (this.getCurrentMatrixFactory() instanceof CyclicalMatrixFactory) {
-            return this;
-        } else {
-            final Thread currentThread = Thread.currentThread();
-
-            this.currentMatFactory.put(
-                    currentThread,
-                    this.fastMatFactory.computeIfAbsent(
-                            currentThread,
-                            thread -> new CyclicalMatrixFactory())
-            );
-
-            return this;
+        final Factories factories = this.localFactories.get();
+
+        if (factories.fastMat == null) {
+            factories.fastMat = new CyclicalMatrixFactory();
         }
+
+        factories.currentMat = factories.fastMat;
+        return this;
     }
 
     /**
@@ -138,7 +126,7 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public SmartFactory withStaticVectors() {
-        this.currentVecFactory.remove(Thread.currentThread());
+        this.localFactories.get().currentVec = StaticVectorFactory.getInstance();
         return this;
     }
 
@@ -149,7 +137,7 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public SmartFactory withStaticMatrices() {
-        this.currentMatFactory.remove(Thread.currentThread());
+        this.localFactories.get().currentMat = StaticMatrixFactory.getInstance();
         return this;
     }
 
@@ -160,7 +148,7 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public SmartFactory withStaticQuaternions() {
-        this.currentQuatFactory.remove(Thread.currentThread());
+        this.localFactories.get().currentQuat = StaticQuaternionFactory.getInstance();
         return this;
     }
 
@@ -173,19 +161,14 @@ public final class SmartFactory implements
      * @since 16.01.28
      */
     public SmartFactory withFastVectors() {
-        if (this.getCurrentVectorFactory() instanceof CyclicalVectorFactory) {
-            return this;
-        } else {
-            final Thread currentThread = Thread.currentThread();
-
-            this.currentVecFactory.put(
-                    currentThread,
-                    this.fastVecFactory.computeIfAbsent(
-                            currentThread,
-                            thread -> new CyclicalVectorFactory()));
-
-            return this;
+        final Factories factories = this.localFactories.get();
+
+        if (factories.fastVec == null) {
+            factories.fastVec = new CyclicalVectorFactory();
         }
+
+        factories.currentVec = factories.fastVec;
+        return this;
     }
 
     /**
@@ -197,19 +180,14 @@ public final class SmartFactory implements
      * @since 16.01.18
      */
     public SmartFactory withFastQuaternions() {
-        if (this.getCurrentQuaternionFactory() instanceof CyclicalQuaternionFactory) {
-            return this;
-        } else {
-            final Thread currentThread = Thread.currentThread();
-
-            this.currentQuatFactory.put(
-                    currentThread,
-                    this.fastQuatFactory.computeIfAbsent(
-                            currentThread,
-                            thread -> new CyclicalQuaternionFactory()));
-
-            return this;
+        final Factories factories = this.localFactories.get();
+
+        if (factories.fastQuat == null) {
+            factories.fastQuat = new CyclicalQuaternionFactory();
         }
+
+        factories.currentQuat = factories.fastQuat;
+        return this;
     }
 
     @Override
@@ -0,0 +1,612 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Future;
+
+/**
+ * An immutable sparse double matrix in compressed sparse row (CSR) or
+ * compressed sparse column (CSC) form. Only nonzero elements are stored, so a
+ * mesh Laplacian with a handful of neighbors per vertex costs a few bytes per
+ * neighbor instead of 8 * N * N bytes as a GLMatND.
+ *
+ * Rows and columns follow GLMatND.multiply(GLVec): multiplying by a vector of
+ * columns() elements produces a vector of rows() elements.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class SparseMatrix {
+
+    /**
+     * The storage order of a sparse matrix.
+     *
+     * @since 26.10.17
+     */
+    public static enum Format {
+        /**
+         * Compressed sparse row. Each row stores its column indices. Best for
+         * matrix-vector products, which parallelize over rows.
+         *
+         * @since 26.10.17
+         */
+        CSR,
+        /**
+         * Compressed sparse column. Each column stores its row indices.
+         *
+         * @since 26.10.17
+         */
+        CSC
+    }
+
+    private final Format format;
+    private final int rows;
+    private final int columns;
+    // pointers[major]..pointers[major + 1] spans the entries of a row (CSR) or column (CSC)
+    private final int[] pointers;
+    private final int[] indices;
+    private final double[] values;
+    private volatile SparseMatrix csr;
+
+    private SparseMatrix(
+            final Format format, final int rows, final int columns,
+            final int[] pointers, final int[] indices, final double[] values) {
+
+        this.format = format;
+        this.rows = rows;
+        this.columns = columns;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Creates a sparse matrix from compressed arrays. The arrays are copied.
+     * Indices must be strictly increasing within each row (CSR) or column
+     * (CSC).
+     *
+     * @param format the storage order of the arrays.
+     * @param rows the number of rows.
+     * @param columns the number of columns.
+     * @param pointers the start of each row or column, followed by the number
+     * of entries.
+     * @param indices the column (CSR) or row (CSC) of each entry.
+     * @param values the value of each entry.
+     * @return the sparse matrix.
+     * @throws IllegalArgumentException if the arrays do not describe a valid
+     * matrix.
+     * @since 26.10.17
+     */
+    public static SparseMatrix create(
+            final Format format, final int rows, final int columns,
+            final int[] pointers, final int[] indices, final double[] values) {
+
+        Objects.requireNonNull(format);
+
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Invalid matrix size!");
+        }
+
+        final int major = format == Format.CSR ? rows : columns;
+        final int minor = format == Format.CSR ? columns : rows;
+
+        if (pointers.length != major + 1 || pointers[0] != 0) {
+            throw new IllegalArgumentException("Invalid sparse structure!");
+        }
+
+        final int nonZeros = pointers[major];
+
+        if (nonZeros > indices.length || nonZeros > values.length) {
+            throw new IllegalArgumentException("Invalid sparse structure!");
+        }
+
+        for (int m = 0; m < major; m++) {
+            if (pointers[m + 1] < pointers[m]) {
+                throw new IllegalArgumentException("Invalid sparse structure!");
+            }
+
+            int last = -1;
+
+            for (int k = pointers[m]; k < pointers[m + 1]; k++) {
+                if (indices[k] <= last || indices[k] >= minor) {
+                    throw new IllegalArgumentException("Invalid sparse structure!");
+                }
+
+                last = indices[k];
+            }
+        }
+
+        return new SparseMatrix(
+                format, rows, columns,
+                pointers.clone(),
+                Arrays.copyOf(indices, nonZeros),
+                Arrays.copyOf(values, nonZeros));
+    }
+
+    /**
+     * Creates a sparse matrix from the nonzero elements of a dense matrix.
+     *
+     * @param mat the dense matrix.
+     * @param format the storage order.
+     * @return the sparse matrix.
+     * @since 26.10.17
+     */
+    public static SparseMatrix fromDense(final GLMatN mat, final Format format) {
+        final GLMatND in = mat.asGLMatND();
+        final double[] data = in.data();
+        final int offset = in.offset();
+        final int size = in.size();
+        final Builder builder = new Builder(size, size);
+
+        // GLMatND stores row r of column c at c * size + r
+        for (int c = 0; c < size; c++) {
+            for (int r = 0; r < size; r++) {
+                final double value = data[offset + c * size + r];
+
+                if (value != 0.0) {
+                    builder.add(r, c, value);
+                }
+            }
+        }
+
+        return builder.build(format);
+    }
+
+    /**
+     * Expands this matrix into a dense matrix.
+     *
+     * @return the dense matrix.
+     * @throws IllegalStateException if this matrix is not square.
+     * @since 26.10.17
+     */
+    public GLMatND toGLMatND() {
+        if (this.rows != this.columns) {
+            throw new IllegalStateException("Matrix is not square!");
+        }
+
+        final int size = this.rows;
+        final GLMatND out = Matrices.DEFAULT_FACTORY.nextGLMatND(size).zero();
+        final double[] data = out.data();
+        final int offset = out.offset();
+        final boolean csr = this.format == Format.CSR;
+
+        for (int m = 0; m < this.majorCount(); m++) {
+            for (int k = this.pointers[m]; k < this.pointers[m + 1]; k++) {
+                final int r = csr ? m : this.indices[k];
+                final int c = csr ? this.indices[k] : m;
+
+                data[offset + c * size + r] = this.values[k];
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Retrieves the storage order.
+     *
+     * @return the format.
+     * @since 26.10.17
+     */
+    public Format getFormat() {
+        return this.format;
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return the number of rows.
+     * @since 26.10.17
+     */
+    public int rows() {
+        return this.rows;
+    }
+
+    /**
+     * Retrieves the number of columns.
+     *
+     * @return the number of columns.
+     * @since 26.10.17
+     */
+    public int columns() {
+        return this.columns;
+    }
+
+    /**
+     * Retrieves the number of stored elements.
+     *
+     * @return the number of nonzero elements.
+     * @since 26.10.17
+     */
+    public int nonZeros() {
+        return this.pointers[this.majorCount()];
+    }
+
+    /**
+     * Retrieves an element. Lookups binary search one row or column.
+     *
+     * @param row the row.
+     * @param column the column.
+     * @return the element, or 0 if it is not stored.
+     * @since 26.10.17
+     */
+    public double get(final int row, final int column) {
+        if (row < 0 || column < 0 || row >= this.rows || column >= this.columns) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final int m = this.format == Format.CSR ? row : column;
+        final int key = this.format == Format.CSR ? column : row;
+        final int k = Arrays.binarySearch(this.indices, this.pointers[m], this.pointers[m + 1], key);
+
+        return k < 0 ? 0.0 : this.values[k];
+    }
+
+    /**
+     * Retrieves the transpose of this matrix. This reinterprets the storage
+     * in the other format and does not copy.
+     *
+     * @return the transpose.
+     * @since 26.10.17
+     */
+    public SparseMatrix transpose() {
+        return new SparseMatrix(
+                this.format == Format.CSR ? Format.CSC : Format.CSR,
+                this.columns, this.rows,
+                this.pointers, this.indices, this.values);
+    }
+
+    /**
+     * Converts this matrix to the specified storage order. This runs in
+     * O(rows + columns + nonZeros).
+     *
+     * @param format the storage order.
+     * @return this matrix if it is already in the format, otherwise a
+     * converted copy.
+     * @since 26.10.17
+     */
+    public SparseMatrix toFormat(final Format format) {
+        if (Objects.requireNonNull(format) == this.format) {
+            return this;
+        }
+
+        final int major = this.majorCount();
+        final int minor = this.format == Format.CSR ? this.columns : this.rows;
+        final int nonZeros = this.nonZeros();
+        final int[] outPointers = new int[minor + 1];
+        final int[] outIndices = new int[nonZeros];
+        final double[] outValues = new double[nonZeros];
+
+        for (int k = 0; k < nonZeros; k++) {
+            outPointers[this.indices[k] + 1]++;
+        }
+
+        for (int m = 0; m < minor; m++) {
+            outPointers[m + 1] += outPointers[m];
+        }
+
+        final int[] next = Arrays.copyOf(outPointers, minor);
+
+        // visiting majors in order leaves each new row or column sorted
+        for (int m = 0; m < major; m++) {
+            for (int k = this.pointers[m]; k < this.pointers[m + 1]; k++) {
+                final int dst = next[this.indices[k]]++;
+
+                outIndices[dst] = m;
+                outValues[dst] = this.values[k];
+            }
+        }
+
+        return new SparseMatrix(format, this.rows, this.columns, outPointers, outIndices, outValues);
+    }
+
+    /**
+     * Multiplies this matrix by a vector.
+     *
+     * @param vec the vector. It must have columns() elements.
+     * @return the product, with rows() elements.
+     * @throws IllegalArgumentException if the vector is the wrong size.
+     * @since 26.10.17
+     */
+    public GLVecND multiply(final GLVec vec) {
+        return this.multiply(vec, Vectors.DEFAULT_FACTORY.nextGLVecND(this.rows));
+    }
+
+    /**
+     * Multiplies this matrix by a vector and writes the result into out
+     * instead of allocating from the factory. Out cannot be vec.
+     *
+     * @param vec the vector. It must have columns() elements.
+     * @param out the vector to write the product to. It must have rows()
+     * elements.
+     * @return out.
+     * @throws IllegalArgumentException if either vector is the wrong size.
+     * @since 26.10.17
+     */
+    public GLVecND multiply(final GLVec vec, final GLVecND out) {
+        if (vec.size() != this.columns || out.size() != this.rows) {
+            throw new IllegalArgumentException("Vector size does not match matrix size!");
+        }
+
+        final GLVecD in = vec.asGLVecD();
+
+        this.multiply(out.data(), out.offset(), in.data(), in.offset());
+        return out;
+    }
+
+    /**
+     * Multiplies this matrix by a vector stored in an array.
+     *
+     * @param out the output array. rows() elements are written.
+     * @param outOffset the offset to the output vector.
+     * @param in the input array. columns() elements are read.
+     * @param inOffset the offset to the input vector.
+     * @return out.
+     * @throws IllegalArgumentException if the output overlaps the input.
+     * @since 26.10.17
+     */
+    public double[] multiply(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset) {
+
+        this.checkMultiply(out, outOffset, in, inOffset);
+
+        if (this.format == Format.CSR) {
+            this.multiplyRows(out, outOffset, in, inOffset, 0, this.rows);
+        } else {
+            Arrays.fill(out, outOffset, outOffset + this.rows, 0.0);
+
+            // scatter each column into the output
+            for (int c = 0; c < this.columns; c++) {
+                final double x = in[inOffset + c];
+
+                if (x != 0.0) {
+                    for (int k = this.pointers[c]; k < this.pointers[c + 1]; k++) {
+                        out[outOffset + this.indices[k]] += this.values[k] * x;
+                    }
+                }
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Data-parallel implementation of multiply. Rows are split across the
+     * shared pool. A CSC matrix is converted to CSR on first use and the copy
+     * is kept for later calls.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to the output vector.
+     * @param in the input array.
+     * @param inOffset the offset to the input vector.
+     * @return a future that completes with out.
+     * @since 26.10.17
+     */
+    public Future<double[]> multiplyParallel(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset) {
+
+        this.checkMultiply(out, outOffset, in, inOffset);
+
+        final SparseMatrix mat = this.csr();
+
+        return VectorArrays.parallelFor(this.rows, out, (offset, length) -> mat.multiplyRows(
+                out, outOffset,
+                in, inOffset,
+                offset, offset + length));
+    }
+
+    private SparseMatrix csr() {
+        if (this.format == Format.CSR) {
+            return this;
+        }
+
+        SparseMatrix out = this.csr;
+
+        if (out == null) {
+            out = this.toFormat(Format.CSR);
+            this.csr = out;
+        }
+
+        return out;
+    }
+
+    private void multiplyRows(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset,
+            final int from, final int to) {
+
+        final int[] ptr = this.pointers;
+        final int[] idx = this.indices;
+        final double[] val = this.values;
+
+        for (int r = from; r < to; r++) {
+            double sum = 0.0;
+
+            for (int k = ptr[r]; k < ptr[r + 1]; k++) {
+                sum += val[k] * in[inOffset + idx[k]];
+            }
+
+            out[outOffset + r] = sum;
+        }
+    }
+
+    private void checkMultiply(
+            final double[] out, final int outOffset,
+            final double[] in, final int inOffset) {
+
+        if (outOffset < 0 || inOffset < 0
+                || out.length - outOffset < this.rows
+                || in.length - inOffset < this.columns) {
+
+            throw new IndexOutOfBoundsException();
+        } else if (out == in
+                && outOffset < inOffset + this.columns
+                && inOffset < outOffset + this.rows) {
+
+            throw new IllegalArgumentException("Output cannot alias the input!");
+        }
+    }
+
+    private int majorCount() {
+        return this.format == Format.CSR ? this.rows : this.columns;
+    }
+
+    /**
+     * Accumulates elements into a sparse matrix. Elements may be added in any
+     * order and duplicates are summed, which matches how mesh operators are
+     * assembled one edge or face at a time.
+     *
+     * @since 26.10.17
+     */
+    public static final class Builder {
+
+        private final int rows;
+        private final int columns;
+        private int[] rowIndices = new int[16];
+        private int[] columnIndices = new int[16];
+        private double[] values = new double[16];
+        private int count;
+
+        /**
+         * Constructs a new empty builder.
+         *
+         * @param rows the number of rows.
+         * @param columns the number of columns.
+         * @since 26.10.17
+         */
+        public Builder(final int rows, final int columns) {
+            if (rows < 0 || columns < 0) {
+                throw new IllegalArgumentException("Invalid matrix size!");
+            }
+
+            this.rows = rows;
+            this.columns = columns;
+        }
+
+        /**
+         * Adds a value to an element.
+         *
+         * @param row the row.
+         * @param column the column.
+         * @param value the value to add.
+         * @return self reference.
+         * @since 26.10.17
+         */
+        public Builder add(final int row, final int column, final double value) {
+            if (row < 0 || column < 0 || row >= this.rows || column >= this.columns) {
+                throw new IndexOutOfBoundsException();
+            }
+
+            if (this.count == this.values.length) {
+                final int capacity = this.count * 2;
+
+                this.rowIndices = Arrays.copyOf(this.rowIndices, capacity);
+                this.columnIndices = Arrays.copyOf(this.columnIndices, capacity);
+                this.values = Arrays.copyOf(this.values, capacity);
+            }
+
+            this.rowIndices[this.count] = row;
+            this.columnIndices[this.count] = column;
+            this.values[this.count] = value;
+            this.count++;
+            return this;
+        }
+
+        /**
+         * Builds the sparse matrix. Elements that sum to zero are kept.
+         *
+         * @param format the storage order.
+         * @return the sparse matrix.
+         * @since 26.10.17
+         */
+        public SparseMatrix build(final Format format) {
+            final boolean csr = Objects.requireNonNull(format) == Format.CSR;
+            final int[] major = csr ? this.rowIndices : this.columnIndices;
+            final int[] minor = csr ? this.columnIndices : this.rowIndices;
+            final int majorCount = csr ? this.rows : this.columns;
+            final int minorCount = csr ? this.columns : this.rows;
+            final int n = this.count;
+
+            // two stable counting sorts order the entries by major then minor
+            final int[] byMinor = sortBy(minor, minorCount, null, n);
+            final int[] order = sortBy(major, majorCount, byMinor, n);
+            final int[] pointers = new int[majorCount + 1];
+            final int[] indices = new int[n];
+            final double[] out = new double[n];
+            int size = 0;
+
+            for (int s = 0; s < n; s++) {
+                final int e = order[s];
+                final int prev = s > 0 ? order[s - 1] : -1;
+
+                // duplicates are adjacent once sorted
+                if (prev >= 0 && major[prev] == major[e] && minor[prev] == minor[e]) {
+                    out[size - 1] += this.values[e];
+                } else {
+                    pointers[major[e] + 1]++;
+                    indices[size] = minor[e];
+                    out[size] = this.values[e];
+                    size++;
+                }
+            }
+
+            for (int m = 0; m < majorCount; m++) {
+                pointers[m + 1] += pointers[m];
+            }
+
+            return new SparseMatrix(
+                    format, this.rows, this.columns,
+                    pointers,
+                    Arrays.copyOf(indices, size),
+                    Arrays.copyOf(out, size));
+        }
+
+        private static int[] sortBy(final int[] keys, final int keyCount, final int[] in, final int n) {
+            final int[] start = new int[keyCount + 1];
+            final int[] out = new int[n];
+
+            for (int s = 0; s < n; s++) {
+                start[keys[s] + 1]++;
+            }
+
+            for (int k = 0; k < keyCount; k++) {
+                start[k + 1] += start[k];
+            }
+
+            for (int s = 0; s < n; s++) {
+                final int e = in == null ? s : in[s];
+
+                out[start[keys[e]]++] = e;
+            }
+
+            return out;
+        }
+    }
+}
@@ -25,17 +25,24 @@
  */
 package com.longlinkislong.gloop;
 
-import java.util.ArrayList;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Deque;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * An implementation of MatrixFactory that utilizes a separate matrix pool per
  * thread.
  *
+ * <p>
+ * Each thread finds its pool through a ThreadLocal, so the allocation path
+ * takes no locks and never scans the running threads. When a thread dies and
+ * is garbage collected its pool is returned through a ReferenceQueue and handed
+ * to the next thread that needs one.
+ *
  * @author Robert
  * @since 15.07.12
  */
@@ -47,9 +54,10 @@ public final class ThreadSafeMatrixFactory implements MatrixFactory {
         DEBUG = Boolean.getBoolean("debug");
     }
 
-    private final ConcurrentHashMap<Long, PooledFactory> map = new ConcurrentHashMap<>();
-    private final Deque<PooledFactory> factoryPool = new ConcurrentLinkedDeque<>();
-    private final ReentrantLock lock = new ReentrantLock();
+    private final ThreadLocal<MatrixFactory> localFactory = new ThreadLocal<>();
+    private final ReferenceQueue<Thread> deadThreads = new ReferenceQueue<>();
+    private final Set<PooledFactory> owners = ConcurrentHashMap.newKeySet();
+    private final Deque<MatrixFactory> factoryPool = new ConcurrentLinkedDeque<>();
     private final int cacheSize;
 
     /**
@@ -77,56 +85,39 @@ public final class ThreadSafeMatrixFactory implements MatrixFactory {
     }
 
     private MatrixFactory getFactory() {
-        while (lock.isLocked()) {
-            Thread.yield();
-        }
+        final MatrixFactory factory = this.localFactory.get();
+
+        return factory != null ? factory : this.assignFactory();
+    }
 
-        Thread currentThread = Thread.currentThread();
-        long threadID = currentThread.getId();
+    private MatrixFactory assignFactory() {
+        this.repoolDeadThreads();
 
-        PooledFactory factory = map.get(threadID);
+        final Thread currentThread = Thread.currentThread();
+        MatrixFactory factory = this.factoryPool.poll();
 
         if (factory == null) {
-            repoolOldThreads();
+            if (DEBUG) {
+                System.out.println("Create pool on thread " + currentThread.getId());
+            }
 
-            factory = getOrCreatePooledFactory(currentThread);
-            map.put(threadID, factory);
+            factory = new CyclicalMatrixFactory(this.cacheSize);
         }
 
-        return factory.getFactory();
-    }
+        this.owners.add(new PooledFactory(currentThread, factory, this.deadThreads));
+        this.localFactory.set(factory);
 
-    private PooledFactory getOrCreatePooledFactory(Thread thread) {
-        PooledFactory polledFactory = factoryPool.poll();
-        if (polledFactory == null) {
-            return new PooledFactory(thread);
-        }
-        polledFactory.reassignThread(thread);
-        return polledFactory;
+        return factory;
     }
 
-    private void repoolOldThreads() {
-        try {
-            lock.lock();
-
-            final Set<Thread> threadSet = Thread.getAllStackTraces().keySet();
-            final ArrayList<PooledFactory> keep = new ArrayList<>(map.size());
+    private void repoolDeadThreads() {
+        Reference<? extends Thread> ref;
 
-            for(PooledFactory factory : map.values()) {
-                if(threadSet.contains(factory.getThread())) {
-                    keep.add(factory);
-                } else {
-                    factoryPool.add(factory);
-                }
-            }            
+        while ((ref = this.deadThreads.poll()) != null) {
+            final PooledFactory owner = (PooledFactory) ref;
 
-            map.clear();
-
-            for(PooledFactory factory : keep) {
-                map.put(factory.getThreadId(), factory);
-            }            
-        } finally {
-            lock.unlock();
+            this.owners.remove(owner);
+            this.factoryPool.offer(owner.factory);
         }
     }
 
@@ -170,34 +161,18 @@ public final class ThreadSafeMatrixFactory implements MatrixFactory {
         return getFactory().nextGLMatND(size);
     }
 
-    private final class PooledFactory {
+    /**
+     * Tracks the thread that owns a pool. The reference is enqueued once the
+     * thread has been collected, which releases the pool for reuse.
+     */
+    private static final class PooledFactory extends WeakReference<Thread> {
 
         private final MatrixFactory factory;
-        private Thread thread;
-
-        PooledFactory(Thread thread) {
-            if (DEBUG) {
-                System.out.println("Create pool on thread " + thread.getId());
-            }
-
-            this.factory = new CyclicalMatrixFactory(ThreadSafeMatrixFactory.this.cacheSize);
-            this.thread = thread;
-        }
 
-        Thread getThread() {
-            return thread;
-        }
-
-        long getThreadId() {
-            return thread.getId();
-        }
-
-        void reassignThread(Thread thread) {
-            this.thread = thread;
-        }
+        PooledFactory(final Thread thread, final MatrixFactory factory, final ReferenceQueue<Thread> queue) {
+            super(thread, queue);
 
-        MatrixFactory getFactory() {
-            return factory;
+            this.factory = factory;
         }
     }
 }
@@ -32,11 +32,17 @@ import static java.lang.Math.floor;
 import static java.lang.Math.log;
 import static java.lang.Math.log10;
 import static java.lang.Math.round;
+import java.util.Objects;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.IntConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * VectorArrays is a collection of math algorithms that run on each element in
@@ -47,6 +53,8 @@ import java.util.function.IntConsumer;
  */
 public final class VectorArrays {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(VectorArrays.class);
+
     private static ThreadFactory newThreadFactory(final String name) {
         return task -> {
             final SecurityManager s = System.getSecurityManager();
@@ -86,6 +94,169 @@ public final class VectorArrays {
         return W_TASKS.submit(task);
     }    
 
+    private static volatile ForkJoinPool parallelPool;
+    private static volatile int parallelChunkSize = Integer.getInteger("gloop.vectors.chunk", 8192);
+
+    static {
+        final Integer parallelism = Integer.getInteger("gloop.vectors.parallelism");
+
+        parallelPool = parallelism == null ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Sets the pool used by the *Parallel operations. The common pool is used
+     * by default unless gloop.vectors.parallelism is set.
+     *
+     * @param pool the pool.
+     * @since 26.10.17
+     */
+    public static void setParallelPool(final ForkJoinPool pool) {
+        parallelPool = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * Retrieves the pool used by the *Parallel operations.
+     *
+     * @return the pool.
+     * @since 26.10.17
+     */
+    public static ForkJoinPool getParallelPool() {
+        return parallelPool;
+    }
+
+    /**
+     * Sets the largest number of elements a single *Parallel task processes.
+     * Ranges are split in half until they are no larger than this. The default
+     * is 8192 or the value of gloop.vectors.chunk.
+     *
+     * @param chunkSize the chunk size.
+     * @throws IllegalArgumentException if chunkSize is less than 1.
+     * @since 26.10.17
+     */
+    public static void setParallelChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1!");
+        }
+
+        parallelChunkSize = chunkSize;
+    }
+
+    /**
+     * Retrieves the largest number of elements a single *Parallel task
+     * processes.
+     *
+     * @return the chunk size.
+     * @since 26.10.17
+     */
+    public static int getParallelChunkSize() {
+        return parallelChunkSize;
+    }
+
+    /**
+     * An operation on the range [offset, offset + count) of a batch.
+     *
+     * @since 26.10.17
+     */
+    @FunctionalInterface
+    public static interface RangeOp {
+
+        /**
+         * Processes a range of elements.
+         *
+         * @param offset the index of the first element relative to the start
+         * of the batch.
+         * @param count the number of elements in the range.
+         * @since 26.10.17
+         */
+        void apply(int offset, int count);
+    }
+
+    private static final class ParallelRange<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeOp op;
+        private final int offset;
+        private final int count;
+        private final int chunkSize;
+        private final T result;
+
+        ParallelRange(final RangeOp op, final int offset, final int count, final int chunkSize, final T result) {
+            this.op = op;
+            this.offset = offset;
+            this.count = count;
+            this.chunkSize = chunkSize;
+            this.result = result;
+        }
+
+        @Override
+        protected T compute() {
+            if (this.count <= this.chunkSize) {
+                this.op.apply(this.offset, this.count);
+            } else {
+                final int half = this.count >>> 1;
+
+                invokeAll(
+                        new ParallelRange<>(this.op, this.offset, half, this.chunkSize, null),
+                        new ParallelRange<>(this.op, this.offset + half, this.count - half, this.chunkSize, null));
+            }
+
+            return this.result;
+        }
+    }
+
+    /**
+     * Splits the range [0, count) into chunks and processes them on the
+     * parallel pool.
+     *
+     * @param <T> the type of result.
+     * @param count the number of elements to process.
+     * @param result the value the returned future completes with.
+     * @param op the operation run on each chunk.
+     * @return the future.
+     * @since 26.10.17
+     */
+    public static <T> ForkJoinTask<T> parallelFor(final int count, final T result, final RangeOp op) {
+        return parallelFor(count, parallelChunkSize, result, op);
+    }
+
+    static <T> ForkJoinTask<T> parallelFor(final int count, final int chunkSize, final T result, final RangeOp op) {
+        return parallelPool.submit(new ParallelRange<>(op, 0, count, chunkSize, result));
+    }
+
+    private static final ArrayKernels KERNELS = loadKernels();
+
+    private static ArrayKernels loadKernels() {
+        if ("false".equalsIgnoreCase(System.getProperty("gloop.vectors.simd", "auto"))) {
+            LOGGER.debug("SIMD kernels disabled by gloop.vectors.simd.");
+            return null;
+        }
+
+        try {
+            final ArrayKernels kernels = (ArrayKernels) Class.forName("com.longlinkislong.gloop.VectorApiKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+
+            LOGGER.debug("Using Vector API kernels.");
+            return kernels;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+            LOGGER.debug("Vector API kernels are not available; using scalar kernels.", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the element-wise kernels run on the Java Vector API. This
+     * requires JDK 17+ started with --add-modules jdk.incubator.vector and can
+     * be turned off by setting gloop.vectors.simd to false.
+     *
+     * @return true if the Vector API kernels are in use.
+     * @since 26.10.17
+     */
+    public static boolean isSimdEnabled() {
+        return KERNELS != null;
+    }
+
     /**
      * A functional interface representing a test on an index.
      *
@@ -234,6 +405,11 @@ public final class VectorArrays {
             final float value,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySetF(out, outOffset, value, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[i + outOffset] = value;
         }
@@ -255,6 +431,11 @@ public final class VectorArrays {
             final double value,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySetD(out, outOffset, value, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[i + outOffset] = value;
         }
@@ -276,8 +457,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySetDCnd(out, outOffset, value, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = value);
+            if (cnd.test(i)) {
+                out[outOffset + i] = value;
+            }
         }
     }
 
@@ -300,6 +488,11 @@ public final class VectorArrays {
             final float[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddF(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
         }
@@ -325,8 +518,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddFCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] + in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
+            }
         }
     }
 
@@ -346,8 +546,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySetFCnd(out, outOffset, value, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = value);
+            if (cnd.test(i)) {
+                out[outOffset + i] = value;
+            }
         }
     }
 
@@ -370,6 +577,11 @@ public final class VectorArrays {
             final double[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddD(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
         }
@@ -395,8 +607,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddDCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] + in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + in1[in1Offset + i];
+            }
         }
     }
 
@@ -420,6 +639,11 @@ public final class VectorArrays {
             final float[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySubtractF(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
         }
@@ -445,8 +669,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySubtractFCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] - in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
+            }
         }
     }
 
@@ -470,6 +701,11 @@ public final class VectorArrays {
             final double[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySubtractD(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
         }
@@ -495,8 +731,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySubtractDCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] - in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] - in1[in1Offset + i];
+            }
         }
     }
 
@@ -520,6 +763,11 @@ public final class VectorArrays {
             final float[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyF(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
         }
@@ -545,8 +793,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyFCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
+            }
         }
     }
 
@@ -570,6 +825,11 @@ public final class VectorArrays {
             final double[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyD(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
         }
@@ -595,8 +855,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyDCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i];
+            }
         }
     }
 
@@ -619,6 +886,11 @@ public final class VectorArrays {
             final float[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayDivideF(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
         }
@@ -644,8 +916,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayDivideFCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] / in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
+            }
         }
     }
 
@@ -668,6 +947,11 @@ public final class VectorArrays {
             final double[] in1, final int in1Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayDivideD(out, outOffset, in0, in0Offset, in1, in1Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
         }
@@ -693,8 +977,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayDivideDCnd(out, outOffset, in0, in0Offset, in1, in1Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] / in1[in1Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] / in1[in1Offset + i];
+            }
         }
     }
 
@@ -715,6 +1006,11 @@ public final class VectorArrays {
             final float[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySqrtF(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = (float) sqrt(in0[in0Offset + i]);
         }
@@ -737,8 +1033,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySqrtFCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = (float) sqrt(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) sqrt(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -759,6 +1062,11 @@ public final class VectorArrays {
             final double[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySqrtD(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = sqrt(in0[in0Offset + i]);
         }
@@ -781,8 +1089,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arraySqrtDCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = sqrt(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = sqrt(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -800,6 +1115,10 @@ public final class VectorArrays {
             final float[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            return KERNELS.arraySumF(in0, in0Offset, count);
+        }
+
         float accum = 0f;
 
         for (int i = 0; i < count; i++) {
@@ -823,6 +1142,10 @@ public final class VectorArrays {
             final double[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            return KERNELS.arraySumD(in0, in0Offset, count);
+        }
+
         double accum = 0f;
 
         for (int i = 0; i < count; i++) {
@@ -975,6 +1298,11 @@ public final class VectorArrays {
             final float[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAbsF(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[i + outOffset] = abs(in0[i + in0Offset]);
         }
@@ -997,8 +1325,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAbsFCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[index + outOffset] = abs(in0[index + in0Offset]));
+            if (cnd.test(i)) {
+                out[i + outOffset] = abs(in0[i + in0Offset]);
+            }
         }
     }
 
@@ -1019,6 +1354,11 @@ public final class VectorArrays {
             final double[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAbsD(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = abs(in0[in0Offset + i]);
         }
@@ -1041,8 +1381,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAbsDCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[index + outOffset] = abs(in0[index + in0Offset]));
+            if (cnd.test(i)) {
+                out[i + outOffset] = abs(in0[i + in0Offset]);
+            }
         }
     }
 
@@ -1069,6 +1416,11 @@ public final class VectorArrays {
             final float[] in2, final int in2Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyAddF(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
         }
@@ -1097,8 +1449,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyAddFCnd(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * in1[in1Offset + index] + in2[in2Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
+            }
         }
     }
 
@@ -1125,6 +1484,11 @@ public final class VectorArrays {
             final double[] in2, final int in2Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyAddD(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
         }
@@ -1153,8 +1517,81 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplyAddDCnd(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count, cnd);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] + in2[in2Offset + i];
+            }
+        }
+    }
+
+    /**
+     * Performs a fused multiply-add on each element in three arrays. Unlike
+     * arrayMultiplyAddF, each result is rounded once, so the output is
+     * identical on every JDK. Math.fma is used on JDK 9+.
+     *
+     * @param out the array to write the outputs to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the first array to read inputs from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param in1 the second array to read inputs from.
+     * @param in1Offset the offset to begin reading inputs.
+     * @param in2 the third array to read inputs from.
+     * @param in2Offset the offset to begin reading inputs.
+     * @param count the number of elements to process.
+     * @since 26.10.17
+     */
+    public static void arrayFusedMultiplyAddF(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count) {
+
+        if (KERNELS != null) {
+            KERNELS.arrayFusedMultiplyAddF(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * in1[in1Offset + index] + in2[in2Offset + index]);
+            out[outOffset + i] = Intrinsics.fma(in0[in0Offset + i], in1[in1Offset + i], in2[in2Offset + i]);
+        }
+    }
+
+    /**
+     * Performs a fused multiply-add on each element in three arrays. Unlike
+     * arrayMultiplyAddD, each result is rounded once, so the output is
+     * identical on every JDK. Math.fma is used on JDK 9+.
+     *
+     * @param out the array to write the outputs to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the first array to read inputs from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param in1 the second array to read inputs from.
+     * @param in1Offset the offset to begin reading inputs.
+     * @param in2 the third array to read inputs from.
+     * @param in2Offset the offset to begin reading inputs.
+     * @param count the number of elements to process.
+     * @since 26.10.17
+     */
+    public static void arrayFusedMultiplyAddD(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count) {
+
+        if (KERNELS != null) {
+            KERNELS.arrayFusedMultiplyAddD(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count);
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = Intrinsics.fma(in0[in0Offset + i], in1[in1Offset + i], in2[in2Offset + i]);
         }
     }
 
@@ -1181,6 +1618,11 @@ public final class VectorArrays {
             final float[] in2, final int in2Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplySubtractF(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
         }
@@ -1209,8 +1651,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplySubtractFCnd(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * in1[in1Offset + index] - in2[in2Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
+            }
         }
     }
 
@@ -1237,6 +1686,11 @@ public final class VectorArrays {
             final double[] in2, final int in2Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplySubtractD(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
         }
@@ -1265,8 +1719,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayMultiplySubtractDCnd(out, outOffset, in0, in0Offset, in1, in1Offset, in2, in2Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * in1[in1Offset + index] - in2[in2Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * in1[in1Offset + i] - in2[in2Offset + i];
+            }
         }
     }
 
@@ -1286,6 +1747,11 @@ public final class VectorArrays {
             final float[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayNegateF(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = -in0[in0Offset + i];
         }
@@ -1308,8 +1774,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayNegateFCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = -in0[in0Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = -in0[in0Offset + i];
+            }
         }
     }
 
@@ -1329,6 +1802,11 @@ public final class VectorArrays {
             final double[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayNegateD(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = -in0[in0Offset + i];
         }
@@ -1351,8 +1829,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayNegateDCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = -in0[in0Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = -in0[in0Offset + i];
+            }
         }
     }
 
@@ -1374,6 +1859,11 @@ public final class VectorArrays {
             final float scale,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayScaleF(out, outOffset, in0, in0Offset, scale, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * scale;
         }
@@ -1398,8 +1888,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayScaleFCnd(out, outOffset, in0, in0Offset, scale, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * scale);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * scale;
+            }
         }
     }
 
@@ -1422,6 +1919,11 @@ public final class VectorArrays {
             final float constant,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddConstantF(out, outOffset, in0, in0Offset, constant, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] + constant;
         }
@@ -1446,8 +1948,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddConstantFCnd(out, outOffset, in0, in0Offset, constant, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] + constant);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + constant;
+            }
         }
     }
 
@@ -1470,6 +1979,11 @@ public final class VectorArrays {
             final double constant,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddConstantD(out, outOffset, in0, in0Offset, constant, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] + constant;
         }
@@ -1494,8 +2008,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayAddConstantDCnd(out, outOffset, in0, in0Offset, constant, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] + constant);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] + constant;
+            }
         }
     }
 
@@ -1517,6 +2038,11 @@ public final class VectorArrays {
             final double scale,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayScaleD(out, outOffset, in0, in0Offset, scale, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = in0[in0Offset + i] * scale;
         }
@@ -1541,8 +2067,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayScaleDCnd(out, outOffset, in0, in0Offset, scale, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index] * scale);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i] * scale;
+            }
         }
     }
 
@@ -1562,6 +2095,11 @@ public final class VectorArrays {
             final float[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayReciprocalF(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = 1.0f / in0[in0Offset + i];
         }
@@ -1584,8 +2122,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayReciprocalFCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = 1.0f / in0[in0Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = 1.0f / in0[in0Offset + i];
+            }
         }
     }
 
@@ -1605,6 +2150,11 @@ public final class VectorArrays {
             final double[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayReciprocalD(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = 1.0 / in0[in0Offset + i];
         }
@@ -1627,8 +2177,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayReciprocalDCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = 1.0 / in0[in0Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = 1.0 / in0[in0Offset + i];
+            }
         }
     }
 
@@ -1649,6 +2206,11 @@ public final class VectorArrays {
             final float[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayInverseSqrtF(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = 1.0f / (float) sqrt(in0[in0Offset + i]);
         }
@@ -1671,8 +2233,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayInverseSqrtFCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = (float) (1.0 / sqrt(in0[in0Offset + index])));
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) (1.0 / sqrt(in0[in0Offset + i]));
+            }
         }
     }
 
@@ -1693,6 +2262,11 @@ public final class VectorArrays {
             final double[] in0, final int in0Offset,
             final int count) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayInverseSqrtD(out, outOffset, in0, in0Offset, count);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
             out[outOffset + i] = 1.0 / sqrt(in0[in0Offset + i]);
         }
@@ -1715,8 +2289,15 @@ public final class VectorArrays {
             final int count,
             final Conditional cnd) {
 
+        if (KERNELS != null) {
+            KERNELS.arrayInverseSqrtDCnd(out, outOffset, in0, in0Offset, count, cnd);
+            return;
+        }
+
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = 1.0 / sqrt(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = 1.0 / sqrt(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -1759,7 +2340,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = (float) floor(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) floor(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -1802,7 +2385,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = floor(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = floor(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -1845,7 +2430,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = (float) ceil(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) ceil(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -1888,7 +2475,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = ceil(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = ceil(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -1932,7 +2521,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = round(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = round(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -1976,7 +2567,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = round(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = round(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -2020,7 +2613,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = (float) log(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) log(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -2064,7 +2659,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = log(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = log(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -2108,7 +2705,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = (float) log10(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = (float) log10(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -2152,7 +2751,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = log10(in0[in0Offset + index]));
+            if (cnd.test(i)) {
+                out[outOffset + i] = log10(in0[in0Offset + i]);
+            }
         }
     }
 
@@ -2192,7 +2793,9 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i];
+            }
         }
     }
 
@@ -2232,7 +2835,484 @@ public final class VectorArrays {
             final Conditional cnd) {
 
         for (int i = 0; i < count; i++) {
-            cnd.ifThen(i, index -> out[outOffset + index] = in0[in0Offset + index]);
+            if (cnd.test(i)) {
+                out[outOffset + i] = in0[in0Offset + i];
+            }
+        }
+    }
+
+    /**
+     * The number of elements each interleave or deinterleave block processes.
+     * A block of the interleaved array stays in cache while each component is
+     * copied in or out of it.
+     */
+    private static final int TRANSPOSE_BLOCK = 1024;
+
+    /**
+     * Interleaves 2 component arrays into a single array. This performs the
+     * operation: <code>[r0, r1, ...] = [x0, y0, x1, y1, ...]</code>
+     *
+     * @param out the array to write the interleaved components to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading y components.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayInterleave2F(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = outOffset + i * 2; j < b; j++, k += 2) {
+                out[k] = in0[in0Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 2 + 1; j < b; j++, k += 2) {
+                out[k] = in1[in1Offset + i + j];
+            }
+        }
+    }
+
+    /**
+     * Splits an array of interleaved 2 component vectors into one array per
+     * component. This is the inverse of arrayInterleave2F.
+     *
+     * @param out0 the array to write the x components to.
+     * @param out0Offset the offset to begin writing x components.
+     * @param out1 the array to write the y components to.
+     * @param out1Offset the offset to begin writing y components.
+     * @param in0 the interleaved array to read from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayDeinterleave2F(
+            final float[] out0, final int out0Offset,
+            final float[] out1, final int out1Offset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = in0Offset + i * 2; j < b; j++, k += 2) {
+                out0[out0Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 2 + 1; j < b; j++, k += 2) {
+                out1[out1Offset + i + j] = in0[k];
+            }
+        }
+    }
+
+    /**
+     * Interleaves 2 component arrays into a single array. This performs the
+     * operation: <code>[r0, r1, ...] = [x0, y0, x1, y1, ...]</code>
+     *
+     * @param out the array to write the interleaved components to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading y components.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayInterleave2D(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = outOffset + i * 2; j < b; j++, k += 2) {
+                out[k] = in0[in0Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 2 + 1; j < b; j++, k += 2) {
+                out[k] = in1[in1Offset + i + j];
+            }
+        }
+    }
+
+    /**
+     * Splits an array of interleaved 2 component vectors into one array per
+     * component. This is the inverse of arrayInterleave2D.
+     *
+     * @param out0 the array to write the x components to.
+     * @param out0Offset the offset to begin writing x components.
+     * @param out1 the array to write the y components to.
+     * @param out1Offset the offset to begin writing y components.
+     * @param in0 the interleaved array to read from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayDeinterleave2D(
+            final double[] out0, final int out0Offset,
+            final double[] out1, final int out1Offset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = in0Offset + i * 2; j < b; j++, k += 2) {
+                out0[out0Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 2 + 1; j < b; j++, k += 2) {
+                out1[out1Offset + i + j] = in0[k];
+            }
+        }
+    }
+
+    /**
+     * Interleaves 3 component arrays into a single array. This performs the
+     * operation: <code>[r0, r1, ...] = [x0, y0, z0, x1, y1, z1, ...]</code>
+     *
+     * @param out the array to write the interleaved components to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading y components.
+     * @param in2 the z components.
+     * @param in2Offset the offset to begin reading z components.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayInterleave3F(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = outOffset + i * 3; j < b; j++, k += 3) {
+                out[k] = in0[in0Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 3 + 1; j < b; j++, k += 3) {
+                out[k] = in1[in1Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 3 + 2; j < b; j++, k += 3) {
+                out[k] = in2[in2Offset + i + j];
+            }
+        }
+    }
+
+    /**
+     * Splits an array of interleaved 3 component vectors into one array per
+     * component. This is the inverse of arrayInterleave3F.
+     *
+     * @param out0 the array to write the x components to.
+     * @param out0Offset the offset to begin writing x components.
+     * @param out1 the array to write the y components to.
+     * @param out1Offset the offset to begin writing y components.
+     * @param out2 the array to write the z components to.
+     * @param out2Offset the offset to begin writing z components.
+     * @param in0 the interleaved array to read from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayDeinterleave3F(
+            final float[] out0, final int out0Offset,
+            final float[] out1, final int out1Offset,
+            final float[] out2, final int out2Offset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = in0Offset + i * 3; j < b; j++, k += 3) {
+                out0[out0Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 3 + 1; j < b; j++, k += 3) {
+                out1[out1Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 3 + 2; j < b; j++, k += 3) {
+                out2[out2Offset + i + j] = in0[k];
+            }
+        }
+    }
+
+    /**
+     * Interleaves 3 component arrays into a single array. This performs the
+     * operation: <code>[r0, r1, ...] = [x0, y0, z0, x1, y1, z1, ...]</code>
+     *
+     * @param out the array to write the interleaved components to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading y components.
+     * @param in2 the z components.
+     * @param in2Offset the offset to begin reading z components.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayInterleave3D(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = outOffset + i * 3; j < b; j++, k += 3) {
+                out[k] = in0[in0Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 3 + 1; j < b; j++, k += 3) {
+                out[k] = in1[in1Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 3 + 2; j < b; j++, k += 3) {
+                out[k] = in2[in2Offset + i + j];
+            }
+        }
+    }
+
+    /**
+     * Splits an array of interleaved 3 component vectors into one array per
+     * component. This is the inverse of arrayInterleave3D.
+     *
+     * @param out0 the array to write the x components to.
+     * @param out0Offset the offset to begin writing x components.
+     * @param out1 the array to write the y components to.
+     * @param out1Offset the offset to begin writing y components.
+     * @param out2 the array to write the z components to.
+     * @param out2Offset the offset to begin writing z components.
+     * @param in0 the interleaved array to read from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayDeinterleave3D(
+            final double[] out0, final int out0Offset,
+            final double[] out1, final int out1Offset,
+            final double[] out2, final int out2Offset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = in0Offset + i * 3; j < b; j++, k += 3) {
+                out0[out0Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 3 + 1; j < b; j++, k += 3) {
+                out1[out1Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 3 + 2; j < b; j++, k += 3) {
+                out2[out2Offset + i + j] = in0[k];
+            }
+        }
+    }
+
+    /**
+     * Interleaves 4 component arrays into a single array. This performs the
+     * operation: <code>[r0, r1, ...] = [x0, y0, z0, w0, x1, y1, z1, w1, ...]</code>
+     *
+     * @param out the array to write the interleaved components to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading y components.
+     * @param in2 the z components.
+     * @param in2Offset the offset to begin reading z components.
+     * @param in3 the w components.
+     * @param in3Offset the offset to begin reading w components.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayInterleave4F(
+            final float[] out, final int outOffset,
+            final float[] in0, final int in0Offset,
+            final float[] in1, final int in1Offset,
+            final float[] in2, final int in2Offset,
+            final float[] in3, final int in3Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = outOffset + i * 4; j < b; j++, k += 4) {
+                out[k] = in0[in0Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 4 + 1; j < b; j++, k += 4) {
+                out[k] = in1[in1Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 4 + 2; j < b; j++, k += 4) {
+                out[k] = in2[in2Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 4 + 3; j < b; j++, k += 4) {
+                out[k] = in3[in3Offset + i + j];
+            }
+        }
+    }
+
+    /**
+     * Splits an array of interleaved 4 component vectors into one array per
+     * component. This is the inverse of arrayInterleave4F.
+     *
+     * @param out0 the array to write the x components to.
+     * @param out0Offset the offset to begin writing x components.
+     * @param out1 the array to write the y components to.
+     * @param out1Offset the offset to begin writing y components.
+     * @param out2 the array to write the z components to.
+     * @param out2Offset the offset to begin writing z components.
+     * @param out3 the array to write the w components to.
+     * @param out3Offset the offset to begin writing w components.
+     * @param in0 the interleaved array to read from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayDeinterleave4F(
+            final float[] out0, final int out0Offset,
+            final float[] out1, final int out1Offset,
+            final float[] out2, final int out2Offset,
+            final float[] out3, final int out3Offset,
+            final float[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = in0Offset + i * 4; j < b; j++, k += 4) {
+                out0[out0Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 4 + 1; j < b; j++, k += 4) {
+                out1[out1Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 4 + 2; j < b; j++, k += 4) {
+                out2[out2Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 4 + 3; j < b; j++, k += 4) {
+                out3[out3Offset + i + j] = in0[k];
+            }
+        }
+    }
+
+    /**
+     * Interleaves 4 component arrays into a single array. This performs the
+     * operation: <code>[r0, r1, ...] = [x0, y0, z0, w0, x1, y1, z1, w1, ...]</code>
+     *
+     * @param out the array to write the interleaved components to.
+     * @param outOffset the offset to begin writing outputs.
+     * @param in0 the x components.
+     * @param in0Offset the offset to begin reading x components.
+     * @param in1 the y components.
+     * @param in1Offset the offset to begin reading y components.
+     * @param in2 the z components.
+     * @param in2Offset the offset to begin reading z components.
+     * @param in3 the w components.
+     * @param in3Offset the offset to begin reading w components.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayInterleave4D(
+            final double[] out, final int outOffset,
+            final double[] in0, final int in0Offset,
+            final double[] in1, final int in1Offset,
+            final double[] in2, final int in2Offset,
+            final double[] in3, final int in3Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = outOffset + i * 4; j < b; j++, k += 4) {
+                out[k] = in0[in0Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 4 + 1; j < b; j++, k += 4) {
+                out[k] = in1[in1Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 4 + 2; j < b; j++, k += 4) {
+                out[k] = in2[in2Offset + i + j];
+            }
+
+            for (int j = 0, k = outOffset + i * 4 + 3; j < b; j++, k += 4) {
+                out[k] = in3[in3Offset + i + j];
+            }
+        }
+    }
+
+    /**
+     * Splits an array of interleaved 4 component vectors into one array per
+     * component. This is the inverse of arrayInterleave4D.
+     *
+     * @param out0 the array to write the x components to.
+     * @param out0Offset the offset to begin writing x components.
+     * @param out1 the array to write the y components to.
+     * @param out1Offset the offset to begin writing y components.
+     * @param out2 the array to write the z components to.
+     * @param out2Offset the offset to begin writing z components.
+     * @param out3 the array to write the w components to.
+     * @param out3Offset the offset to begin writing w components.
+     * @param in0 the interleaved array to read from.
+     * @param in0Offset the offset to begin reading inputs.
+     * @param count the number of vectors to process.
+     * @since 26.10.17
+     */
+    public static void arrayDeinterleave4D(
+            final double[] out0, final int out0Offset,
+            final double[] out1, final int out1Offset,
+            final double[] out2, final int out2Offset,
+            final double[] out3, final int out3Offset,
+            final double[] in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i += TRANSPOSE_BLOCK) {
+            final int b = Math.min(TRANSPOSE_BLOCK, count - i);
+
+            for (int j = 0, k = in0Offset + i * 4; j < b; j++, k += 4) {
+                out0[out0Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 4 + 1; j < b; j++, k += 4) {
+                out1[out1Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 4 + 2; j < b; j++, k += 4) {
+                out2[out2Offset + i + j] = in0[k];
+            }
+
+            for (int j = 0, k = in0Offset + i * 4 + 3; j < b; j++, k += 4) {
+                out3[out3Offset + i + j] = in0[k];
+            }
         }
     }
 }
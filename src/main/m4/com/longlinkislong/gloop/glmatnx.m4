@@ -30,6 +30,9 @@ m4_include(`m4/com/longlinkislong/gloop/glmatnx_def.m4')
 m4_divert(0)m4_dnl 
 package com.longlinkislong.gloop;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
  * The base class for all arbitrary sized matrices.
  * @author zmichaels
@@ -172,6 +175,27 @@ public abstract class MatT extends BaseT<MatT, VecT> implements GLMatN {
         return out;
     }
 
+    /**
+     * Multiplies this matrix by the transpose of another matrix. This is
+     * cheaper than transposing the other matrix first.
+     *
+     * @param other the matrix to transpose and multiply by.
+     * @return the product.
+     * @since 26.10.17
+     */
+    public final MatT multiplyTransposed(final GLMat other) {
+        final MatT out = _next(`N', TYPE, this.size());
+        final MatT in1 = _cast(_cast(other, BaseT), MatT, this.size());
+
+        _call(`multiplyMatTransposed')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset(),
+            this.size());
+
+        return out;
+    }
+
     @Override
     public final _fdef(`GLVec', `N', TYPE) multiply(final GLVec vec) {
         final VecT out = Vectors.DEFAULT_FACTORY._fdef(`nextGLVec',`N',TYPE)(this.size());
@@ -186,6 +210,238 @@ public abstract class MatT extends BaseT<MatT, VecT> implements GLMatN {
         return out;
     }
 
+    /**
+     * Factors a copy of this matrix. The factorization can then solve any
+     * number of right hand sides without repeating the O(N^3) work.
+     *
+     * @param method the factorization to use.
+     * @return the factorization.
+     * @since 26.10.17
+     */
+    public final Factorization factorize(final LinearSolvers.Method method) {
+        return new Factorization(Objects.requireNonNull(method), this);
+    }
+
+    /**
+     * Solves this matrix times x equals b for x. Use factorize when solving
+     * several right hand sides against the same matrix.
+     *
+     * @param b the right hand side.
+     * @return the solution.
+     * @throws IllegalStateException if the matrix is singular.
+     * @since 26.10.17
+     */
+    public final VecT solve(final GLVec b) {
+        return this.factorize(LinearSolvers.Method.LU).solve(b);
+    }
+
+    /**
+     * A factored copy of a matrix.
+     *
+     * @since 26.10.17
+     */
+    public static final class Factorization {
+
+        private final LinearSolvers.Method method;
+        private final int size;
+        private final TYPE[] factors;
+        private final int[] pivots;
+        private final TYPE[] tau;
+        private final boolean solvable;
+
+        private Factorization(final LinearSolvers.Method method, final MatT mat) {
+            final int n = mat.size();
+
+            this.method = method;
+            this.size = n;
+            this.factors = Arrays.copyOfRange(mat.data(), mat.offset(), mat.offset() + n * n);
+
+            switch (method) {
+                case LU:
+                    this.pivots = new int[n];
+                    this.tau = null;
+                    this.solvable = _solver(`lu')(this.factors, 0, n, this.pivots, 0);
+                    break;
+                case CHOLESKY:
+                    this.pivots = null;
+                    this.tau = null;
+                    this.solvable = _solver(`cholesky')(this.factors, 0, n);
+                    break;
+                case QR:
+                    this.pivots = null;
+                    this.tau = new TYPE[n];
+                    this.solvable = _solver(`qr')(this.factors, 0, n, this.tau, 0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported method!");
+            }
+        }
+
+        /**
+         * Retrieves the method used to factor the matrix.
+         *
+         * @return the method.
+         * @since 26.10.17
+         */
+        public LinearSolvers.Method getMethod() {
+            return this.method;
+        }
+
+        /**
+         * Retrieves the size of the factored matrix.
+         *
+         * @return the size.
+         * @since 26.10.17
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Checks if the factorization can solve systems. This is false when
+         * the matrix is singular or, for Cholesky, not positive definite.
+         *
+         * @return true if solve can be called.
+         * @since 26.10.17
+         */
+        public boolean isSolvable() {
+            return this.solvable;
+        }
+
+        /**
+         * Calculates the determinant of the factored matrix.
+         *
+         * @return the determinant.
+         * @throws IllegalStateException if a Cholesky factorization failed.
+         * @since 26.10.17
+         */
+        public TYPE determinant() {
+            final int n = this.size;
+            TYPE det = _real(TYPE, 1.0);
+
+            switch (this.method) {
+                case LU:
+                    for (int d = 0; d < n; d++) {
+                        det *= this.factors[d * n + d];
+
+                        if (this.pivots[d] != d) {
+                            det = -det;
+                        }
+                    }
+                    break;
+                case CHOLESKY:
+                    this.requireSolvable();
+
+                    for (int d = 0; d < n; d++) {
+                        det *= this.factors[d * n + d];
+                    }
+
+                    det *= det;
+                    break;
+                case QR:
+                    // every nontrivial reflection has a determinant of -1
+                    for (int d = 0; d < n; d++) {
+                        det *= this.factors[d * n + d];
+
+                        if (this.tau[d] != 0) {
+                            det = -det;
+                        }
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported method!");
+            }
+
+            return det;
+        }
+
+        /**
+         * Solves for x given the right hand side b.
+         *
+         * @param b the right hand side.
+         * @return the solution.
+         * @throws IllegalStateException if the factorization is not solvable.
+         * @throws IllegalArgumentException if b is the wrong size.
+         * @since 26.10.17
+         */
+        public VecT solve(final GLVec b) {
+            return this.solve(b, Vectors.DEFAULT_FACTORY._fdef(`nextGLVec', `N', TYPE)(this.size));
+        }
+
+        /**
+         * Solves for x given the right hand side b and writes x into out
+         * instead of allocating from the factory. Out may be b.
+         *
+         * @param b the right hand side.
+         * @param out the vector to write the solution to.
+         * @return out.
+         * @throws IllegalStateException if the factorization is not solvable.
+         * @throws IllegalArgumentException if b or out are the wrong size.
+         * @since 26.10.17
+         */
+        public VecT solve(final GLVec b, final VecT out) {
+            if (b.size() != this.size || out.size() != this.size) {
+                throw new IllegalArgumentException("Vector size does not match matrix size!");
+            }
+
+            final _fdef(`GLVec',,TYPE) in = b.m4_ifelse(TYPE,`float',`asGLVecF',`asGLVecD')();
+
+            // copy directly since set zeroes out first, which would clear an aliased b
+            System.arraycopy(in.data(), in.offset(), out.data(), out.offset(), this.size);
+            this.solve(out.data(), out.offset(), 1);
+            return out;
+        }
+
+        /**
+         * Solves a batch of right hand sides stored back to back. Each right
+         * hand side is overwritten by its solution.
+         *
+         * @param b the right hand sides.
+         * @param bOffset the offset to the first right hand side.
+         * @param count the number of right hand sides.
+         * @return b.
+         * @throws IllegalStateException if the factorization is not solvable.
+         * @since 26.10.17
+         */
+        public TYPE[] solve(final TYPE[] b, final int bOffset, final int count) {
+            final int n = this.size;
+
+            this.requireSolvable();
+
+            if (bOffset < 0 || count < 0 || b.length - bOffset < count * n) {
+                throw new IndexOutOfBoundsException();
+            }
+
+            for (int s = 0; s < count; s++) {
+                final int off = bOffset + s * n;
+
+                switch (this.method) {
+                    case LU:
+                        _solver(`luSolve')(this.factors, 0, n, this.pivots, 0, b, off);
+                        break;
+                    case CHOLESKY:
+                        _solver(`choleskySolve')(this.factors, 0, n, b, off);
+                        break;
+                    case QR:
+                        _solver(`qrSolve')(this.factors, 0, n, this.tau, 0, b, off);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unsupported method!");
+                }
+            }
+
+            return b;
+        }
+
+        private void requireSolvable() {
+            if (!this.solvable) {
+                throw new IllegalStateException(this.method == LinearSolvers.Method.CHOLESKY
+                        ? "Matrix is not positive definite!"
+                        : "Matrix is singular!");
+            }
+        }
+    }
+
     @Override
     public final _fdef(`GLVec', `N', TYPE) get(final int rowID) {
         final VecT out = Vectors.DEFAULT_FACTORY._fdef(`nextGLVec', `N', TYPE)(this.size());
@@ -226,7 +482,14 @@ public abstract class MatT extends BaseT<MatT, VecT> implements GLMatN {
 
     @Override
     public final MatT inverse() {
-        throw new UnsupportedOperationException();
+        final int n = this.size();
+        final MatT out = _next(`N', TYPE, n);
+
+        out.identity();
+
+        // each column of the identity solves to a column of the inverse
+        this.factorize(LinearSolvers.Method.LU).solve(out.data(), out.offset(), n);
+        return out;
     }
 
     @Override
@@ -255,7 +518,7 @@ public abstract class MatT extends BaseT<MatT, VecT> implements GLMatN {
 
     @Override
     public TYPE determinant() {
-        throw new UnsupportedOperationException();
+        return this.factorize(LinearSolvers.Method.LU).determinant();
     }
 
     @Override
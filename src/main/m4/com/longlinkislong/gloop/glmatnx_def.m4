@@ -28,6 +28,7 @@ m4_define(`VecT', _fdef(`GLVec',`N',TYPE))
 m4_define(`_next', `this.getFactory()._fdef(`nextGLMat',$1,$2)($3)')
 m4_define(`_cast',`$1.as$2($3)')
 m4_define(`_call',`Matrices._fdef($1,`N',TYPE)')
+m4_define(`_solver',`LinearSolvers._fdef($1,,TYPE)')
 m4_define(`_asMat', `m4_dnl
 @Override
     public final _fdef(`GLMat', $1, TYPE) _fdef(`asGLMat', $1, TYPE)() {
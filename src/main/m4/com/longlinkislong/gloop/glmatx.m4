@@ -355,6 +355,25 @@ m4_ifelse(MAT_SIZE,4,`m4_dnl
         return out;
     }
 
+    /**
+     * Multiplies each element of this matrix by the specified value and
+     * writes the result into out instead of allocating from the factory. Out
+     * may be this matrix.
+     *
+     * @param value the value to scale by.
+     * @param out the matrix to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final MatT multiply(final TYPE value, final MatT out) {
+        _call(`scale')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            value);
+
+        return out;
+    }
+
     @Override
     public final MatT transpose() {
         final MatT out = _next(MAT_SIZE, TYPE);
@@ -366,17 +385,142 @@ m4_ifelse(MAT_SIZE,4,`m4_dnl
         return out;
     }
 
+    /**
+     * Calculates the transpose of this matrix and writes the result into out
+     * instead of allocating from the factory. Out cannot be this matrix.
+     *
+     * @param out the matrix to write the result to.
+     * @return out.
+     * @throws IllegalArgumentException if out aliases this matrix.
+     * @since 26.10.17
+     */
+    public final MatT transpose(final MatT out) {
+        _noalias(`this')
+
+        _call(`transpose')(
+            out.data(), out.offset(),
+            this.data(), this.offset());
+
+        return out;
+    }
+
     @Override
     public final MatT inverse() {
         final MatT out = _next(MAT_SIZE, TYPE);
 
-        _call(`inverse')(
+_inverseCall
+
+        return out;
+    }
+
+    /**
+     * Calculates the inverse of this matrix and writes the result into out
+     * instead of allocating from the factory. Out cannot be this matrix.
+     *
+     * @param out the matrix to write the result to.
+     * @return out.
+     * @throws IllegalArgumentException if out aliases this matrix.
+     * @since 26.10.17
+     */
+    public final MatT inverse(final MatT out) {
+        _noalias(`this')
+
+_inverseCall
+
+        return out;
+    }
+
+m4_ifelse(MAT_SIZE, 4, `m4_dnl
+    /**
+     * Checks if this matrix is affine. Translations, rotations, scales and
+     * their products are affine; projections are not.
+     *
+     * @return true if the last row of the matrix is 0, 0, 0, 1.
+     * @since 26.10.17
+     */
+    public final boolean isAffine() {
+        return _call(`isAffine')(this.data(), this.offset());
+    }
+
+    /**
+     * Calculates the inverse of this affine matrix. This is cheaper than the
+     * general inverse, which also takes this path for affine matrices.
+     *
+     * @return the inverse.
+     * @throws IllegalStateException if this matrix is not affine.
+     * @since 26.10.17
+     */
+    public final MatT inverseAffine() {
+        return this.inverseAffine(_next(MAT_SIZE, TYPE));
+    }
+
+    public final MatT inverseAffine(final MatT out) {
+        _requireAffine
+
+        _call(`inverseAffine')(
+            out.data(), out.offset(),
+            this.data(), this.offset());
+
+        return out;
+    }
+
+    /**
+     * Calculates the inverse of this rigid matrix. A rigid matrix is a
+     * rotation followed by a translation; its inverse only needs a transpose
+     * and one matrix-vector product. Only the affine structure is checked, so
+     * scaled or sheared matrices produce undefined results.
+     *
+     * @return the inverse.
+     * @throws IllegalStateException if this matrix is not affine.
+     * @since 26.10.17
+     */
+    public final MatT inverseRigid() {
+        return this.inverseRigid(_next(MAT_SIZE, TYPE));
+    }
+
+    public final MatT inverseRigid(final MatT out) {
+        _requireAffine
+
+        _call(`inverseRigid')(
             out.data(), out.offset(),
             this.data(), this.offset());
 
         return out;
     }
 
+    /**
+     * Multiplies this affine matrix by another affine matrix using 36
+     * multiplications instead of 64. The general multiply also takes this path
+     * when both matrices are affine. Out may be either input.
+     *
+     * @param other the right hand side of the multiplication.
+     * @return the product.
+     * @throws IllegalStateException if this matrix is not affine.
+     * @throws IllegalArgumentException if the other matrix is not affine.
+     * @since 26.10.17
+     */
+    public final MatT multiplyAffine(final GLMat other) {
+        return this.multiplyAffine(other, _next(MAT_SIZE, TYPE));
+    }
+
+    public final MatT multiplyAffine(final GLMat other, final MatT out) {
+        final MatT in1 = _cast(_cast(other, BaseT), MatT);
+
+        _requireAffine
+
+        if (!in1.isAffine()) {
+            throw new IllegalArgumentException("Matrix is not affine!");
+        }
+
+        _call(`multiplyAffine')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());
+
+        return out;
+    }
+
+')m4_dnl
     @Override
     public final TYPE determinant() {
         return _call(`determinant')(this.data(), this.offset());
@@ -389,14 +533,31 @@ m4_ifelse(MAT_SIZE,4,`m4_dnl
         
         final MatT out = _next(MAT_SIZE, TYPE);        
         
-        _call(`multiplyMat')(
-            out.data(), out.offset(),
-            this.data(), this.offset(),
-            in1.data(), in1.offset());
+_multiplyCall
 
         return out;        
     }
 
+    /**
+     * Multiplies this matrix by another matrix and writes the result into out
+     * instead of allocating from the factory. Out cannot be either input.
+     *
+     * @param other the right hand side of the multiplication.
+     * @param out the matrix to write the result to.
+     * @return out.
+     * @throws IllegalArgumentException if out aliases an input.
+     * @since 26.10.17
+     */
+    public final MatT multiply(final GLMat other, final MatT out) {
+        final MatT in1 = _cast(_cast(other, BaseT), MatT);
+
+        _noalias(`this', `in1')
+
+_multiplyCall
+
+        return out;
+    }
+
     @Override
     public final VecT multiply(final GLVec vec) {
         final VecT out = Vectors.DEFAULT_FACTORY._fdef(`nextGLVec', MAT_SIZE, TYPE)();
@@ -410,6 +571,29 @@ m4_ifelse(MAT_SIZE,4,`m4_dnl
         return out;
     }
 
+    /**
+     * Multiplies this matrix by a vector and writes the result into out
+     * instead of allocating from the factory. Out cannot be the input vector.
+     *
+     * @param vec the vector to transform.
+     * @param out the vector to write the result to.
+     * @return out.
+     * @throws IllegalArgumentException if out aliases the input vector.
+     * @since 26.10.17
+     */
+    public final VecT multiply(final GLVec vec, final VecT out) {
+        final VecT in1 = vec.m4_ifelse(TYPE,`float',`asGLVecF',`asGLVecD')().`ex'VecT ();
+
+        _noalias(`in1')
+
+        _call(`multiplyVec')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());
+
+        return out;
+    }
+
     @Override
     public final VecT get(final int rowId) {
         final VecT out = Vectors.DEFAULT_FACTORY._fdef(`nextGLVec', MAT_SIZE, TYPE)();
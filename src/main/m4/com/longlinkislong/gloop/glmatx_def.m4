@@ -45,3 +45,42 @@ m4_define(`_asMat', `m4_dnl
 ')
 m4_define(`OTHER', `m4_ifelse(TYPE, `float', `double', `float')')
 m4_define(`OMatT', _fdef(`GLMat',MAT_SIZE,OTHER))
+m4_define(`_noalias', `m4_ifelse(`$2', `', `m4_dnl
+if (out.data() == $1.data() && out.offset() == $1.offset()) {', `m4_dnl
+if ((out.data() == $1.data() && out.offset() == $1.offset())
+                || (out.data() == $2.data() && out.offset() == $2.offset())) {')
+            throw new IllegalArgumentException("Output cannot alias an input!");
+        }')
+m4_define(`_requireAffine', `m4_dnl
+if (!this.isAffine()) {
+            throw new IllegalStateException("Matrix is not affine!");
+        }')
+m4_define(`_inverseCall', `m4_ifelse(MAT_SIZE, 4, `m4_dnl
+        if (this.isAffine()) {
+            _call(`inverseAffine')(
+                out.data(), out.offset(),
+                this.data(), this.offset());
+        } else {
+            _call(`inverse')(
+                out.data(), out.offset(),
+                this.data(), this.offset());
+        }', `m4_dnl
+        _call(`inverse')(
+            out.data(), out.offset(),
+            this.data(), this.offset());')')
+m4_define(`_multiplyCall', `m4_ifelse(MAT_SIZE, 4, `m4_dnl
+        if (this.isAffine() && in1.isAffine()) {
+            _call(`multiplyAffine')(
+                out.data(), out.offset(),
+                this.data(), this.offset(),
+                in1.data(), in1.offset());
+        } else {
+            _call(`multiplyMat')(
+                out.data(), out.offset(),
+                this.data(), this.offset(),
+                in1.data(), in1.offset());
+        }', `m4_dnl
+        _call(`multiplyMat')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());')')
@@ -0,0 +1,603 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+m4_divert(-1)
+m4_include(`m4/m4utils/fdef.m4')
+m4_include(`m4/m4utils/types.m4')
+m4_include(`m4/com/longlinkislong/gloop/glmatxarray_def.m4')
+m4_divert(0)m4_dnl
+package com.longlinkislong.gloop;
+
+import static com.longlinkislong.gloop.VectorArrays.parallelFor;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ArrT is a packed array of MAT_SIZE`x'MAT_SIZE m4_ifelse(TYPE, `float', `single', `double') precision matrices.
+ * The matrices are stored back to back in column-major order, which is the
+ * layout consumed by the Matrices kernels and by glUniformMatrix4fv, so
+ * thousands of matrices can be multiplied, inverted or used to transform
+ * vectors in a single call.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class ArrT {
+
+    /**
+     * The number of elements between the start of two consecutive matrices.
+     *
+     * @since 26.10.17
+     */
+    public static final int STRIDE = MAT_SIZE * MAT_SIZE;
+
+    /**
+     * The number of matrices held by the array.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+
+    /**
+     * The packed matrix data.
+     *
+     * @since 26.10.17
+     */
+    public final TYPE[] data;
+
+    /**
+     * Constructs a new ArrT with the specified number of matrices. All
+     * matrices are initialized to zero.
+     *
+     * @param size the number of matrices the ArrT will hold.
+     * @since 26.10.17
+     */
+    public ArrT`'(final int size) {
+        this.length = size;
+        this.data = new TYPE[size * STRIDE];
+    }
+
+    /**
+     * Retrieves a MatT from the internal array.
+     *
+     * @param index the index of the matrix.
+     * @return the MatT.
+     * @since 26.10.17
+     */
+    public MatT get(final int index) {
+        return MatT.create(this.data, index * STRIDE);
+    }
+
+    /**
+     * Writes a matrix into the internal array.
+     *
+     * @param index the index of the matrix.
+     * @param mat the matrix to write.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public ArrT set(final int index, final GenT mat) {
+        final MatT matT = _asMat(`mat');
+
+        System.arraycopy(matT.data(), matT.offset(), this.data, index * STRIDE, STRIDE);
+        return this;
+    }
+
+    /**
+     * Sets every matrix on the range to the identity matrix.
+     *
+     * @param offset the index of the first matrix.
+     * @param count the number of matrices to set.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public ArrT identity(final int offset, final int count) {
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(Matrices._fdef(`IDENTITY_MATRIX',,TYPE), 0, this.data, (offset + i) * STRIDE, STRIDE);
+        }
+
+        return this;
+    }
+
+    public ArrT identity() {
+        return this.identity(0, this.length);
+    }
+
+    public Stream<MatT> stream() {
+        return this.stream(0, this.length);
+    }
+
+    public Stream<MatT> stream(final int startInclusive, final int endExclusive) {
+        return IntStream.range(startInclusive, endExclusive).mapToObj(this::get);
+    }
+
+    private static ArrT ensureArray(final ArrT in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new ArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    private static Vec3ArrT ensureArray(final Vec3ArrT in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new Vec3ArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    private static Vec4ArrT ensureArray(final Vec4ArrT in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new Vec4ArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    public ArrT multiply(final ArrT out, final ArrT other) {
+        return multiply(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Multiplies each matrix of the first array by the matrix at the same
+     * index of the second array. Pairs of affine matrices use the cheaper
+     * affine product.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of matrices.
+     * @param in0Offset the offset to begin reading the first inputs.
+     * @param in1 the second input array of matrices.
+     * @param in1Offset the offset to begin reading the second inputs.
+     * @param count the number of matrices to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT multiply(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        for (int i = 0; i < count; i++) {
+            final int a = (in0Offset + i) * STRIDE;
+            final int b = (in1Offset + i) * STRIDE;
+
+            if (_call(`isAffine')(in0.data, a) && _call(`isAffine')(in1.data, b)) {
+                _call(`multiplyAffine')(
+                        res.data, (outOffset + i) * STRIDE,
+                        in0.data, a,
+                        in1.data, b);
+            } else {
+                _call(`multiplyMat')(
+                        res.data, (outOffset + i) * STRIDE,
+                        in0.data, a,
+                        in1.data, b);
+            }
+        }
+
+        return res;
+    }
+
+    public ArrT multiply(final ArrT out, final GenT other) {
+        return multiply(out, 0, this, 0, other, this.length);
+    }
+
+    /**
+     * Multiplies each matrix of the array by a single matrix.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param in1 the matrix to multiply each input by.
+     * @param count the number of matrices to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT multiply(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT in1,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final MatT mat = _asMat(`in1');
+        final TYPE[] matData = mat.data();
+        final int matOffset = mat.offset();
+        final boolean affine = _call(`isAffine')(matData, matOffset);
+
+        for (int i = 0; i < count; i++) {
+            final int a = (in0Offset + i) * STRIDE;
+
+            if (affine && _call(`isAffine')(in0.data, a)) {
+                _call(`multiplyAffine')(
+                        res.data, (outOffset + i) * STRIDE,
+                        in0.data, a,
+                        matData, matOffset);
+            } else {
+                _call(`multiplyMat')(
+                        res.data, (outOffset + i) * STRIDE,
+                        in0.data, a,
+                        matData, matOffset);
+            }
+        }
+
+        return res;
+    }
+
+    public Future<ArrT> multiplyParallel(final ArrT out, final ArrT other) {
+        return multiplyParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of multiply.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of matrices.
+     * @param in0Offset the offset to begin reading the first inputs.
+     * @param in1 the second input array of matrices.
+     * @param in1Offset the offset to begin reading the second inputs.
+     * @param count the number of matrices to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> multiplyParallel(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> multiply(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public ArrT transpose(final ArrT out) {
+        return transpose(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Calculates the transpose of each matrix of the array.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of matrices to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT transpose(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        for (int i = 0; i < count; i++) {
+            _call(`transpose')(
+                    res.data, (outOffset + i) * STRIDE,
+                    in0.data, (in0Offset + i) * STRIDE);
+        }
+
+        return res;
+    }
+
+    public ArrT inverse(final ArrT out) {
+        return inverse(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Calculates the inverse of each matrix of the array. Affine matrices use
+     * the cheaper affine inverse. The scratch space is shared across the batch
+     * so no memory is allocated per matrix.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of matrices to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT inverse(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final TYPE[] tmp = new TYPE[12];
+        final TYPE[] src = new TYPE[STRIDE];
+
+        for (int i = 0; i < count; i++) {
+            final int a = (in0Offset + i) * STRIDE;
+
+            if (_call(`isAffine')(in0.data, a)) {
+                _call(`inverseAffine')(
+                        res.data, (outOffset + i) * STRIDE,
+                        in0.data, a);
+            } else {
+                _call(`inverse')(
+                        res.data, (outOffset + i) * STRIDE,
+                        in0.data, a,
+                        tmp, src);
+            }
+        }
+
+        return res;
+    }
+
+    public Future<ArrT> inverseParallel(final ArrT out) {
+        return inverseParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of inverse.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of matrices to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> inverseParallel(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> inverse(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Vec4ArrT transform(final Vec4ArrT out, final Vec4ArrT vecs) {
+        return transform(out, 0, this, 0, vecs, 0, this.length);
+    }
+
+    /**
+     * Multiplies each vector by the matrix at the same index.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the matrices.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static Vec4ArrT transform(
+            final Vec4ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final Vec4ArrT in1, final int in1Offset,
+            final int count) {
+
+        final Vec4ArrT res = ensureArray(out, outOffset, count);
+        final TYPE[] m = in0.data;
+
+        for (int i = 0; i < count; i++) {
+            final int j = (in0Offset + i) * STRIDE;
+            final TYPE x = in1.x[in1Offset + i];
+            final TYPE y = in1.y[in1Offset + i];
+            final TYPE z = in1.z[in1Offset + i];
+            final TYPE w = in1.w[in1Offset + i];
+
+            res.x[outOffset + i] = m[j + 0] * x + m[j + 4] * y + m[j + 8] * z + m[j + 12] * w;
+            res.y[outOffset + i] = m[j + 1] * x + m[j + 5] * y + m[j + 9] * z + m[j + 13] * w;
+            res.z[outOffset + i] = m[j + 2] * x + m[j + 6] * y + m[j + 10] * z + m[j + 14] * w;
+            res.w[outOffset + i] = m[j + 3] * x + m[j + 7] * y + m[j + 11] * z + m[j + 15] * w;
+        }
+
+        return res;
+    }
+
+    public Vec3ArrT transform(final Vec3ArrT out, final Vec3ArrT vecs) {
+        return transform(out, 0, this, 0, vecs, 0, this.length);
+    }
+
+    /**
+     * Multiplies each vector by the matrix at the same index. The vectors are
+     * treated as points with a w component of 1.0.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the matrices.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static Vec3ArrT transform(
+            final Vec3ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final Vec3ArrT in1, final int in1Offset,
+            final int count) {
+
+        final Vec3ArrT res = ensureArray(out, outOffset, count);
+        final TYPE[] m = in0.data;
+
+        for (int i = 0; i < count; i++) {
+            final int j = (in0Offset + i) * STRIDE;
+            final TYPE x = in1.x[in1Offset + i];
+            final TYPE y = in1.y[in1Offset + i];
+            final TYPE z = in1.z[in1Offset + i];
+
+            res.x[outOffset + i] = m[j + 0] * x + m[j + 4] * y + m[j + 8] * z + m[j + 12];
+            res.y[outOffset + i] = m[j + 1] * x + m[j + 5] * y + m[j + 9] * z + m[j + 13];
+            res.z[outOffset + i] = m[j + 2] * x + m[j + 6] * y + m[j + 10] * z + m[j + 14];
+        }
+
+        return res;
+    }
+
+    /**
+     * Multiplies every vector by a single matrix.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param mat the matrix to transform by.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static Vec4ArrT transform(
+            final Vec4ArrT out, final int outOffset,
+            final GenT mat,
+            final Vec4ArrT in1, final int in1Offset,
+            final int count) {
+
+        final Vec4ArrT res = ensureArray(out, outOffset, count);
+        final MatT matT = _asMat(`mat');
+        final TYPE[] m = matT.data();
+        final int j = matT.offset();
+        final TYPE m00 = m[j + 0], m01 = m[j + 4], m02 = m[j + 8], m03 = m[j + 12];
+        final TYPE m10 = m[j + 1], m11 = m[j + 5], m12 = m[j + 9], m13 = m[j + 13];
+        final TYPE m20 = m[j + 2], m21 = m[j + 6], m22 = m[j + 10], m23 = m[j + 14];
+        final TYPE m30 = m[j + 3], m31 = m[j + 7], m32 = m[j + 11], m33 = m[j + 15];
+
+        for (int i = 0; i < count; i++) {
+            final TYPE x = in1.x[in1Offset + i];
+            final TYPE y = in1.y[in1Offset + i];
+            final TYPE z = in1.z[in1Offset + i];
+            final TYPE w = in1.w[in1Offset + i];
+
+            res.x[outOffset + i] = m00 * x + m01 * y + m02 * z + m03 * w;
+            res.y[outOffset + i] = m10 * x + m11 * y + m12 * z + m13 * w;
+            res.z[outOffset + i] = m20 * x + m21 * y + m22 * z + m23 * w;
+            res.w[outOffset + i] = m30 * x + m31 * y + m32 * z + m33 * w;
+        }
+
+        return res;
+    }
+
+    /**
+     * Multiplies every vector by a single matrix. The vectors are treated as
+     * points with a w component of 1.0.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param mat the matrix to transform by.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static Vec3ArrT transform(
+            final Vec3ArrT out, final int outOffset,
+            final GenT mat,
+            final Vec3ArrT in1, final int in1Offset,
+            final int count) {
+
+        final Vec3ArrT res = ensureArray(out, outOffset, count);
+        final MatT matT = _asMat(`mat');
+        final TYPE[] m = matT.data();
+        final int j = matT.offset();
+        final TYPE m00 = m[j + 0], m01 = m[j + 4], m02 = m[j + 8], m03 = m[j + 12];
+        final TYPE m10 = m[j + 1], m11 = m[j + 5], m12 = m[j + 9], m13 = m[j + 13];
+        final TYPE m20 = m[j + 2], m21 = m[j + 6], m22 = m[j + 10], m23 = m[j + 14];
+
+        for (int i = 0; i < count; i++) {
+            final TYPE x = in1.x[in1Offset + i];
+            final TYPE y = in1.y[in1Offset + i];
+            final TYPE z = in1.z[in1Offset + i];
+
+            res.x[outOffset + i] = m00 * x + m01 * y + m02 * z + m03;
+            res.y[outOffset + i] = m10 * x + m11 * y + m12 * z + m13;
+            res.z[outOffset + i] = m20 * x + m21 * y + m22 * z + m23;
+        }
+
+        return res;
+    }
+
+    public Future<Vec4ArrT> transformParallel(final Vec4ArrT out, final Vec4ArrT vecs) {
+        return transformParallel(out, 0, this, 0, vecs, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of transform.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the matrices.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<Vec4ArrT> transformParallel(
+            final Vec4ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final Vec4ArrT in1, final int in1Offset,
+            final int count) {
+
+        final Vec4ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> transform(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<Vec3ArrT> transformParallel(final Vec3ArrT out, final Vec3ArrT vecs) {
+        return transformParallel(out, 0, this, 0, vecs, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of transform.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input array of matrices.
+     * @param in0Offset the offset to begin reading the matrices.
+     * @param in1 the input array of vectors.
+     * @param in1Offset the offset to begin reading the vectors.
+     * @param count the number of vectors to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<Vec3ArrT> transformParallel(
+            final Vec3ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final Vec3ArrT in1, final int in1Offset,
+            final int count) {
+
+        final Vec3ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> transform(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+}
@@ -0,0 +1,30 @@
+ Copyright (c) 2015, Zachary Michaels
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+POSSIBILITY OF SUCH DAMAGE.
+m4_define(`MatT', _fdef(`GLMat',MAT_SIZE,TYPE))
+m4_define(`GenT', `GLMat'MAT_SIZE)
+m4_define(`ArrT', `GLMat'MAT_SIZE`'m4_ifelse(TYPE, `float', `F')`Array')
+m4_define(`Vec3ArrT', `GLVec3'm4_ifelse(TYPE, `float', `F')`Array')
+m4_define(`Vec4ArrT', `GLVec4'm4_ifelse(TYPE, `float', `F')`Array')
+m4_define(`_call', `Matrices._fdef($1,MAT_SIZE,TYPE)')
+m4_define(`_asMat', `$1.'_fdef(`asGLMat',,TYPE)`().'_fdef(`asGLMat',MAT_SIZE,TYPE)`()')
@@ -0,0 +1,486 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+m4_divert(-1)
+m4_include(`m4/m4utils/fdef.m4')
+m4_include(`m4/m4utils/types.m4')
+m4_include(`m4/com/longlinkislong/gloop/glquaternionarray_def.m4')
+m4_divert(0)m4_dnl
+package com.longlinkislong.gloop;
+
+import static java.lang.Math.acos;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ArrT is a SoA (Struct of Arrays) batch of m4_ifelse(TYPE, `float', `single', `double') precision quaternions.
+ * All operations run as straight loops over the component arrays without
+ * creating a QuatT per element.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class ArrT {
+
+    /**
+     * The threshold above which slerp falls back to nlerp. The quaternions
+     * are close enough that the spherical interpolation is numerically
+     * unstable.
+     *
+     * @since 26.10.17
+     */
+    public static final TYPE SLERP_THRESHOLD = _c(`0.9995');
+
+    /**
+     * The number of quaternions held by the array.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+    public final TYPE[] x;
+    public final TYPE[] y;
+    public final TYPE[] z;
+    public final TYPE[] w;
+
+    /**
+     * Constructs a new ArrT with the specified number of elements. All
+     * quaternions are initialized to zero.
+     *
+     * @param size the number of quaternions the ArrT will hold.
+     * @since 26.10.17
+     */
+    public ArrT`'(final int size) {
+        this.length = size;
+        this.x = new TYPE[size];
+        this.y = new TYPE[size];
+        this.z = new TYPE[size];
+        this.w = new TYPE[size];
+    }
+
+    /**
+     * Retrieves a QuatT from the internal arrays.
+     *
+     * @param index the index of the element.
+     * @return the QuatT.
+     * @since 26.10.17
+     */
+    public QuatT get(final int index) {
+        return QuatT.create(this.x[index], this.y[index], this.z[index], this.w[index]);
+    }
+
+    /**
+     * Writes a quaternion into the internal arrays.
+     *
+     * @param index the index of the element.
+     * @param quat the quaternion to write.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public ArrT set(final int index, final GLQuaternion quat) {
+        final QuatT quatT = quat.`as'QuatT`'();
+
+        this.x[index] = quatT.x();
+        this.y[index] = quatT.y();
+        this.z[index] = quatT.z();
+        this.w[index] = quatT.w();
+        return this;
+    }
+
+    /**
+     * Sets every quaternion on the range to the identity quaternion.
+     *
+     * @param offset the index of the first quaternion.
+     * @param count the number of quaternions to set.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public ArrT identity(final int offset, final int count) {
+        for (int i = offset; i < offset + count; i++) {
+            this.x[i] = this.y[i] = this.z[i] = _c(`0.0');
+            this.w[i] = _c(`1.0');
+        }
+
+        return this;
+    }
+
+    public ArrT identity() {
+        return this.identity(0, this.length);
+    }
+
+    public Stream<QuatT> stream() {
+        return this.stream(0, this.length);
+    }
+
+    public Stream<QuatT> stream(final int startInclusive, final int endExclusive) {
+        return IntStream.range(startInclusive, endExclusive).mapToObj(this::get);
+    }
+
+    private static ArrT ensureArray(final ArrT in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new ArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    private static MatArrT ensureArray(final MatArrT in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new MatArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    public ArrT multiply(final ArrT out, final ArrT other) {
+        return multiply(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Calculates the Hamilton product of each pair of quaternions. Unlike
+     * Quaternions.multiply, the inputs are not normalized first.
+     *
+     * @param out the output array of quaternions.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the left hand side quaternions.
+     * @param in0Offset the offset to begin reading the left hand side.
+     * @param in1 the right hand side quaternions.
+     * @param in1Offset the offset to begin reading the right hand side.
+     * @param count the number of quaternions to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT multiply(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        for (int i = 0; i < count; i++) {
+            final TYPE x1 = in0.x[in0Offset + i];
+            final TYPE y1 = in0.y[in0Offset + i];
+            final TYPE z1 = in0.z[in0Offset + i];
+            final TYPE w1 = in0.w[in0Offset + i];
+            final TYPE x2 = in1.x[in1Offset + i];
+            final TYPE y2 = in1.y[in1Offset + i];
+            final TYPE z2 = in1.z[in1Offset + i];
+            final TYPE w2 = in1.w[in1Offset + i];
+
+            res.x[outOffset + i] = w1 * x2 + x1 * w2 + y1 * z2 - z1 * y2;
+            res.y[outOffset + i] = w1 * y2 - x1 * z2 + y1 * w2 + z1 * x2;
+            res.z[outOffset + i] = w1 * z2 + x1 * y2 - y1 * x2 + z1 * w2;
+            res.w[outOffset + i] = w1 * w2 - x1 * x2 - y1 * y2 - z1 * z2;
+        }
+
+        return res;
+    }
+
+    public ArrT normalize(final ArrT out) {
+        return normalize(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Normalizes each quaternion.
+     *
+     * @param out the output array of quaternions.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input quaternions.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of quaternions to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT normalize(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        for (int i = 0; i < count; i++) {
+            final TYPE x = in0.x[in0Offset + i];
+            final TYPE y = in0.y[in0Offset + i];
+            final TYPE z = in0.z[in0Offset + i];
+            final TYPE w = in0.w[in0Offset + i];
+            final TYPE invMagnitude = _cast(`1.0 / sqrt(x * x + y * y + z * z + w * w)');
+
+            res.x[outOffset + i] = x * invMagnitude;
+            res.y[outOffset + i] = y * invMagnitude;
+            res.z[outOffset + i] = z * invMagnitude;
+            res.w[outOffset + i] = w * invMagnitude;
+        }
+
+        return res;
+    }
+
+    public ArrT nlerp(final ArrT out, final ArrT other, final TYPE t) {
+        return nlerp(out, 0, this, 0, other, 0, t, this.length);
+    }
+
+    /**
+     * Linearly interpolates each pair of quaternions and normalizes the
+     * result. The shortest path is always taken.
+     *
+     * @param out the output array of quaternions.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the quaternions to interpolate from.
+     * @param in0Offset the offset to begin reading the first inputs.
+     * @param in1 the quaternions to interpolate to.
+     * @param in1Offset the offset to begin reading the second inputs.
+     * @param t the interpolation factor, 0 returns in0 and 1 returns in1.
+     * @param count the number of quaternions to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT nlerp(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final TYPE t,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final TYPE s0 = _c(`1.0') - t;
+
+        for (int i = 0; i < count; i++) {
+            final TYPE x1 = in0.x[in0Offset + i];
+            final TYPE y1 = in0.y[in0Offset + i];
+            final TYPE z1 = in0.z[in0Offset + i];
+            final TYPE w1 = in0.w[in0Offset + i];
+            final TYPE x2 = in1.x[in1Offset + i];
+            final TYPE y2 = in1.y[in1Offset + i];
+            final TYPE z2 = in1.z[in1Offset + i];
+            final TYPE w2 = in1.w[in1Offset + i];
+            final TYPE dot = x1 * x2 + y1 * y2 + z1 * z2 + w1 * w2;
+            final TYPE s1 = dot < 0 ? -t : t;
+            final TYPE x = s0 * x1 + s1 * x2;
+            final TYPE y = s0 * y1 + s1 * y2;
+            final TYPE z = s0 * z1 + s1 * z2;
+            final TYPE w = s0 * w1 + s1 * w2;
+            final TYPE invMagnitude = _cast(`1.0 / sqrt(x * x + y * y + z * z + w * w)');
+
+            res.x[outOffset + i] = x * invMagnitude;
+            res.y[outOffset + i] = y * invMagnitude;
+            res.z[outOffset + i] = z * invMagnitude;
+            res.w[outOffset + i] = w * invMagnitude;
+        }
+
+        return res;
+    }
+
+    public ArrT slerp(final ArrT out, final ArrT other, final TYPE t) {
+        return slerp(out, 0, this, 0, other, 0, t, this.length);
+    }
+
+    /**
+     * Spherically interpolates each pair of unit quaternions. The shortest
+     * path is always taken. Pairs that are closer than SLERP_THRESHOLD are
+     * interpolated with nlerp instead.
+     *
+     * @param out the output array of quaternions.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the quaternions to interpolate from.
+     * @param in0Offset the offset to begin reading the first inputs.
+     * @param in1 the quaternions to interpolate to.
+     * @param in1Offset the offset to begin reading the second inputs.
+     * @param t the interpolation factor, 0 returns in0 and 1 returns in1.
+     * @param count the number of quaternions to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static ArrT slerp(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final TYPE t,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        for (int i = 0; i < count; i++) {
+            final TYPE x1 = in0.x[in0Offset + i];
+            final TYPE y1 = in0.y[in0Offset + i];
+            final TYPE z1 = in0.z[in0Offset + i];
+            final TYPE w1 = in0.w[in0Offset + i];
+            final TYPE x2 = in1.x[in1Offset + i];
+            final TYPE y2 = in1.y[in1Offset + i];
+            final TYPE z2 = in1.z[in1Offset + i];
+            final TYPE w2 = in1.w[in1Offset + i];
+            final TYPE dot = x1 * x2 + y1 * y2 + z1 * z2 + w1 * w2;
+            final TYPE cosTheta = dot < 0 ? -dot : dot;
+            final TYPE s0;
+            final TYPE s1;
+
+            if (cosTheta > SLERP_THRESHOLD) {
+                s0 = _c(`1.0') - t;
+                s1 = t;
+            } else {
+                final double theta = acos(cosTheta);
+                final double invSinTheta = 1.0 / sin(theta);
+
+                s0 = _cast(`sin((1.0 - t) * theta) * invSinTheta');
+                s1 = _cast(`sin(t * theta) * invSinTheta');
+            }
+
+            final TYPE s1Signed = dot < 0 ? -s1 : s1;
+            final TYPE x = s0 * x1 + s1Signed * x2;
+            final TYPE y = s0 * y1 + s1Signed * y2;
+            final TYPE z = s0 * z1 + s1Signed * z2;
+            final TYPE w = s0 * w1 + s1Signed * w2;
+            final TYPE invMagnitude = _cast(`1.0 / sqrt(x * x + y * y + z * z + w * w)');
+
+            res.x[outOffset + i] = x * invMagnitude;
+            res.y[outOffset + i] = y * invMagnitude;
+            res.z[outOffset + i] = z * invMagnitude;
+            res.w[outOffset + i] = w * invMagnitude;
+        }
+
+        return res;
+    }
+
+    public MatArrT toMat4(final MatArrT out) {
+        return toMat4(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Converts each quaternion into a rotation matrix. The matrices use the
+     * same element layout as Quaternions.rotationMat.
+     *
+     * @param out the output array of matrices.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the input quaternions.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of quaternions to process.
+     * @return the result array.
+     * @since 26.10.17
+     */
+    public static MatArrT toMat4(
+            final MatArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final MatArrT res = ensureArray(out, outOffset, count);
+        final TYPE[] m = res.data;
+
+        for (int i = 0; i < count; i++) {
+            final int j = (outOffset + i) * MatArrT.STRIDE;
+            final TYPE x = in0.x[in0Offset + i];
+            final TYPE y = in0.y[in0Offset + i];
+            final TYPE z = in0.z[in0Offset + i];
+            final TYPE w = in0.w[in0Offset + i];
+            final TYPE x2 = x + x;
+            final TYPE y2 = y + y;
+            final TYPE z2 = z + z;
+            final TYPE xx = x * x2;
+            final TYPE yy = y * y2;
+            final TYPE zz = z * z2;
+            final TYPE xy = x * y2;
+            final TYPE xz = x * z2;
+            final TYPE yz = y * z2;
+            final TYPE wx = w * x2;
+            final TYPE wy = w * y2;
+            final TYPE wz = w * z2;
+
+            m[j + 0] = _c(`1.0') - yy - zz;
+            m[j + 1] = xy - wz;
+            m[j + 2] = xz + wy;
+            m[j + 3] = _c(`0.0');
+            m[j + 4] = xy + wz;
+            m[j + 5] = _c(`1.0') - xx - zz;
+            m[j + 6] = yz - wx;
+            m[j + 7] = _c(`0.0');
+            m[j + 8] = xz - wy;
+            m[j + 9] = yz + wx;
+            m[j + 10] = _c(`1.0') - xx - yy;
+            m[j + 11] = _c(`0.0');
+            m[j + 12] = _c(`0.0');
+            m[j + 13] = _c(`0.0');
+            m[j + 14] = _c(`0.0');
+            m[j + 15] = _c(`1.0');
+        }
+
+        return res;
+    }
+
+    /**
+     * Converts each quaternion into a rotation matrix and writes the matrices
+     * back to back into a ByteBuffer. The byte order of the buffer is used.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the input quaternions.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of quaternions to process.
+     * @since 26.10.17
+     */
+    public static void writeMat4To(
+            final ByteBuffer out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        // convert one block at a time so the scratch matrices stay in cache
+        final int blockSize = 64;
+        final MatArrT block = new MatArrT`'(blockSize);
+
+        for (int i = 0; i < count; i += blockSize) {
+            final int n = Math.min(blockSize, count - i);
+            final int base = outOffset + i * MatArrT.STRIDE * _bytes;
+
+            toMat4(block, 0, in0, in0Offset + i, n);
+
+            Intrinsics._puts`'(out, base, block.data, 0, n * MatArrT.STRIDE);
+        }
+    }
+
+    /**
+     * Writes the quaternions into a ByteBuffer as interleaved x, y, z, w
+     * values. The byte order of the buffer is used.
+     *
+     * @param out the buffer to write to.
+     * @param outOffset the byte offset to begin writing.
+     * @param in0 the input quaternions.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of quaternions to process.
+     * @since 26.10.17
+     */
+    public static void writeTo(
+            final ByteBuffer out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        for (int i = 0; i < count; i++) {
+            final int base = outOffset + i * 4 * _bytes;
+
+            out._put`'(base, in0.x[in0Offset + i]);
+            out._put`'(base + _bytes, in0.y[in0Offset + i]);
+            out._put`'(base + 2 * _bytes, in0.z[in0Offset + i]);
+            out._put`'(base + 3 * _bytes, in0.w[in0Offset + i]);
+        }
+    }
+}
@@ -111,6 +111,26 @@ m4_ifelse(m4_eval(VEC_SIZE > 3), 1,m4_dnl
         return out;
     }
 
+    /**
+     * Adds another vector to this vector and writes the result into out instead of
+     * allocating from the factory. Out may be this vector.
+     *
+     * @param other the other vector.
+     * @param out the vector to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final VecT plus(final GLVec other, final VecT out) {
+        final VecT in1 = _cast(_cast(other, BaseT), VecT);
+
+        _call(`plus')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());
+
+        return out;
+    }
+
     @Override
     public final VecT minus(final GLVec other) {
         final VecT out = _next(VEC_SIZE, TYPE);
@@ -124,6 +144,26 @@ m4_ifelse(m4_eval(VEC_SIZE > 3), 1,m4_dnl
         return out;
     }
 
+    /**
+     * Subtracts another vector from this vector and writes the result into out instead of
+     * allocating from the factory. Out may be this vector.
+     *
+     * @param other the other vector.
+     * @param out the vector to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final VecT minus(final GLVec other, final VecT out) {
+        final VecT in1 = _cast(_cast(other, BaseT), VecT);
+
+        _call(`minus')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());
+
+        return out;
+    }
+
     _asVec(2)
     _asVec(3)
     _asVec(4)
@@ -188,6 +228,43 @@ m4_ifelse(m4_eval(VEC_SIZE > 3), 1,m4_dnl
         return out;
     }
 
+    /**
+     * Scales this vector by the specified constant and writes the result into
+     * out instead of allocating from the factory. Out may be this vector.
+     *
+     * @param value the value to scale by.
+     * @param out the vector to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final VecT scale(final TYPE value, final VecT out) {
+        _call(`scale')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            value);
+
+        return out;
+    }
+
+    /**
+     * Normalizes this vector and writes the result into out instead of
+     * allocating from the factory. Out may be this vector. Vectors that are
+     * too short to normalize are copied unchanged.
+     *
+     * @param out the vector to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final VecT normalize(final VecT out) {
+        final double len2 = this.length2();
+
+        if (len2 < 1E-8) {
+            return out.set(this);
+        } else {
+            return this.scale(m4_ifelse(TYPE, `float', `(float) ')(1.0 / Math.sqrt(len2)), out);
+        }
+    }
+
     @Override
     public final _fdef(`GLVec',,OTHER) _fdef(`asGLVec',,OTHER)() {
         final _fdef(`GLVec', VEC_SIZE, OTHER) out = _next(VEC_SIZE, OTHER);
@@ -220,6 +297,22 @@ m4_ifelse(m4_eval(VEC_SIZE > 3), 1,m4_dnl
         return out;
     }
 
+    /**
+     * Negates this vector and writes the result into out instead of
+     * allocating from the factory. Out may be this vector.
+     *
+     * @param out the vector to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final VecT negative(final VecT out) {
+        _call(`negative')(
+            out.data(), out.offset(),
+            this.data(), this.offset());
+
+        return out;
+    }
+
     @Override
     public final VecT reflect(final GLVec surfaceNormal) {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -264,6 +357,30 @@ m4_ifelse(m4_eval(VEC_SIZE > 3), 1,m4_dnl
         return out;
     }
 
+    /**
+     * Calculates the cross product between this vector and another vector and
+     * writes the result into out instead of allocating from the factory. Out
+     * cannot be either input.
+     *
+     * @param other the other vector.
+     * @param out the vector to write the result to.
+     * @return out.
+     * @throws IllegalArgumentException if out aliases an input.
+     * @since 26.10.17
+     */
+    public final VecT cross(final GLVec other, final VecT out) {
+        final VecT in1 = _cast(_cast(other, BaseT), VecT);
+
+        _noalias(`this', `in1')
+
+        _call(`cross')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());
+
+        return out;
+    }
+
     @Override
     public final VecT hadamard(final GLVec other) {
         final VecT out = _next(VEC_SIZE, TYPE);
@@ -277,6 +394,26 @@ m4_ifelse(m4_eval(VEC_SIZE > 3), 1,m4_dnl
         return out;
     }
 
+    /**
+     * Multiplies this vector by another vector component-wise and writes the result into out instead of
+     * allocating from the factory. Out may be this vector.
+     *
+     * @param other the other vector.
+     * @param out the vector to write the result to.
+     * @return out.
+     * @since 26.10.17
+     */
+    public final VecT hadamard(final GLVec other, final VecT out) {
+        final VecT in1 = _cast(_cast(other, BaseT), VecT);
+
+        _call(`multiply')(
+            out.data(), out.offset(),
+            this.data(), this.offset(),
+            in1.data(), in1.offset());
+
+        return out;
+    }
+
     @Override
     public final VecT copyTo(final VectorFactory factory) {
         final VecT out = _fdef(`factory.nextGLVec', VEC_SIZE, TYPE) ();
@@ -43,3 +43,9 @@ m4_define(`_asVec', `m4_dnl
 ')
 m4_define(`OTHER', `m4_ifelse(TYPE, `float', `double', `float')')
 m4_define(`OVecT', _fdef(`GLVec',VEC_SIZE,OTHER))
+m4_define(`_noalias', `m4_ifelse(`$2', `', `m4_dnl
+if (out.data() == $1.data() && out.offset() == $1.offset()) {', `m4_dnl
+if ((out.data() == $1.data() && out.offset() == $1.offset())
+                || (out.data() == $2.data() && out.offset() == $2.offset())) {')
+            throw new IllegalArgumentException("Output vector cannot alias an input!");
+        }')
@@ -0,0 +1,1283 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+m4_divert(-1)
+m4_include(`m4/m4utils/fdef.m4')
+m4_include(`m4/m4utils/types.m4')
+m4_include(`m4/com/longlinkislong/gloop/glvecxarray_def.m4')
+m4_divert(0)m4_dnl
+package com.longlinkislong.gloop;
+
+import static com.longlinkislong.gloop.VectorArrays.*;
+import static java.lang.Math.sqrt;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ArrT is a SoA (Struct of Arrays) implementation of VEC_SIZE element
+ * m4_ifelse(TYPE, `float', `single', `double') precision vectors. Each component is stored in its own array so
+ * the VectorArrays kernels can process a single component at a time.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class ArrT {
+
+    /**
+     * The number of vectors held by the array.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+_each(`    public final TYPE[] _C_;
+')m4_dnl
+
+    /**
+     * Constructs a new ArrT with the specified number of elements.
+     *
+     * @param size the number of vectors the ArrT will hold.
+     * @since 26.10.17
+     */
+    public ArrT`'(final int size) {
+        this.length = size;
+_each(`
+        this._C_ = new TYPE[size];')
+    }
+
+    /**
+     * Retrieves a VecT from the internal arrays.
+     *
+     * @param index the index of the element.
+     * @return the VecT.
+     * @since 26.10.17
+     */
+    public VecT get(final int index) {
+        return VecT.create(_each(`_sep(`, ')this._C_[index]'));
+    }
+
+    /**
+     * Bulk retrieves vectors from the internal arrays.
+     *
+     * @param <OutT> the type of vector to write to.
+     * @param readIndex the index to begin reading at.
+     * @param out the array of vectors to write to.
+     * @param writeIndex the offset to begin writing.
+     * @param count the number of elements to process.
+     * @since 26.10.17
+     */
+    public <OutT extends VecT> void get(final int readIndex, final OutT[] out, final int writeIndex, final int count) {
+        for (int i = 0; i < count; i++) {
+            out[writeIndex + i].set(_each(`_sep(`, ')this._C_[readIndex + i]'));
+        }
+    }
+
+    /**
+     * Writes a vector into the internal arrays.
+     *
+     * @param index the index of the element.
+     * @param vec the vector to write.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public ArrT set(final int index, final GenT vec) {
+        final VecT vecT = vec.`as'VecT`'();
+_each(`
+        this._C_[index] = vecT._C_`'();')
+
+        return this;
+    }
+
+    public Stream<VecT> stream() {
+        return this.stream(0, this.length);
+    }
+
+    public Stream<VecT> stream(final int startInclusive, final int endExclusive) {
+        return IntStream.range(startInclusive, endExclusive).mapToObj(this::get);
+    }
+
+    /**
+     * Creates a spliterator over the vectors that does not allocate per
+     * element. Each split copies the components of the current element into
+     * a single reusable view, so the view is only valid until the next
+     * element is visited and writes to it are not reflected in this array.
+     *
+     * @param startInclusive the first index.
+     * @param endExclusive the last index.
+     * @return the spliterator.
+     * @since 26.10.17
+     */
+    public Spliterator<VecT> spliterator(final int startInclusive, final int endExclusive) {
+        if (endExclusive > this.length) {
+            throw new IllegalArgumentException("Invalid range!");
+        }
+
+        return ArraySpliterators.<VecT, MapT> views(
+                startInclusive, endExclusive,
+                () -> new MapT`'(Vectors.DEFAULT_FACTORY, new TYPE[VEC_SIZE], 0, 0),
+                (view, index) -> {
+                    final TYPE[] data = view.data();
+_each(`
+                    data[_idx(_C_)] = this._C_[index];')
+                });
+    }
+
+    public Spliterator<VecT> spliterator() {
+        return this.spliterator(0, this.length);
+    }
+
+    /**
+     * Streams a reusable view of each vector. This is the allocation free
+     * alternative to stream; elements must be consumed or copied before the
+     * stream advances.
+     *
+     * @param parallel if the stream should be parallel.
+     * @return the stream.
+     * @since 26.10.17
+     */
+    public Stream<VecT> viewStream(final boolean parallel) {
+        return StreamSupport.stream(this.spliterator(), parallel);
+    }
+
+    /**
+     * Streams a single component of every vector. Components are widened to
+     * double since there is no primitive float stream.
+     *
+     * @param component the component index.
+     * @return the stream.
+     * @throws IllegalArgumentException if the component does not exist.
+     * @since 26.10.17
+     */
+    public DoubleStream componentStream(final int component) {
+        switch (component) {
+_each(`            case Vectors._up(_C_):
+                return StreamSupport.doubleStream(ArraySpliterators.widening(this._C_, 0, this.length), false);
+')m4_dnl
+            default:
+                throw new IllegalArgumentException("Invalid component!");
+        }
+    }
+
+    private static TYPE[] ensureArray(final TYPE[] in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new TYPE[offset + neededSize];
+        } else {
+            return in;
+        }
+    }
+
+    private static ArrT ensureArray(final ArrT in, final int offset, final int neededSize) {
+        if (in == null || in.length < offset + neededSize) {
+            return new ArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+m4_ifelse(VEC_SIZE, 2, `
+    public TYPE[] cross(final TYPE[] out, final ArrT other) {
+        return cross(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Calculates the z component of the cross product of each pair of
+     * vectors.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the inputs.
+     * @param count the number of inputs to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static TYPE[] cross(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count);
+
+        _k(`arrayMultiply')(res, outOffset, in0.y, in0Offset, in1.x, in1Offset, count);
+        _k(`arrayMultiplySubtract')(res, outOffset, in0.x, in0Offset, in1.y, in1Offset, res, outOffset, count);
+
+        return res;
+    }
+', `
+    public ArrT cross(final ArrT out, final ArrT other) {
+        return cross(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Calculates a cross product on each element within the array of vectors.m4_ifelse(VEC_SIZE, 4, `
+     * The w component of each result is set to 1.')
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the inputs.
+     * @param count the number of inputs to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT cross(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        _k(`arrayMultiply')(res.x, outOffset, in0.z, in0Offset, in1.y, in1Offset, count);
+        _k(`arrayMultiply')(res.y, outOffset, in0.x, in0Offset, in1.z, in1Offset, count);
+        _k(`arrayMultiply')(res.z, outOffset, in0.y, in0Offset, in1.x, in1Offset, count);
+
+        _k(`arrayMultiplySubtract')(res.x, outOffset, in0.y, in0Offset, in1.z, in1Offset, res.x, outOffset, count);
+        _k(`arrayMultiplySubtract')(res.y, outOffset, in0.z, in0Offset, in1.x, in1Offset, res.y, outOffset, count);
+        _k(`arrayMultiplySubtract')(res.z, outOffset, in0.x, in0Offset, in1.y, in1Offset, res.z, outOffset, count);m4_ifelse(VEC_SIZE, 4, `
+        _k(`arraySet')(res.w, outOffset, _real(TYPE, 1.0), count);')
+
+        return res;
+    }
+
+    public Future<ArrT> crossAsync(final ArrT out, final ArrT other) {
+        return crossAsync(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of cross.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the inputs.
+     * @param count the number of inputs to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> crossAsync(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        X_TASKS.submit(() -> _k(`arrayMultiply')(res.x, outOffset, in0.z, in0Offset, in1.y, in1Offset, count));
+        Y_TASKS.submit(() -> _k(`arrayMultiply')(res.y, outOffset, in0.x, in0Offset, in1.z, in1Offset, count));
+        Z_TASKS.submit(() -> _k(`arrayMultiply')(res.z, outOffset, in0.y, in0Offset, in1.x, in1Offset, count));
+
+        // these tasks wont start until the previous XYZ tasks complete.
+        final Future<?> taskX = X_TASKS.submit(() -> _k(`arrayMultiplySubtract')(res.x, outOffset, in0.y, in0Offset, in1.z, in1Offset, res.x, outOffset, count));
+        final Future<?> taskY = Y_TASKS.submit(() -> _k(`arrayMultiplySubtract')(res.y, outOffset, in0.z, in0Offset, in1.x, in1Offset, res.y, outOffset, count));
+        final Future<?> taskZ = Z_TASKS.submit(() -> _k(`arrayMultiplySubtract')(res.z, outOffset, in0.x, in0Offset, in1.y, in1Offset, res.z, outOffset, count));m4_ifelse(VEC_SIZE, 4, `
+
+        // this task is independent
+        final Future<?> taskW = W_TASKS.submit(() -> _k(`arraySet')(res.w, outOffset, _real(TYPE, 1.0), count));
+
+        return new FutureT`'(res, taskX, taskY, taskZ, taskW);', `
+
+        return new FutureT`'(res, taskX, taskY, taskZ);')
+    }
+')m4_dnl
+
+    public TYPE[] dot(final TYPE[] out, final ArrT other) {
+        return dot(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Calculates the dot product of each pair of vectors.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the inputs.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static TYPE[] dot(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count);
+
+        _k(`arrayMultiply')(res, outOffset, in0.x, in0Offset, in1.x, in1Offset, count);
+_each(`m4_ifelse(_C_, `x', `', `        _k(`arrayMultiplyAdd')(res, outOffset, in0._C_, in0Offset, in1._C_, in1Offset, res, outOffset, count);
+')')m4_dnl
+
+        return res;
+    }
+
+    public TYPE[] length(final TYPE[] out) {
+        return length(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Calculates the length of each vector.
+     *
+     * @param out the array to store the vector length in.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the array to read the inputs from.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static TYPE[] length(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final TYPE[] res = length2(out, outOffset, in0, in0Offset, count);
+
+        _k(`arraySqrt')(res, outOffset, res, outOffset, count);
+
+        return res;
+    }
+
+    public TYPE[] length2(final TYPE[] out) {
+        return length2(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Calculates the squared length of each vector.
+     *
+     * @param out the array to store the squared lengths in.
+     * @param outOffset the offset to begin writing the outputs.
+     * @param in0 the array to read the inputs from.
+     * @param in0Offset the offset to begin reading the inputs.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static TYPE[] length2(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        return dot(out, outOffset, in0, in0Offset, in0, in0Offset, count);
+    }
+
+    public ArrT normalize(final ArrT out) {
+        return normalize(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Normalizes the vectors.
+     *
+     * @param out the array of vectors to write the results to.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT normalize(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        for (int i = 0; i < count; i++) {
+_each(`            final TYPE _C_ = in0._C_[i + in0Offset];
+')m4_dnl
+
+            final TYPE scale = m4_ifelse(TYPE, `float', `(float) ')(1.0 / sqrt(_each(`_sep(` + ')_C_ * _C_')));
+
+_each(`            res._C_[i + outOffset] = scale * _C_;
+')m4_dnl
+        }
+
+        return res;
+    }
+
+    public ArrT apply(final VectorArrays.UnaryOp<TYPE[]> op, final ArrT out) {
+        return apply(op, out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Applies an operation on each component array.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT apply(
+            final VectorArrays.UnaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+_each(`        op.apply(res._C_, outOffset, in0._C_, in0Offset, count);
+')m4_dnl
+
+        return res;
+    }
+
+    public Future<ArrT> applyAsync(final VectorArrays.UnaryOp<TYPE[]> op, final ArrT out) {
+        return applyAsync(op, out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of apply. Each component array is
+     * processed on its own task queue.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> applyAsync(
+            final VectorArrays.UnaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+_each(`        final Future<?> task`'_up(_C_) = _tasks(_C_).submit(() -> op.apply(res._C_, outOffset, in0._C_, in0Offset, count));
+')m4_dnl
+
+        return new FutureT`'(res, _each(`_sep(`, ')task`'_up(_C_)'));
+    }
+
+    public ArrT apply(final VectorArrays.BinaryOp<TYPE[]> op, final ArrT out, final ArrT other) {
+        return apply(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Applies an operation on each pair of component arrays.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT apply(
+            final VectorArrays.BinaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+_each(`        op.apply(res._C_, outOffset, in0._C_, in0Offset, in1._C_, in1Offset, count);
+')m4_dnl
+
+        return res;
+    }
+
+    public Future<ArrT> applyAsync(final VectorArrays.BinaryOp<TYPE[]> op, final ArrT out, final ArrT other) {
+        return applyAsync(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of apply. Each component array is
+     * processed on its own task queue.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> applyAsync(
+            final VectorArrays.BinaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+_each(`        final Future<?> task`'_up(_C_) = _tasks(_C_).submit(() -> op.apply(res._C_, outOffset, in0._C_, in0Offset, in1._C_, in1Offset, count));
+')m4_dnl
+
+        return new FutureT`'(res, _each(`_sep(`, ')task`'_up(_C_)'));
+    }
+
+    public ArrT apply(final VectorArrays.TernaryOp<TYPE[]> op, final ArrT out, final ArrT other0, final ArrT other1) {
+        return apply(op, out, 0, this, 0, other0, 0, other1, 0, this.length);
+    }
+
+    /**
+     * Applies an operation on each triple of component arrays.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param in2 the third input array of vectors.
+     * @param in2Offset the offset to begin reading the third input.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT apply(
+            final VectorArrays.TernaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final ArrT in2, final int in2Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+_each(`        op.apply(res._C_, outOffset, in0._C_, in0Offset, in1._C_, in1Offset, in2._C_, in2Offset, count);
+')m4_dnl
+
+        return res;
+    }
+
+    public Future<ArrT> applyAsync(final VectorArrays.TernaryOp<TYPE[]> op, final ArrT out, final ArrT other0, final ArrT other1) {
+        return applyAsync(op, out, 0, this, 0, other0, 0, other1, 0, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of apply. Each component array is
+     * processed on its own task queue.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param in2 the third input array of vectors.
+     * @param in2Offset the offset to begin reading the third input.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> applyAsync(
+            final VectorArrays.TernaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final ArrT in2, final int in2Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+_each(`        final Future<?> task`'_up(_C_) = _tasks(_C_).submit(() -> op.apply(res._C_, outOffset, in0._C_, in0Offset, in1._C_, in1Offset, in2._C_, in2Offset, count));
+')m4_dnl
+
+        return new FutureT`'(res, _each(`_sep(`, ')task`'_up(_C_)'));
+    }
+
+    public ArrT scale(final ArrT out, final GenT scale) {
+        return scale(out, 0, this, 0, scale, this.length);
+    }
+
+    /**
+     * Multiplies each vector by a constant vector.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param scale the vector to scale by.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT scale(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT scale,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final VecT scaleT = scale.`as'VecT`'();
+
+_each(`        _k(`arrayScale')(res._C_, outOffset, in0._C_, in0Offset, scaleT._C_`'(), count);
+')m4_dnl
+
+        return res;
+    }
+
+    public Future<ArrT> scaleAsync(final ArrT out, final GenT scale) {
+        return scaleAsync(out, 0, this, 0, scale, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of scale.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param scale the vector to scale by.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> scaleAsync(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT scale,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final VecT scaleT = scale.`as'VecT`'();
+_each(`        final TYPE _C_ = scaleT._C_`'();
+')m4_dnl
+
+_each(`        final Future<?> task`'_up(_C_) = _tasks(_C_).submit(() -> _k(`arrayScale')(res._C_, outOffset, in0._C_, in0Offset, _C_, count));
+')m4_dnl
+
+        return new FutureT`'(res, _each(`_sep(`, ')task`'_up(_C_)'));
+    }
+
+    public ArrT addConstant(final ArrT out, final GenT vec) {
+        return addConstant(out, 0, this, 0, vec, this.length);
+    }
+
+    /**
+     * Adds a constant vector to each vector.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param vec the vector to add.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT addConstant(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT vec,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final VecT vecT = vec.`as'VecT`'();
+
+_each(`        _k(`arrayAddConstant')(res._C_, outOffset, in0._C_, in0Offset, vecT._C_`'(), count);
+')m4_dnl
+
+        return res;
+    }
+
+    public Future<ArrT> addConstantAsync(final ArrT out, final GenT vec) {
+        return addConstantAsync(out, 0, this, 0, vec, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of addConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param vec the vector to add.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> addConstantAsync(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT vec,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final VecT vecT = vec.`as'VecT`'();
+_each(`        final TYPE _C_ = vecT._C_`'();
+')m4_dnl
+
+_each(`        final Future<?> task`'_up(_C_) = _tasks(_C_).submit(() -> _k(`arrayAddConstant')(res._C_, outOffset, in0._C_, in0Offset, _C_, count));
+')m4_dnl
+
+        return new FutureT`'(res, _each(`_sep(`, ')task`'_up(_C_)'));
+    }
+
+    public ArrT setConstant(final GenT vec) {
+        return setConstant(this, 0, vec, this.length);
+    }
+
+    /**
+     * Sets each vector to a constant vector.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param vec the vector to write.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static ArrT setConstant(
+            final ArrT out, final int outOffset,
+            final GenT vec,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final VecT vecT = vec.`as'VecT`'();
+
+_each(`        _k(`arraySet')(res._C_, outOffset, vecT._C_`'(), count);
+')m4_dnl
+
+        return res;
+    }
+
+    public Future<ArrT> setConstantAsync(final GenT vec) {
+        return setConstantAsync(this, 0, vec, this.length);
+    }
+
+    /**
+     * Multi-threaded implementation of setConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param vec the vector to write.
+     * @param count the number of elements to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static Future<ArrT> setConstantAsync(
+            final ArrT out, final int outOffset,
+            final GenT vec,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        final VecT vecT = vec.`as'VecT`'();
+_each(`        final TYPE _C_ = vecT._C_`'();
+')m4_dnl
+
+_each(`        final Future<?> task`'_up(_C_) = _tasks(_C_).submit(() -> _k(`arraySet')(res._C_, outOffset, _C_, count));
+')m4_dnl
+
+        return new FutureT`'(res, _each(`_sep(`, ')task`'_up(_C_)'));
+    }
+
+    public TYPE[] flatten(final TYPE[] out) {
+        return flatten(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Copies the vectors into a single array one component at a time. All x
+     * components are written first, followed by all y components and so on.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of vectors to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static TYPE[] flatten(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count * VEC_SIZE);
+        int offset = outOffset;
+
+_each(`        System.arraycopy(in0._C_, in0Offset, res, offset, count);
+        offset += count;
+')m4_dnl
+
+        return res;
+    }
+
+    public TYPE[] flattenInterlaced(final TYPE[] out) {
+        return flattenInterlaced(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Copies the vectors into a single array one vector at a time.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of vectors to process.
+     * @return the result array
+     * @since 26.10.17
+     */
+    public static TYPE[] flattenInterlaced(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count * VEC_SIZE);
+
+        VectorArrays._k(`arrayInterleave'VEC_SIZE)`'(res, outOffset, _each(`in0._C_, in0Offset, ')count);
+        return res;
+    }
+m4_ifelse(VEC_SIZE, 3, `
+    /**
+     * Copies the vectors into an interleaved array.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public GLVec3FInterleavedArray interleave(final GLVec3FInterleavedArray out) {
+        return GLVec3FInterleavedArray.interleave(out, 0, this, 0, this.length);
+    }
+')m4_dnl
+
+m4_ifelse(VEC_SIZE, 2, `    public Future<TYPE[]> crossParallel(final TYPE[] out, final ArrT other) {
+        return crossParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of cross. The range is split into chunks
+     * that are processed on the VectorArrays parallel pool.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<TYPE[]> crossParallel(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> cross(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+', `    public Future<ArrT> crossParallel(final ArrT out, final ArrT other) {
+        return crossParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of cross. The range is split into chunks
+     * that are processed on the VectorArrays parallel pool.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> crossParallel(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> cross(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+')m4_dnl
+    public Future<TYPE[]> dotParallel(final TYPE[] out, final ArrT other) {
+        return dotParallel(out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of dot.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<TYPE[]> dotParallel(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> dot(res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<TYPE[]> lengthParallel(final TYPE[] out) {
+        return lengthParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of length.
+     *
+     * @param out the output array.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<TYPE[]> lengthParallel(
+            final TYPE[] out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final TYPE[] res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> length(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<ArrT> normalizeParallel(final ArrT out) {
+        return normalizeParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of normalize.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> normalizeParallel(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> normalize(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<ArrT> applyParallel(final VectorArrays.UnaryOp<TYPE[]> op, final ArrT out) {
+        return applyParallel(op, out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> applyParallel(
+            final VectorArrays.UnaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public Future<ArrT> applyParallel(final VectorArrays.BinaryOp<TYPE[]> op, final ArrT out, final ArrT other) {
+        return applyParallel(op, out, 0, this, 0, other, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> applyParallel(
+            final VectorArrays.BinaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, n));
+    }
+
+    public Future<ArrT> applyParallel(final VectorArrays.TernaryOp<TYPE[]> op, final ArrT out, final ArrT other0, final ArrT other1) {
+        return applyParallel(op, out, 0, this, 0, other0, 0, other1, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of apply.
+     *
+     * @param op the operation.
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the first input array of vectors.
+     * @param in0Offset the offset to begin reading the first input.
+     * @param in1 the second input array of vectors.
+     * @param in1Offset the offset to begin reading the second input.
+     * @param in2 the third input array of vectors.
+     * @param in2Offset the offset to begin reading the third input.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> applyParallel(
+            final VectorArrays.TernaryOp<TYPE[]> op,
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final ArrT in1, final int in1Offset,
+            final ArrT in2, final int in2Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> apply(op, res, outOffset + offset, in0, in0Offset + offset, in1, in1Offset + offset, in2, in2Offset + offset, n));
+    }
+
+    public Future<ArrT> scaleParallel(final ArrT out, final GenT scale) {
+        return scaleParallel(out, 0, this, 0, scale, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of scale.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param scale the vector to scale by.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> scaleParallel(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT scale,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final VecT scaleT = scale.`as'VecT`'();
+_each(`        final TYPE _C_ = scaleT._C_`'();
+')m4_dnl
+
+        return parallelFor(count, res, (offset, n) -> {
+_each(`            _k(`arrayScale')(res._C_, outOffset + offset, in0._C_, in0Offset + offset, _C_, n);
+')m4_dnl
+        });
+    }
+
+    public Future<ArrT> addConstantParallel(final ArrT out, final GenT vec) {
+        return addConstantParallel(out, 0, this, 0, vec, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of addConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param in0 the input array of vectors.
+     * @param in0Offset the offset to begin reading.
+     * @param vec the vector to add.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> addConstantParallel(
+            final ArrT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final GenT vec,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final VecT vecT = vec.`as'VecT`'();
+_each(`        final TYPE _C_ = vecT._C_`'();
+')m4_dnl
+
+        return parallelFor(count, res, (offset, n) -> {
+_each(`            _k(`arrayAddConstant')(res._C_, outOffset + offset, in0._C_, in0Offset + offset, _C_, n);
+')m4_dnl
+        });
+    }
+
+    public Future<ArrT> setConstantParallel(final GenT vec) {
+        return setConstantParallel(this, 0, vec, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of setConstant.
+     *
+     * @param out the output array of vectors.
+     * @param outOffset the offset to begin writing.
+     * @param vec the vector to write.
+     * @param count the number of elements to process.
+     * @return the future result array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> setConstantParallel(
+            final ArrT out, final int outOffset,
+            final GenT vec,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+        // copy the components on the calling thread; the caller may recycle
+        // the vector while the tasks run
+        final VecT vecT = vec.`as'VecT`'();
+_each(`        final TYPE _C_ = vecT._C_`'();
+')m4_dnl
+
+        return parallelFor(count, res, (offset, n) -> {
+_each(`            _k(`arraySet')(res._C_, outOffset + offset, _C_, n);
+')m4_dnl
+        });
+    }
+
+    private static final class FutureT implements Future<ArrT> {
+
+        private final Future<?>[] tasks;
+        private final ArrT out;
+
+        FutureT`'(final ArrT out, final Future<?>... tasks) {
+            this.out = Objects.requireNonNull(out);
+            this.tasks = tasks;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = false;
+
+            for (Future<?> task : this.tasks) {
+                cancelled |= task.cancel(mayInterruptIfRunning);
+            }
+
+            return cancelled;
+        }
+
+        @Override
+        public ArrT get() throws InterruptedException, ExecutionException {
+            for (Future<?> task : this.tasks) {
+                task.get();
+            }
+
+            return this.out;
+        }
+
+        @Override
+        public ArrT get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            for (Future<?> task : this.tasks) {
+                task.get(timeout, unit);
+            }
+
+            return this.out;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            boolean result = true;
+
+            for (Future<?> task : this.tasks) {
+                result &= task.isCancelled();
+            }
+
+            return result;
+        }
+
+        @Override
+        public boolean isDone() {
+            boolean result = true;
+
+            for (Future<?> task : this.tasks) {
+                result &= task.isDone();
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+ Copyright (c) 2015, Zachary Michaels
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met:
+
+ * Redistributions of source code must retain the above copyright notice, this
+   list of conditions and the following disclaimer.
+ * Redistributions in binary form must reproduce the above copyright notice,
+   this list of conditions and the following disclaimer in the documentation
+   and/or other materials provided with the distribution.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+POSSIBILITY OF SUCH DAMAGE.
+m4_define(`VecT', _fdef(`GLVec',VEC_SIZE,TYPE))
+m4_define(`GenT', `GLVec'VEC_SIZE)
+m4_define(`ArrT', VecT`Array')
+m4_define(`MapT', _fdef(`MappedVec',VEC_SIZE,TYPE))
+m4_define(`_idx', `m4_ifelse($1, `x', 0, $1, `y', 1, $1, `z', 2, 3)')
+m4_define(`FutureT', `Future'ArrT)
+m4_define(`_k', `_fdef($1,,TYPE)')
+m4_define(`_tasks', `m4_ifelse($1, `x', `X_TASKS', $1, `y', `Y_TASKS', $1, `z', `Z_TASKS', `W_TASKS')')
+m4_define(`_up', `m4_translit($1, `xyzw', `XYZW')')
+m4_define(`_sep', `m4_ifelse(_C_, `x', `', `$1')')
+m4_define(`_each', `m4_pushdef(`_C_', `x')$1`'m4_define(`_C_', `y')$1`'m4_ifelse(VEC_SIZE, 2, `', `m4_define(`_C_', `z')$1`'m4_ifelse(VEC_SIZE, 3, `', `m4_define(`_C_', `w')$1')')`'m4_popdef(`_C_')')
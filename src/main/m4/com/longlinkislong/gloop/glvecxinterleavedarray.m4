@@ -0,0 +1,304 @@
+/* 
+ * Copyright (c) 2016, Zachary Michaels
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+m4_divert(-1)
+m4_include(`m4/m4utils/fdef.m4')
+m4_include(`m4/m4utils/types.m4')
+m4_include(`m4/com/longlinkislong/gloop/glvecxinterleavedarray_def.m4')
+m4_divert(0)m4_dnl
+package com.longlinkislong.gloop;
+
+import static com.longlinkislong.gloop.VectorArrays.parallelFor;
+m4_ifelse(TYPE, `double', `import java.util.Arrays;
+')m4_dnl
+import java.util.Spliterator;
+import java.util.concurrent.Future;
+m4_ifelse(TYPE, `double', `import java.util.stream.DoubleStream;
+')m4_dnl
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ArrT is a packed array of VEC_SIZE component m4_ifelse(TYPE, `float', `single', `double') precision vectors.
+ * The components of each vector are stored next to each other, which is the
+ * layout vertex buffers expect. SoAT stores each component in its own array
+ * instead, which suits the element-wise kernels; interleave and deinterleave
+ * convert between the two in cache sized blocks.
+ *
+ * @author zmichaels
+ * @since 26.10.17
+ */
+public final class ArrT {
+
+    /**
+     * The number of elements between the start of two consecutive vectors.
+     *
+     * @since 26.10.17
+     */
+    public static final int STRIDE = VEC_SIZE;
+
+    /**
+     * The number of vectors held by the array.
+     *
+     * @since 26.10.17
+     */
+    public final int length;
+
+    /**
+     * The interleaved vector data.
+     *
+     * @since 26.10.17
+     */
+    public final TYPE[] data;
+
+    /**
+     * Constructs a new ArrT with the specified number of vectors. All vectors
+     * are initialized to zero.
+     *
+     * @param size the number of vectors the ArrT will hold.
+     * @since 26.10.17
+     */
+    public ArrT`'(final int size) {
+        this.length = size;
+        this.data = new TYPE[size * STRIDE];
+    }
+
+    /**
+     * Retrieves a copy of a vector.
+     *
+     * @param index the index of the vector.
+     * @return the VecT.
+     * @since 26.10.17
+     */
+    public VecT get(final int index) {
+        return VecT.create(this.data, index * STRIDE, STRIDE);
+    }
+
+    /**
+     * Writes a vector into the internal array.
+     *
+     * @param index the index of the vector.
+     * @param vec the vector to write.
+     * @return self reference.
+     * @since 26.10.17
+     */
+    public ArrT set(final int index, final GenT vec) {
+        final VecT vecT = vec.`as'VecT`'();
+        final int base = index * STRIDE;
+_each(`
+        this.data[base`'_sep(` + '_idx(_C_))] = vecT._C_`'();')
+
+        return this;
+    }
+
+    public Stream<VecT> stream() {
+        return this.stream(0, this.length);
+    }
+
+    public Stream<VecT> stream(final int startInclusive, final int endExclusive) {
+        return IntStream.range(startInclusive, endExclusive).mapToObj(this::get);
+    }
+
+    /**
+     * Creates a spliterator over the vectors that does not allocate per
+     * element. Each split remaps a single view over the internal array, so
+     * writes to the view are written to this array. The view is only valid
+     * until the next element is visited.
+     *
+     * @param startInclusive the first index.
+     * @param endExclusive the last index.
+     * @return the spliterator.
+     * @since 26.10.17
+     */
+    public Spliterator<VecT> spliterator(final int startInclusive, final int endExclusive) {
+        if (endExclusive > this.length) {
+            throw new IllegalArgumentException("Invalid range!");
+        }
+
+        return ArraySpliterators.<VecT, MapT> views(
+                startInclusive, endExclusive,
+                () -> new MapT`'(Vectors.DEFAULT_FACTORY, this.data, 0, this.length * STRIDE),
+                (view, index) -> view.remap(index * STRIDE));
+    }
+
+    public Spliterator<VecT> spliterator() {
+        return this.spliterator(0, this.length);
+    }
+
+    /**
+     * Streams a reusable view of each vector. This is the allocation free
+     * alternative to stream; elements must be consumed or copied before the
+     * stream advances.
+     *
+     * @param parallel if the stream should be parallel.
+     * @return the stream.
+     * @since 26.10.17
+     */
+    public Stream<VecT> viewStream(final boolean parallel) {
+        return StreamSupport.stream(this.spliterator(), parallel);
+    }
+m4_ifelse(TYPE, `double', `
+    /**
+     * Streams the interleaved components of every vector.
+     *
+     * @return the stream.
+     * @since 26.10.17
+     */
+    public DoubleStream flatStream() {
+        return Arrays.stream(this.data, 0, this.length * STRIDE);
+    }
+')m4_dnl
+
+    private static ArrT ensureArray(
+            final ArrT in,
+            final int offset,
+            final int neededSize) {
+
+        if (in == null || in.length < offset + neededSize) {
+            return new ArrT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    private static SoAT ensureSoA(
+            final SoAT in,
+            final int offset,
+            final int neededSize) {
+
+        if (in == null || in.length < offset + neededSize) {
+            return new SoAT`'(offset + neededSize);
+        } else {
+            return in;
+        }
+    }
+
+    /**
+     * Converts a SoAT into an ArrT.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @param outOffset the index of the first vector to write.
+     * @param in0 the vectors to interleave.
+     * @param in0Offset the index of the first vector to read.
+     * @param count the number of vectors to convert.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static ArrT interleave(
+            final ArrT out, final int outOffset,
+            final SoAT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        VectorArrays._k(`arrayInterleave'VEC_SIZE)`'(
+                res.data, outOffset * STRIDE,
+_each(`                in0._C_, in0Offset,
+')m4_dnl
+                count);
+
+        return res;
+    }
+
+    /**
+     * Data-parallel implementation of interleave.
+     *
+     * @param out the output array.
+     * @param outOffset the index of the first vector to write.
+     * @param in0 the vectors to interleave.
+     * @param in0Offset the index of the first vector to read.
+     * @param count the number of vectors to convert.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<ArrT> interleaveParallel(
+            final ArrT out, final int outOffset,
+            final SoAT in0, final int in0Offset,
+            final int count) {
+
+        final ArrT res = ensureArray(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> interleave(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+
+    public SoAT deinterleave(final SoAT out) {
+        return deinterleave(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Converts an ArrT into a SoAT.
+     *
+     * @param out the output array. A new array is allocated if it is null or
+     * too small.
+     * @param outOffset the index of the first vector to write.
+     * @param in0 the vectors to deinterleave.
+     * @param in0Offset the index of the first vector to read.
+     * @param count the number of vectors to convert.
+     * @return the output array.
+     * @since 26.10.17
+     */
+    public static SoAT deinterleave(
+            final SoAT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final SoAT res = ensureSoA(out, outOffset, count);
+
+        VectorArrays._k(`arrayDeinterleave'VEC_SIZE)`'(
+_each(`                res._C_, outOffset,
+')m4_dnl
+                in0.data, in0Offset * STRIDE,
+                count);
+
+        return res;
+    }
+
+    public Future<SoAT> deinterleaveParallel(final SoAT out) {
+        return deinterleaveParallel(out, 0, this, 0, this.length);
+    }
+
+    /**
+     * Data-parallel implementation of deinterleave.
+     *
+     * @param out the output array.
+     * @param outOffset the index of the first vector to write.
+     * @param in0 the vectors to deinterleave.
+     * @param in0Offset the index of the first vector to read.
+     * @param count the number of vectors to convert.
+     * @return the future output array.
+     * @since 26.10.17
+     */
+    public static Future<SoAT> deinterleaveParallel(
+            final SoAT out, final int outOffset,
+            final ArrT in0, final int in0Offset,
+            final int count) {
+
+        final SoAT res = ensureSoA(out, outOffset, count);
+
+        return parallelFor(count, res, (offset, n) -> deinterleave(res, outOffset + offset, in0, in0Offset + offset, n));
+    }
+}
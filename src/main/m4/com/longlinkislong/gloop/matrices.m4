@@ -52,6 +52,9 @@ public final class Matrices {
             case "cyclical":                
                 DEFAULT_FACTORY = new CyclicalMatrixFactory(cacheSize);
                 break;
+            case "shared":
+                DEFAULT_FACTORY = SharedPoolFactory.getInstance();
+                break;
             default:
             case "smart":
                 DEFAULT_FACTORY = SmartFactory.getInstance();
@@ -113,6 +116,7 @@ foreach(`type', `m4_dnl
     _inverse2(type)
     _inverse3(type)
     _inverse4(type)
+    _affine4(type)
     _matmultN(type)
     _scaleN(type)
     _transposeN(type)
@@ -100,7 +100,8 @@ in0[in0Offset + _index(k,j, $1)] * in1[in1Offset + _index(i, k, $1)] + ')0;
 m4_define(`_matmultN', `m4_dnl
 /**
      * Multiplies two NxN $1 matrices together and stores the results inside
-     * another NxN $1 matrix.
+     * another NxN $1 matrix. The product is cache-blocked and large matrices
+     * are split across the parallel pool. Out may alias either input.
      * @param out the output matrix array
      * @param outOffset hte offset to the output matrix
      * @param in0 the first input matrix array
@@ -116,14 +117,36 @@ public static void _fdef(`multiplyMat', `N', $1) (
         final $1[] in1, final int in1Offset,
         final int size) {
 
-        for(int i = 0; i < size; i++) {
-            for(int j = 0; j < size; j++) {
-                out[outOffset + (j*size+i)] = 0;
-                for(int k = 0; k < size; k++) {
-                    out[outOffset + (j*size+i)] += in0[in0Offset + (j*size+k)] * in1[in1Offset + (k*size+i)];
-                }
-            }
-        }
+        MatrixMultiply._fdef(`multiply', `', $1) (
+            out, outOffset,
+            in0, in0Offset,
+            in1, in1Offset,
+            size);
+    }
+
+    /**
+     * Multiplies an NxN $1 matrix by the transpose of another NxN $1 matrix
+     * without forming the transpose.
+     * @param out the output matrix array
+     * @param outOffset the offset to the output matrix
+     * @param in0 the first input matrix array
+     * @param in0Offset the offset to the first matrix
+     * @param in1 the second input matrix array
+     * @param in1Offset the offset to the second matrix
+     * @param size the size of the matrix
+     * @since 26.10.17
+     */
+    public static void _fdef(`multiplyMatTransposed', `N', $1) (
+        final $1[] out, final int outOffset,
+        final $1[] in0, final int in0Offset,
+        final $1[] in1, final int in1Offset,
+        final int size) {
+
+        MatrixMultiply._fdef(`multiplyTransposed', `', $1) (
+            out, outOffset,
+            in0, in0Offset,
+            in1, in1Offset,
+            size);
     }
 ')
 
@@ -661,9 +684,26 @@ m4_define(`_inverse4', `m4_dnl
         final $1[] out, final int outOffset,
         final $1[] in0, final int in0Offset) {
 
-        final $1[] tmp = new $1[12];
-        final $1[] src = new $1[16];
-        
+        _fdef(`inverse', 4, $1) (out, outOffset, in0, in0Offset, new $1[12], new $1[16]);
+    }
+
+    /**
+     * Calculates the inverse of a 4x4 $1 matrix using Cramers rule. The
+     * scratch arrays allow batched callers to invert many matrices without
+     * allocating per matrix.
+     * @param out the output matrix array
+     * @param outOffset the offset to the output matrix
+     * @param in0 the input matrix array
+     * @param in0Offset the offset to the input matrix
+     * @param tmp scratch space of at least 12 elements
+     * @param src scratch space of at least 16 elements
+     * @since 26.10.17
+     */
+    public static void _fdef(`inverse', 4, $1) (
+        final $1[] out, final int outOffset,
+        final $1[] in0, final int in0Offset,
+        final $1[] tmp, final $1[] src) {
+
         _fdef(`transpose', 4, $1) (src, 0, in0, in0Offset);
 
         // calculates pairs for first 8 elements
@@ -742,6 +782,190 @@ m4_define(`_inverse4', `m4_dnl
     }
 ')
 
+m4_define(`_affine4', `m4_dnl
+/**
+     * Checks if a 4x4 $1 matrix is affine. Affine matrices have 0, 0, 0, 1
+     * in the elements at offsets 3, 7, 11 and 15, which is where the
+     * translation and scale builders leave them.
+     * @param in0 the input matrix array
+     * @param in0Offset the offset to the input matrix
+     * @return true if the matrix is affine
+     * @since 26.10.17
+     */
+    public static boolean _fdef(`isAffine', 4, $1) (
+        final $1[] in0, final int in0Offset) {
+
+        return in0[in0Offset + 3] == 0
+                && in0[in0Offset + 7] == 0
+                && in0[in0Offset + 11] == 0
+                && in0[in0Offset + 15] == 1;
+    }
+
+    /**
+     * Multiplies two affine 4x4 $1 matrices. This produces the same result as
+     * multiplyMat4 with 36 multiplications instead of 64. Out may alias either
+     * input. The result is undefined if either input is not affine.
+     * @param out the output matrix array
+     * @param outOffset the offset to the output matrix
+     * @param in0 the first input matrix array
+     * @param in0Offset the offset to the first input matrix
+     * @param in1 the second input matrix array
+     * @param in1Offset the offset to the second input matrix
+     * @since 26.10.17
+     */
+    public static void _fdef(`multiplyAffine', 4, $1) (
+        final $1[] out, final int outOffset,
+        final $1[] in0, final int in0Offset,
+        final $1[] in1, final int in1Offset) {
+
+        final $1 a00 = in0[in0Offset + 0];
+        final $1 a01 = in0[in0Offset + 1];
+        final $1 a02 = in0[in0Offset + 2];
+        final $1 a10 = in0[in0Offset + 4];
+        final $1 a11 = in0[in0Offset + 5];
+        final $1 a12 = in0[in0Offset + 6];
+        final $1 a20 = in0[in0Offset + 8];
+        final $1 a21 = in0[in0Offset + 9];
+        final $1 a22 = in0[in0Offset + 10];
+        final $1 a30 = in0[in0Offset + 12];
+        final $1 a31 = in0[in0Offset + 13];
+        final $1 a32 = in0[in0Offset + 14];
+
+        final $1 b00 = in1[in1Offset + 0];
+        final $1 b01 = in1[in1Offset + 1];
+        final $1 b02 = in1[in1Offset + 2];
+        final $1 b10 = in1[in1Offset + 4];
+        final $1 b11 = in1[in1Offset + 5];
+        final $1 b12 = in1[in1Offset + 6];
+        final $1 b20 = in1[in1Offset + 8];
+        final $1 b21 = in1[in1Offset + 9];
+        final $1 b22 = in1[in1Offset + 10];
+        final $1 b30 = in1[in1Offset + 12];
+        final $1 b31 = in1[in1Offset + 13];
+        final $1 b32 = in1[in1Offset + 14];
+
+        out[outOffset + 0] = a00 * b00 + a01 * b10 + a02 * b20;
+        out[outOffset + 1] = a00 * b01 + a01 * b11 + a02 * b21;
+        out[outOffset + 2] = a00 * b02 + a01 * b12 + a02 * b22;
+        out[outOffset + 3] = 0;
+        out[outOffset + 4] = a10 * b00 + a11 * b10 + a12 * b20;
+        out[outOffset + 5] = a10 * b01 + a11 * b11 + a12 * b21;
+        out[outOffset + 6] = a10 * b02 + a11 * b12 + a12 * b22;
+        out[outOffset + 7] = 0;
+        out[outOffset + 8] = a20 * b00 + a21 * b10 + a22 * b20;
+        out[outOffset + 9] = a20 * b01 + a21 * b11 + a22 * b21;
+        out[outOffset + 10] = a20 * b02 + a21 * b12 + a22 * b22;
+        out[outOffset + 11] = 0;
+        out[outOffset + 12] = a30 * b00 + a31 * b10 + a32 * b20 + b30;
+        out[outOffset + 13] = a30 * b01 + a31 * b11 + a32 * b21 + b31;
+        out[outOffset + 14] = a30 * b02 + a31 * b12 + a32 * b22 + b32;
+        out[outOffset + 15] = 1;
+    }
+
+    /**
+     * Calculates the inverse of an affine 4x4 $1 matrix by inverting the
+     * upper 3x3 block and transforming the translation by it. Out may alias
+     * the input. The result is undefined if the input is not affine.
+     * @param out the output matrix array
+     * @param outOffset the offset to the output matrix
+     * @param in0 the input matrix array
+     * @param in0Offset the offset to the input matrix
+     * @since 26.10.17
+     */
+    public static void _fdef(`inverseAffine', 4, $1) (
+        final $1[] out, final int outOffset,
+        final $1[] in0, final int in0Offset) {
+
+        final $1 m00 = in0[in0Offset + 0];
+        final $1 m01 = in0[in0Offset + 1];
+        final $1 m02 = in0[in0Offset + 2];
+        final $1 m10 = in0[in0Offset + 4];
+        final $1 m11 = in0[in0Offset + 5];
+        final $1 m12 = in0[in0Offset + 6];
+        final $1 m20 = in0[in0Offset + 8];
+        final $1 m21 = in0[in0Offset + 9];
+        final $1 m22 = in0[in0Offset + 10];
+        final $1 m30 = in0[in0Offset + 12];
+        final $1 m31 = in0[in0Offset + 13];
+        final $1 m32 = in0[in0Offset + 14];
+
+        final $1 c00 = m11 * m22 - m12 * m21;
+        final $1 c01 = m02 * m21 - m01 * m22;
+        final $1 c02 = m01 * m12 - m02 * m11;
+        final $1 c10 = m12 * m20 - m10 * m22;
+        final $1 c11 = m00 * m22 - m02 * m20;
+        final $1 c12 = m02 * m10 - m00 * m12;
+        final $1 c20 = m10 * m21 - m11 * m20;
+        final $1 c21 = m01 * m20 - m00 * m21;
+        final $1 c22 = m00 * m11 - m01 * m10;
+
+        final $1 invDet = 1 / (m00 * c00 + m01 * c10 + m02 * c20);
+
+        out[outOffset + 0] = c00 * invDet;
+        out[outOffset + 1] = c01 * invDet;
+        out[outOffset + 2] = c02 * invDet;
+        out[outOffset + 3] = 0;
+        out[outOffset + 4] = c10 * invDet;
+        out[outOffset + 5] = c11 * invDet;
+        out[outOffset + 6] = c12 * invDet;
+        out[outOffset + 7] = 0;
+        out[outOffset + 8] = c20 * invDet;
+        out[outOffset + 9] = c21 * invDet;
+        out[outOffset + 10] = c22 * invDet;
+        out[outOffset + 11] = 0;
+        out[outOffset + 12] = -(m30 * out[outOffset + 0] + m31 * out[outOffset + 4] + m32 * out[outOffset + 8]);
+        out[outOffset + 13] = -(m30 * out[outOffset + 1] + m31 * out[outOffset + 5] + m32 * out[outOffset + 9]);
+        out[outOffset + 14] = -(m30 * out[outOffset + 2] + m31 * out[outOffset + 6] + m32 * out[outOffset + 10]);
+        out[outOffset + 15] = 1;
+    }
+
+    /**
+     * Calculates the inverse of a rigid 4x4 $1 matrix, an affine matrix whose
+     * upper 3x3 block is a rotation. The inverse is the transposed rotation
+     * with the translation rotated back and negated. Out may alias the input.
+     * The result is undefined if the input is not rigid.
+     * @param out the output matrix array
+     * @param outOffset the offset to the output matrix
+     * @param in0 the input matrix array
+     * @param in0Offset the offset to the input matrix
+     * @since 26.10.17
+     */
+    public static void _fdef(`inverseRigid', 4, $1) (
+        final $1[] out, final int outOffset,
+        final $1[] in0, final int in0Offset) {
+
+        final $1 m00 = in0[in0Offset + 0];
+        final $1 m01 = in0[in0Offset + 1];
+        final $1 m02 = in0[in0Offset + 2];
+        final $1 m10 = in0[in0Offset + 4];
+        final $1 m11 = in0[in0Offset + 5];
+        final $1 m12 = in0[in0Offset + 6];
+        final $1 m20 = in0[in0Offset + 8];
+        final $1 m21 = in0[in0Offset + 9];
+        final $1 m22 = in0[in0Offset + 10];
+        final $1 m30 = in0[in0Offset + 12];
+        final $1 m31 = in0[in0Offset + 13];
+        final $1 m32 = in0[in0Offset + 14];
+
+        out[outOffset + 0] = m00;
+        out[outOffset + 1] = m10;
+        out[outOffset + 2] = m20;
+        out[outOffset + 3] = 0;
+        out[outOffset + 4] = m01;
+        out[outOffset + 5] = m11;
+        out[outOffset + 6] = m21;
+        out[outOffset + 7] = 0;
+        out[outOffset + 8] = m02;
+        out[outOffset + 9] = m12;
+        out[outOffset + 10] = m22;
+        out[outOffset + 11] = 0;
+        out[outOffset + 12] = -(m30 * m00 + m31 * m01 + m32 * m02);
+        out[outOffset + 13] = -(m30 * m10 + m31 * m11 + m32 * m12);
+        out[outOffset + 14] = -(m30 * m20 + m31 * m21 + m32 * m22);
+        out[outOffset + 15] = 1;
+    }
+')
+
 m4_define(`_perspective', `m4_dnl
 /**
      * Calculates a perspective 4x4 $1 matrix with the given fov, aspect, and 
@@ -53,6 +53,9 @@ public final class Vectors {
             case "cyclical":                
                 DEFAULT_FACTORY = new CyclicalVectorFactory(cacheSize);
                 break;
+            case "shared":
+                DEFAULT_FACTORY = SharedPoolFactory.getInstance();
+                break;
             default:
             case "smart":
                 DEFAULT_FACTORY = SmartFactory.getInstance();
@@ -0,0 +1,128 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class AffineMatrixTest {
+
+    private static final int COUNT = 100;
+    private final Random random = new Random(0x5EED);
+
+    private GLMat4D rigid() {
+        return GLMat4D.translation(this.random.nextDouble() * 10.0, -this.random.nextDouble(), this.random.nextDouble())
+                .multiply(GLMat4D.rotateY(this.random.nextDouble() * 6.0))
+                .multiply(GLMat4D.rotateX(this.random.nextDouble() * 6.0))
+                .asStaticMat();
+    }
+
+    private GLMat4D affine() {
+        return this.rigid()
+                .multiply(GLMat4D.scale(0.5 + this.random.nextDouble()))
+                .multiply(GLMat4D.shear(0.25, 0.0, 0.0, 0.5, 0.0, 0.0))
+                .asStaticMat();
+    }
+
+    private static double[] values(final GLMat4D m) {
+        return Arrays.copyOfRange(m.data(), m.offset(), m.offset() + 16);
+    }
+
+    private static float[] values(final GLMat4F m) {
+        return Arrays.copyOfRange(m.data(), m.offset(), m.offset() + 16);
+    }
+
+    private static void assertMatEquals(final double[] expected, final double[] actual, final double delta) {
+        Assert.assertArrayEquals(expected, actual, delta);
+    }
+
+    @Test
+    public void testInverse() {
+        final double[] expected = new double[16];
+        final double[] actual = new double[16];
+
+        for (int i = 0; i < COUNT; i++) {
+            final GLMat4D m = this.affine();
+
+            Assert.assertTrue(m.isAffine());
+
+            Matrices.inverse4D(expected, 0, m.data(), m.offset());
+            Matrices.inverseAffine4D(actual, 0, m.data(), m.offset());
+            assertMatEquals(expected, actual, 1E-9);
+            assertMatEquals(expected, values(m.inverse()), 1E-9);
+            assertMatEquals(values(GLMat4D.create()), values(m.multiply(m.inverseAffine())), 1E-9);
+
+            final GLMat4D r = this.rigid();
+
+            Matrices.inverse4D(expected, 0, r.data(), r.offset());
+            assertMatEquals(expected, values(r.inverseRigid()), 1E-9);
+        }
+    }
+
+    @Test
+    public void testMultiply() {
+        final double[] expected = new double[16];
+
+        for (int i = 0; i < COUNT; i++) {
+            final GLMat4D a = this.affine();
+            final GLMat4D b = this.affine();
+
+            Matrices.multiplyMat4D(expected, 0, a.data(), a.offset(), b.data(), b.offset());
+            assertMatEquals(expected, values(a.multiplyAffine(b)), 0.0);
+            assertMatEquals(expected, values(a.multiply(b)), 0.0);
+
+            // the affine kernels may write over their inputs
+            final GLMat4D out = a.copyTo(Matrices.DEFAULT_FACTORY);
+
+            Matrices.multiplyAffine4D(out.data(), out.offset(), out.data(), out.offset(), b.data(), b.offset());
+            assertMatEquals(expected, values(out), 0.0);
+        }
+    }
+
+    @Test
+    public void testFloat() {
+        final GLMat4F m = this.affine().asGLMatF().asGLMat4F();
+        final GLMat4F out = GLMat4F.create();
+
+        m.inverseAffine(out);
+        Assert.assertArrayEquals(values(m.inverse()), values(out), 1E-5f);
+
+        m.multiplyAffine(out, out);
+        Assert.assertArrayEquals(values(GLMat4F.create()), values(out), 1E-5f);
+    }
+
+    @Test
+    public void testBuilder() {
+        final GLMat4Builder builder = new GLMat4Builder();
+        final double[] expected = new double[16];
+
+        builder.setTranslation(1.0, 2.0, 3.0)
+                .appendRotateY(0.5)
+                .appendScale(2.0, 2.0, 2.0);
+
+        Matrices.inverse4D(expected, 0, values(builder.asGLMat4D()), 0);
+        assertMatEquals(expected, values(builder.inverse().asGLMat4D()), 1E-12);
+    }
+
+    @Test
+    public void testProjection() {
+        final GLMat4D projection = GLMat4D.perspective(60.0, 1.5, 0.1, 100.0);
+
+        Assert.assertFalse(projection.isAffine());
+        assertMatEquals(values(GLMat4D.create()), values(projection.multiply(projection.inverse())), 1E-9);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotAffine() {
+        GLMat4D.perspective(60.0, 1.5, 0.1, 100.0).inverseAffine();
+    }
+}
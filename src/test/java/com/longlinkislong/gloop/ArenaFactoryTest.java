@@ -0,0 +1,114 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class ArenaFactoryTest {
+
+    @Test
+    public void testScopeReleases() {
+        final ArenaFactory arena = new ArenaFactory();
+        final GLVec3D keep = arena.nextGLVec3D().set(1.0, 2.0, 3.0);
+
+        try (ArenaFactory.Scope scope = arena.mark()) {
+            Assert.assertSame(arena, scope.getFactory());
+
+            final GLVec3D tmp = keep.plus(keep);
+
+            Assert.assertEquals(GLVec3D.create(2.0, 4.0, 6.0), tmp);
+            Assert.assertEquals(6, arena.usedD());
+        }
+
+        Assert.assertEquals(3, arena.usedD());
+        Assert.assertEquals(GLVec3D.create(1.0, 2.0, 3.0), keep);
+    }
+
+    @Test
+    public void testNoAliasing() {
+        final ArenaFactory arena = new ArenaFactory(1, true);
+        final GLVec4F first = arena.nextGLVec4F().set(1f, 2f, 3f, 4f);
+        GLVec4F last = first;
+
+        // far more vectors than fit in the initial 1KB
+        for (int i = 0; i < 10000; i++) {
+            last = last.plus(first);
+        }
+
+        Assert.assertEquals(GLVec4F.create(1f, 2f, 3f, 4f), first);
+        Assert.assertEquals(GLVec4F.create(10001f, 20002f, 30003f, 40004f), last);
+    }
+
+    @Test
+    public void testNestedScopes() {
+        final ArenaFactory arena = new ArenaFactory();
+
+        try (ArenaFactory.Scope outer = arena.mark()) {
+            final GLMat4F m = arena.nextGLMat4F().identity();
+
+            try (ArenaFactory.Scope inner = arena.mark()) {
+                Assert.assertNotSame(outer, inner);
+                m.multiply(m).multiply(m);
+                arena.nextGLQuaternionF();
+            }
+
+            Assert.assertEquals(16, arena.usedF());
+        }
+
+        Assert.assertEquals(0, arena.usedF());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFixedOverflow() {
+        final ArenaFactory arena = new ArenaFactory(1, false);
+
+        for (int i = 0; i < 1000; i++) {
+            arena.nextGLMat4D();
+        }
+    }
+
+    @Test
+    public void testStaleScopeClose() {
+        final ArenaFactory arena = new ArenaFactory();
+        final ArenaFactory.Scope stale = arena.mark();
+
+        stale.close();
+
+        try (ArenaFactory.Scope scope = arena.mark()) {
+            Assert.assertNotSame(stale, scope);
+
+            arena.nextGLVec4F();
+            stale.close();
+
+            Assert.assertEquals(4, arena.usedF());
+        }
+
+        Assert.assertEquals(0, arena.usedF());
+
+        final ArenaFactory.Scope discarded = arena.mark();
+
+        arena.reset();
+        arena.mark();
+        arena.nextGLVec4F();
+        discarded.close();
+
+        Assert.assertEquals(4, arena.usedF());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOutOfOrderClose() {
+        final ArenaFactory arena = new ArenaFactory();
+        final ArenaFactory.Scope outer = arena.mark();
+
+        arena.mark();
+        outer.close();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.Spliterator;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class ArraySpliteratorsTest {
+
+    private static final int COUNT = 10000;
+
+    private static GLVec3Array soa() {
+        final GLVec3Array out = new GLVec3Array(COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            out.x[i] = i;
+            out.y[i] = 2 * i;
+            out.z[i] = -i;
+        }
+
+        return out;
+    }
+
+    @Test
+    public void testSplit() {
+        final Spliterator<GLVec3D> s0 = soa().spliterator();
+
+        Assert.assertTrue(s0.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assert.assertEquals(COUNT, s0.getExactSizeIfKnown());
+
+        final Spliterator<GLVec3D> s1 = s0.trySplit();
+
+        Assert.assertEquals(COUNT / 2, s0.getExactSizeIfKnown());
+        Assert.assertEquals(COUNT / 2, s1.getExactSizeIfKnown());
+        Assert.assertTrue(s1.tryAdvance(v -> Assert.assertEquals(0.0, v.x(), 0.0)));
+        Assert.assertTrue(s0.tryAdvance(v -> Assert.assertEquals(COUNT / 2, v.x(), 0.0)));
+    }
+
+    @Test
+    public void testViewStream() {
+        final GLVec3Array in = soa();
+        final double expected = (double) COUNT * (COUNT - 1) / 2.0;
+        final Set<GLVec3D> views = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        in.viewStream(false).forEach(views::add);
+
+        Assert.assertEquals(1, views.size());
+        Assert.assertEquals(expected, in.viewStream(true).mapToDouble(GLVec3D::x).sum(), 0.0);
+        Assert.assertEquals(2.0 * expected, in.viewStream(true).mapToDouble(v -> v.dot(GLVec3D.create(0.0, 1.0, 0.0))).sum(), 0.0);
+        Assert.assertEquals(-expected, in.componentStream(Vectors.Z).parallel().sum(), 0.0);
+        Assert.assertEquals(3 * COUNT, in.flatStream().parallel().count());
+    }
+
+    @Test
+    public void testFloatArrays() {
+        final GLVec4FArray in = new GLVec4FArray(COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            in.set(i, GLVec4F.create(i, 0.5f, 0f, 1f));
+        }
+
+        Assert.assertEquals(0.5 * COUNT, in.componentStream(Vectors.Y).parallel().sum(), 0.0);
+        Assert.assertEquals(COUNT, in.viewStream(true).filter(v -> v.w() == 1f).count());
+
+        final GLVec3FInterleavedArray aos = new GLVec3FInterleavedArray(COUNT);
+
+        aos.viewStream(true).forEach(v -> v.set(Vectors.Y, 3f));
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(3f, aos.get(i).y(), 0f);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidComponent() {
+        new GLVec2Array(1).componentStream(Vectors.Z);
+    }
+}
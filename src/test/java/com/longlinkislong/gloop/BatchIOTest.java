@@ -0,0 +1,134 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class BatchIOTest {
+
+    // spans several chunks
+    private static final int COUNT = 100000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static ReadableByteChannel reader(final ByteArrayOutputStream bytes) {
+        return Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void testHeader() throws IOException {
+        final GLVec3FArray vecs = new GLVec3FArray(2);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        vecs.set(1, GLVec3F.create(1f, 2f, 3f));
+        BatchIO.write(Channels.newChannel(bytes), vecs, BufferWriter.Layout.PLANAR);
+
+        final ByteBuffer raw = ByteBuffer.wrap(bytes.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+        Assert.assertEquals(BatchIO.HEADER_SIZE + 6 * Float.BYTES, raw.capacity());
+        Assert.assertEquals(BatchIO.MAGIC, raw.getInt(0));
+        Assert.assertEquals(3f, raw.getFloat(BatchIO.HEADER_SIZE + 5 * Float.BYTES), 0f);
+
+        final BatchIO.Header header = BatchIO.readHeader(reader(bytes));
+
+        Assert.assertEquals(new BatchIO.Header(BatchIO.Type.VECTOR, BatchIO.Precision.FLOAT, 3, 2, BufferWriter.Layout.PLANAR), header);
+        Assert.assertEquals(6 * Float.BYTES, header.getDataSize());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final GLVec4Array vecs = new GLVec4Array(COUNT);
+        final GLMat4FArray mats = new GLMat4FArray(COUNT / 10);
+        final GLQuaternionArray quats = new GLQuaternionArray(3);
+
+        for (int i = 0; i < COUNT; i++) {
+            vecs.x[i] = i;
+            vecs.y[i] = -i;
+            vecs.z[i] = 0.5 * i;
+            vecs.w[i] = 1.0;
+        }
+
+        for (int i = 0; i < mats.data.length; i++) {
+            mats.data[i] = i;
+        }
+
+        quats.z[2] = 4.0;
+
+        for (BufferWriter.Layout layout : BufferWriter.Layout.values()) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            BatchIO.write(Channels.newChannel(bytes), vecs, layout);
+            BatchIO.write(Channels.newChannel(bytes), mats, layout);
+            BatchIO.write(Channels.newChannel(bytes), quats, layout);
+
+            final ReadableByteChannel in = reader(bytes);
+            final GLVec3InterleavedArray aos = new GLVec3InterleavedArray(1);
+            final GLVec4Array vecsIn = BatchIO.readGLVec4Array(in, null);
+            final GLMat4FArray matsIn = BatchIO.readGLMat4FArray(in, null);
+            final GLQuaternionArray quatsIn = BatchIO.readGLQuaternionArray(in, null);
+
+            Assert.assertArrayEquals(vecs.x, vecsIn.x, 0.0);
+            Assert.assertArrayEquals(vecs.w, vecsIn.w, 0.0);
+            Assert.assertArrayEquals(mats.data, matsIn.data, 0f);
+            Assert.assertArrayEquals(quats.z, quatsIn.z, 0.0);
+
+            final ByteArrayOutputStream vec3 = new ByteArrayOutputStream();
+
+            BatchIO.write(Channels.newChannel(vec3), GLVec3InterleavedArray.interleave(null, 0, new GLVec3Array(COUNT), 0, COUNT), layout);
+            Assert.assertEquals(COUNT, BatchIO.readGLVec3Array(reader(vec3), null).length);
+            Assert.assertNotSame(aos, BatchIO.readGLVec3InterleavedArray(reader(vec3), aos));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMismatch() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        BatchIO.write(Channels.newChannel(bytes), new GLVec2Array(4), BufferWriter.Layout.INTERLEAVED);
+        BatchIO.readGLVec2FArray(reader(bytes), null);
+    }
+
+    @Test
+    public void testMap() throws IOException {
+        final Path file = this.folder.newFile().toPath();
+        final GLVec3Array vecs = new GLVec3Array(COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            vecs.y[i] = i;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.position(16);
+            BatchIO.write(channel, vecs, BufferWriter.Layout.INTERLEAVED);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                GLVec3MappedArray mapped = BatchIO.mapGLVec3Array(channel, FileChannel.MapMode.READ_ONLY, 16)) {
+
+            Assert.assertEquals(COUNT, mapped.length);
+            Assert.assertEquals(BufferWriter.Layout.INTERLEAVED, mapped.getLayout());
+            Assert.assertArrayEquals(vecs.y, mapped.read(0, null, 0, COUNT).y, 0.0);
+        }
+    }
+}
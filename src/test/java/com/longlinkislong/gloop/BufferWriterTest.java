@@ -0,0 +1,116 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class BufferWriterTest {
+
+    @Test
+    public void testVectorsInterleaved() {
+        final GLVec<?>[] vecs = {
+            GLVec3F.create(1f, 2f, 3f),
+            GLVec3D.create(4.0, 5.0, 6.0),
+            GLVec3F.create(7f, 8f, 9f)};
+        final ByteBuffer buffer = BufferWriter.allocate(64);
+
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(ByteOrder.nativeOrder(), buffer.order());
+
+        BufferWriter.writeVectorsF(buffer, 4, vecs, 1, 2, BufferWriter.Layout.INTERLEAVED);
+
+        Assert.assertEquals(0, buffer.position());
+
+        for (int i = 0; i < 6; i++) {
+            Assert.assertEquals(4f + i, buffer.getFloat(4 + i * Float.BYTES), 0f);
+        }
+    }
+
+    @Test
+    public void testVectorsPlanar() {
+        final GLVec<?>[] vecs = {
+            GLVec2D.create(1.0, 2.0),
+            GLVec2F.create(3f, 4f),
+            GLVec2D.create(5.0, 6.0)};
+        final ByteBuffer buffer = ByteBuffer.allocate(48).order(ByteOrder.BIG_ENDIAN);
+        final double[] expected = {1.0, 3.0, 5.0, 2.0, 4.0, 6.0};
+
+        BufferWriter.writeVectorsD(buffer, 0, vecs, 0, 3, BufferWriter.Layout.PLANAR);
+
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], buffer.getDouble(i * Double.BYTES), 0.0);
+        }
+    }
+
+    @Test
+    public void testArrays() {
+        final int count = 1500;
+        final GLVec4Array vecs = new GLVec4Array(count);
+        final GLMat4FArray mats = new GLMat4FArray(3);
+
+        for (int i = 0; i < count; i++) {
+            vecs.x[i] = i;
+            vecs.y[i] = -i;
+            vecs.z[i] = 0.5 * i;
+            vecs.w[i] = 1.0;
+        }
+
+        mats.identity();
+        mats.data[2 * GLMat4FArray.STRIDE + 12] = 7f;
+
+        final ByteBuffer interleaved = BufferWriter.allocate(count * 4 * Float.BYTES);
+        final ByteBuffer planar = BufferWriter.allocate(count * 4 * Float.BYTES);
+
+        BufferWriter.writeF(interleaved, 0, vecs, 0, count, BufferWriter.Layout.INTERLEAVED);
+        BufferWriter.writeF(planar, 0, vecs, 0, count, BufferWriter.Layout.PLANAR);
+
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(-i, interleaved.getFloat((i * 4 + 1) * Float.BYTES), 0f);
+            Assert.assertEquals(0.5f * i, interleaved.getFloat((i * 4 + 2) * Float.BYTES), 0f);
+            Assert.assertEquals(i, planar.getFloat(i * Float.BYTES), 0f);
+            Assert.assertEquals(1f, planar.getFloat((3 * count + i) * Float.BYTES), 0f);
+        }
+
+        final ByteBuffer matBuffer = BufferWriter.allocate(2 * GLMat4FArray.STRIDE * Double.BYTES);
+
+        BufferWriter.writeD(matBuffer, 0, mats, 1, 2, BufferWriter.Layout.INTERLEAVED);
+        Assert.assertEquals(7.0, matBuffer.getDouble((GLMat4FArray.STRIDE + 12) * Double.BYTES), 0.0);
+
+        BufferWriter.writeD(matBuffer, 0, mats, 1, 2, BufferWriter.Layout.PLANAR);
+        Assert.assertEquals(1.0, matBuffer.getDouble(Double.BYTES), 0.0);
+        Assert.assertEquals(0.0, matBuffer.getDouble(2 * Double.BYTES), 0.0);
+        Assert.assertEquals(7.0, matBuffer.getDouble((12 * 2 + 1) * Double.BYTES), 0.0);
+    }
+
+    @Test
+    public void testWriteToOffsets() {
+        final GLVec4D vec = GLVec4D.create(1.0, 2.0, 3.0, 4.0);
+        final GLMat2F mat = GLMat2F.create(new float[]{1f, 2f, 3f, 4f}, 0);
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        GLVecD.writeTo(buffer, 0, vec, 1, 3);
+        GLMatF.writeTo(buffer, 32, mat, 0, 4);
+
+        Assert.assertEquals(2.0, buffer.getDouble(0), 0.0);
+        Assert.assertEquals(3.0, buffer.getDouble(Double.BYTES), 0.0);
+        Assert.assertEquals(4.0, buffer.getDouble(2 * Double.BYTES), 0.0);
+        Assert.assertEquals(4f, buffer.getFloat(32 + 3 * Float.BYTES), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBufferTooSmall() {
+        final GLVec<?>[] vecs = {GLVec4F.create(), GLVec4F.create()};
+
+        BufferWriter.writeVectorsF(BufferWriter.allocate(16), 0, vecs, 0, 2, BufferWriter.Layout.INTERLEAVED);
+    }
+}
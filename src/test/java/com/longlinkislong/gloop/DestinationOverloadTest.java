@@ -0,0 +1,92 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class DestinationOverloadTest {
+
+    @Test
+    public void testVectors() {
+        final GLVec3D a = GLVec3D.create(1.0, 2.0, 3.0).asStaticVec();
+        final GLVec3D b = GLVec3D.create(4.0, -5.0, 6.0).asStaticVec();
+        final GLVec3D out = GLVec3D.create().asStaticVec();
+
+        Assert.assertSame(out, a.plus(b, out));
+        Assert.assertEquals(a.plus(b), out);
+        Assert.assertEquals(a.minus(b), a.minus(b, out));
+        Assert.assertEquals(a.cross(b), a.cross(b, out));
+        Assert.assertEquals(a.hadamard(b), a.hadamard(b, out));
+        Assert.assertEquals(a.scale(0.5), a.scale(0.5, out));
+        Assert.assertEquals(a.negative(), a.negative(out));
+        Assert.assertEquals(a.normalize(), a.normalize(out));
+
+        final GLVec4F c = GLVec4F.create(1f, 2f, 3f, 4f).asStaticVec();
+
+        // in place
+        Assert.assertEquals(GLVec4F.create(2f, 4f, 6f, 8f), c.plus(c, c));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCrossAlias() {
+        final GLVec3D a = GLVec3D.create(1.0, 2.0, 3.0).asStaticVec();
+
+        a.cross(GLVec3D.create(4.0, 5.0, 6.0), a);
+    }
+
+    @Test
+    public void testMatrices() {
+        final GLMat4D m = GLMat4D.translation(1.0, 2.0, 3.0)
+                .multiply(GLMat4D.rotateY(0.5))
+                .asStaticMat();
+        final GLMat4D out = GLMat4D.create().asStaticMat();
+        final GLVec4D v = GLVec4D.create(1.0, 2.0, 3.0, 1.0).asStaticVec();
+        final GLVec4D vOut = GLVec4D.create().asStaticVec();
+
+        Assert.assertEquals(m.multiply(m), m.multiply(m.copyTo(), out));
+        Assert.assertEquals(m.multiply(v), m.multiply(v, vOut));
+        Assert.assertEquals(m.transpose(), m.transpose(out));
+        Assert.assertEquals(m.inverse(), m.inverse(out));
+        Assert.assertEquals(m.multiply(2.0), m.multiply(2.0, out));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMatrixAlias() {
+        final GLMat4F m = GLMat4F.create().identity().asStaticMat();
+
+        m.multiply(m, m);
+    }
+
+    @Test
+    public void testQuaternions() {
+        final GLQuaternionD q = GLQuaternionD.create(0.5, 0.5, 0.5, 0.5).asStaticQuaternion();
+        final GLQuaternionD r = GLQuaternionD.create(0.0, 0.6, 0.0, 0.8).asStaticQuaternion();
+        final GLQuaternionD out = GLQuaternionD.create().asStaticQuaternion();
+
+        // Hamilton product q * r worked by hand
+        Assert.assertSame(out, q.multiply(r, out));
+        Assert.assertEquals(0.1, out.x(), 1E-12);
+        Assert.assertEquals(0.7, out.y(), 1E-12);
+        Assert.assertEquals(0.7, out.z(), 1E-12);
+        Assert.assertEquals(0.1, out.w(), 1E-12);
+        Assert.assertEquals(0.7, q.multiply(r).y(), 1E-12);
+
+        final GLQuaternionF qf = GLQuaternionF.create(0.5f, 0.5f, 0.5f, 0.5f).asStaticQuaternion();
+        final GLQuaternionF outf = qf.multiply(GLQuaternionF.create(0.0f, 0.6f, 0.0f, 0.8f), GLQuaternionF.create().asStaticQuaternion());
+
+        Assert.assertEquals(0.1f, outf.x(), 1E-6f);
+        Assert.assertEquals(0.7f, outf.y(), 1E-6f);
+        Assert.assertEquals(0.7f, outf.z(), 1E-6f);
+        Assert.assertEquals(0.1f, outf.w(), 1E-6f);
+        Assert.assertEquals(q.normalize().w(), q.normalize(out).w(), 0.0);
+        Assert.assertEquals(q.asMat4(), q.asMat4(GLMat4D.create().asStaticMat()));
+    }
+}
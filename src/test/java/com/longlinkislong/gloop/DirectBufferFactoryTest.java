@@ -0,0 +1,85 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class DirectBufferFactoryTest {
+
+    @Test
+    public void testFlushF() {
+        final DirectBufferFactory factory = new DirectBufferFactory(1);
+        final GLVec3F a = factory.nextGLVec3F().set(1f, 2f, 3f);
+        final GLVec3F b = factory.nextGLVec3F().set(4f, 5f, 6f);
+        final GLVec3F c = a.plus(b);
+        final GLMat4F m = factory.nextGLMat4F().identity();
+        final ByteBuffer buffer = factory.flushF();
+
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(ByteOrder.nativeOrder(), buffer.order());
+        Assert.assertEquals((3 + 3 + 3 + 16) * Float.BYTES, buffer.limit());
+        Assert.assertEquals(6 * Float.BYTES, factory.byteOffset(c));
+        Assert.assertEquals(5f, buffer.getFloat(factory.byteOffset(c)), GLVecF.EPSILON);
+        Assert.assertEquals(9f, buffer.getFloat(factory.byteOffset(c) + 2 * Float.BYTES), GLVecF.EPSILON);
+        Assert.assertEquals(1f, buffer.getFloat(factory.byteOffset(m)), GLVecF.EPSILON);
+    }
+
+    @Test
+    public void testFlushD() {
+        final DirectBufferFactory factory = new DirectBufferFactory(1);
+        final GLVec4D a = factory.nextGLVec4D().set(1.0, 2.0, 3.0, 4.0);
+        final ByteBuffer buffer = factory.flushD();
+
+        Assert.assertEquals(4 * Double.BYTES, buffer.limit());
+        Assert.assertEquals(4.0, buffer.getDouble(factory.byteOffset(a) + 3 * Double.BYTES), GLVecD.EPSILON);
+    }
+
+    @Test
+    public void testReset() {
+        final DirectBufferFactory factory = new DirectBufferFactory(1);
+        final GLVec2F first = factory.nextGLVec2F();
+
+        factory.nextGLVec2F();
+        factory.reset();
+
+        Assert.assertSame(first, factory.nextGLVec2F());
+        Assert.assertEquals(0, factory.byteOffset(first));
+    }
+
+    @Test
+    public void testFailedAllocation() {
+        final DirectBufferFactory factory = new DirectBufferFactory(1);
+        final GLVecND first = factory.nextGLVecND(2);
+
+        factory.reset();
+
+        try {
+            factory.nextGLVecND(1 << 20);
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            // the failed allocation must not consume the cached vector
+        }
+
+        Assert.assertSame(first, factory.nextGLVecND(2));
+        Assert.assertEquals(0, factory.byteOffset(first));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOverflow() {
+        final DirectBufferFactory factory = new DirectBufferFactory(1);
+
+        for (int i = 0; i < 1000; i++) {
+            factory.nextGLMat4D();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class GLMat4ArrayTest {
+
+    private static final int SIZE = 100;
+
+    private static GLMat4D randomMat(final Random random) {
+        return GLMat4D.translation(random.nextDouble(), random.nextDouble(), random.nextDouble())
+                .multiply(GLMat4D.rotateX(random.nextDouble()))
+                .multiply(GLMat4D.rotateY(random.nextDouble()))
+                .multiply(GLMat4D.scale(random.nextDouble() + 0.5, random.nextDouble() + 0.5, random.nextDouble() + 0.5));
+    }
+
+    private static void assertMatEquals(final GLMat4D expected, final GLMat4D actual, final double epsilon) {
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                Assert.assertEquals(expected.get(i, j), actual.get(i, j), epsilon);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplyInverseTranspose() throws InterruptedException, ExecutionException {
+        final Random random = new Random(12);
+        final GLMat4Array a = new GLMat4Array(SIZE);
+        final GLMat4Array b = new GLMat4Array(SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            a.set(i, randomMat(random));
+            b.set(i, randomMat(random));
+        }
+
+        final GLMat4Array ab = a.multiply(null, b);
+        final GLMat4Array inv = a.inverse(null);
+        final GLMat4Array tr = a.transpose(null);
+        final GLMat4Array abParallel = a.multiplyParallel(null, b).get();
+
+        for (int i = 0; i < SIZE; i++) {
+            assertMatEquals(a.get(i).multiply(b.get(i)), ab.get(i), 1e-12);
+            assertMatEquals(a.get(i).multiply(b.get(i)), abParallel.get(i), 1e-12);
+            assertMatEquals(a.get(i).inverse(), inv.get(i), 1e-9);
+            assertMatEquals(a.get(i).transpose(), tr.get(i), 0.0);
+        }
+
+        final GLMat4D m = randomMat(random).asStaticMat();
+        final GLMat4Array am = a.multiply(null, m);
+
+        for (int i = 0; i < SIZE; i++) {
+            assertMatEquals(a.get(i).multiply(m), am.get(i), 1e-12);
+        }
+    }
+
+    @Test
+    public void testTransform() {
+        final Random random = new Random(13);
+        final GLMat4Array mats = new GLMat4Array(SIZE);
+        final GLVec4Array vecs = new GLVec4Array(SIZE);
+        final GLVec3Array points = new GLVec3Array(SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            mats.set(i, randomMat(random));
+            vecs.x[i] = points.x[i] = random.nextDouble();
+            vecs.y[i] = points.y[i] = random.nextDouble();
+            vecs.z[i] = points.z[i] = random.nextDouble();
+            vecs.w[i] = 1.0;
+        }
+
+        final GLVec4Array out4 = mats.transform(null, vecs);
+        final GLVec3Array out3 = mats.transform(null, points);
+        final GLMat4D m = mats.get(0).asStaticMat();
+        final GLVec4Array single = GLMat4Array.transform(null, 0, m, vecs, 0, SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            final GLVec4D expected = mats.get(i).multiply(GLVec4D.create(vecs.x[i], vecs.y[i], vecs.z[i], vecs.w[i]));
+
+            Assert.assertEquals(expected.x(), out4.x[i], 1e-12);
+            Assert.assertEquals(expected.y(), out4.y[i], 1e-12);
+            Assert.assertEquals(expected.z(), out4.z[i], 1e-12);
+            Assert.assertEquals(expected.w(), out4.w[i], 1e-12);
+            Assert.assertEquals(expected.x(), out3.x[i], 1e-12);
+            Assert.assertEquals(expected.y(), out3.y[i], 1e-12);
+            Assert.assertEquals(expected.z(), out3.z[i], 1e-12);
+
+            final GLVec4D expectedSingle = m.multiply(GLVec4D.create(vecs.x[i], vecs.y[i], vecs.z[i], vecs.w[i]));
+
+            Assert.assertEquals(expectedSingle.y(), single.y[i], 1e-12);
+        }
+    }
+
+    @Test
+    public void testFloat() {
+        final Random random = new Random(14);
+        final GLMat4FArray a = new GLMat4FArray(SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            a.set(i, randomMat(random));
+        }
+
+        final GLMat4FArray inv = a.inverse(null);
+        final GLMat4FArray id = a.multiply(null, inv);
+
+        for (int i = 0; i < SIZE; i++) {
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 4; c++) {
+                    Assert.assertEquals(r == c ? 1f : 0f, id.get(i).get(r, c), 1e-4f);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class GLQuaternionArrayTest {
+
+    private static void setAxisAngle(final GLQuaternionArray q, final int i, final double angle, final double x, final double y, final double z) {
+        final double s = Math.sin(angle * 0.5);
+
+        q.x[i] = x * s;
+        q.y[i] = y * s;
+        q.z[i] = z * s;
+        q.w[i] = Math.cos(angle * 0.5);
+    }
+
+    @Test
+    public void testMultiplyNormalize() {
+        final GLQuaternionArray a = new GLQuaternionArray(2);
+        final GLQuaternionArray b = new GLQuaternionArray(2);
+
+        // two 45 degree rotations around z make a 90 degree rotation
+        setAxisAngle(a, 0, Math.PI / 4, 0, 0, 1);
+        setAxisAngle(b, 0, Math.PI / 4, 0, 0, 1);
+        // i * j = k
+        a.x[1] = 1.0;
+        b.y[1] = 1.0;
+
+        final GLQuaternionArray ab = a.multiply(null, b);
+
+        Assert.assertEquals(Math.sin(Math.PI / 4), ab.z[0], 1e-12);
+        Assert.assertEquals(Math.cos(Math.PI / 4), ab.w[0], 1e-12);
+        Assert.assertEquals(1.0, ab.z[1], 0.0);
+        Assert.assertEquals(0.0, ab.w[1], 0.0);
+
+        a.x[1] = 3.0;
+        a.w[1] = 4.0;
+
+        final GLQuaternionArray n = a.normalize(null);
+
+        Assert.assertEquals(0.6, n.x[1], 1e-12);
+        Assert.assertEquals(0.8, n.w[1], 1e-12);
+    }
+
+    @Test
+    public void testInterpolation() {
+        final GLQuaternionArray a = new GLQuaternionArray(2).identity();
+        final GLQuaternionArray b = new GLQuaternionArray(2);
+
+        setAxisAngle(b, 0, Math.PI / 2, 0, 1, 0);
+        // same rotation on the other hemisphere; shortest path must be taken
+        setAxisAngle(b, 1, Math.PI / 2, 0, 1, 0);
+        b.y[1] = -b.y[1];
+        b.w[1] = -b.w[1];
+        a.w[1] = 1.0;
+
+        final GLQuaternionArray slerp = a.slerp(null, b, 0.5);
+        final GLQuaternionArray nlerp = a.nlerp(null, b, 0.5);
+
+        Assert.assertEquals(Math.sin(Math.PI / 8), slerp.y[0], 1e-12);
+        Assert.assertEquals(Math.cos(Math.PI / 8), slerp.w[0], 1e-12);
+        Assert.assertEquals(Math.cos(Math.PI / 8), Math.abs(slerp.w[1]), 1e-12);
+        // halfway is symmetric so nlerp agrees with slerp here
+        Assert.assertEquals(slerp.y[0], nlerp.y[0], 1e-12);
+
+        final GLQuaternionArray end = a.slerp(null, b, 1.0);
+
+        Assert.assertEquals(b.y[0], end.y[0], 1e-12);
+        Assert.assertEquals(b.w[0], end.w[0], 1e-12);
+    }
+
+    @Test
+    public void testToMat4() {
+        final GLQuaternionFArray q = new GLQuaternionFArray(5);
+
+        q.set(0, GLQuaternionF.create(0f, 0f, (float) Math.sin(0.3), (float) Math.cos(0.3)));
+        q.set(1, GLQuaternionF.create(0f, (float) Math.sin(0.2), 0f, (float) Math.cos(0.2)));
+        q.identity(2, 1);
+        q.set(3, GLQuaternionF.create((float) Math.sin(0.4), 0f, 0f, (float) Math.cos(0.4)));
+        q.set(4, GLQuaternionF.create(0.2f, -0.4f, 0.5f, 0.7416198f));
+
+        final GLMat4FArray mats = q.toMat4(null);
+
+        for (int i = 0; i < 5; i++) {
+            final GLMat4F expected = q.get(i).asMat4();
+            final GLMat4F actual = mats.get(i);
+
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 4; c++) {
+                    Assert.assertEquals(expected.get(r, c), actual.get(r, c), 1e-6f);
+                }
+            }
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(5 * 16 * Float.BYTES).order(ByteOrder.nativeOrder());
+
+        GLQuaternionFArray.writeMat4To(buffer, 0, q, 0, 5);
+
+        for (int i = 0; i < 5 * 16; i++) {
+            Assert.assertEquals(mats.data[i], buffer.getFloat(i * Float.BYTES), 0f);
+        }
+    }
+}
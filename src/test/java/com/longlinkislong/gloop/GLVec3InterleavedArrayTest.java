@@ -0,0 +1,82 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class GLVec3InterleavedArrayTest {
+
+    // larger than one transpose block
+    private static final int COUNT = 2500;
+
+    private static GLVec3Array soa() {
+        final GLVec3Array out = new GLVec3Array(COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            out.x[i] = i;
+            out.y[i] = -i;
+            out.z[i] = 0.5 * i;
+        }
+
+        return out;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final GLVec3Array in = soa();
+        final GLVec3InterleavedArray aos = in.interleave(null);
+
+        Assert.assertEquals(COUNT, aos.length);
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(in.get(i), aos.get(i));
+        }
+
+        final GLVec3Array back = GLVec3InterleavedArray.deinterleave(null, 3, aos, 1, COUNT - 1);
+
+        for (int i = 1; i < COUNT; i++) {
+            Assert.assertEquals(in.x[i], back.x[i + 2], 0.0);
+            Assert.assertEquals(in.y[i], back.y[i + 2], 0.0);
+            Assert.assertEquals(in.z[i], back.z[i + 2], 0.0);
+        }
+    }
+
+    @Test
+    public void testFlatInterlacedStream() {
+        final GLVec3Array in = soa();
+        final double[] flat = in.flatInterlacedStream().toArray();
+
+        Assert.assertEquals(COUNT * 3, flat.length);
+        Assert.assertArrayEquals(in.interleave(null).data, flat, 0.0);
+        Assert.assertArrayEquals(flat, in.interleave(null).flatStream().parallel().toArray(), 0.0);
+    }
+
+    @Test
+    public void testParallelF() throws InterruptedException, ExecutionException {
+        final GLVec3FArray in = new GLVec3FArray(COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            in.set(i, GLVec3F.create(i, 2 * i, 3 * i));
+        }
+
+        final GLVec3FInterleavedArray aos = GLVec3FInterleavedArray.interleaveParallel(null, 0, in, 0, COUNT).get();
+
+        Assert.assertArrayEquals(in.flattenInterlaced(null), aos.data, 0f);
+
+        aos.set(7, GLVec3F.create(-1f, -2f, -3f));
+
+        final GLVec3FArray back = aos.deinterleaveParallel(null).get();
+
+        Assert.assertEquals(-2f, back.y[7], 0f);
+        Assert.assertEquals(in.z[COUNT - 1], back.z[COUNT - 1], 0f);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class GLVec3MappedArrayTest {
+
+    // larger than one staging block
+    private static final int COUNT = 2500;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static GLVec3Array vecs(final double scale) {
+        final GLVec3Array out = new GLVec3Array(COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            out.x[i] = scale * i + 1.0;
+            out.y[i] = -i;
+            out.z[i] = scale * 0.5 * i;
+        }
+
+        return out;
+    }
+
+    private static void assertEquals(final GLVec3Array expected, final GLVec3Array actual) {
+        Assert.assertArrayEquals(expected.x, actual.x, 0.0);
+        Assert.assertArrayEquals(expected.y, actual.y, 0.0);
+        Assert.assertArrayEquals(expected.z, actual.z, 0.0);
+    }
+
+    private void testLayout(final BufferWriter.Layout layout) throws IOException, InterruptedException, ExecutionException {
+        final Path file = this.folder.newFile().toPath();
+        final GLVec3Array a = vecs(1.0);
+        final GLVec3Array b = vecs(3.0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                GLVec3MappedArray ma = GLVec3MappedArray.map(channel, FileChannel.MapMode.READ_WRITE, 0L, COUNT, layout);
+                GLVec3MappedArray mb = GLVec3MappedArray.map(channel, FileChannel.MapMode.READ_WRITE, GLVec3MappedArray.byteSize(COUNT), COUNT, layout)) {
+
+            Assert.assertEquals(2 * GLVec3MappedArray.byteSize(COUNT), Files.size(file));
+
+            ma.write(0, a, 0, COUNT);
+            mb.write(0, b, 0, COUNT);
+
+            Assert.assertEquals(a.get(7), ma.get(7));
+            Assert.assertArrayEquals(a.dot(null, b), ma.dot(null, mb), 0.0);
+            Assert.assertArrayEquals(a.dot(null, b), ma.dotParallel(null, mb).get(), 0.0);
+
+            ma.cross(ma, mb);
+            assertEquals(a.cross(null, b), ma.read(0, null, 0, COUNT));
+
+            mb.normalizeParallel(mb).get();
+            assertEquals(GLVec3Array.normalize(null, 0, b, 0, COUNT), mb.read(0, null, 0, COUNT));
+
+            mb.apply(VectorArrays::arrayAddD, mb, mb);
+            mb.set(3, GLVec3D.create(1.0, 2.0, 3.0));
+            mb.force();
+        }
+
+        try (FileChannel channel = FileChannel.open(file);
+                GLVec3MappedArray mb = GLVec3MappedArray.map(channel, FileChannel.MapMode.READ_ONLY, GLVec3MappedArray.byteSize(COUNT), COUNT, layout)) {
+            final GLVec3Array expected = GLVec3Array.normalize(null, 0, b, 0, COUNT);
+
+            expected.apply(VectorArrays::arrayAddD, expected, expected);
+
+            Assert.assertEquals(GLVec3D.create(1.0, 2.0, 3.0), mb.get(3));
+            Assert.assertEquals(expected.get(COUNT - 1), mb.get(COUNT - 1));
+        }
+    }
+
+    @Test
+    public void testPlanar() throws IOException, InterruptedException, ExecutionException {
+        this.testLayout(BufferWriter.Layout.PLANAR);
+    }
+
+    @Test
+    public void testInterleaved() throws IOException, InterruptedException, ExecutionException {
+        this.testLayout(BufferWriter.Layout.INTERLEAVED);
+    }
+
+    @Test
+    public void testMatrices() throws IOException, InterruptedException, ExecutionException {
+        final GLMat4Array mats = new GLMat4Array(COUNT);
+        final GLVec3Array points = vecs(2.0);
+
+        for (int i = 0; i < COUNT; i++) {
+            mats.set(i, GLMat4D.translation(i, 2.0, -i).multiply(GLMat4D.scale(2.0)));
+        }
+
+        try (GLMat4MappedArray mm = GLMat4MappedArray.map(this.folder.newFile().toPath(), COUNT);
+                GLVec3MappedArray mv = GLVec3MappedArray.map(this.folder.newFile().toPath(), COUNT, BufferWriter.Layout.INTERLEAVED)) {
+
+            mm.write(0, mats, 0, COUNT);
+            mv.write(0, points, 0, COUNT);
+
+            mm.transformParallel(mv, mv).get();
+            assertEquals(mats.transform(null, points), mv.read(0, null, 0, COUNT));
+
+            mm.inverse(mm);
+            Assert.assertArrayEquals(mats.inverse(null).data, mm.read(0, null, 0, COUNT).data, 0.0);
+
+            mm.multiplyParallel(mm, mm).get();
+            Assert.assertEquals(mats.inverse(null).get(5).multiply(mats.inverse(null).get(5)), mm.get(5));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() throws IOException {
+        final GLVec3MappedArray mapped = GLVec3MappedArray.map(this.folder.newFile().toPath(), 4, BufferWriter.Layout.PLANAR);
+
+        mapped.close();
+        mapped.get(0);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class GLVecExprTest {
+
+    // not a multiple of the block size
+    private static final int SIZE = 3 * GLVec3Expr.BLOCK_SIZE + 17;
+
+    private static GLVec3Array random3(final Random random) {
+        final GLVec3Array out = new GLVec3Array(SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            out.x[i] = random.nextDouble() + 0.5;
+            out.y[i] = random.nextDouble() + 0.5;
+            out.z[i] = random.nextDouble() + 0.5;
+        }
+
+        return out;
+    }
+
+    private static GLVec4Array random4(final Random random) {
+        final GLVec4Array out = new GLVec4Array(SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            out.x[i] = random.nextDouble() + 0.5;
+            out.y[i] = random.nextDouble() + 0.5;
+            out.z[i] = random.nextDouble() + 0.5;
+            out.w[i] = random.nextDouble() + 0.5;
+        }
+
+        return out;
+    }
+
+    @Test
+    public void testCrossNormalizeScale() throws InterruptedException, ExecutionException {
+        final Random random = new Random(9);
+        final GLVec3Array a = random3(random);
+        final GLVec3Array b = random3(random);
+        final GLVec3 s = GLVec3D.create(0.5, 2.0, 4.0);
+
+        final GLVec3Array expected = a.cross(null, b);
+
+        GLVec3Array.normalize(expected, 0, expected, 0, SIZE);
+        expected.scale(expected, s);
+
+        final GLVec3Expr expr = a.lazy().cross(b).normalize().scale(s);
+        final GLVec3Array actual = expr.evaluate(null);
+
+        Assert.assertEquals(SIZE, actual.length);
+        Assert.assertArrayEquals(expected.x, actual.x, 1e-12);
+        Assert.assertArrayEquals(expected.y, actual.y, 1e-12);
+        Assert.assertArrayEquals(expected.z, actual.z, 1e-12);
+        Assert.assertArrayEquals(expected.z, expr.evaluateParallel(null).get().z, 1e-12);
+    }
+
+    @Test
+    public void testNested3() {
+        final Random random = new Random(10);
+        final GLVec3Array a = random3(random);
+        final GLVec3Array b = random3(random);
+        final GLVec3Array c = random3(random);
+
+        // (a - b) x (c + a), evaluated at an offset
+        final GLVec3Array expected = a.apply(VectorArrays::arrayAddD, null, c)
+                .apply(VectorArrays::arraySubtractD, null, b);
+        final GLVec3Array actual = a.lazy().minus(b)
+                .cross(c.lazy().plus(a))
+                .evaluate(null, 5);
+
+        GLVec3Array.cross(expected, 0,
+                a.apply(VectorArrays::arraySubtractD, null, b), 0,
+                c.apply(VectorArrays::arrayAddD, null, a), 0,
+                SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            Assert.assertEquals(expected.x[i], actual.x[i + 5], 1e-12);
+            Assert.assertEquals(expected.y[i], actual.y[i + 5], 1e-12);
+            Assert.assertEquals(expected.z[i], actual.z[i + 5], 1e-12);
+        }
+
+        Assert.assertArrayEquals(
+                a.dot(null, b),
+                a.lazy().dot(b, null), 1e-12);
+        Assert.assertArrayEquals(
+                a.length(null),
+                a.lazy().length(null), 1e-12);
+    }
+
+    @Test
+    public void testPlusNormalizeScale4() {
+        final Random random = new Random(11);
+        final GLVec4Array a = random4(random);
+        final GLVec4Array b = random4(random);
+        final GLVec4 s = GLVec4D.create(0.5, 2.0, 4.0, 8.0);
+
+        final GLVec4Array expected = a.apply(VectorArrays::arrayAddD, null, b);
+
+        expected.normalize(expected);
+        expected.scale(expected, s);
+
+        final GLVec4Array actual = a.lazy().plus(b).normalize().scale(s).evaluate(null);
+
+        Assert.assertArrayEquals(expected.x, actual.x, 1e-12);
+        Assert.assertArrayEquals(expected.y, actual.y, 1e-12);
+        Assert.assertArrayEquals(expected.z, actual.z, 1e-12);
+        Assert.assertArrayEquals(expected.w, actual.w, 1e-12);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class GLVecFArrayTest {
+
+    private static GLVec3FArray randomArray3(final int size, final long seed) {
+        final java.util.Random random = new java.util.Random(seed);
+        final GLVec3FArray out = new GLVec3FArray(size);
+
+        for (int i = 0; i < size; i++) {
+            out.set(i, GLVec3F.create(random.nextFloat(), random.nextFloat(), random.nextFloat()));
+        }
+
+        return out;
+    }
+
+    @Test
+    public void testCross3() throws InterruptedException, ExecutionException {
+        final GLVec3FArray a = randomArray3(100, 1);
+        final GLVec3FArray b = randomArray3(100, 2);
+        final GLVec3FArray sync = a.cross(null, b);
+        final GLVec3FArray async = a.crossAsync(null, b).get();
+
+        for (int i = 0; i < a.length; i++) {
+            final GLVec3F expected = a.get(i).cross(b.get(i));
+
+            Assert.assertEquals(expected, sync.get(i));
+            Assert.assertEquals(expected, async.get(i));
+        }
+    }
+
+    @Test
+    public void testDotLength3() {
+        final GLVec3FArray a = randomArray3(100, 3);
+        final GLVec3FArray b = randomArray3(100, 4);
+        final float[] dot = a.dot(null, b);
+        final float[] length = a.length(null);
+
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertEquals(a.get(i).dot(b.get(i)), dot[i], GLVecF.EPSILON);
+            Assert.assertEquals(a.get(i).length(), length[i], GLVecF.EPSILON);
+        }
+    }
+
+    @Test
+    public void testNormalize4() {
+        final GLVec4FArray a = new GLVec4FArray(10);
+
+        a.setConstant(GLVec4F.create(1f, 2f, 3f, 4f));
+
+        final GLVec4FArray norm = a.normalize(null);
+
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertEquals(GLVec4F.create(1f, 2f, 3f, 4f).normalize(), norm.get(i));
+        }
+    }
+
+    @Test
+    public void testApplyAsync2() throws InterruptedException, ExecutionException {
+        final GLVec2FArray a = new GLVec2FArray(16);
+        final GLVec2FArray b = new GLVec2FArray(16);
+
+        a.setConstant(GLVec2F.create(1f, 2f));
+        b.setConstant(GLVec2F.create(3f, 5f));
+
+        final GLVec2FArray sum = a.applyAsync(VectorArrays::arrayAddF, null, b).get();
+        final float[] cross = a.cross(null, b);
+
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertEquals(GLVec2F.create(4f, 7f), sum.get(i));
+            Assert.assertEquals(1f * 5f - 2f * 3f, cross[i], GLVecF.EPSILON);
+        }
+    }
+
+    @Test
+    public void testFlattenInterlaced3() {
+        final GLVec3FArray a = new GLVec3FArray(2);
+
+        a.set(0, GLVec3F.create(1f, 2f, 3f));
+        a.set(1, GLVec3F.create(4f, 5f, 6f));
+
+        Assert.assertArrayEquals(new float[]{1f, 2f, 3f, 4f, 5f, 6f}, a.flattenInterlaced(null), 0f);
+        Assert.assertArrayEquals(new float[]{1f, 4f, 2f, 5f, 3f, 6f}, a.flatten(null), 0f);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class IntrinsicsTest {
+
+    @Test
+    public void testFusedMultiplyAddD() {
+        // a * b rounds to 1.0 before the add unless the operation is fused
+        final double a = 1.0 + Math.scalb(1.0, -27);
+        final double b = 1.0 - Math.scalb(1.0, -27);
+        final double[] out = new double[19];
+
+        Assert.assertEquals(0.0, a * b - 1.0, 0.0);
+        Assert.assertEquals(-Math.scalb(1.0, -54), Intrinsics.fma(a, b, -1.0), 0.0);
+
+        final double[] in0 = new double[out.length];
+        final double[] in1 = new double[out.length];
+        final double[] in2 = new double[out.length];
+
+        Arrays.fill(in0, a);
+        Arrays.fill(in1, b);
+        Arrays.fill(in2, -1.0);
+        VectorArrays.arrayFusedMultiplyAddD(out, 0, in0, 0, in1, 0, in2, 0, out.length);
+
+        for (double value : out) {
+            Assert.assertEquals(-Math.scalb(1.0, -54), value, 0.0);
+        }
+
+        Assert.assertTrue(Double.isNaN(Intrinsics.fma(Double.POSITIVE_INFINITY, 0.0, 1.0)));
+        Assert.assertEquals(Double.MAX_VALUE, Intrinsics.fma(Double.MAX_VALUE, 2.0, -Double.MAX_VALUE), 0.0);
+    }
+
+    @Test
+    public void testFusedMultiplyAddF() {
+        final float a = 1f + Math.scalb(1f, -13);
+        final float b = 1f - Math.scalb(1f, -13);
+        final float[] in0 = {a, a, a, a, a, a, a, a, a, a, a};
+        final float[] in1 = {b, b, b, b, b, b, b, b, b, b, b};
+        final float[] in2 = {-1f, -1f, -1f, -1f, -1f, -1f, -1f, -1f, -1f, -1f, -1f};
+        final float[] out = new float[in0.length];
+
+        Assert.assertEquals(0f, a * b - 1f, 0f);
+        VectorArrays.arrayFusedMultiplyAddF(out, 0, in0, 0, in1, 0, in2, 0, out.length);
+
+        for (float value : out) {
+            Assert.assertEquals(-Math.scalb(1f, -26), value, 0f);
+        }
+    }
+
+    @Test
+    public void testFusedMultiplyAddFMidpoint() {
+        // a * b lands exactly on a float midpoint and c breaks the tie upward,
+        // which rounding through double loses
+        final float a = 1f + Math.scalb(1f, -12);
+        final float c = Math.scalb(1f, -80);
+        final float expected = 1f + Math.scalb(1f, -11) + Math.scalb(1f, -23);
+        final float[] out = new float[9];
+        final float[] in0 = new float[out.length];
+        final float[] in2 = new float[out.length];
+
+        Arrays.fill(in0, a);
+        Arrays.fill(in2, c);
+
+        Assert.assertEquals(expected, Intrinsics.fma(a, a, c), 0f);
+        Assert.assertEquals(1f + Math.scalb(1f, -11), Intrinsics.fma(a, a, -c), 0f);
+        VectorArrays.arrayFusedMultiplyAddF(out, 0, in0, 0, in0, 0, in2, 0, out.length);
+
+        for (float value : out) {
+            Assert.assertEquals(expected, value, 0f);
+        }
+    }
+
+    @Test
+    public void testPut() {
+        final float[] valuesF = {1f, -2f, 3.5f};
+        final double[] valuesD = {1.0, -2.0, 3.5};
+
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            final ByteBuffer buffer = ByteBuffer.allocate(64).order(order);
+
+            Intrinsics.putFloats(buffer, 4, valuesF, 1, 2);
+            Intrinsics.putDoubles(buffer, 16, valuesD, 0, 3);
+
+            Assert.assertEquals(0, buffer.position());
+            Assert.assertEquals(-2f, buffer.getFloat(4), 0f);
+            Assert.assertEquals(3.5f, buffer.getFloat(8), 0f);
+            Assert.assertEquals(1.0, buffer.getDouble(16), 0.0);
+            Assert.assertEquals(3.5, buffer.getDouble(32), 0.0);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class LinearSolversTest {
+
+    private static final int SIZE = 7;
+    private static final int BATCH = 1000;
+
+    private final Random random = new Random(0x5EED);
+
+    private GLMatND random(final int size, final boolean spd) {
+        final GLMatND out = GLMatND.create(size);
+        final double[] a = new double[size * size];
+
+        for (int i = 0; i < a.length; i++) {
+            a[i] = this.random.nextDouble() - 0.5;
+        }
+
+        if (spd) {
+            // A^T * A + I is symmetric positive definite
+            final double[] s = new double[size * size];
+
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    double sum = r == c ? 1.0 : 0.0;
+
+                    for (int k = 0; k < size; k++) {
+                        sum += a[r * size + k] * a[c * size + k];
+                    }
+
+                    s[c * size + r] = sum;
+                }
+            }
+
+            System.arraycopy(s, 0, a, 0, a.length);
+        }
+
+        System.arraycopy(a, 0, out.data(), out.offset(), a.length);
+        return out;
+    }
+
+    private static double[] values(final GLVecND vec) {
+        return Arrays.copyOfRange(vec.data(), vec.offset(), vec.offset() + vec.size());
+    }
+
+    @Test
+    public void testSolve() {
+        for (LinearSolvers.Method method : LinearSolvers.Method.values()) {
+            final GLMatND mat = this.random(SIZE, true);
+            final GLMatND.Factorization f = mat.factorize(method);
+
+            Assert.assertTrue(f.isSolvable());
+            Assert.assertEquals(method, f.getMethod());
+
+            for (int rhs = 0; rhs < 3; rhs++) {
+                final double[] values = new double[SIZE];
+
+                for (int i = 0; i < SIZE; i++) {
+                    values[i] = this.random.nextDouble();
+                }
+
+                final GLVecND b = GLVecND.create(SIZE, values);
+
+                final GLVecND x = f.solve(b);
+
+                Assert.assertArrayEquals(values(b), values(mat.multiply(x)), 1E-10);
+                Assert.assertArrayEquals(values(x), values(f.solve(b, b)), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testInverseAndDeterminant() {
+        final GLMatND mat = this.random(SIZE, false);
+        final GLMatND id = mat.multiply(mat.inverse());
+
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            Assert.assertEquals(i % (SIZE + 1) == 0 ? 1.0 : 0.0, id.data()[id.offset() + i], 1E-10);
+        }
+
+        final double det = mat.determinant();
+
+        Assert.assertEquals(det, mat.factorize(LinearSolvers.Method.QR).determinant(), 1E-12);
+        Assert.assertEquals(det * det, mat.multiply(mat.transpose()).factorize(LinearSolvers.Method.CHOLESKY).determinant(), 1E-12);
+        Assert.assertEquals(24.0, GLMatND.scale(4, 1.0, 2.0, 3.0, 4.0).determinant(), 0.0);
+        Assert.assertEquals(0.0, GLMatND.create(3).zero().determinant(), 0.0);
+    }
+
+    @Test
+    public void testNotSolvable() {
+        final GLMatND mat = GLMatND.scale(3, 1.0, -1.0, 1.0);
+
+        Assert.assertFalse(mat.factorize(LinearSolvers.Method.CHOLESKY).isSolvable());
+        Assert.assertTrue(mat.factorize(LinearSolvers.Method.LU).isSolvable());
+        Assert.assertFalse(GLMatND.create(3).zero().factorize(LinearSolvers.Method.QR).isSolvable());
+
+        try {
+            mat.factorize(LinearSolvers.Method.CHOLESKY).solve(GLVecND.create(3, 1.0, 2.0, 3.0));
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("Matrix is not positive definite!", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testRankDeficient() {
+        // rank 2; elimination leaves rounding error instead of a zero pivot
+        final double[] a = {1.0, 4.0, 7.0, 2.0, 5.0, 8.0, 3.0, 6.0, 9.0};
+        // A^T * A is symmetric positive semidefinite with the same rank
+        final double[] gram = {66.0, 78.0, 90.0, 78.0, 93.0, 108.0, 90.0, 108.0, 126.0};
+
+        for (LinearSolvers.Method method : LinearSolvers.Method.values()) {
+            for (double[] values : new double[][]{a, gram}) {
+                if (method == LinearSolvers.Method.CHOLESKY && values == a) {
+                    continue;
+                }
+
+                final GLMatND mat = GLMatND.create(3);
+
+                System.arraycopy(values, 0, mat.data(), mat.offset(), 9);
+
+                Assert.assertFalse(mat.factorize(method).isSolvable());
+
+                final double[] m = values.clone();
+                final double[] b = {1.0, 2.0, 3.0};
+                final float[] mf = new float[9];
+                final float[] bf = {1f, 2f, 3f};
+
+                for (int i = 0; i < 9; i++) {
+                    mf[i] = (float) values[i];
+                }
+
+                Assert.assertEquals(1, LinearSolvers.solveBatchD(method, m, 0, b, 0, 3, 1));
+                Assert.assertEquals(1, LinearSolvers.solveBatchF(method, mf, 0, bf, 0, 3, 1));
+
+                for (int i = 0; i < 3; i++) {
+                    Assert.assertTrue(Double.isNaN(b[i]));
+                    Assert.assertTrue(Float.isNaN(bf[i]));
+                }
+            }
+        }
+
+        final GLMatND mat = GLMatND.create(3);
+
+        System.arraycopy(a, 0, mat.data(), mat.offset(), 9);
+
+        try {
+            mat.solve(GLVecND.create(3, 1.0, 2.0, 3.0));
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("Matrix is singular!", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testBatch() throws InterruptedException, ExecutionException {
+        final int size = 6;
+
+        for (LinearSolvers.Method method : LinearSolvers.Method.values()) {
+            final double[] a = new double[BATCH * size * size];
+            final double[] b = new double[BATCH * size];
+            final float[] af = new float[a.length];
+            final float[] bf = new float[b.length];
+
+            for (int s = 0; s < BATCH; s++) {
+                final GLMatND mat = this.random(size, true);
+
+                System.arraycopy(mat.data(), mat.offset(), a, s * size * size, size * size);
+            }
+
+            for (int i = 0; i < b.length; i++) {
+                b[i] = this.random.nextDouble();
+            }
+
+            // one singular system
+            Arrays.fill(a, 5 * size * size, 6 * size * size, 0.0);
+
+            for (int i = 0; i < a.length; i++) {
+                af[i] = (float) a[i];
+            }
+
+            for (int i = 0; i < b.length; i++) {
+                bf[i] = (float) b[i];
+            }
+
+            final double[] original = a.clone();
+            final double[] a2 = a.clone();
+            final double[] b2 = b.clone();
+            final double[] expected = b.clone();
+            final GLMatND mat = GLMatND.create(size);
+
+            Assert.assertEquals(1, LinearSolvers.solveBatchD(method, a, 0, b, 0, size, BATCH));
+            Assert.assertSame(b2, LinearSolvers.solveBatchParallelD(method, a2, 0, b2, 0, size, BATCH).get());
+            Assert.assertArrayEquals(b, b2, 0.0);
+            Assert.assertEquals(1, LinearSolvers.solveBatchF(method, af, 0, bf, 0, size, BATCH));
+
+            for (int s = 0; s < BATCH; s++) {
+                if (s == 5) {
+                    Assert.assertTrue(Double.isNaN(b[s * size]));
+                    Assert.assertTrue(Float.isNaN(bf[s * size]));
+                    continue;
+                }
+
+                // the factors overwrite a
+                System.arraycopy(original, s * size * size, mat.data(), mat.offset(), size * size);
+
+                final GLVecND x = GLVecND.create(size, Arrays.copyOfRange(b, s * size, s * size + size));
+
+                Assert.assertArrayEquals(Arrays.copyOfRange(expected, s * size, s * size + size), values(mat.multiply(x)), 1E-9);
+
+                for (int i = 0; i < size; i++) {
+                    Assert.assertEquals(b[s * size + i], bf[s * size + i], 1E-3);
+                }
+            }
+        }
+    }
+}
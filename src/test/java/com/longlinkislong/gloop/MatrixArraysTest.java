@@ -0,0 +1,146 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class MatrixArraysTest {
+
+    // more than one block, with a ragged tail
+    private static final int COUNT = 2500;
+    private static final int STRIDE = COUNT + 3;
+
+    private final Random random = new Random(0x5EED);
+
+    private double[] interleaved(final int n) {
+        final double[] out = new double[COUNT * n * n];
+
+        for (int i = 0; i < out.length; i++) {
+            out[i] = this.random.nextDouble() - 0.5;
+        }
+
+        // singular: a zero row
+        Arrays.fill(out, 7 * n * n + n, 7 * n * n + 2 * n, 0.0);
+        return out;
+    }
+
+    private static void assertIdentity(final double[] mat, final int offset, final int n, final double delta) {
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                Assert.assertEquals(r == c ? 1.0 : 0.0, mat[offset + r * n + c], delta);
+            }
+        }
+    }
+
+    private void testSize(final int n) throws InterruptedException, ExecutionException {
+        final int n2 = n * n;
+        final double[] mats = this.interleaved(n);
+        final double[] planar = new double[1 + n2 * STRIDE];
+        final double[] inv = new double[planar.length];
+        final double[] back = new double[mats.length];
+        final double[] det = new double[COUNT];
+        final boolean[] singular = new boolean[COUNT];
+
+        if (n == 3) {
+            MatrixArrays.planar3D(planar, 1, STRIDE, mats, 0, COUNT);
+            MatrixArrays.determinant3D(det, 0, planar, 1, STRIDE, COUNT);
+            Assert.assertEquals(1, MatrixArrays.inverse3D(inv, 1, planar, 1, STRIDE, COUNT, singular, 0));
+            MatrixArrays.interleave3D(back, 0, inv, 1, STRIDE, COUNT);
+        } else {
+            MatrixArrays.planar4D(planar, 1, STRIDE, mats, 0, COUNT);
+            MatrixArrays.determinant4D(det, 0, planar, 1, STRIDE, COUNT);
+            Assert.assertEquals(1, MatrixArrays.inverse4D(inv, 1, planar, 1, STRIDE, COUNT, singular, 0));
+            MatrixArrays.interleave4D(back, 0, inv, 1, STRIDE, COUNT);
+        }
+
+        final double[] product = new double[n2];
+        final GLMatND reference = GLMatND.create(n);
+
+        for (int m = 0; m < COUNT; m++) {
+            Assert.assertEquals(m == 7, singular[m]);
+
+            if (m == 7) {
+                Assert.assertEquals(0.0, det[m], 1E-15);
+                Assert.assertTrue(Double.isNaN(back[m * n2]));
+                continue;
+            }
+
+            System.arraycopy(mats, m * n2, reference.data(), reference.offset(), n2);
+            Assert.assertEquals(reference.determinant(), det[m], 1E-12);
+
+            if (n == 3) {
+                Matrices.multiplyMat3D(product, 0, mats, m * n2, back, m * n2);
+            } else {
+                Matrices.multiplyMat4D(product, 0, mats, m * n2, back, m * n2);
+            }
+
+            assertIdentity(product, 0, n, 1E-6);
+        }
+
+        // in place and parallel give the same result
+        final boolean[] parallelSingular = new boolean[COUNT + 2];
+
+        if (n == 3) {
+            MatrixArrays.inverseParallel3D(planar, 1, planar, 1, STRIDE, COUNT, parallelSingular, 2).get();
+        } else {
+            MatrixArrays.inverseParallel4D(planar, 1, planar, 1, STRIDE, COUNT, parallelSingular, 2).get();
+        }
+
+        for (int i = 1; i < planar.length; i++) {
+            Assert.assertEquals(inv[i], planar[i], 0.0);
+        }
+
+        Assert.assertTrue(parallelSingular[9]);
+    }
+
+    @Test
+    public void testMat3() throws InterruptedException, ExecutionException {
+        this.testSize(3);
+    }
+
+    @Test
+    public void testMat4() throws InterruptedException, ExecutionException {
+        this.testSize(4);
+    }
+
+    @Test
+    public void testFloat() {
+        final float[] planar = new float[16 * 4];
+        final boolean[] singular = new boolean[4];
+        final float[] det = new float[4];
+
+        // identity, scale by 2, zero, translation
+        for (int m = 0; m < 4; m++) {
+            for (int k = 0; k < 16; k += 5) {
+                planar[k * 4 + m] = m == 1 ? 2f : m == 2 ? 0f : 1f;
+            }
+        }
+
+        planar[12 * 4 + 3] = 5f;
+
+        MatrixArrays.determinant4F(det, 0, planar, 0, 4, 4);
+        Assert.assertArrayEquals(new float[]{1f, 16f, 0f, 1f}, det, 0f);
+        Assert.assertEquals(1, MatrixArrays.inverse4F(planar, 0, planar, 0, 4, 4, singular, 0));
+        Assert.assertTrue(Arrays.equals(new boolean[]{false, false, true, false}, singular));
+        Assert.assertEquals(0.5f, planar[5 * 4 + 1], 0f);
+        Assert.assertEquals(-5f, planar[12 * 4 + 3], 0f);
+        Assert.assertTrue(Float.isNaN(planar[2]));
+        Assert.assertEquals(0, MatrixArrays.inverse3F(new float[9], 0, new float[]{1f, 0f, 0f, 0f, 1f, 0f, 0f, 0f, 1f}, 0, 1, 1, null, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStride() {
+        MatrixArrays.determinant3D(new double[4], 0, new double[36], 0, 2, 4);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class MatrixMultiplyTest {
+
+    // covers the ragged edges and more than one block in each direction
+    private static final int[] SIZES = {1, 3, 4, 7, 17, 130, 301};
+
+    private final Random random = new Random(0x5EED);
+
+    private double[] random(final int length) {
+        final double[] out = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            out[i] = this.random.nextDouble() - 0.5;
+        }
+
+        return out;
+    }
+
+    private static double[] naive(final double[] a, final double[] b, final int size, final boolean transposed) {
+        final double[] out = new double[size * size];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                double sum = 0.0;
+
+                for (int k = 0; k < size; k++) {
+                    sum += a[i * size + k] * (transposed ? b[j * size + k] : b[k * size + j]);
+                }
+
+                out[i * size + j] = sum;
+            }
+        }
+
+        return out;
+    }
+
+    private void testSizes() {
+        for (int size : SIZES) {
+            final double[] a = this.random(size * size);
+            final double[] b = this.random(size * size);
+            final double[] out = new double[size * size + 3];
+
+            Matrices.multiplyMatND(out, 3, a, 0, b, 0, size);
+            Assert.assertArrayEquals(naive(a, b, size, false), Arrays.copyOfRange(out, 3, out.length), 1E-12);
+
+            Matrices.multiplyMatTransposedND(out, 0, a, 0, b, 0, size);
+            Assert.assertArrayEquals(naive(a, b, size, true), Arrays.copyOf(out, size * size), 1E-12);
+
+            final float[] af = new float[size * size];
+            final float[] bf = new float[size * size];
+            final float[] outf = new float[size * size];
+            final double[] expected = naive(a, b, size, false);
+
+            for (int i = 0; i < af.length; i++) {
+                af[i] = (float) a[i];
+                bf[i] = (float) b[i];
+            }
+
+            Matrices.multiplyMatNF(outf, 0, af, 0, bf, 0, size);
+
+            for (int i = 0; i < outf.length; i++) {
+                Assert.assertEquals(expected[i], outf[i], 1E-4 * size);
+            }
+        }
+    }
+
+    @Test
+    public void testSequential() {
+        this.testSizes();
+    }
+
+    @Test
+    public void testParallel() {
+        final ForkJoinPool pool = VectorArrays.getParallelPool();
+        final ForkJoinPool workers = new ForkJoinPool(4);
+
+        VectorArrays.setParallelPool(workers);
+
+        try {
+            this.testSizes();
+        } finally {
+            VectorArrays.setParallelPool(pool);
+            workers.shutdown();
+        }
+    }
+
+    @Test
+    public void testAlias() {
+        final int size = 9;
+        final double[] a = this.random(size * size);
+        final double[] b = this.random(size * size);
+        final double[] expected = naive(a, b, size, false);
+
+        Matrices.multiplyMatND(a, 0, a, 0, b, 0, size);
+        Assert.assertArrayEquals(expected, a, 1E-12);
+    }
+
+    @Test
+    public void testGLMatN() {
+        final int size = 6;
+        final GLMatND a = GLMatND.create(size);
+        final GLMatND b = GLMatND.create(size);
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                a.set(i, j, this.random.nextDouble());
+                b.set(i, j, this.random.nextDouble());
+            }
+        }
+
+        final GLMatND expected = a.multiply(b.transpose());
+        final GLMatND actual = a.multiplyTransposed(b);
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                Assert.assertEquals(expected.get(i, j), actual.get(i, j), 1E-12);
+            }
+        }
+    }
+}
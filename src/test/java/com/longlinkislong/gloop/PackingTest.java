@@ -0,0 +1,141 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class PackingTest {
+
+    @Test
+    public void testHalfRoundTrip() {
+        for (int i = 0; i < 0x10000; i++) {
+            final short half = (short) i;
+            final float value = Packing.fromHalf(half);
+
+            if ((i & 0x7C00) == 0x7C00 && (i & 0x3FF) != 0) {
+                Assert.assertTrue(Float.isNaN(value));
+                Assert.assertTrue(Float.isNaN(Packing.fromHalf(Packing.toHalf(value))));
+            } else {
+                Assert.assertEquals(half, Packing.toHalf(value));
+            }
+        }
+
+        Assert.assertEquals(1f, Packing.fromHalf((short) 0x3C00), 0f);
+        Assert.assertEquals(65504f, Packing.fromHalf((short) 0x7BFF), 0f);
+        Assert.assertEquals(Math.scalb(1f, -24), Packing.fromHalf((short) 1), 0f);
+        Assert.assertEquals(Float.NEGATIVE_INFINITY, Packing.fromHalf((short) 0xFC00), 0f);
+    }
+
+    @Test
+    public void testHalfRounding() {
+        // every midpoint between neighbouring finite halves, including the
+        // subnormals and the step from the largest half to infinity
+        for (int i = 0; i < 0x7C00; i++) {
+            final float lo = Packing.fromHalf((short) i);
+            final float hi = Packing.fromHalf((short) (i + 1));
+            final float mid = i == 0x7BFF ? 65520f : (lo + hi) / 2f;
+            final short even = (short) ((i & 1) == 0 ? i : i + 1);
+
+            Assert.assertEquals(even, Packing.toHalf(mid));
+            Assert.assertEquals((short) i, Packing.toHalf(Math.nextDown(mid)));
+            Assert.assertEquals((short) (i + 1), Packing.toHalf(Math.nextUp(mid)));
+            Assert.assertEquals((short) (even | 0x8000), Packing.toHalf(-mid));
+        }
+
+        Assert.assertEquals((short) 0, Packing.toHalf(Math.scalb(1f, -30)));
+        Assert.assertEquals((short) 0x7C00, Packing.toHalf(1E10f));
+        Assert.assertEquals((short) 0x7C00, Packing.toHalf(Float.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testNormalized() {
+        for (int i = 0; i < 256; i++) {
+            Assert.assertEquals((byte) i, Packing.toUnorm8(Packing.fromUnorm8((byte) i)));
+        }
+
+        for (int i = -127; i < 128; i++) {
+            Assert.assertEquals((byte) i, Packing.toSnorm8(Packing.fromSnorm8((byte) i)));
+        }
+
+        Assert.assertEquals(-1f, Packing.fromSnorm8((byte) -128), 0f);
+        Assert.assertEquals(-1f, Packing.fromSnorm16((short) -32768), 0f);
+        Assert.assertEquals(1f, Packing.fromUnorm16(Packing.toUnorm16(2f)), 0f);
+        Assert.assertEquals(0f, Packing.fromUnorm16(Packing.toUnorm16(Float.NaN)), 0f);
+        Assert.assertEquals((short) -16384, Packing.toSnorm16(-0.5f));
+        Assert.assertEquals((byte) 64, Packing.toSnorm8(0.5f));
+        Assert.assertEquals(0.5f, Packing.fromUnorm16(Packing.toUnorm16(0.5f)), 1f / 65535f);
+    }
+
+    @Test
+    public void test1010102() {
+        final int unorm = Packing.toUnorm1010102(0f, 0.5f, 1f, 1f);
+
+        Assert.assertEquals(0, unorm & 0x3FF);
+        Assert.assertEquals(512, (unorm >>> 10) & 0x3FF);
+        Assert.assertEquals(1023, (unorm >>> 20) & 0x3FF);
+        Assert.assertEquals(3, unorm >>> 30);
+        Assert.assertEquals(1f, Packing.fromUnorm1010102(unorm, Vectors.W), 0f);
+
+        final float[] x = {-1f, 0.25f, 1f};
+        final float[] y = {1f, -0.25f, 0f};
+        final float[] z = {0f, 2f, -2f};
+        final float[] w = {-1f, 0f, 1f};
+        final int[] packed = new int[3];
+        final double[][] out = new double[4][3];
+
+        Packing.arrayPackSnorm1010102F(packed, 0, x, 0, y, 0, z, 0, w, 0, 3);
+        Packing.arrayUnpackSnorm1010102D(out[0], 0, out[1], 0, out[2], 0, out[3], 0, packed, 0, 3);
+
+        Assert.assertArrayEquals(new double[]{-1.0, 128.0 / 511.0, 1.0}, out[0], 1E-6);
+        Assert.assertArrayEquals(new double[]{1.0, -128.0 / 511.0, 0.0}, out[1], 1E-6);
+        Assert.assertArrayEquals(new double[]{0.0, 1.0, -1.0}, out[2], 1E-6);
+        Assert.assertArrayEquals(new double[]{-1.0, 0.0, 1.0}, out[3], 0.0);
+    }
+
+    @Test
+    public void testBufferWriter() {
+        final int count = 1500;
+        final GLVec3FArray vecs = new GLVec3FArray(count);
+
+        for (int i = 0; i < count; i++) {
+            vecs.set(i, GLVec3F.create(i, -0.5f, 1f));
+        }
+
+        final ByteBuffer half = BufferWriter.allocate(3 * count * Short.BYTES + 2);
+
+        BufferWriter.writePacked(half, 2, vecs, 0, count, Packing.Format.HALF, BufferWriter.Layout.INTERLEAVED);
+
+        Assert.assertEquals(1024f, Packing.fromHalf(half.getShort(2 + 3 * 1024 * Short.BYTES)), 0f);
+        Assert.assertEquals(-0.5f, Packing.fromHalf(half.getShort(2 + 4 * Short.BYTES)), 0f);
+
+        final ByteBuffer bytes = BufferWriter.allocate(3 * count);
+        final GLVec<?>[] single = {GLVec3D.create(0.0, 0.5, 1.0), GLVec3F.create(1f, 0f, -1f)};
+
+        BufferWriter.writePacked(bytes, 0, vecs, 0, count, Packing.Format.SNORM8, BufferWriter.Layout.PLANAR);
+
+        Assert.assertEquals((byte) 127, bytes.get(count - 1));
+        Assert.assertEquals((byte) -64, bytes.get(count));
+        Assert.assertEquals((byte) 127, bytes.get(2 * count));
+
+        BufferWriter.writeVectorsPacked(bytes, 0, single, 0, 2, Packing.Format.UNORM8, BufferWriter.Layout.PLANAR);
+
+        Assert.assertEquals((byte) 0xFF, bytes.get(1));
+        Assert.assertEquals((byte) 0x80, bytes.get(2));
+        Assert.assertEquals((byte) 0, bytes.get(5));
+
+        final ByteBuffer normals = BufferWriter.allocate(count * Integer.BYTES);
+
+        BufferWriter.write1010102(normals, 0, vecs, 0, count, true);
+
+        Assert.assertEquals(Packing.toSnorm1010102(1f, -0.5f, 1f, 0f), normals.getInt((count - 1) * Integer.BYTES));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class SharedPoolFactoryTest {
+
+    @Test
+    public void testBorrow() {
+        final SharedPoolFactory factory = new SharedPoolFactory(1, 1);
+
+        Assert.assertFalse(factory.nextGLVec3D() instanceof MappedVec);
+
+        try (SharedPoolFactory.Lease lease = factory.borrow()) {
+            Assert.assertNotNull(lease);
+            Assert.assertTrue(factory.isBorrowed());
+            Assert.assertTrue(factory.nextGLVec3D() instanceof MappedVec);
+            Assert.assertTrue(factory.nextGLMat4F() instanceof MappedMat);
+        }
+
+        Assert.assertFalse(factory.isBorrowed());
+    }
+
+    @Test
+    public void testLeaseReused() {
+        final SharedPoolFactory factory = new SharedPoolFactory(1, 1);
+        final SharedPoolFactory.Lease first;
+
+        try (SharedPoolFactory.Lease lease = factory.borrow()) {
+            first = lease;
+
+            try (SharedPoolFactory.Lease inner = factory.borrow()) {
+                Assert.assertSame(lease, inner);
+            }
+
+            Assert.assertTrue(factory.isBorrowed());
+        }
+
+        try (SharedPoolFactory.Lease lease = factory.borrow()) {
+            Assert.assertSame(first, lease);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDoubleClose() {
+        final SharedPoolFactory factory = new SharedPoolFactory(1, 1);
+        final SharedPoolFactory.Lease lease = factory.borrow();
+
+        lease.close();
+        lease.close();
+    }
+
+    @Test
+    @SuppressWarnings("try") // the lease is only held for its scope
+    public void testManyThreads() throws InterruptedException {
+        final SharedPoolFactory factory = new SharedPoolFactory(2, 1);
+        final AtomicInteger failures = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < 64; i++) {
+            final double value = i;
+            final Thread thread = new Thread(() -> {
+                try (SharedPoolFactory.Lease lease = factory.borrow()) {
+                    final GLVec3D a = factory.nextGLVec3D().set(value, value, value);
+                    final GLVec3D b = a.plus(a);
+
+                    if (b.x() != 2.0 * value) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(0, failures.get());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class SparseMatrixTest {
+
+    private static final int SIZE = 40;
+
+    private final Random random = new Random(0x5EED);
+
+    // path graph Laplacian assembled one edge at a time, plus random couplings
+    private SparseMatrix laplacian(final int size, final SparseMatrix.Format format) {
+        final SparseMatrix.Builder builder = new SparseMatrix.Builder(size, size);
+
+        for (int v = 0; v + 1 < size; v++) {
+            builder.add(v, v, 1.0).add(v + 1, v + 1, 1.0);
+            builder.add(v, v + 1, -1.0).add(v + 1, v, -1.0);
+        }
+
+        for (int e = 0; e < size; e++) {
+            builder.add(this.random.nextInt(size), this.random.nextInt(size), this.random.nextDouble());
+        }
+
+        return builder.build(format);
+    }
+
+    private double[] random(final int length) {
+        final double[] out = new double[length];
+
+        for (int i = 0; i < length; i++) {
+            out[i] = this.random.nextDouble() - 0.5;
+        }
+
+        return out;
+    }
+
+    private static double[] values(final GLVecND vec) {
+        return Arrays.copyOfRange(vec.data(), vec.offset(), vec.offset() + vec.size());
+    }
+
+    @Test
+    public void testDense() {
+        final SparseMatrix csr = this.laplacian(SIZE, SparseMatrix.Format.CSR);
+        final SparseMatrix csc = csr.toFormat(SparseMatrix.Format.CSC);
+        final GLMatND dense = csr.toGLMatND().asStaticMat();
+        final double[] x = this.random(SIZE);
+        final double[] expected = values(dense.multiply(GLVecND.create(SIZE, x)));
+
+        Assert.assertEquals(SparseMatrix.Format.CSC, csc.getFormat());
+        Assert.assertEquals(csr.nonZeros(), csc.nonZeros());
+        Assert.assertArrayEquals(expected, values(csr.multiply(GLVecND.create(SIZE, x))), 1E-12);
+        Assert.assertArrayEquals(expected, values(csc.multiply(GLVecND.create(SIZE, x))), 1E-12);
+        Assert.assertArrayEquals(expected, values(SparseMatrix.fromDense(dense, SparseMatrix.Format.CSC).multiply(GLVecND.create(SIZE, x))), 1E-12);
+
+        final SparseMatrix back = SparseMatrix.fromDense(dense, SparseMatrix.Format.CSR);
+
+        Assert.assertEquals(csr.nonZeros(), back.nonZeros());
+
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                Assert.assertEquals(csr.get(r, c), back.get(r, c), 0.0);
+                Assert.assertEquals(csr.get(r, c), csc.get(r, c), 0.0);
+                Assert.assertEquals(csr.get(r, c), csr.transpose().get(c, r), 0.0);
+            }
+        }
+
+        Assert.assertEquals(0.0, SparseMatrix.fromDense(GLMatND.create(3).zero(), SparseMatrix.Format.CSR).nonZeros(), 0.0);
+    }
+
+    @Test
+    public void testRectangular() {
+        final SparseMatrix mat = SparseMatrix.create(
+                SparseMatrix.Format.CSR, 2, 3,
+                new int[]{0, 2, 3},
+                new int[]{0, 2, 1},
+                new double[]{1.0, 2.0, 3.0});
+        final double[] out = new double[3];
+
+        mat.multiply(out, 1, new double[]{1.0, 10.0, 100.0}, 0);
+        Assert.assertArrayEquals(new double[]{0.0, 201.0, 30.0}, out, 0.0);
+
+        final SparseMatrix t = mat.transpose();
+
+        Assert.assertEquals(3, t.rows());
+        Assert.assertEquals(2, t.columns());
+        Assert.assertArrayEquals(new double[]{1.0, 3.0, 2.0}, t.multiply(new double[3], 0, new double[]{1.0, 1.0}, 0), 0.0);
+        Assert.assertArrayEquals(new double[]{1.0, 3.0, 2.0}, t.toFormat(SparseMatrix.Format.CSR).multiply(new double[3], 0, new double[]{1.0, 1.0}, 0), 0.0);
+    }
+
+    @Test
+    public void testParallel() throws InterruptedException, ExecutionException {
+        final int size = 50000;
+        final double[] x = this.random(size);
+
+        for (SparseMatrix.Format format : SparseMatrix.Format.values()) {
+            final SparseMatrix mat = this.laplacian(size, format);
+            final double[] expected = mat.multiply(new double[size], 0, x, 0);
+
+            Assert.assertArrayEquals(expected, mat.multiplyParallel(new double[size], 0, x, 0).get(), 1E-12);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsorted() {
+        SparseMatrix.create(SparseMatrix.Format.CSC, 2, 2, new int[]{0, 2, 2}, new int[]{1, 0}, new double[]{1.0, 2.0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAlias() {
+        final double[] data = new double[SIZE + 1];
+
+        this.laplacian(SIZE, SparseMatrix.Format.CSR).multiply(data, 1, data, 0);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class VecArrayParallelTest {
+
+    private int chunkSize;
+
+    @Before
+    public void smallChunks() {
+        this.chunkSize = VectorArrays.getParallelChunkSize();
+        // force many uneven chunks
+        VectorArrays.setParallelChunkSize(37);
+    }
+
+    @After
+    public void restoreChunks() {
+        VectorArrays.setParallelChunkSize(this.chunkSize);
+    }
+
+    @Test
+    public void testParallel3D() throws InterruptedException, ExecutionException {
+        final Random random = new Random(5);
+        final GLVec3Array a = new GLVec3Array(1000);
+        final GLVec3Array b = new GLVec3Array(1000);
+
+        for (int i = 0; i < a.length; i++) {
+            a.x[i] = random.nextDouble();
+            a.y[i] = random.nextDouble();
+            a.z[i] = random.nextDouble();
+            b.x[i] = random.nextDouble();
+            b.y[i] = random.nextDouble();
+            b.z[i] = random.nextDouble();
+        }
+
+        Assert.assertArrayEquals(
+                GLVec3Array.normalize(null, 0, a, 0, a.length).x,
+                a.normalizeParallel(null).get().x, 0.0);
+        Assert.assertArrayEquals(
+                a.cross(null, b).z,
+                a.crossParallel(null, b).get().z, 0.0);
+        Assert.assertArrayEquals(
+                a.dot(null, b),
+                a.dotParallel(null, b).get(), 0.0);
+        Assert.assertArrayEquals(
+                a.apply(VectorArrays::arrayAddD, null, b).y,
+                a.applyParallel(VectorArrays::arrayAddD, null, b).get().y, 0.0);
+    }
+
+    @Test
+    public void testParallel4F() throws InterruptedException, ExecutionException {
+        final Random random = new Random(6);
+        final GLVec4FArray a = new GLVec4FArray(1000);
+
+        for (int i = 0; i < a.length; i++) {
+            a.set(i, GLVec4F.create(random.nextFloat(), random.nextFloat(), random.nextFloat(), random.nextFloat()));
+        }
+
+        final GLVec4FArray out = new GLVec4FArray(1010);
+
+        GLVec4FArray.normalizeParallel(out, 10, a, 0, a.length).get();
+
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertEquals(a.get(i).normalize(), out.get(i + 10));
+        }
+
+        Assert.assertArrayEquals(
+                a.length(null),
+                a.lengthParallel(null).get(), 0f);
+        Assert.assertArrayEquals(
+                a.scale(null, GLVec4F.create(1f, 2f, 3f, 4f)).w,
+                a.scaleParallel(null, GLVec4F.create(1f, 2f, 3f, 4f)).get().w, 0f);
+    }
+
+    @Test
+    public void testParallelCopiesConstant() throws InterruptedException, ExecutionException {
+        // large enough that the tasks are still running when vec changes
+        final GLVec3Array a = new GLVec3Array(100000);
+        final GLVec3D vec = GLVec3D.create(2.0, 3.0, 4.0);
+
+        for (int i = 0; i < a.length; i++) {
+            a.x[i] = i;
+            a.y[i] = i;
+            a.z[i] = i;
+        }
+
+        final Future<GLVec3Array> scaled = a.scaleParallel(null, vec);
+        final Future<GLVec3Array> added = a.addConstantParallel(null, vec);
+        final Future<GLVec3Array> set = GLVec3Array.setConstantParallel(null, 0, vec, a.length);
+
+        // the caller is free to reuse the vector once the call returns
+        vec.set(0.0, 0.0, 0.0);
+
+        final GLVec3Array scaledArr = scaled.get();
+        final GLVec3Array addedArr = added.get();
+        final GLVec3Array setArr = set.get();
+
+        for (int i = 0; i < a.length; i++) {
+            Assert.assertEquals(4.0 * i, scaledArr.z[i], 0.0);
+            Assert.assertEquals(i + 3.0, addedArr.y[i], 0.0);
+            Assert.assertEquals(2.0, setArr.x[i], 0.0);
+        }
+    }
+}
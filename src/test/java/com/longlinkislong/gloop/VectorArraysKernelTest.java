@@ -0,0 +1,132 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package com.longlinkislong.gloop;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ * @author zmichaels
+ */
+public class VectorArraysKernelTest {
+
+    // odd size and offsets so both the vector loop and the scalar tail run
+    private static final int COUNT = 67;
+    private static final int OFFSET = 3;
+
+    private static double[] randomD(final Random random) {
+        final double[] out = new double[COUNT + OFFSET];
+
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextDouble() + 0.5;
+        }
+
+        return out;
+    }
+
+    private static float[] randomF(final Random random) {
+        final float[] out = new float[COUNT + OFFSET];
+
+        for (int i = 0; i < out.length; i++) {
+            out[i] = random.nextFloat() + 0.5f;
+        }
+
+        return out;
+    }
+
+    @Test
+    public void testKernelsD() {
+        final Random random = new Random(0x5EED);
+        final double[] in0 = randomD(random);
+        final double[] in1 = randomD(random);
+        final double[] in2 = randomD(random);
+        final double[] out = new double[COUNT + OFFSET];
+
+        VectorArrays.arrayMultiplyAddD(out, OFFSET, in0, 1, in1, 2, in2, 0, COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(in0[1 + i] * in1[2 + i] + in2[i], out[OFFSET + i], 0.0);
+        }
+
+        VectorArrays.arrayInverseSqrtD(out, OFFSET, in0, 0, COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(1.0 / Math.sqrt(in0[i]), out[OFFSET + i], 0.0);
+        }
+
+        double sum = 0.0;
+
+        for (int i = 0; i < COUNT; i++) {
+            sum += in1[OFFSET + i];
+        }
+
+        Assert.assertEquals(sum, VectorArrays.arraySumD(in1, OFFSET, COUNT), 1e-9);
+    }
+
+    @Test
+    public void testKernelsF() {
+        final Random random = new Random(0x5EED);
+        final float[] in0 = randomF(random);
+        final float[] in1 = randomF(random);
+        final float[] out = new float[COUNT + OFFSET];
+
+        VectorArrays.arrayDivideF(out, 0, in0, OFFSET, in1, 1, COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(in0[OFFSET + i] / in1[1 + i], out[i], 0f);
+        }
+
+        VectorArrays.arrayScaleF(out, OFFSET, in0, 0, 0.75f, COUNT);
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(in0[i] * 0.75f, out[OFFSET + i], 0f);
+        }
+    }
+
+    @Test
+    public void testInverseSqrtFCnd() {
+        final Random random = new Random(0x5EED);
+        final int count = 4099;
+        final float[] in0 = new float[count];
+        final float[] out = new float[count];
+
+        for (int i = 0; i < count; i++) {
+            in0[i] = random.nextFloat() * 100f + 0.001f;
+        }
+
+        in0[0] = 2.5900002f;
+
+        VectorArrays.arrayInverseSqrtFCnd(out, 0, in0, 0, count, index -> index % 5 != 3);
+
+        for (int i = 0; i < count; i++) {
+            final float expected = i % 5 != 3 ? (float) (1.0 / Math.sqrt(in0[i])) : 0f;
+
+            Assert.assertEquals(expected, out[i], 0f);
+        }
+    }
+
+    @Test
+    public void testConditional() {
+        final Random random = new Random(0x5EED);
+        final double[] in0 = randomD(random);
+        final double[] in1 = randomD(random);
+        final double[] out = new double[COUNT + OFFSET];
+        final float[] outF = new float[COUNT];
+
+        VectorArrays.arraySubtractDCnd(out, OFFSET, in0, 0, in1, 0, COUNT, index -> index % 3 == 0);
+        VectorArrays.arraySetFCnd(outF, 0, 2f, COUNT, index -> (index & 1) == 1);
+
+        for (int i = 0; i < COUNT; i++) {
+            Assert.assertEquals(i % 3 == 0 ? in0[i] - in1[i] : 0.0, out[OFFSET + i], 0.0);
+            Assert.assertEquals((i & 1) == 1 ? 2f : 0f, outF[i], 0f);
+        }
+
+        // nothing outside [outOffset, outOffset + count) is touched
+        Assert.assertEquals(0.0, out[0], 0.0);
+    }
+}